@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.Javalin;
 import io.javalin.core.JavalinConfig;
 import io.javalin.plugin.json.JavalinJackson;
+import kraptis91.maritime.api.bootstrap.ReferenceDataBootstrap;
 import kraptis91.maritime.api.controller.CountryController;
 import kraptis91.maritime.api.controller.PortController;
 import kraptis91.maritime.api.controller.VesselController;
@@ -16,10 +17,17 @@ import kraptis91.maritime.api.enums.ServerConfig;
 public class Application {
 
     public static void main(String[] args) {
+        // load the reference data in parallel while the server starts, not on the first requests
+        final ReferenceDataBootstrap bootstrap = ReferenceDataBootstrap.createInstance();
+        bootstrap.start();
+
         Javalin app = Javalin.create(JavalinConfig::enableCorsForAllOrigins)
             .start(ServerConfig.INSTANCE.getPort());
 
         app.get("/", ctx -> ctx.result("Server Is Up and Running..."));
+        // 503 until the reference data is loaded
+        app.get("/ready", ctx -> ctx.status(bootstrap.isReady() ? 200 : 503)
+            .json(bootstrap.getReport()));
         app.get("/vessels", VesselController.getVessels);
         app.get("/vessels/types", VesselController.getShipTypes);
         app.get("/vessels/type/:type", VesselController.getPlainVesselsByShipType);
@@ -0,0 +1,149 @@
+package kraptis91.maritime.api.bootstrap;
+
+import kraptis91.maritime.api.enums.WorldPortIndex;
+import kraptis91.maritime.parser.enums.CountryCodeMap;
+import kraptis91.maritime.parser.enums.MMSICountryCode;
+import kraptis91.maritime.parser.enums.MMSICounter;
+import kraptis91.maritime.parser.enums.ShipTypes;
+import kraptis91.maritime.parser.enums.WorldPorts;
+import kraptis91.maritime.retriever.RetrieverFactory;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the reference data of the api (the parser enums and the db client) in parallel at startup,
+ * instead of serially on whichever request thread touches them first. The enums are read only
+ * once initialized, so the request threads share them without locking.
+ *
+ * <p>{@link #isReady()} turns true once every component is loaded, {@link #getReport()} has the
+ * load time of every component, or its error.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class ReferenceDataBootstrap {
+
+    public static final Logger LOGGER = Logger.getLogger(ReferenceDataBootstrap.class.getName());
+
+    /**
+     * The load time of a component, or the error that failed it.
+     */
+    public static class ComponentReport {
+
+        private final String name;
+        private final long loadMillis;
+        private final String error;
+
+        ComponentReport(String name, long loadMillis, String error) {
+            this.name = name;
+            this.loadMillis = loadMillis;
+            this.error = error;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final Map<String, Runnable> components = new LinkedHashMap<>();
+    private volatile List<ComponentReport> report = Collections.emptyList();
+    private volatile boolean ready;
+
+    /**
+     * @return A bootstrap of the reference data enums and the db client
+     */
+    public static ReferenceDataBootstrap createInstance() {
+        return new ReferenceDataBootstrap()
+            .register("CountryCodeMap", CountryCodeMap.INSTANCE::getCountryCodeMapDtoList)
+            .register("ShipTypes", ShipTypes.INSTANCE::getDistinctShipTypes)
+            .register("MMSICountryCode", () -> MMSICountryCode.INSTANCE.getCountryByMID(0))
+            .register("MMSICounter", MMSICounter.INSTANCE::getMaxMMSICounter)
+            .register("WorldPorts", WorldPorts.INSTANCE::getPortDtoList)
+            .register("WorldPortIndex", WorldPortIndex.INSTANCE::isAvailable)
+            .register("MongoDB", () -> RetrieverFactory.createMaritimeDataRetriever().connect());
+    }
+
+    /**
+     * @param name   The component name in the report
+     * @param loader Initializes the component, e.g. a call on an enum instance
+     */
+    public ReferenceDataBootstrap register(@NotNull String name, @NotNull Runnable loader) {
+        components.put(name, loader);
+        return this;
+    }
+
+    /**
+     * Load every component, each on its own thread.
+     *
+     * @return Completes with the report once every component is loaded or failed
+     */
+    public CompletableFuture<List<ComponentReport>> start() {
+
+        final AtomicInteger threadCounter = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(components.size(), 1),
+            runnable -> {
+                final Thread thread =
+                    new Thread(runnable, "bootstrap-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        final long start = System.nanoTime();
+        final List<CompletableFuture<ComponentReport>> futures = new ArrayList<>();
+        components.forEach((name, loader) -> futures.add(
+            CompletableFuture.supplyAsync(() -> load(name, loader), executor)));
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                final List<ComponentReport> reports = new ArrayList<>();
+                futures.forEach(future -> reports.add(future.join()));
+                report = Collections.unmodifiableList(reports);
+                ready = reports.stream().allMatch(r -> r.getError() == null);
+                LOGGER.info("Reference data " + (ready ? "loaded" : "failed") + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+                return report;
+            })
+            .whenComplete((reports, e) -> executor.shutdown());
+    }
+
+    private static ComponentReport load(String name, Runnable loader) {
+        final long start = System.nanoTime();
+        String error = null;
+        try {
+            loader.run();
+        } catch (RuntimeException | ExceptionInInitializerError e) {
+            LOGGER.log(Level.SEVERE, "Error... Loading " + name + " failed", e);
+            error = String.valueOf(e.getMessage());
+        }
+        final long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Loaded " + name + " in " + loadMillis + " ms");
+        return new ComponentReport(name, loadMillis, error);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<ComponentReport> getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,70 @@
+package kraptis91.maritime.api.enums;
+
+import kraptis91.maritime.model.ModelExtractor;
+import kraptis91.maritime.model.Port;
+import kraptis91.maritime.model.utils.GeoIndex;
+import kraptis91.maritime.parser.enums.CountryCode;
+import kraptis91.maritime.parser.enums.CountryCodeMap;
+import kraptis91.maritime.parser.enums.WorldPorts;
+
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The world ports in an in memory {@link GeoIndex}, with their country names, to answer the near
+ * port queries without a $near round trip to the db. The ports are shared by all the queries, do
+ * not modify them.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public enum WorldPortIndex {
+    INSTANCE;
+
+    public final Logger LOGGER = Logger.getLogger(WorldPortIndex.class.getName());
+    private final GeoIndex<Port> index;
+
+    WorldPortIndex() {
+        final List<Port> ports = WorldPorts.INSTANCE.getPortDtoList().stream()
+            .map(ModelExtractor::extractPort)
+            .peek(port -> port.setCountry(getCountryName(port.getCountry())))
+            .collect(Collectors.toList());
+
+        index = GeoIndex.createInstance(ports,
+            port -> port.getGeoPoint().lon(),
+            port -> port.getGeoPoint().lat());
+        LOGGER.info("Indexed " + index.size() + " world ports");
+    }
+
+    private static String getCountryName(String code) {
+        try {
+            final String name = CountryCodeMap.INSTANCE.getCountryNameByCode(CountryCode.valueOf(code));
+            return name == null ? code : name;
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return code;
+        }
+    }
+
+    /**
+     * @return false if the world ports failed to load, the queries should go to the db
+     */
+    public boolean isAvailable() {
+        return !index.isEmpty();
+    }
+
+    /**
+     * @see GeoIndex#withinDistance(double, double, double, double, int, int)
+     */
+    public List<Port> getNearPorts(double longitude, double latitude,
+                                   double maxDistance, double minDistance,
+                                   int skip, int limit) {
+        return index.withinDistance(longitude, latitude, maxDistance, minDistance, skip, limit);
+    }
+
+    /**
+     * @return The k ports nearest to the point, nearest first
+     */
+    public List<Port> getNearestPorts(double longitude, double latitude, int k) {
+        return index.nearest(longitude, latitude, k);
+    }
+}
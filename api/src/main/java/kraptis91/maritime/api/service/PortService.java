@@ -1,10 +1,14 @@
 package kraptis91.maritime.api.service;
 
+import kraptis91.maritime.api.enums.WorldPortIndex;
 import kraptis91.maritime.model.Port;
 import kraptis91.maritime.retriever.MaritimeDataRetriever;
 import kraptis91.maritime.retriever.RetrieverFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 30/12/2020.
@@ -24,13 +28,28 @@ public class PortService {
     public List<Port> getNearPortsByReferencePoint(double longitude, double latitude, double maxDistance,
                                                    int skip, int limit) {
 
+        // the in memory index, the db if the world ports are not available
+        if (WorldPortIndex.INSTANCE.isAvailable()) {
+            return WorldPortIndex.INSTANCE.getNearPorts(longitude, latitude, maxDistance, 0, skip, limit);
+        }
         MaritimeDataRetriever dataRetriever = RetrieverFactory.createMaritimeDataRetriever();
         return dataRetriever.getNearPortsByReferencePoint(longitude, latitude, maxDistance, 0, skip, limit);
     }
 
     public List<Port> getNearPortsByMMSI(int mmsi, double maxDistance, int skip, int limit) {
         MaritimeDataRetriever dataRetriever = RetrieverFactory.createMaritimeDataRetriever();
-        return dataRetriever.getNearPortsByMMSI(mmsi, maxDistance, skip, limit);
+        if (!WorldPortIndex.INSTANCE.isAvailable()) {
+            return dataRetriever.getNearPortsByMMSI(mmsi, maxDistance, skip, limit);
+        }
+
+        // the trajectory still comes from the db, the ports near every chunk from the index
+        final Set<Port> nearPortsSet = new HashSet<>();
+        dataRetriever.getVesselTrajectory(mmsi).forEach(chunk ->
+            nearPortsSet.addAll(WorldPortIndex.INSTANCE.getNearPorts(
+                chunk.getAvgGeoPoint().lon(),
+                chunk.getAvgGeoPoint().lat(),
+                maxDistance, 0, skip, limit)));
+        return new ArrayList<>(nearPortsSet);
     }
 
 }
@@ -0,0 +1,63 @@
+package kraptis91.maritime.api.bootstrap;
+
+import kraptis91.maritime.parser.enums.ShipTypes;
+import kraptis91.maritime.parser.enums.WorldPorts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class ReferenceDataBootstrapTest {
+
+    @Test
+    public void testComponentsLoadInParallel() throws Exception {
+
+        // both components wait for each other, they only complete if loaded concurrently
+        final CountDownLatch latch = new CountDownLatch(2);
+        final Runnable await = () -> {
+            latch.countDown();
+            try {
+                Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        final ReferenceDataBootstrap bootstrap = new ReferenceDataBootstrap()
+            .register("ShipTypes", () -> {
+                ShipTypes.INSTANCE.getDistinctShipTypes();
+                await.run();
+            })
+            .register("WorldPorts", () -> {
+                WorldPorts.INSTANCE.getPortDtoList();
+                await.run();
+            });
+        Assert.assertFalse(bootstrap.isReady());
+
+        final List<ReferenceDataBootstrap.ComponentReport> report =
+            bootstrap.start().get(30, TimeUnit.SECONDS);
+        report.forEach(r -> System.out.println(r.getName() + ": " + r.getLoadMillis() + " ms"));
+
+        Assert.assertTrue(bootstrap.isReady());
+        Assert.assertEquals(2, report.size());
+        Assert.assertEquals("ShipTypes", report.get(0).getName());
+        Assert.assertNull(report.get(1).getError());
+    }
+
+    @Test
+    public void testFailedComponentIsNotReady() throws Exception {
+
+        final ReferenceDataBootstrap bootstrap = new ReferenceDataBootstrap()
+            .register("Failing", () -> {
+                throw new IllegalStateException("unreachable");
+            });
+
+        final List<ReferenceDataBootstrap.ComponentReport> report =
+            bootstrap.start().get(30, TimeUnit.SECONDS);
+        Assert.assertFalse(bootstrap.isReady());
+        Assert.assertEquals("unreachable", report.get(0).getError());
+    }
+}
@@ -20,6 +20,15 @@ public class DaoFactory {
     return new MongoVesselTrajectoryChunkDao();
   }
 
+  /**
+   * @param appendToOpenChunks True to extend the open chunk of every vessel instead of inserting
+   *     new chunks
+   */
+  public static VesselTrajectoryChunkDao createMongoVesselTrajectoryChunkDao(
+      boolean appendToOpenChunks) {
+    return new MongoVesselTrajectoryChunkDao(appendToOpenChunks);
+  }
+
   public static PortDao createMongoPortDao() {
     return new MongoPortDao();
   }
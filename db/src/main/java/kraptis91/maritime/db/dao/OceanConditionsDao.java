@@ -1,5 +1,6 @@
 package kraptis91.maritime.db.dao;
 
+import kraptis91.maritime.db.dao.utils.WriteMetrics;
 import kraptis91.maritime.model.OceanConditions;
 
 import java.io.InputStream;
@@ -15,4 +16,9 @@ public interface OceanConditionsDao {
   }
 
   void insertMany(List<OceanConditions> oceanConditionsList);
+
+  /**
+   * @return The write stage counters of the csv inserts
+   */
+  WriteMetrics getWriteMetrics();
 }
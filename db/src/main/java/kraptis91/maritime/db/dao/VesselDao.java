@@ -2,8 +2,12 @@ package kraptis91.maritime.db.dao;
 
 import kraptis91.maritime.model.PlainVessel;
 import kraptis91.maritime.model.Vessel;
+import kraptis91.maritime.parser.utils.ParseMetrics;
+
+import org.bson.types.ObjectId;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -13,6 +17,15 @@ import java.util.Set;
  */
 public interface VesselDao {
 
+    /**
+     * Receives the identity of a vessel, its id, name and ship type.
+     */
+    @FunctionalInterface
+    interface VesselIdentityConsumer {
+
+        void accept(int mmsi, ObjectId id, String vesselName, String shipType);
+    }
+
     void insertMany(InputStream csvStream, int chunkSize) throws Exception;
 
     default void insertMany(InputStream is) throws Exception {
@@ -23,6 +36,11 @@ public interface VesselDao {
 
     void insertMany(List<Vessel> vesselList);
 
+    /**
+     * @return The accepted and rejected (per reason) csv line counters of the csv inserts
+     */
+    ParseMetrics getParseMetrics();
+
     default List<Vessel> findVessels() {
         return findVessels(0, 30);
     }
@@ -51,6 +69,14 @@ public interface VesselDao {
 
     Optional<Vessel> findVesselByMMSI(int mmsi);
 
+    /**
+     * Find the identity of the vessels, without decoding their voyages.
+     *
+     * @param mmsiList The vessels to find, null for every vessel
+     * @param consumer Receives the identity of every vessel found
+     */
+    void findVesselIdentities(Collection<Integer> mmsiList, VesselIdentityConsumer consumer);
+
     Optional<PlainVessel> findPlainVesselByMMSI(int mmsi);
 
     Optional<Vessel> findVesselByName(String vesselName);
@@ -1,11 +1,15 @@
 package kraptis91.maritime.db.dao;
 
 import kraptis91.maritime.db.dao.mongodb.query.utils.NearQueryOptions;
+import kraptis91.maritime.db.dao.utils.WriteMetrics;
 import kraptis91.maritime.model.PlainVessel;
 import kraptis91.maritime.model.VesselTrajectoryChunk;
 import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import kraptis91.maritime.parser.dto.csv.NariDynamicBatch;
+import kraptis91.maritime.parser.utils.ParseMetrics;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -13,14 +17,75 @@ import java.util.List;
  */
 public interface VesselTrajectoryChunkDao {
 
-    void insertMany(InputStream csvStream, int capacity) throws Exception;
+    /**
+     * Insert a nari dynamic csv stream, parsed into columnar batches.
+     *
+     * @param csvStream The csv stream
+     * @param capacity  The trajectory buffer capacity
+     * @param batchSize The number of lines parsed before they are handed to the trajectory buffer
+     */
+    void insertMany(InputStream csvStream, int capacity, int batchSize) throws Exception;
+
+    default void insertMany(InputStream csvStream, int capacity) throws Exception {
+        insertMany(csvStream, capacity, NariDynamicBatch.DEFAULT_CAPACITY);
+    }
 
     default void insertMany(InputStream is) throws Exception {
         insertMany(is, 15000);
     }
 
+    /**
+     * Insert a nari dynamic csv file, memory mapped and parsed in parallel segments.
+     *
+     * @param csvPath     The csv file
+     * @param capacity    The trajectory buffer capacity
+     * @param parallelism The number of parser threads
+     * @param batchSize   The number of lines of every columnar batch
+     */
+    void insertMany(Path csvPath, int capacity, int parallelism, int batchSize) throws Exception;
+
+    default void insertMany(Path csvPath, int capacity, int parallelism) throws Exception {
+        insertMany(csvPath, capacity, parallelism, NariDynamicBatch.DEFAULT_CAPACITY);
+    }
+
+    default void insertMany(Path csvPath, int capacity) throws Exception {
+        insertMany(csvPath, capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    default void insertMany(Path csvPath) throws Exception {
+        insertMany(csvPath, 15000);
+    }
+
+    /**
+     * Follow a growing nari dynamic csv file, or the csv files of a directory, inserting only the
+     * lines appended since the last checkpoint. Chunks still filling up are flushed every
+     * flushIntervalMillis, then the checkpoint is saved, so a point is stored at most about
+     * flushIntervalMillis after its line is complete. Blocks until the thread is interrupted.
+     *
+     * @param path                The csv file or directory
+     * @param checkpointPath      The file keeping the byte offset of every followed file
+     * @param capacity            The trajectory buffer capacity
+     * @param flushIntervalMillis The max time a point waits in the trajectory buffer
+     */
+    void follow(Path path, Path checkpointPath, int capacity, long flushIntervalMillis)
+        throws Exception;
+
+    default void follow(Path path, Path checkpointPath) throws Exception {
+        follow(path, checkpointPath, 15000, 5000);
+    }
+
     void insertMany(List<VesselTrajectoryPointListChunk> trajectoryPointListChunkList);
 
+    /**
+     * @return The accepted and rejected (per reason) csv line counters of the csv inserts
+     */
+    ParseMetrics getParseMetrics();
+
+    /**
+     * @return The write stage counters of the csv inserts, e.g. the time waited on the writers
+     */
+    WriteMetrics getWriteMetrics();
+
     List<VesselTrajectoryChunk> findVesselTrajectory(String vesselName);
 
     List<VesselTrajectoryChunk> findVesselTrajectory(int mmsi);
@@ -19,7 +19,10 @@ public interface DocumentBuilder {
             .append("nPoints", 1)
             .append("avgGeoPoint", new Document()
                 .append("coordinates", 2))
-            .append("avgSpeed", 1);
+            .append("avgSpeed", 1)
+            .append("bbox", 1)
+            .append("pathLength", 1)
+            .append("sealed", 1);
     }
 
     default Document createPlainVesselDocument() {
@@ -6,6 +6,7 @@ import kraptis91.maritime.model.VesselTrajectoryPoint;
 import kraptis91.maritime.model.Voyage;
 import org.bson.Document;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -16,7 +17,8 @@ public interface DocumentExtractor {
     default Document extractVesselTrajectoryPointDocument(VesselTrajectoryPoint point) {
         Document pointDoc = new Document();
         if (!Objects.isNull(point.getGeoPoint())) {
-            pointDoc.put("geoPoint", extractGeoPointDocument(point.getGeoPoint()));
+            // written by the GeoPointCodec of the registry
+            pointDoc.put("geoPoint", point.getGeoPoint());
         }
         pointDoc.put("speed", point.getSpeed());
         pointDoc.put("vesselId", point.getVesselId());
@@ -26,7 +28,7 @@ public interface DocumentExtractor {
 
     default Document extractGeoPointDocument(GeoPoint geoPoint) {
         Document geoPointDoc = new Document();
-        geoPointDoc.put("coordinates", geoPoint.getCoordinates());
+        geoPointDoc.put("coordinates", Arrays.asList(geoPoint.lon(), geoPoint.lat()));
         geoPointDoc.put("type", geoPoint.getType());
         return geoPointDoc;
     }
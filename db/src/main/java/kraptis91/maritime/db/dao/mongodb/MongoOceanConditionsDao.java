@@ -3,20 +3,18 @@ package kraptis91.maritime.db.dao.mongodb;
 import com.mongodb.client.MongoCollection;
 import jakarta.validation.constraints.NotEmpty;
 import kraptis91.maritime.db.dao.OceanConditionsDao;
+import kraptis91.maritime.db.dao.utils.BulkWriter;
+import kraptis91.maritime.db.dao.utils.WriteMetrics;
 import kraptis91.maritime.db.enums.MongoDB;
 import kraptis91.maritime.db.enums.MongoDBCollection;
 import kraptis91.maritime.model.OceanConditions;
-import kraptis91.maritime.parser.CSVParser;
 import kraptis91.maritime.parser.dto.csv.SeaStateForecastDto;
-import kraptis91.maritime.parser.exception.CSVParserException;
-import kraptis91.maritime.parser.utils.InputStreamUtils;
+import kraptis91.maritime.parser.source.CSVSource;
+import kraptis91.maritime.parser.utils.BatchCollectors;
 import kraptis91.maritime.model.ModelExtractor;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -28,6 +26,8 @@ public class MongoOceanConditionsDao implements OceanConditionsDao {
 
   public static final Logger LOGGER = Logger.getLogger(MongoOceanConditionsDao.class.getName());
 
+  private final WriteMetrics writeMetrics = new WriteMetrics();
+
   public static MongoCollection<OceanConditions> createOceanConditionsCollection() {
     return MongoDB.MARITIME
         .getDatabase()
@@ -40,58 +40,29 @@ public class MongoOceanConditionsDao implements OceanConditionsDao {
 
     //    LOGGER.info("Inserting " + csvStream.available() + " bytes to db.");
 
-    final BufferedReader bufferedReader =
-        new BufferedReader(
-            new InputStreamReader(InputStreamUtils.getBufferedInputStream(csvStream)));
-    final CSVParser parser = new CSVParser();
-    final List<OceanConditions> oceanConditionsList = new ArrayList<>(chunkSize);
-    int totalOceanConditions = 0;
-
-    //    LOGGER.info("Chunk size csvStream " + chunkSize + ".");
-
-    String line;
-    SeaStateForecastDto dto;
-    boolean isFirstLine = true;
-
-    while ((line = bufferedReader.readLine()) != null) {
-
-      // omit first line
-      if (isFirstLine) {
-        isFirstLine = false;
-        continue;
-      }
-
-      try {
-        // parse current line to the dto
-        dto = parser.extractSeaStateForecastDto(line);
-        // add to the list after model obj extraction
-        oceanConditionsList.add(ModelExtractor.extractOceanConditions(dto));
-
-        // when read chunkSize number of lines, insert data to mongoDB
-        if (oceanConditionsList.size() == chunkSize) {
-          //        LOGGER.info(oceanConditionsList.size() + " lines read, attempting to insert data
-          // to db.");
-          insertMany(oceanConditionsList);
-          // increase total ocean conditions counter
-          totalOceanConditions += oceanConditionsList.size();
-          // clear list
-          oceanConditionsList.clear();
-        }
-
-      } catch (CSVParserException e) {
-        // LOGGER.log(Level.WARNING, "Discarding corrupted line" + e.getMessage());
-      }
+    try (CSVSource<SeaStateForecastDto> source =
+            CSVSource.builder(parser -> parser::extractSeaStateForecastDto).of(csvStream);
+        BulkWriter<OceanConditions> writer =
+            BulkWriter.createInstance(
+                createOceanConditionsCollection(),
+                BulkWriter.DEFAULT_WRITERS,
+                BulkWriter.DEFAULT_QUEUE_CAPACITY,
+                writeMetrics)) {
+
+      // parse in parallel, every chunkSize ocean conditions are handed to the writers, the
+      // parser threads wait only while the writer queue is full
+      final long totalOceanConditions =
+          source
+              .parallelStream()
+              .map(ModelExtractor::extractOceanConditions)
+              .collect(BatchCollectors.batching(chunkSize, writer.toConsumer()));
+      writer.flush();
+
+      LOGGER.info("All lines inserted to db successfully.");
+      LOGGER.info("Total ocean conditions added to db: " + totalOceanConditions);
+      LOGGER.info("Corrupted lines discarded: " + source.getSkippedLines());
+      LOGGER.info("Ocean conditions written: " + writeMetrics);
     }
-    //    LOGGER.info(oceanConditionsList.size() + " lines left, attempting to insert data to db.");
-    // insert any data left
-    insertMany(oceanConditionsList);
-    // increase total ocean conditions counter
-    totalOceanConditions += oceanConditionsList.size();
-    // clear list
-    oceanConditionsList.clear();
-
-    LOGGER.info("All lines inserted to db successfully.");
-    LOGGER.info("Total ocean conditions added to db: " + totalOceanConditions);
   }
 
   @Override
@@ -101,4 +72,9 @@ public class MongoOceanConditionsDao implements OceanConditionsDao {
     collection.insertMany(list);
     //    LOGGER.info("Inserting data to db END.");
   }
+
+  @Override
+  public WriteMetrics getWriteMetrics() {
+    return writeMetrics;
+  }
 }
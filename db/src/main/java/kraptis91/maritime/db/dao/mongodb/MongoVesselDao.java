@@ -13,18 +13,18 @@ import kraptis91.maritime.parser.CSVParser;
 import kraptis91.maritime.parser.dto.csv.NariStaticDto;
 import kraptis91.maritime.parser.enums.MMSICountryCode;
 import kraptis91.maritime.parser.enums.ShipTypes;
-import kraptis91.maritime.parser.exception.CSVParserException;
-import kraptis91.maritime.parser.utils.InputStreamUtils;
+import kraptis91.maritime.parser.enums.ParseStatus;
+import kraptis91.maritime.parser.projection.CSVProjection;
+import kraptis91.maritime.parser.projection.NariStaticField;
+import kraptis91.maritime.parser.source.CSVSource;
+import kraptis91.maritime.parser.utils.ParseMetrics;
 import kraptis91.maritime.model.ModelExtractor;
 import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -34,6 +34,8 @@ public class MongoVesselDao implements VesselDao, DocumentBuilder {
 
     public static final Logger LOGGER = Logger.getLogger(MongoVesselDao.class.getName());
 
+    private final ParseMetrics parseMetrics = new ParseMetrics();
+
     public static MongoCollection<Vessel> createVesselCollection() {
         return MongoDB.MARITIME
             .getDatabase()
@@ -51,29 +53,30 @@ public class MongoVesselDao implements VesselDao, DocumentBuilder {
 
         LOGGER.info("Inserting " + csvStream.available() + " bytes to db.");
 
-        final BufferedReader bufferedReader =
-            new BufferedReader(
-                new InputStreamReader(InputStreamUtils.getBufferedInputStream(csvStream)));
-        final CSVParser parser = new CSVParser();
         final Map<Integer, Vessel> vesselMap = new LinkedHashMap<>(chunkSize);
 
         LOGGER.info("Chunk size csvStream " + chunkSize + ".");
 
-        String line;
-        NariStaticDto dto;
-        boolean isFirstLine = true;
-
-        while ((line = bufferedReader.readLine()) != null) {
-
-            // omit first line
-            if (isFirstLine) {
-                isFirstLine = false;
-                continue;
-            }
-
-            try {
-                // parse current line to the dto
-                dto = parser.extractNariStaticDto(line);
+        // the column projection is compiled from the header line, corrupted lines are only counted
+        try (CSVSource<NariStaticDto> source = CSVSource.builderWithHeader(
+            (parser, header) -> {
+                final CSVProjection<NariStaticField> projection = header == null
+                    ? CSVParser.NARI_STATIC_PROJECTION
+                    : CSVProjection.compileOrDefault(
+                        NariStaticField.class, header, NariStaticField.COLUMNS);
+                return line -> {
+                    final long start = System.nanoTime();
+                    final NariStaticDto dto = new NariStaticDto();
+                    final ParseStatus status = parser.tryExtractNariStaticDto(line, projection, dto);
+                    parseMetrics.recordParseTime(System.nanoTime() - start);
+                    parseMetrics.record(status);
+                    return status.isOk() ? dto : null;
+                };
+            })
+            .of(csvStream)) {
+
+            // lines are parsed in parallel, vessels are merged in file order
+            source.parallelStream().forEachOrdered(dto -> {
 
                 // System.out.println(dto);
                 // check to avoid duplicates
@@ -101,10 +104,7 @@ public class MongoVesselDao implements VesselDao, DocumentBuilder {
                     // exists and apply timestamp
 
                 }
-
-            } catch (CSVParserException e) {
-                LOGGER.log(Level.WARNING, "Discarding corrupted line " + e.getMessage());
-            }
+            });
         }
         // LOGGER.info(vesselSet.size() + " lines left, attempting to insert data to db.");
         // insert any data left
@@ -116,6 +116,7 @@ public class MongoVesselDao implements VesselDao, DocumentBuilder {
 
         LOGGER.info("All lines inserted to db successfully.");
         LOGGER.info("Total vessels added to db: " + totalVessels);
+        LOGGER.info("Lines parsed: " + parseMetrics);
     }
 
     @Override
@@ -134,6 +135,11 @@ public class MongoVesselDao implements VesselDao, DocumentBuilder {
         // LOGGER.info("Inserting data to db END.");
     }
 
+    @Override
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
     @Override
     public Optional<String> findObjectIdAsString(int mmsi) {
         return Optional.ofNullable(
@@ -170,6 +176,17 @@ public class MongoVesselDao implements VesselDao, DocumentBuilder {
             .find(Filters.eq("mmsi", mmsi)).first());
     }
 
+    @Override
+    public void findVesselIdentities(Collection<Integer> mmsiList, VesselIdentityConsumer consumer) {
+        createDocumentCollection()
+            .find(mmsiList == null ? new Document() : Filters.in("mmsi", mmsiList))
+            .projection(new Document().append("mmsi", 1)
+                .append("vesselName", 1)
+                .append("shipType", 1))
+            .forEach((Consumer<Document>) d -> consumer.accept(d.getInteger("mmsi"),
+                d.getObjectId("_id"), d.getString("vesselName"), d.getString("shipType")));
+    }
+
     @Override
     public Optional<PlainVessel> findPlainVesselByMMSI(int mmsi) {
         return Optional.ofNullable(
@@ -9,25 +9,40 @@ import com.mongodb.client.model.geojson.Point;
 import com.mongodb.client.model.geojson.Position;
 import kraptis91.maritime.db.dao.VesselTrajectoryChunkDao;
 import kraptis91.maritime.db.dao.mongodb.query.utils.NearQueryOptions;
+import kraptis91.maritime.db.dao.utils.BulkWriter;
 import kraptis91.maritime.db.dao.utils.VesselBuffer;
 import kraptis91.maritime.db.dao.utils.VesselTrajectoryBuffer;
+import kraptis91.maritime.db.dao.utils.WriteMetrics;
 import kraptis91.maritime.db.enums.MongoDB;
 import kraptis91.maritime.db.enums.MongoDBCollection;
-import kraptis91.maritime.db.exceptions.DataException;
 import kraptis91.maritime.model.*;
 import kraptis91.maritime.parser.CSVParser;
-import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
-import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.dto.csv.NariDynamicBatch;
+import kraptis91.maritime.parser.projection.CSVProjection;
+import kraptis91.maritime.parser.projection.NariDynamicField;
+import kraptis91.maritime.parser.utils.FileFollower;
+import kraptis91.maritime.parser.utils.FileSegment;
+import kraptis91.maritime.parser.utils.FileSegmentUtils;
 import kraptis91.maritime.parser.utils.InputStreamUtils;
+import kraptis91.maritime.parser.utils.OffsetCheckpoint;
+import kraptis91.maritime.parser.utils.ParseMetrics;
 import org.bson.Document;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,6 +54,25 @@ public class MongoVesselTrajectoryChunkDao implements VesselTrajectoryChunkDao,
     public static final Logger LOGGER =
         Logger.getLogger(MongoVesselTrajectoryChunkDao.class.getName());
 
+    // how long to wait for new lines when the followed files did not grow
+    private static final long FOLLOW_POLL_MILLIS = 500;
+
+    private final ParseMetrics parseMetrics = new ParseMetrics();
+    private final WriteMetrics writeMetrics = new WriteMetrics();
+    private final boolean appendToOpenChunks;
+
+    public MongoVesselTrajectoryChunkDao() {
+        this(false);
+    }
+
+    /**
+     * @param appendToOpenChunks True to extend the open chunk of every vessel, see {@link
+     *                           OpenChunkAppender}, false to insert new chunks
+     */
+    public MongoVesselTrajectoryChunkDao(boolean appendToOpenChunks) {
+        this.appendToOpenChunks = appendToOpenChunks;
+    }
+
     public static MongoCollection<VesselTrajectoryPointListChunk> createVesselTrajectoryCollection() {
         return MongoDB.MARITIME
             .getDatabase()
@@ -46,6 +80,14 @@ public class MongoVesselTrajectoryChunkDao implements VesselTrajectoryChunkDao,
                 MongoDBCollection.VESSEL_TRAJECTORY.getCollectionName(), VesselTrajectoryPointListChunk.class);
     }
 
+    public static MongoCollection<VesselTrajectoryPointListChunk> createVesselTrajectoryCorrectionCollection() {
+        return MongoDB.MARITIME
+            .getDatabase()
+            .getCollection(
+                MongoDBCollection.VESSEL_TRAJECTORY_CORRECTIONS.getCollectionName(),
+                VesselTrajectoryPointListChunk.class);
+    }
+
     public static MongoCollection<Document> createDocumentCollection() {
         return MongoDB.MARITIME
             .getDatabase()
@@ -54,58 +96,275 @@ public class MongoVesselTrajectoryChunkDao implements VesselTrajectoryChunkDao,
     }
 
     @Override
-    public void insertMany(InputStream csvStream, int capacity) throws Exception {
+    public void insertMany(InputStream csvStream, int capacity, int batchSize) throws Exception {
 
         LOGGER.info("Inserting " + csvStream.available() + " bytes to db.");
-        LOGGER.info("VesselTrajectoryBuffer capacity " + capacity + ".");
+        LOGGER.info("VesselTrajectoryBuffer capacity " + capacity + ", batch size " + batchSize + ".");
 
         final BufferedReader bufferedReader =
             new BufferedReader(
-                new InputStreamReader(InputStreamUtils.getBufferedInputStream(csvStream)));
+                new InputStreamReader(InputStreamUtils.getDecompressedInputStream(csvStream)));
 
         final CSVParser parser = new CSVParser();
         final VesselTrajectoryBuffer trajectoryBuffer = VesselTrajectoryBuffer.createInstance(capacity);
         final VesselBuffer vesselBuffer = VesselBuffer.createInstance();
+        // reused for every batch, the trajectory buffer copies the values
+        final NariDynamicBatch batch = NariDynamicBatch.createInstance(batchSize);
+
+        try (BulkWriter<VesselTrajectoryPointListChunk> writer = createChunkWriter()) {
+            String line;
+            CSVProjection<NariDynamicField> projection = CSVParser.NARI_DYNAMIC_PROJECTION;
+            boolean isFirstLine = true;
+            // the parse time of a batch, reading the lines included
+            long batchStart = System.nanoTime();
+
+            while ((line = bufferedReader.readLine()) != null) {
+
+                // compile the column projection from the header line
+                if (isFirstLine) {
+                    projection = CSVProjection.compileOrDefault(
+                        NariDynamicField.class, line, NariDynamicField.COLUMNS);
+                    isFirstLine = false;
+                    continue;
+                }
 
-        String line;
-        NariDynamicDto dto;
-        boolean isFirstLine = true;
+                // parse current line to the batch, corrupted lines are only counted
+                parseMetrics.record(
+                    parser.tryExtractNariDynamicRow(line, 0, line.length(), projection, batch));
 
-        while ((line = bufferedReader.readLine()) != null) {
+                if (batch.isFull()) {
+                    parseMetrics.recordParseTime(System.nanoTime() - batchStart);
+                    addPoints(batch, trajectoryBuffer, vesselBuffer, writer);
+                    batch.clear();
+                    batchStart = System.nanoTime();
+                }
+            }
 
-            // omit first line
-            if (isFirstLine) {
-                isFirstLine = false;
-                continue;
+            parseMetrics.recordParseTime(System.nanoTime() - batchStart);
+            addPoints(batch, trajectoryBuffer, vesselBuffer, writer);
+            flush(trajectoryBuffer, vesselBuffer, writer);
+        }
+
+        LOGGER.info("All lines inserted to db successfully.");
+        LOGGER.info("Lines parsed: " + parseMetrics);
+        LOGGER.info("Chunks written: " + writeMetrics);
+    }
+
+    @Override
+    public void insertMany(Path csvPath, int capacity, int parallelism, int batchSize) throws Exception {
+
+        if (InputStreamUtils.isCompressed(csvPath)) {
+            // a compressed file can not be mapped, stream it through the parallel decompression
+            try (InputStream csvStream = InputStreamUtils.getDecompressedInputStream(
+                Files.newInputStream(csvPath), parallelism)) {
+                insertMany(csvStream, capacity, batchSize);
             }
+            return;
+        }
 
-            try {
-                // parse current line to the dto
-                dto = parser.extractNariDynamicDto(line);
-                final Vessel vessel = vesselBuffer.getIfExistsOrGetFromDB(dto.getMMSI());
+        LOGGER.info("Inserting " + Files.size(csvPath) + " bytes to db.");
+        LOGGER.info("VesselTrajectoryBuffer capacity " + capacity + ", parallelism " + parallelism
+            + ", batch size " + batchSize + ".");
+
+        final VesselTrajectoryBuffer trajectoryBuffer = VesselTrajectoryBuffer.createInstance(capacity);
+        final VesselBuffer vesselBuffer = VesselBuffer.createInstance();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        final BulkWriter<VesselTrajectoryPointListChunk> writer = createChunkWriter();
+        // consumed batches are cleared and handed back to the parser threads
+        final Queue<NariDynamicBatch> batchPool = new ConcurrentLinkedQueue<>();
+        final Supplier<NariDynamicBatch> batchSupplier = () -> {
+            final NariDynamicBatch batch = batchPool.poll();
+            return batch != null ? batch : NariDynamicBatch.createInstance(batchSize);
+        };
+
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+
+            final CSVProjection<NariDynamicField> projection = CSVProjection.compileOrDefault(
+                NariDynamicField.class, FileSegmentUtils.readFirstLine(channel), NariDynamicField.COLUMNS);
+            final Iterator<FileSegment> segments = FileSegmentUtils
+                .splitAtNewLines(channel, FileSegmentUtils.DEFAULT_SEGMENT_SIZE)
+                .iterator();
+            // segments are parsed ahead in parallel but merged in file order,
+            // so the points of every mmsi reach the trajectory buffer in file order
+            final Deque<Future<List<NariDynamicBatch>>> parsedSegments = new ArrayDeque<>();
+
+            while (segments.hasNext() || !parsedSegments.isEmpty()) {
+
+                // keep a bounded number of segments in flight
+                while (segments.hasNext() && parsedSegments.size() < parallelism * 2) {
+                    final FileSegment segment = segments.next();
+                    parsedSegments.add(pool.submit(() -> new CSVParser()
+                        .extractNariDynamicBatchList(segment.map(channel), segment.isFirst(),
+                            projection, parseMetrics, batchSupplier)));
+                }
 
-                if (trajectoryBuffer.isCompletedListFull()) {
-                    insertMany(trajectoryBuffer.getCompletedChunkList());
-                    trajectoryBuffer.clearCompletedChunkList();
+                for (NariDynamicBatch batch : parsedSegments.poll().get()) {
+                    addPoints(batch, trajectoryBuffer, vesselBuffer, writer);
+                    batch.clear();
+                    batchPool.offer(batch);
                 }
+            }
+
+            flush(trajectoryBuffer, vesselBuffer, writer);
+
+        } finally {
+            pool.shutdownNow();
+            writer.close();
+        }
+
+        LOGGER.info("All lines inserted to db successfully.");
+        LOGGER.info("Lines parsed: " + parseMetrics);
+        LOGGER.info("Chunks written: " + writeMetrics);
+    }
+
+    @Override
+    public void follow(Path path, Path checkpointPath, int capacity, long flushIntervalMillis)
+        throws Exception {
+
+        LOGGER.info("Following " + path + ", checkpoint " + checkpointPath
+            + ", flush interval " + flushIntervalMillis + " ms.");
+
+        final FileFollower follower =
+            FileFollower.createInstance(path, OffsetCheckpoint.load(checkpointPath));
+        final CSVParser parser = new CSVParser();
+        final VesselTrajectoryBuffer trajectoryBuffer = VesselTrajectoryBuffer.createInstance(capacity);
+        final VesselBuffer vesselBuffer = VesselBuffer.createInstance();
+        // consumed batches are cleared and reused, the trajectory buffer copies the values
+        final Deque<NariDynamicBatch> batchPool = new ArrayDeque<>();
+        final Supplier<NariDynamicBatch> batchSupplier = () -> {
+            final NariDynamicBatch batch = batchPool.poll();
+            return batch != null ? batch : NariDynamicBatch.createInstance();
+        };
+        // the column projection of every followed file, compiled from its header
+        final Map<Path, CSVProjection<NariDynamicField>> projections = new HashMap<>();
+        final BulkWriter<VesselTrajectoryPointListChunk> writer = createChunkWriter();
+
+        final FileFollower.AppendedLinesConsumer consumer = (file, lines, fromStart) -> {
+            final CSVProjection<NariDynamicField> projection = projections.computeIfAbsent(file,
+                f -> CSVProjection.compileOrDefault(
+                    NariDynamicField.class, readHeader(f), NariDynamicField.COLUMNS));
+            for (NariDynamicBatch parsed : parser.extractNariDynamicBatchList(
+                lines, fromStart, projection, parseMetrics, batchSupplier)) {
+                addPoints(parsed, trajectoryBuffer, vesselBuffer, writer);
+                parsed.clear();
+                batchPool.offer(parsed);
+            }
+        };
+
+        long lastFlush = System.currentTimeMillis();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+
+                final long read = follower.poll(consumer);
 
-                trajectoryBuffer.addPoint(dto, vessel);
+                final long now = System.currentTimeMillis();
+                if (now - lastFlush >= flushIntervalMillis) {
+                    // everything read so far is stored, it is safe to move the checkpoint
+                    flush(trajectoryBuffer, vesselBuffer, writer);
+                    writer.flush();
+                    follower.commit();
+                    lastFlush = now;
+                }
 
-            } catch (CSVParserException e) {
-                // LOGGER.log(Level.WARNING, "Discarding corrupted line" + e.getMessage(), e);
-            } catch (DataException e) {
-                // LOGGER.log(Level.SEVERE, e.getMessage(), e);
+                if (read == 0) {
+                    Thread.sleep(Math.min(FOLLOW_POLL_MILLIS, flushIntervalMillis));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // an interrupt stops the follow, cleared to write the last points and checkpoint
+            final boolean interrupted = Thread.interrupted();
+            try {
+                flush(trajectoryBuffer, vesselBuffer, writer);
+                // written before the checkpoint moves
+                writer.close();
+                follower.commit();
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
             }
+            LOGGER.info("Stopped following " + path + ". Lines parsed: " + parseMetrics);
         }
+    }
+
+    private static String readHeader(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return FileSegmentUtils.readFirstLine(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    /**
+     * @return Writes the chunks on its own threads, while the ingest thread parses on
+     */
+    private BulkWriter<VesselTrajectoryPointListChunk> createChunkWriter() {
+        if (appendToOpenChunks) {
+            // a single writer, the appends of a batch depend on the former batches
+            return BulkWriter.createInstance(
+                OpenChunkAppender.createInstance(createVesselTrajectoryCollection()),
+                1, BulkWriter.DEFAULT_QUEUE_CAPACITY, writeMetrics,
+                MongoDBCollection.VESSEL_TRAJECTORY.getCollectionName());
+        }
+        return BulkWriter.createInstance(createVesselTrajectoryCollection(),
+            BulkWriter.DEFAULT_WRITERS, BulkWriter.DEFAULT_QUEUE_CAPACITY, writeMetrics);
+    }
+
+    private void addPoints(NariDynamicBatch batch,
+                           VesselTrajectoryBuffer trajectoryBuffer,
+                           VesselBuffer vesselBuffer,
+                           BulkWriter<VesselTrajectoryPointListChunk> writer)
+        throws InterruptedException {
+
+        trajectoryBuffer.addPoints(batch, vesselBuffer);
+
+        if (trajectoryBuffer.isCompletedListFull()) {
+            // a copy, the completed chunks are not changed anymore
+            writer.submit(trajectoryBuffer.getCompletedChunkList());
+            trajectoryBuffer.clearCompletedChunkList();
+        }
+    }
+
+    /**
+     * Submit every chunk of the buffer to the writer, the late chunks are written at once.
+     */
+    private void flush(VesselTrajectoryBuffer trajectoryBuffer,
+                       VesselBuffer vesselBuffer,
+                       BulkWriter<VesselTrajectoryPointListChunk> writer)
+        throws InterruptedException {
+        // the points waiting to be put in order go to their chunks first
+        trajectoryBuffer.drain();
         // add all completed chunks in db
-        insertMany(trajectoryBuffer.getCompletedChunkList());
+        final List<VesselTrajectoryPointListChunk> completedChunks =
+            trajectoryBuffer.getCompletedChunkList();
+        writer.submit(completedChunks);
         trajectoryBuffer.clearCompletedChunkList();
         // add all incompleted chunks in db
-        insertMany(trajectoryBuffer.getIncompletedChunkList());
+        final List<VesselTrajectoryPointListChunk> incompletedChunks =
+            trajectoryBuffer.getIncompletedChunkList();
+        // the next points of a vessel start new chunks, these are not changed anymore
+        writer.submit(incompletedChunks);
         trajectoryBuffer.clearIncompletedChunkMap();
-
-        LOGGER.info("All lines inserted to db successfully.");
+        // the late points apart, not to overlap the time ordered chunks
+        final List<VesselTrajectoryPointListChunk> lateChunks = trajectoryBuffer.getLateChunkList();
+        if (!lateChunks.isEmpty()) {
+            createVesselTrajectoryCorrectionCollection().insertMany(lateChunks);
+            LOGGER.info("Late points so far " + trajectoryBuffer.getLatePointCounter() + ".");
+        }
+        trajectoryBuffer.clearLateChunkList();
+        LOGGER.info(String.format("Duplicate points so far %d of %d (%.2f%%).",
+            trajectoryBuffer.getDuplicatePointCounter(), trajectoryBuffer.getPointCounter(),
+            trajectoryBuffer.getDuplicateRate() * 100));
+        final Runtime runtime = Runtime.getRuntime();
+        LOGGER.info(String.format("Buffers %d open vessels (%d evicted) of about %d MB,"
+                + " %d vessel ids (%d evicted) of about %d MB, heap used %d of %d MB.",
+            trajectoryBuffer.getOpenTrajectoryCounter(), trajectoryBuffer.getEvictedCounter(),
+            trajectoryBuffer.getOpenTrajectoryBytes() >> 20,
+            vesselBuffer.size(), vesselBuffer.getEvictedCounter(),
+            vesselBuffer.getEstimatedBytes() >> 20,
+            (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20));
     }
 
     public void insertOne(VesselTrajectoryPointListChunk trajectory) {
@@ -125,6 +384,16 @@ public class MongoVesselTrajectoryChunkDao implements VesselTrajectoryChunkDao,
         // LOGGER.info("Inserting data to db END.");
     }
 
+    @Override
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
+    @Override
+    public WriteMetrics getWriteMetrics() {
+        return writeMetrics;
+    }
+
     @Override
     public List<VesselTrajectoryChunk> findVesselTrajectory(String vesselName) {
         final List<VesselTrajectoryChunk> trajectoryPointList = new ArrayList<>();
@@ -0,0 +1,292 @@
+package kraptis91.maritime.db.dao.mongodb;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import kraptis91.maritime.db.dao.mongodb.codec.CompactPointEncoding;
+import kraptis91.maritime.db.dao.mongodb.codec.VesselTrajectoryPointListChunkCodec;
+import kraptis91.maritime.db.dao.utils.BulkWriter;
+import kraptis91.maritime.model.BoundingBox;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
+import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import kraptis91.maritime.model.utils.TrajectoryChunkUtils;
+import org.bson.BsonBinary;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the chunks of an ingest into the open, not sealed, chunk document of their vessel, so
+ * repeated ingests extend the chunks of the former ones instead of leaving a partial chunk per
+ * vessel and ingest.
+ *
+ * <p>The first chunk of a vessel in a batch is an upsert on the open chunk it can extend: the
+ * points are appended and the aggregates updated by an update pipeline, the open chunks it can not
+ * extend are sealed. A chunk can be extended if it ends before the new points and stays within the
+ * max points and the max time span with them. The next chunks of the vessel in the batch are
+ * inserted, every one but the last sealed, so a vessel has at most one open chunk.
+ *
+ * <p>With compact points, see {@link VesselTrajectoryPointListChunkCodec}, the upserted and the
+ * inserted chunks store their points as a binary payload. The points appended to a stored chunk
+ * are always point documents, an update pipeline can not extend the payload, so an extended chunk
+ * holds both and the codec reads them as one chunk.
+ *
+ * <p>The seals of a batch are written first, then its upserts and inserts, each step unordered. An
+ * extended chunk ends after the new points start, so the seal filter could match it if the seals
+ * ran after the upserts. The batches must be written in order, by a single writer thread.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class OpenChunkAppender implements BulkWriter.BatchWriter<VesselTrajectoryPointListChunk> {
+
+    private final MongoCollection<?> collection;
+    // the appended points are always point documents
+    private final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec();
+    private final VesselTrajectoryPointListChunkCodec insertCodec;
+    private final boolean compactPoints;
+    private final int maxPoints;
+    private final long maxTimeSpan;
+
+    private OpenChunkAppender(MongoCollection<?> collection, int maxPoints, long maxTimeSpan,
+                              boolean compactPoints) {
+        this.collection = collection;
+        this.maxPoints = maxPoints;
+        this.maxTimeSpan = maxTimeSpan;
+        this.compactPoints = compactPoints;
+        this.insertCodec = new VesselTrajectoryPointListChunkCodec(compactPoints);
+    }
+
+    /**
+     * @return Extends chunks up to the points and the time span of the default chunking policy,
+     * with compact points if the chunk codec of the collection writes them
+     */
+    public static OpenChunkAppender createInstance(@NotNull MongoCollection<?> collection) {
+        final Codec<VesselTrajectoryPointListChunk> chunkCodec =
+            collection.getCodecRegistry().get(VesselTrajectoryPointListChunk.class);
+        return createInstance(collection, TrajectoryChunkUtils.DEFAULT_CHUNK_CAPACITY,
+            TrajectoryChunkUtils.DEFAULT_CHUNK_TIME_SPAN,
+            chunkCodec instanceof VesselTrajectoryPointListChunkCodec
+                && ((VesselTrajectoryPointListChunkCodec) chunkCodec).isCompactPoints());
+    }
+
+    /**
+     * @param collection    The trajectory chunks
+     * @param maxPoints     The max points of an extended chunk
+     * @param maxTimeSpan   The max time span of an extended chunk, in seconds
+     * @param compactPoints True to store the points of new chunks as a binary payload
+     */
+    public static OpenChunkAppender createInstance(@NotNull MongoCollection<?> collection,
+                                                   int maxPoints,
+                                                   long maxTimeSpan,
+                                                   boolean compactPoints) {
+        if (maxPoints < 1 || maxTimeSpan < 0) {
+            throw new IllegalArgumentException("Error... Invalid max points " + maxPoints
+                + " or max time span " + maxTimeSpan);
+        }
+        return new OpenChunkAppender(collection, maxPoints, maxTimeSpan, compactPoints);
+    }
+
+    @Override
+    public void write(List<VesselTrajectoryPointListChunk> batch) {
+        final MongoCollection<BsonDocument> documents = collection.withDocumentClass(BsonDocument.class);
+        // the seals first, an extended chunk could match the seal filter after the upsert
+        final List<WriteModel<BsonDocument>> sealModels = createSealModels(batch);
+        if (!sealModels.isEmpty()) {
+            documents.bulkWrite(sealModels, new BulkWriteOptions().ordered(false));
+        }
+        documents.bulkWrite(createWriteModels(batch), new BulkWriteOptions().ordered(false));
+    }
+
+    /**
+     * @return The seals of the open chunks the chunks can not extend, written before the
+     * {@link #createWriteModels(List) upserts and inserts}
+     */
+    public List<WriteModel<BsonDocument>> createSealModels(List<VesselTrajectoryPointListChunk> batch) {
+        final List<WriteModel<BsonDocument>> sealModels = new ArrayList<>();
+
+        for (List<VesselTrajectoryPointListChunk> chunks : groupByVessel(batch).values()) {
+            final VesselTrajectoryPointListChunk chunk = chunks.get(0);
+            // the open chunks before these points that can not be extended, disjoint from the
+            // upsert on the stored chunks only
+            sealModels.add(new UpdateManyModel<>(
+                Filters.and(Filters.eq("mmsi", chunk.getMmsi()), Filters.eq("sealed", false),
+                    Filters.lt("startDate", chunk.getStartDate()),
+                    Filters.nor(createExtendableFilter(chunk))),
+                Updates.set("sealed", true)));
+        }
+
+        return sealModels;
+    }
+
+    /**
+     * @return The upserts and inserts of the chunks, written after the
+     * {@link #createSealModels(List) seals}
+     */
+    public List<WriteModel<BsonDocument>> createWriteModels(List<VesselTrajectoryPointListChunk> batch) {
+        final List<WriteModel<BsonDocument>> writeModels = new ArrayList<>();
+        final UpdateOptions upsert = new UpdateOptions().upsert(true);
+
+        for (List<VesselTrajectoryPointListChunk> chunks : groupByVessel(batch).values()) {
+            for (int i = 0; i < chunks.size(); i++) {
+                final VesselTrajectoryPointListChunk chunk = chunks.get(i);
+                // a later chunk of the vessel follows, this one is not extended anymore
+                final boolean sealed = chunk.isSealed() || i < chunks.size() - 1;
+
+                if (i > 0) {
+                    final BsonDocument document = encode(insertCodec, chunk);
+                    document.put("sealed", BsonBoolean.valueOf(sealed));
+                    writeModels.add(new InsertOneModel<>(document));
+                    continue;
+                }
+
+                final BsonDocument document = encode(codec, chunk);
+                document.put("sealed", BsonBoolean.valueOf(sealed));
+
+                writeModels.add(new UpdateOneModel<>(
+                    Filters.and(Filters.eq("mmsi", chunk.getMmsi()), Filters.eq("sealed", false),
+                        createExtendableFilter(chunk)),
+                    createAppendPipeline(document, chunk), upsert));
+            }
+        }
+
+        return writeModels;
+    }
+
+    /**
+     * @return key = mmsi, the chunks of a vessel in time order
+     */
+    private static Map<Integer, List<VesselTrajectoryPointListChunk>> groupByVessel(
+        List<VesselTrajectoryPointListChunk> batch) {
+
+        final Map<Integer, List<VesselTrajectoryPointListChunk>> chunkMap = new LinkedHashMap<>();
+        for (VesselTrajectoryPointListChunk chunk : batch) {
+            chunkMap.computeIfAbsent(chunk.getMmsi(), mmsi -> new ArrayList<>()).add(chunk);
+        }
+        for (List<VesselTrajectoryPointListChunk> chunks : chunkMap.values()) {
+            chunks.sort(Comparator.comparing(VesselTrajectoryPointListChunk::getStartDate));
+        }
+        return chunkMap;
+    }
+
+    private static BsonDocument encode(VesselTrajectoryPointListChunkCodec codec,
+                                       VesselTrajectoryPointListChunk chunk) {
+        final BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), chunk, EncoderContext.builder().build());
+        return document;
+    }
+
+    /**
+     * @return The stored chunk the points of the chunk can be appended to
+     */
+    private Bson createExtendableFilter(VesselTrajectoryPointListChunk chunk) {
+        // the dates hold the seconds of the timestamps, like the time span
+        return Filters.and(
+            Filters.lte("endDate", chunk.getStartDate()),
+            Filters.gte("startDate", new Date(chunk.getEndDate().getTime() - maxTimeSpan)),
+            Filters.lte("nPoints", maxPoints - chunk.getNumberOfPoints()));
+    }
+
+    /**
+     * @return Appends the points of the encoded chunk, or sets them on an upserted document. The
+     * expressions see the stored document as it was before the update.
+     */
+    private List<Bson> createAppendPipeline(BsonDocument document,
+                                            VesselTrajectoryPointListChunk chunk) {
+
+        final int n = chunk.getNumberOfPoints();
+        final Document appendedPoints = new Document("$concatArrays", Arrays.asList(
+            ifNull("$points", new ArrayList<>()),
+            new Document("$literal", document.getArray("points"))));
+        final byte[] compactBytes = compactPoints && chunk instanceof VesselTrajectoryColumnarChunk
+            ? CompactPointEncoding.encode(((VesselTrajectoryColumnarChunk) chunk).getColumns())
+            : null;
+
+        final Document set = new Document()
+            .append("mmsi", chunk.getMmsi())
+            .append("vesselName", new Document("$literal", chunk.getVesselName()))
+            .append("shipType", new Document("$literal", chunk.getShipType()))
+            .append("startDate", new Document("$min", Arrays.asList("$startDate", chunk.getStartDate())))
+            .append("endDate", new Document("$max", Arrays.asList("$endDate", chunk.getEndDate())))
+            .append("points", appendedPoints)
+            .append("nPoints", new Document("$add", Arrays.asList(ifNull("$nPoints", 0), n)))
+            .append("avgGeoPoint", new Document()
+                .append("coordinates", Arrays.asList(
+                    average(new Document("$arrayElemAt",
+                        Arrays.asList("$avgGeoPoint.coordinates", 0)), chunk.getAvgGeoPoint().lon(), n),
+                    average(new Document("$arrayElemAt",
+                        Arrays.asList("$avgGeoPoint.coordinates", 1)), chunk.getAvgGeoPoint().lat(), n)))
+                .append("type", chunk.getAvgGeoPoint().getType()))
+            .append("avgSpeed", average("$avgSpeed", chunk.getAvgSpeed(), n))
+            // the segment between the stored and the appended points is not measured
+            .append("pathLength", new Document("$add",
+                Arrays.asList(ifNull("$pathLength", 0), chunk.getPathLength())))
+            .append("sealed", document.getBoolean("sealed").getValue());
+
+        final BoundingBox boundingBox = chunk.getBoundingBox();
+        if (boundingBox != null) {
+            set.append("bbox", Arrays.asList(
+                bound("$min", 0, boundingBox.getMinLon()),
+                bound("$min", 1, boundingBox.getMinLat()),
+                bound("$max", 2, boundingBox.getMaxLon()),
+                bound("$max", 3, boundingBox.getMaxLat())));
+        }
+
+        if (compactBytes != null) {
+            // an upserted chunk, nothing stored yet, gets the payload instead of the documents
+            final Document upserted = new Document("$eq",
+                Arrays.asList(new Document("$type", "$nPoints"), "missing"));
+            set.append("points", new Document("$cond", Arrays.asList(upserted, "$$REMOVE", appendedPoints)))
+                .append("pointsBin", new Document("$cond",
+                    Arrays.asList(upserted, new BsonBinary(compactBytes), "$pointsBin")))
+                .append("vesselId", new Document("$cond", Arrays.asList(upserted,
+                    new Document("$literal", ((VesselTrajectoryColumnarChunk) chunk).getVesselId()),
+                    "$vesselId")));
+        }
+
+        return Arrays.asList(new Document("$set", set));
+    }
+
+    private static Document ifNull(Object expression, Object replacement) {
+        return new Document("$ifNull", Arrays.asList(expression, replacement));
+    }
+
+    /**
+     * @return The average of the stored and the appended points, weighted by their number
+     */
+    private static Document average(Object storedAverage, double average, int n) {
+        return new Document("$divide", Arrays.asList(
+            new Document("$add", Arrays.asList(
+                new Document("$multiply", Arrays.asList(
+                    ifNull(storedAverage, 0), ifNull("$nPoints", 0))),
+                average * n)),
+            new Document("$add", Arrays.asList(ifNull("$nPoints", 0), n))));
+    }
+
+    /**
+     * @return The min or max of a stored bounding box bound and the appended one, a missing
+     * bound is ignored
+     */
+    private static Document bound(String operator, int index, double value) {
+        return new Document(operator,
+            Arrays.asList(new Document("$arrayElemAt", Arrays.asList("$bbox", index)), value));
+    }
+}
@@ -0,0 +1,247 @@
+package kraptis91.maritime.db.dao.mongodb.codec;
+
+import kraptis91.maritime.model.TrajectoryPointColumns;
+import org.bson.BsonInvalidOperationException;
+
+import java.util.Arrays;
+
+/**
+ * The points of a chunk as a single binary payload, instead of a sub document per point.
+ *
+ * <p>Version 1, after the version byte and the number of points as varint, the columns one after
+ * the other, every value a zigzag varint:
+ * <ul>
+ *     <li>t, the first timestamp, the first delta, then the deltas of the deltas</li>
+ *     <li>lon, lat and speed, a byte with the decimals of the column, the first value then the
+ *     deltas, in fixed point with those decimals</li>
+ * </ul>
+ *
+ * <p>The decimals of a column are the fewest that give back every value of it exactly, the
+ * encoding is lossless. Columns with more than {@link #MAX_DECIMALS} decimals are not encoded.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class CompactPointEncoding {
+
+    public static final byte VERSION = 1;
+    /** The decimals of the ais positions, tried first. */
+    public static final int DEFAULT_COORDINATE_DECIMALS = 7;
+    /** The decimals of the ais speed, tried first. */
+    public static final int DEFAULT_SPEED_DECIMALS = 1;
+    public static final int MAX_DECIMALS = 9;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_DECIMALS + 1];
+
+    static {
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POWERS_OF_TEN[i] = Math.pow(10, i);
+        }
+    }
+
+    private CompactPointEncoding() {
+    }
+
+    /**
+     * @return The payload, null if a column has more than {@link #MAX_DECIMALS} decimals
+     */
+    public static byte[] encode(TrajectoryPointColumns columns) {
+
+        final int n = columns.size();
+        final double[] lon = new double[n];
+        final double[] lat = new double[n];
+        final double[] speed = new double[n];
+        for (int i = 0; i < n; i++) {
+            lon[i] = columns.getLon(i);
+            lat[i] = columns.getLat(i);
+            speed[i] = columns.getSpeed(i);
+        }
+        final int lonDecimals = findDecimals(lon, DEFAULT_COORDINATE_DECIMALS);
+        final int latDecimals = findDecimals(lat, DEFAULT_COORDINATE_DECIMALS);
+        final int speedDecimals = findDecimals(speed, DEFAULT_SPEED_DECIMALS);
+        if (lonDecimals < 0 || latDecimals < 0 || speedDecimals < 0) {
+            return null;
+        }
+
+        final ByteWriter writer = new ByteWriter(16 + n * 8);
+        writer.writeByte(VERSION);
+        writer.writeVarint(n);
+
+        long lastT = 0;
+        long lastDelta = 0;
+        for (int i = 0; i < n; i++) {
+            final long t = columns.getT(i);
+            final long delta = t - lastT;
+            // the first timestamp, the first delta, then the change of the delta
+            writer.writeZigzag(i < 2 ? delta : delta - lastDelta);
+            lastDelta = i == 0 ? 0 : delta;
+            lastT = t;
+        }
+
+        writeColumn(writer, lon, lonDecimals);
+        writeColumn(writer, lat, latDecimals);
+        writeColumn(writer, speed, speedDecimals);
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Add the points of the payload to the columns.
+     *
+     * @throws BsonInvalidOperationException If the payload is not of a known version
+     */
+    public static void decode(byte[] bytes, TrajectoryPointColumns columns) {
+
+        final ByteReader reader = new ByteReader(bytes);
+        final byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new BsonInvalidOperationException("Error... Unknown points encoding version " + version);
+        }
+        final int n = (int) reader.readVarint();
+
+        final long[] t = new long[n];
+        long lastT = 0;
+        long lastDelta = 0;
+        for (int i = 0; i < n; i++) {
+            final long value = reader.readZigzag();
+            final long delta = i < 2 ? value : lastDelta + value;
+            t[i] = lastT + delta;
+            lastDelta = i == 0 ? 0 : delta;
+            lastT = t[i];
+        }
+
+        final double[] lon = readColumn(reader, n);
+        final double[] lat = readColumn(reader, n);
+        final double[] speed = readColumn(reader, n);
+
+        for (int i = 0; i < n; i++) {
+            columns.add(lon[i], lat[i], speed[i], t[i]);
+        }
+    }
+
+    /**
+     * @return The fewest decimals from the given ones up that give back every value, -1 if none
+     */
+    private static int findDecimals(double[] values, int decimals) {
+        int i = 0;
+        while (i < values.length) {
+            if (decimals > MAX_DECIMALS) {
+                return -1;
+            }
+            final double scale = POWERS_OF_TEN[decimals];
+            if (Double.compare(Math.round(values[i] * scale) / scale, values[i]) == 0) {
+                i++;
+            } else {
+                // start over with one more decimal, the former values fit too
+                decimals++;
+            }
+        }
+        // fewer decimals for columns that do not need the defaults, e.g. integer speeds
+        while (decimals > 0 && fits(values, decimals - 1)) {
+            decimals--;
+        }
+        return decimals;
+    }
+
+    private static boolean fits(double[] values, int decimals) {
+        final double scale = POWERS_OF_TEN[decimals];
+        for (double value : values) {
+            if (Double.compare(Math.round(value * scale) / scale, value) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeColumn(ByteWriter writer, double[] values, int decimals) {
+        writer.writeByte((byte) decimals);
+        final double scale = POWERS_OF_TEN[decimals];
+        long last = 0;
+        for (double value : values) {
+            final long fixed = Math.round(value * scale);
+            writer.writeZigzag(fixed - last);
+            last = fixed;
+        }
+    }
+
+    private static double[] readColumn(ByteReader reader, int n) {
+        final int decimals = reader.readByte();
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new BsonInvalidOperationException("Error... Invalid points column decimals " + decimals);
+        }
+        final double scale = POWERS_OF_TEN[decimals];
+        final double[] values = new double[n];
+        long last = 0;
+        for (int i = 0; i < n; i++) {
+            last += reader.readZigzag();
+            values[i] = last / scale;
+        }
+        return values;
+    }
+
+    private static class ByteWriter {
+
+        private byte[] bytes;
+        private int size;
+
+        ByteWriter(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeByte(byte value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = value;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((byte) value);
+        }
+
+        void writeZigzag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static class ByteReader {
+
+        private final byte[] bytes;
+        private int position;
+
+        ByteReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            if (position == bytes.length) {
+                throw new BsonInvalidOperationException("Error... Truncated points encoding");
+            }
+            return bytes[position++];
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new BsonInvalidOperationException("Error... Invalid varint in points encoding");
+        }
+
+        long readZigzag() {
+            final long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package kraptis91.maritime.db.dao.mongodb.codec;
+
+import com.mongodb.MongoClient;
+import kraptis91.maritime.model.GeoPoint;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Writes a {@link GeoPoint} as the GeoJson document {coordinates: [lon, lat], type: "Point"},
+ * byte for byte the former coordinates list and type document, straight from the two doubles.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoPointCodec implements Codec<GeoPoint> {
+
+    /** The driver default codecs plus this one, for the documents of the model codecs. */
+    public static final CodecRegistry DEFAULT_REGISTRY = CodecRegistries.fromRegistries(
+        CodecRegistries.fromCodecs(new GeoPointCodec()),
+        MongoClient.getDefaultCodecRegistry());
+
+    @Override
+    public GeoPoint decode(BsonReader reader, DecoderContext decoderContext) {
+        double longitude = Double.NaN;
+        double latitude = Double.NaN;
+        boolean hasCoordinates = false;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if ("coordinates".equals(reader.readName())) {
+                reader.readStartArray();
+                reader.readBsonType();
+                longitude = readNumber(reader);
+                reader.readBsonType();
+                latitude = readNumber(reader);
+                reader.readEndArray();
+                hasCoordinates = true;
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        if (!hasCoordinates) {
+            throw new BsonInvalidOperationException("Error... GeoJson point without coordinates");
+        }
+        return GeoPoint.of(longitude, latitude);
+    }
+
+    private static double readNumber(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case DOUBLE:
+                return reader.readDouble();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            default:
+                throw new BsonInvalidOperationException(
+                    "Error... Invalid GeoJson coordinate of type " + reader.getCurrentBsonType());
+        }
+    }
+
+    @Override
+    public void encode(BsonWriter writer, GeoPoint point, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeStartArray("coordinates");
+        writer.writeDouble(point.lon());
+        writer.writeDouble(point.lat());
+        writer.writeEndArray();
+        writer.writeString("type", point.getType());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<GeoPoint> getEncoderClass() {
+        return GeoPoint.class;
+    }
+}
@@ -23,7 +23,7 @@ public class PortCodec implements Codec<Port>, DocumentExtractor {
     private final Codec<Document> documentCodec;
 
     public PortCodec() {
-        documentCodec = new DocumentCodec();
+        documentCodec = new DocumentCodec(GeoPointCodec.DEFAULT_REGISTRY);
     }
 
     public PortCodec(Codec<Document> codec) {
@@ -56,7 +56,7 @@ public class PortCodec implements Codec<Port>, DocumentExtractor {
 
     private void putGeoDocIfValueNotNull(String key, GeoPoint value, Document document) {
         if (!Objects.isNull(value)) {
-            document.put(key, extractGeoPointDocument(value));
+            document.put(key, value);
         }
     }
 
@@ -1,90 +1,326 @@
 package kraptis91.maritime.db.dao.mongodb.codec;
 
 import kraptis91.maritime.db.dao.mongodb.DocumentExtractor;
+import kraptis91.maritime.model.BoundingBox;
+import kraptis91.maritime.model.GeoPoint;
 import kraptis91.maritime.model.ModelExtractor;
+import kraptis91.maritime.model.TrajectoryPointColumns;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
+import kraptis91.maritime.model.VesselTrajectoryPoint;
 import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import kraptis91.maritime.model.enums.GeoJsonType;
+import org.bson.BsonBinary;
 import org.bson.BsonReader;
+import org.bson.BsonType;
 import org.bson.BsonWriter;
 import org.bson.Document;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
 import org.bson.codecs.Codec;
 import org.bson.codecs.DecoderContext;
 import org.bson.codecs.DocumentCodec;
 import org.bson.codecs.EncoderContext;
 import org.bson.types.ObjectId;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
+ * Writes the points of a chunk as the array of point documents, or with compact points as a
+ * {@link CompactPointEncoding} payload in "pointsBin" and the vessel id once in "vesselId". Reads
+ * both, also in the same document, the binary points first.
+ *
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 15/12/2020.
  */
 public class VesselTrajectoryPointListChunkCodec implements Codec<VesselTrajectoryPointListChunk>, DocumentExtractor {
 
     private final Codec<Document> documentCodec;
+    private final GeoPointCodec geoPointCodec = new GeoPointCodec();
+    private final BsonTypeCodecMap valueCodecs =
+        new BsonTypeCodecMap(new BsonTypeClassMap(), GeoPointCodec.DEFAULT_REGISTRY);
+    private final boolean compactPoints;
 
     public VesselTrajectoryPointListChunkCodec() {
-        documentCodec = new DocumentCodec();
+        this(false);
+    }
+
+    /**
+     * @param compactPoints True to write the points of the columnar chunks as a binary payload
+     */
+    public VesselTrajectoryPointListChunkCodec(boolean compactPoints) {
+        documentCodec = new DocumentCodec(GeoPointCodec.DEFAULT_REGISTRY);
+        this.compactPoints = compactPoints;
     }
 
     public VesselTrajectoryPointListChunkCodec(Codec<Document> codec) {
         documentCodec = codec;
+        compactPoints = false;
     }
 
+    /**
+     * @return True if the points of the columnar chunks are written as a binary payload
+     */
+    public boolean isCompactPoints() {
+        return compactPoints;
+    }
+
+    /**
+     * Decodes to a {@link VesselTrajectoryColumnarChunk}, or to a point list chunk if the points
+     * are of more than one vessel or without coordinates.
+     */
     @Override
     public VesselTrajectoryPointListChunk decode(BsonReader reader, DecoderContext decoderContext) {
 
-        Document document = documentCodec.decode(reader, decoderContext);
+        // the chunk fields to a document, the points straight to the columns, a document per
+        // point would box every value
+        final Document document = new Document();
+        final TrajectoryPointColumns columns = new TrajectoryPointColumns();
+        final PointFields point = new PointFields();
+        String vesselId = null;
+        List<VesselTrajectoryPoint> pointList = null;
 
-        VesselTrajectoryPointListChunk trajectory = ModelExtractor.extractVesselTrajectoryPointListChunk(document);
-        List<Document> pointDocs = document.getList("points", Document.class);
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            if ("pointsBin".equals(name)) {
+                // the vessel id of these points is the vessel id of the chunk
+                final TrajectoryPointColumns binaryColumns =
+                    pointList == null ? columns : new TrajectoryPointColumns();
+                CompactPointEncoding.decode(reader.readBinaryData().getData(), binaryColumns);
+                if (pointList != null) {
+                    pointList.addAll(toPointList(binaryColumns, vesselId));
+                }
+            } else if ("vesselId".equals(name)) {
+                vesselId = ModelExtractor.extractVesselId(readValue(reader, decoderContext));
+            } else if ("points".equals(name)) {
+                reader.readStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    decodePoint(reader, decoderContext, point);
 
-        trajectory
-            .getPointList()
-            .addAll(
-                pointDocs.stream()
-                    .map(ModelExtractor::extractVesselTrajectoryPoint)
-                    .collect(Collectors.toList()));
+                    if (pointList == null && point.hasGeoPoint
+                        && (columns.isEmpty() || Objects.equals(vesselId, point.vesselId))) {
+                        vesselId = point.vesselId;
+                        columns.add(point.lon, point.lat, point.speed, point.t);
+                        continue;
+                    }
+                    if (pointList == null) {
+                        pointList = toPointList(columns, vesselId);
+                    }
+                    pointList.add(point.toPoint());
+                }
+                reader.readEndArray();
+            } else {
+                document.put(name, readValue(reader, decoderContext));
+            }
+        }
+        reader.readEndDocument();
 
+        if (pointList == null) {
+            return ModelExtractor.extractVesselTrajectoryColumnarChunk(document, vesselId, columns);
+        }
+        VesselTrajectoryPointListChunk trajectory = ModelExtractor.extractVesselTrajectoryPointListChunk(document);
+        trajectory.getPointList().addAll(pointList);
         return trajectory;
     }
 
+    private static List<VesselTrajectoryPoint> toPointList(TrajectoryPointColumns columns,
+                                                           String vesselId) {
+        final List<VesselTrajectoryPoint> pointList = new ArrayList<>(columns.size() + 1);
+        for (int i = 0; i < columns.size(); i++) {
+            pointList.add(VesselTrajectoryPoint.builder()
+                .withCoordinates(GeoPoint.of(columns.getLon(i), columns.getLat(i)))
+                .withSpeed(columns.getSpeed(i))
+                .withTimestamp(columns.getT(i))
+                .withVesselId(vesselId)
+                .build());
+        }
+        return pointList;
+    }
+
+    private Object readValue(BsonReader reader, DecoderContext decoderContext) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        if (reader.getCurrentBsonType() == BsonType.DOCUMENT) {
+            return documentCodec.decode(reader, decoderContext);
+        }
+        return valueCodecs.get(reader.getCurrentBsonType()).decode(reader, decoderContext);
+    }
+
+    /**
+     * The fields of the last decoded point, reused for every point.
+     */
+    private static class PointFields {
+
+        private boolean hasGeoPoint;
+        private double lon;
+        private double lat;
+        private double speed;
+        private long t;
+        private String vesselId;
+
+        private VesselTrajectoryPoint toPoint() {
+            return VesselTrajectoryPoint.builder()
+                .withCoordinates(hasGeoPoint ? GeoPoint.of(lon, lat) : null)
+                .withSpeed(speed)
+                .withTimestamp(t)
+                .withVesselId(vesselId)
+                .build();
+        }
+    }
+
+    private void decodePoint(BsonReader reader, DecoderContext decoderContext, PointFields point) {
+        point.hasGeoPoint = false;
+        point.speed = 0;
+        point.t = 0;
+        point.vesselId = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "geoPoint":
+                    final GeoPoint geoPoint = geoPointCodec.decode(reader, decoderContext);
+                    point.hasGeoPoint = true;
+                    point.lon = geoPoint.lon();
+                    point.lat = geoPoint.lat();
+                    break;
+                case "speed":
+                    point.speed = ((Number) readValue(reader, decoderContext)).doubleValue();
+                    break;
+                case "timestamp":
+                    point.t = ((Number) readValue(reader, decoderContext)).longValue();
+                    break;
+                case "vesselId":
+                    point.vesselId = ModelExtractor.extractVesselId(readValue(reader, decoderContext));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+    }
+
     @Override
     public void encode(
         BsonWriter writer, VesselTrajectoryPointListChunk trajectory, EncoderContext encoderContext) {
 
-        final Document document = new Document();
-        document.put("_id", new ObjectId());
+        // the same fields and order as the former document, written without a document per point
+        writer.writeStartDocument();
+        writer.writeObjectId("_id", new ObjectId());
 
-        document.put("mmsi", trajectory.getMmsi());
+        writer.writeInt32("mmsi", trajectory.getMmsi());
 
         if (!Objects.isNull(trajectory.getVesselName())) {
-            document.put("vesselName", trajectory.getVesselName());
+            writer.writeString("vesselName", trajectory.getVesselName());
         }
 
         if (!Objects.isNull(trajectory.getShipType())) {
-            document.put("shipType", trajectory.getShipType());
+            writer.writeString("shipType", trajectory.getShipType());
         }
 
         if (!Objects.isNull(trajectory.getStartDate())) {
-            document.put("startDate", trajectory.getStartDate());
+            writer.writeDateTime("startDate", trajectory.getStartDate().getTime());
         }
 
         if (!Objects.isNull(trajectory.getEndDate())) {
-            document.put("endDate", trajectory.getEndDate());
+            writer.writeDateTime("endDate", trajectory.getEndDate().getTime());
         }
 
-        List<Document> pointList =
-            trajectory.getPointList().stream()
-                .map(this::extractVesselTrajectoryPointDocument)
-                .collect(Collectors.toList());
+        final byte[] compactBytes = compactPoints && trajectory instanceof VesselTrajectoryColumnarChunk
+            ? CompactPointEncoding.encode(((VesselTrajectoryColumnarChunk) trajectory).getColumns())
+            : null;
 
-        document.put("points", pointList);
-        document.put("nPoints", trajectory.getNumberOfPoints());
-        document.put("avgGeoPoint", extractGeoPointDocument(trajectory.getAvgGeoPoint()));
-        document.put("avgSpeed", trajectory.getAvgSpeed());
+        if (compactBytes != null) {
+            writer.writeBinaryData("pointsBin", new BsonBinary(compactBytes));
+            final String vesselId = ((VesselTrajectoryColumnarChunk) trajectory).getVesselId();
+            if (Objects.isNull(vesselId)) {
+                writer.writeNull("vesselId");
+            } else {
+                writer.writeString("vesselId", vesselId);
+            }
+        } else {
+            // also the columns with more decimals than the compact points keep
+            writer.writeStartArray("points");
+            if (trajectory instanceof VesselTrajectoryColumnarChunk) {
+                encodePoints(writer, (VesselTrajectoryColumnarChunk) trajectory);
+            } else {
+                for (VesselTrajectoryPoint point : trajectory.getPointList()) {
+                    encodePoint(writer, point, encoderContext);
+                }
+            }
+            writer.writeEndArray();
+        }
+
+        writer.writeInt32("nPoints", trajectory.getNumberOfPoints());
+        writer.writeName("avgGeoPoint");
+        if (Objects.isNull(trajectory.getAvgGeoPoint())) {
+            writer.writeNull();
+        } else {
+            geoPointCodec.encode(writer, trajectory.getAvgGeoPoint(), encoderContext);
+        }
+        writer.writeDouble("avgSpeed", trajectory.getAvgSpeed());
 
-        documentCodec.encode(writer, document, encoderContext);
+        // the stats of the chunk, for queries that can skip it without reading its points
+        if (!Objects.isNull(trajectory.getBoundingBox())) {
+            final BoundingBox boundingBox = trajectory.getBoundingBox();
+            writer.writeStartArray("bbox");
+            writer.writeDouble(boundingBox.getMinLon());
+            writer.writeDouble(boundingBox.getMinLat());
+            writer.writeDouble(boundingBox.getMaxLon());
+            writer.writeDouble(boundingBox.getMaxLat());
+            writer.writeEndArray();
+            writer.writeDouble("pathLength", trajectory.getPathLength());
+        }
+        writer.writeBoolean("sealed", trajectory.isSealed());
+
+        writer.writeEndDocument();
+    }
+
+    /**
+     * Like {@link #extractVesselTrajectoryPointDocument(VesselTrajectoryPoint)}.
+     */
+    private void encodePoint(BsonWriter writer, VesselTrajectoryPoint point,
+                             EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (!Objects.isNull(point.getGeoPoint())) {
+            writer.writeName("geoPoint");
+            geoPointCodec.encode(writer, point.getGeoPoint(), encoderContext);
+        }
+        writer.writeDouble("speed", point.getSpeed());
+        if (Objects.isNull(point.getVesselId())) {
+            writer.writeNull("vesselId");
+        } else {
+            writer.writeString("vesselId", point.getVesselId());
+        }
+        writer.writeInt64("timestamp", point.getTimestamp());
+        writer.writeEndDocument();
+    }
+
+    /**
+     * The points of a columnar chunk, the same documents without a point object per point.
+     */
+    private void encodePoints(BsonWriter writer, VesselTrajectoryColumnarChunk trajectory) {
+        final TrajectoryPointColumns columns = trajectory.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            writer.writeStartDocument();
+            writer.writeStartDocument("geoPoint");
+            writer.writeStartArray("coordinates");
+            writer.writeDouble(columns.getLon(i));
+            writer.writeDouble(columns.getLat(i));
+            writer.writeEndArray();
+            writer.writeString("type", GeoJsonType.POINT.getValue());
+            writer.writeEndDocument();
+            writer.writeDouble("speed", columns.getSpeed(i));
+            if (Objects.isNull(trajectory.getVesselId())) {
+                writer.writeNull("vesselId");
+            } else {
+                writer.writeString("vesselId", trajectory.getVesselId());
+            }
+            writer.writeInt64("timestamp", columns.getT(i));
+            writer.writeEndDocument();
+        }
     }
 
     @Override
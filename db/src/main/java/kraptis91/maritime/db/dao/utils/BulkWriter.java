@@ -0,0 +1,295 @@
+package kraptis91.maritime.db.dao.utils;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The write stage of an ingest: the parsing thread hands the batches to a bounded queue and
+ * returns to parsing, writer threads take them from the queue and write them concurrently, so the
+ * round trips to mongodb overlap with the parsing. A full queue blocks the parsing thread, the
+ * backpressure that bounds the memory of the batches in flight.
+ *
+ * <p>The batches are written unordered, in any order and with any number of writers, the writes
+ * must not depend on each other. A batch must not be changed once submitted.
+ *
+ * <p>A failed write, an Error included, is reported by the next submit, flush or close. If every
+ * writer thread died the waits on them fail instead of blocking forever.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class BulkWriter<T> implements AutoCloseable {
+
+    public static final Logger LOGGER = Logger.getLogger(BulkWriter.class.getName());
+
+    public static final int DEFAULT_WRITERS = 4;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+    // how often a wait on the writers checks that they are still alive
+    private static final long LIVENESS_CHECK_MILLIS = 100;
+
+    /**
+     * Writes a batch, called by the writer threads concurrently.
+     */
+    @FunctionalInterface
+    public interface BatchWriter<T> {
+        void write(List<T> batch);
+    }
+
+    // tells a writer thread to stop, compared by reference
+    private final List<T> end = new ArrayList<>(0);
+
+    private final BatchWriter<T> batchWriter;
+    private final BlockingQueue<List<T>> queue;
+    private final Thread[] writers;
+    private final WriteMetrics metrics;
+
+    private final Object lock = new Object();
+    // submitted and not yet written batches, guarded by lock
+    private long pendingBatches;
+    // writer threads not yet stopped, guarded by lock
+    private int liveWriters;
+    private volatile Throwable error;
+    private boolean closed;
+
+    private BulkWriter(BatchWriter<T> batchWriter, int writers, int queueCapacity,
+                       WriteMetrics metrics, String name) {
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.metrics = metrics;
+        this.writers = new Thread[writers];
+        this.liveWriters = writers;
+        final AtomicInteger threadCounter = new AtomicInteger();
+        for (int i = 0; i < writers; i++) {
+            this.writers[i] = new Thread(this::run, name + "-writer-" + threadCounter.incrementAndGet());
+            this.writers[i].setDaemon(true);
+            this.writers[i].start();
+        }
+    }
+
+    /**
+     * @return Writes the batches to the collection with unordered bulk inserts
+     */
+    public static <T> BulkWriter<T> createInstance(@NotNull MongoCollection<T> collection,
+                                                   int writers,
+                                                   int queueCapacity,
+                                                   @NotNull WriteMetrics metrics) {
+        final BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+        return createInstance(batch -> {
+            final List<WriteModel<T>> inserts = new ArrayList<>(batch.size());
+            for (T document : batch) {
+                inserts.add(new InsertOneModel<>(document));
+            }
+            collection.bulkWrite(inserts, options);
+        }, writers, queueCapacity, metrics, collection.getNamespace().getCollectionName());
+    }
+
+    /**
+     * @param batchWriter   Writes a batch, called by the writer threads concurrently
+     * @param writers       The number of writer threads
+     * @param queueCapacity The max batches waiting for a writer
+     * @param metrics       Records the writes
+     * @param name          Names the writer threads
+     */
+    public static <T> BulkWriter<T> createInstance(@NotNull BatchWriter<T> batchWriter,
+                                                   int writers,
+                                                   int queueCapacity,
+                                                   @NotNull WriteMetrics metrics,
+                                                   @NotNull String name) {
+        if (writers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Error... Invalid writers " + writers
+                + " or queue capacity " + queueCapacity);
+        }
+        return new BulkWriter<>(batchWriter, writers, queueCapacity, metrics, name);
+    }
+
+    /**
+     * Hand the batch to the writers, blocks while the queue is full.
+     *
+     * @throws IllegalStateException If a write failed, or the writer is closed
+     */
+    public void submit(@NotNull List<T> batch) throws InterruptedException {
+        checkError();
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Error... Bulk writer is closed");
+            }
+            pendingBatches++;
+        }
+        if (!queue.offer(batch)) {
+            final long start = System.nanoTime();
+            try {
+                while (!queue.offer(batch, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    checkWritersAlive();
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                written();
+                throw e;
+            } finally {
+                metrics.recordBlocked(System.nanoTime() - start);
+            }
+        }
+        metrics.recordQueueDepth(queue.size());
+    }
+
+    /**
+     * @return Submits every batch, e.g. for {@link
+     * kraptis91.maritime.parser.utils.BatchCollectors#batching}; an interrupt while waiting for room
+     * in the queue is rethrown as an IllegalStateException, with the interrupt flag set
+     */
+    public Consumer<List<T>> toConsumer() {
+        return batch -> {
+            try {
+                submit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Error... Interrupted submitting a batch", e);
+            }
+        };
+    }
+
+    /**
+     * Wait until every submitted batch is written, e.g. before a checkpoint.
+     *
+     * @throws IllegalStateException If a write failed, or the writer threads died
+     */
+    public void flush() throws InterruptedException {
+        synchronized (lock) {
+            while (pendingBatches > 0 && liveWriters > 0) {
+                lock.wait();
+            }
+        }
+        checkError();
+        checkWritten();
+    }
+
+    /**
+     * @return The batches waiting for a writer
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public WriteMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Write the submitted batches and stop the writer threads. Not interruptible, an interrupt
+     * while closing is restored once the writers have stopped.
+     *
+     * @throws IllegalStateException If a write failed
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        boolean interrupted = false;
+        // a dead writer does not take its end marker, stop once none is alive
+        for (int i = 0; i < writers.length && getLiveWriters() > 0; ) {
+            try {
+                if (queue.offer(end, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    i++;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        for (int i = 0; i < writers.length; ) {
+            try {
+                writers[i].join();
+                i++;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        checkError();
+        checkWritten();
+    }
+
+    private void run() {
+        try {
+            List<T> batch;
+            while ((batch = queue.take()) != end) {
+                final long start = System.nanoTime();
+                try {
+                    batchWriter.write(batch);
+                    metrics.recordWrite(batch.size(), System.nanoTime() - start);
+                } catch (Throwable e) {
+                    // the other batches are still written, unordered like the bulk writes
+                    if (error == null) {
+                        error = e;
+                    }
+                    metrics.recordFailure(System.nanoTime() - start);
+                    LOGGER.log(Level.SEVERE, "Error... Writing a batch of " + batch.size()
+                        + " documents failed", e);
+                } finally {
+                    written();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (lock) {
+                liveWriters--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private int getLiveWriters() {
+        synchronized (lock) {
+            return liveWriters;
+        }
+    }
+
+    private void checkWritten() {
+        synchronized (lock) {
+            if (pendingBatches > 0) {
+                throw new IllegalStateException("Error... Bulk writer threads stopped with "
+                    + pendingBatches + " batches not written");
+            }
+        }
+    }
+
+    private void checkWritersAlive() {
+        if (getLiveWriters() == 0) {
+            throw new IllegalStateException("Error... Bulk writer threads stopped", error);
+        }
+    }
+
+    private void written() {
+        synchronized (lock) {
+            pendingBatches--;
+            lock.notifyAll();
+        }
+    }
+
+    private void checkError() {
+        final Throwable e = error;
+        if (e != null) {
+            throw new IllegalStateException("Error... Bulk write failed", e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package kraptis91.maritime.db.dao.utils;
+
+import java.util.Arrays;
+
+/**
+ * Puts the points of one vessel back in time order. Points wait in a small min-heap on the
+ * timestamp and are emitted once the watermark, the max timestamp seen minus the allowed lateness,
+ * passes them, or when more than maxPending points wait.
+ *
+ * <p>The emitted timestamps never decrease. A point older than the last emitted one is too late to
+ * be put in order, {@link #offer} rejects it for the caller's correction path.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class PointReorderBuffer {
+
+    /**
+     * Receives the points in time order.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(double lon, double lat, double speed, long t);
+    }
+
+    private final long allowedLateness;
+    private final int maxPending;
+
+    // the heap, parallel primitive columns ordered on t
+    private double[] lon;
+    private double[] lat;
+    private double[] speed;
+    private long[] t;
+    private int size;
+
+    private long maxT = Long.MIN_VALUE;
+    private long lastEmittedT = Long.MIN_VALUE;
+
+    private PointReorderBuffer(long allowedLateness, int maxPending) {
+        this.allowedLateness = allowedLateness;
+        this.maxPending = maxPending;
+        final int capacity = Math.min(maxPending + 1, 8);
+        lon = new double[capacity];
+        lat = new double[capacity];
+        speed = new double[capacity];
+        t = new long[capacity];
+    }
+
+    /**
+     * @param allowedLateness How long a point waits for older points, in seconds like the timestamps
+     * @param maxPending      The max waiting points, the oldest is emitted early beyond it
+     */
+    public static PointReorderBuffer createInstance(long allowedLateness, int maxPending) {
+        if (allowedLateness < 0 || maxPending < 0) {
+            throw new IllegalArgumentException("Error... Invalid allowed lateness " + allowedLateness
+                + " or max pending " + maxPending);
+        }
+        return new PointReorderBuffer(allowedLateness, maxPending);
+    }
+
+    /**
+     * @param emit Receives the points that are due, in time order
+     * @return False if the point is older than an emitted point, it is neither kept nor emitted
+     */
+    public boolean offer(double lon, double lat, double speed, long t, PointConsumer emit) {
+        if (t < lastEmittedT) {
+            return false;
+        }
+        push(lon, lat, speed, t);
+        maxT = Math.max(maxT, t);
+
+        // saturated, not to overflow for timestamps near Long.MIN_VALUE
+        final long watermark =
+            maxT < Long.MIN_VALUE + allowedLateness ? Long.MIN_VALUE : maxT - allowedLateness;
+        while (size > maxPending || (size > 0 && this.t[0] <= watermark)) {
+            pop(emit);
+        }
+        return true;
+    }
+
+    /**
+     * Emit every waiting point, e.g. before a flush.
+     */
+    public void drain(PointConsumer emit) {
+        while (size > 0) {
+            pop(emit);
+        }
+    }
+
+    /**
+     * @return The number of waiting points
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void push(double lon, double lat, double speed, long t) {
+        if (size == this.t.length) {
+            final int capacity = size * 2;
+            this.lon = Arrays.copyOf(this.lon, capacity);
+            this.lat = Arrays.copyOf(this.lat, capacity);
+            this.speed = Arrays.copyOf(this.speed, capacity);
+            this.t = Arrays.copyOf(this.t, capacity);
+        }
+        // sift up, points of equal timestamps are emitted in any order
+        int i = size++;
+        while (i > 0 && this.t[(i - 1) >>> 1] > t) {
+            move((i - 1) >>> 1, i);
+            i = (i - 1) >>> 1;
+        }
+        set(i, lon, lat, speed, t);
+    }
+
+    private void pop(PointConsumer emit) {
+        final double minLon = lon[0];
+        final double minLat = lat[0];
+        final double minSpeed = speed[0];
+        final long minT = t[0];
+
+        // move the last to the root and sift it down
+        size--;
+        if (size > 0) {
+            final double lastLon = lon[size];
+            final double lastLat = lat[size];
+            final double lastSpeed = speed[size];
+            final long lastT = t[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && t[child + 1] < t[child]) {
+                    child++;
+                }
+                if (t[child] >= lastT) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            set(i, lastLon, lastLat, lastSpeed, lastT);
+        }
+
+        lastEmittedT = minT;
+        emit.accept(minLon, minLat, minSpeed, minT);
+    }
+
+    private void move(int from, int to) {
+        lon[to] = lon[from];
+        lat[to] = lat[from];
+        speed[to] = speed[from];
+        t[to] = t[from];
+    }
+
+    private void set(int i, double lon, double lat, double speed, long t) {
+        this.lon[i] = lon;
+        this.lat[i] = lat;
+        this.speed[i] = speed;
+        this.t[i] = t;
+    }
+}
@@ -0,0 +1,59 @@
+package kraptis91.maritime.db.dao.utils;
+
+/**
+ * The last points of a vessel, to drop the copies of a message reported by more than one receiver.
+ * A copy has the same timestamp and the same coordinates, bit for bit, and arrives shortly after
+ * the first one, so a small ring of the last points finds it with a few comparisons and a fixed
+ * memory per vessel.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class RecentPointRing {
+
+    private final long[] t;
+    private final long[] lonBits;
+    private final long[] latBits;
+    private int next;
+    private int size;
+
+    private RecentPointRing(int capacity) {
+        t = new long[capacity];
+        lonBits = new long[capacity];
+        latBits = new long[capacity];
+    }
+
+    /**
+     * @param capacity The number of last points to remember, 0 remembers none
+     */
+    public static RecentPointRing createInstance(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Error... Invalid capacity " + capacity);
+        }
+        return new RecentPointRing(capacity);
+    }
+
+    /**
+     * @return False if the point is among the last points, else remember it and return true
+     */
+    public boolean addIfAbsent(long t, double lon, double lat) {
+        final long lonBits = Double.doubleToLongBits(lon);
+        final long latBits = Double.doubleToLongBits(lat);
+        for (int i = 0; i < size; i++) {
+            if (this.t[i] == t && this.lonBits[i] == lonBits && this.latBits[i] == latBits) {
+                return false;
+            }
+        }
+        if (this.t.length > 0) {
+            this.t[next] = t;
+            this.lonBits[next] = lonBits;
+            this.latBits[next] = latBits;
+            next = next + 1 == this.t.length ? 0 : next + 1;
+            size = Math.min(size + 1, this.t.length);
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -2,45 +2,392 @@ package kraptis91.maritime.db.dao.utils;
 
 import kraptis91.maritime.db.dao.DaoFactory;
 import kraptis91.maritime.db.dao.VesselDao;
-import kraptis91.maritime.db.exceptions.DataException;
-import kraptis91.maritime.model.Vessel;
+import org.bson.types.ObjectId;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
+ * The identity of the vessels of an ingest (id, name and ship type) keyed by mmsi, in primitive
+ * columns of an open addressing table instead of a map of {@link kraptis91.maritime.model.Vessel}s.
+ * The id is kept as its 12 bytes, the names and ship types are interned.
+ *
+ * <p>The vessels are loaded by projected queries, a batch of mmsis at a time by {@link
+ * #load(int[], int)} or all at once by {@link #loadAll()}. The mmsis not found are cached too, and
+ * not queried again.
+ *
+ * <p>The buffer is bounded by a byte budget. Beyond it the vessels not looked up lately are
+ * evicted, by the clock approximation of least recently used, and loaded again if looked up.
+ *
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 27/12/2020.
  */
 public class VesselBuffer {
 
-    // key = mmsi, value = vessel
-    public Map<Integer, Vessel> vesselMap;
-    public VesselDao vesselDao;
+    /** Max mmsis of a query. */
+    public static final int DEFAULT_MAX_QUERY_SIZE = 1000;
+    /** The default byte budget, about 400 thousand vessels. */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    /** The estimated heap of a vessel, the half empty table slots and its name included. */
+    public static final int BYTES_PER_VESSEL = 160;
 
-    public VesselBuffer() {
-        vesselMap = new LinkedHashMap<>();
-        vesselDao = DaoFactory.createMongoVesselDao();
+    private static final int INITIAL_TABLE_SIZE = 1024;
+    private static final byte EMPTY = 0;
+    private static final byte FOUND = 1;
+    private static final byte NOT_FOUND = 2;
+    // the table columns of a slot, mmsi, state, referenced bit, id, name and ship type references
+    private static final int BYTES_PER_SLOT = 4 + 1 + 1 + 12 + 8 + 8;
+    private static final int BYTES_PER_NAME = 64;
+    private static final int BYTES_PER_INTERNED_STRING = 48;
+
+    private final BiConsumer<Collection<Integer>, VesselDao.VesselIdentityConsumer> identityLoader;
+    private final int maxQuerySize;
+    private final int maxSize;
+    private final Map<String, String> internedStrings = new HashMap<>();
+
+    // the table, at most half full, the id of slot i is in ids[3 * i, 3 * i + 3)
+    private int[] mmsis;
+    private byte[] states;
+    // set when looked up, cleared by the passing clock hand
+    private byte[] referenced;
+    private int[] ids;
+    private String[] vesselNames;
+    private String[] shipTypes;
+    private int size;
+    private int foundCounter;
+    private boolean isComplete;
+    private long queryCounter;
+    private long evictedCounter;
+    private int clockHand;
+
+    /**
+     * @param identityLoader Finds the identity of the vessels of an mmsi list, of every vessel
+     *                       for null, e.g. {@link VesselDao#findVesselIdentities}
+     * @param maxQuerySize   Max mmsis of a query
+     * @param maxBytes       The byte budget, see {@link #BYTES_PER_VESSEL}
+     */
+    public VesselBuffer(BiConsumer<Collection<Integer>, VesselDao.VesselIdentityConsumer> identityLoader,
+                        int maxQuerySize,
+                        long maxBytes) {
+        if (maxQuerySize < 1 || maxBytes < BYTES_PER_VESSEL) {
+            throw new IllegalArgumentException("Error... Invalid max query size " + maxQuerySize
+                + " or max bytes " + maxBytes);
+        }
+        this.identityLoader = identityLoader;
+        this.maxQuerySize = maxQuerySize;
+        this.maxSize = (int) Math.min(maxBytes / BYTES_PER_VESSEL, 1 << 29);
+        // the table size that keeps max size at most half full, if smaller
+        allocate(Math.min(INITIAL_TABLE_SIZE, Integer.highestOneBit(2 * maxSize - 1) << 1));
     }
 
     public static VesselBuffer createInstance() {
-        return new VesselBuffer();
+        return createInstance(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes The byte budget, see {@link #BYTES_PER_VESSEL}
+     */
+    public static VesselBuffer createInstance(long maxBytes) {
+        final VesselDao vesselDao = DaoFactory.createMongoVesselDao();
+        return new VesselBuffer(vesselDao::findVesselIdentities, DEFAULT_MAX_QUERY_SIZE, maxBytes);
+    }
+
+    public static VesselBuffer createInstance(
+        BiConsumer<Collection<Integer>, VesselDao.VesselIdentityConsumer> identityLoader) {
+        return new VesselBuffer(identityLoader, DEFAULT_MAX_QUERY_SIZE, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Load every vessel in a single scan, mmsis not loaded are not found afterwards, unless vessels
+     * are evicted to stay in the byte budget.
+     */
+    public void loadAll() {
+        final long evicted = evictedCounter;
+        identityLoader.accept(null, this::put);
+        queryCounter++;
+        isComplete = evictedCounter == evicted;
     }
 
-    public Vessel getIfExistsOrGetFromDB(int mmsi) throws DataException {
+    /**
+     * Load the vessels of the mmsis not in the buffer, in queries of up to max query size mmsis.
+     *
+     * @param mmsiColumn The mmsis, repeated mmsis are queried once
+     * @param length     The mmsis to look at, from the first
+     */
+    public void load(int[] mmsiColumn, int length) {
 
-        if (vesselMap.containsKey(mmsi)) {
-            return vesselMap.get(mmsi);
-        } else {
-            Optional<Vessel> oVessel = vesselDao.findVesselByMMSI(mmsi);
+        if (isComplete) {
+            return;
+        }
 
-            if (oVessel.isPresent()) {
-                vesselMap.put(mmsi, oVessel.get());
-                return oVessel.get();
+        final List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            final int mmsi = mmsiColumn[i];
+            final int slot = slotOf(mmsi);
+            if (states[slot] != EMPTY) {
+                referenced[slot] = 1;
             } else {
-                throw new DataException("Error... cannot find vessel in db with mmsi " + mmsi);
+                // not found until loaded, also marks a repeated mmsi as queried
+                putNotFound(mmsi);
+                missing.add(mmsi);
+                if (missing.size() == maxQuerySize) {
+                    query(missing);
+                    missing.clear();
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            query(missing);
+        }
+    }
+
+    private void query(List<Integer> mmsiList) {
+        identityLoader.accept(mmsiList, this::put);
+        queryCounter++;
+    }
+
+    /**
+     * @return Whether a vessel of the mmsi exists, loaded by itself if not in the buffer
+     */
+    public boolean contains(int mmsi) {
+        int slot = slotOf(mmsi);
+        if (states[slot] == EMPTY && !isComplete) {
+            load(new int[]{mmsi}, 1);
+            slot = slotOf(mmsi);
+        }
+        referenced[slot] = 1;
+        return states[slot] == FOUND;
+    }
+
+    /**
+     * @return The id hex string of the vessel, null if not found
+     */
+    public String getVesselId(int mmsi) {
+        final int slot = slotOf(mmsi);
+        if (states[slot] != FOUND) {
+            return null;
+        }
+        final byte[] bytes = new byte[12];
+        for (int i = 0; i < 3; i++) {
+            final int value = ids[3 * slot + i];
+            bytes[4 * i] = (byte) (value >>> 24);
+            bytes[4 * i + 1] = (byte) (value >>> 16);
+            bytes[4 * i + 2] = (byte) (value >>> 8);
+            bytes[4 * i + 3] = (byte) value;
+        }
+        return new ObjectId(bytes).toHexString();
+    }
+
+    /**
+     * @return The name of the vessel, null if not found
+     */
+    public String getVesselName(int mmsi) {
+        return vesselNames[slotOf(mmsi)];
+    }
+
+    /**
+     * @return The ship type of the vessel, null if not found
+     */
+    public String getShipType(int mmsi) {
+        return shipTypes[slotOf(mmsi)];
+    }
+
+    /**
+     * @return The number of vessels found
+     */
+    public int size() {
+        return foundCounter;
+    }
+
+    /**
+     * @return The number of mmsis without a vessel
+     */
+    public int getNotFoundCounter() {
+        return size - foundCounter;
+    }
+
+    /**
+     * @return The number of queries so far
+     */
+    public long getQueryCounter() {
+        return queryCounter;
+    }
+
+    /**
+     * @return The number of mmsis evicted to stay in the byte budget
+     */
+    public long getEvictedCounter() {
+        return evictedCounter;
+    }
+
+    /**
+     * @return The estimated heap of the buffer, the table, the names and the interned strings
+     */
+    public long getEstimatedBytes() {
+        return (long) mmsis.length * BYTES_PER_SLOT
+            + (long) foundCounter * BYTES_PER_NAME
+            + (long) internedStrings.size() * BYTES_PER_INTERNED_STRING;
+    }
+
+    private void put(int mmsi, ObjectId id, String vesselName, String shipType) {
+        final int slot = reserve(mmsi);
+        if (states[slot] != FOUND) {
+            foundCounter++;
+        }
+        states[slot] = FOUND;
+        final byte[] bytes = id.toByteArray();
+        for (int i = 0; i < 3; i++) {
+            ids[3 * slot + i] = (bytes[4 * i] & 0xff) << 24
+                | (bytes[4 * i + 1] & 0xff) << 16
+                | (bytes[4 * i + 2] & 0xff) << 8
+                | (bytes[4 * i + 3] & 0xff);
+        }
+        vesselNames[slot] = intern(vesselName);
+        shipTypes[slot] = intern(shipType);
+    }
+
+    private void putNotFound(int mmsi) {
+        final int slot = reserve(mmsi);
+        if (states[slot] == EMPTY) {
+            states[slot] = NOT_FOUND;
+        }
+    }
+
+    private String intern(String value) {
+        if (internedStrings.size() > maxSize) {
+            // mostly names of evicted vessels, the vessels in the buffer keep theirs
+            internedStrings.clear();
+        }
+        return value == null ? null : internedStrings.computeIfAbsent(value, v -> v);
+    }
+
+    /**
+     * @return The slot of the mmsi, or the empty slot it would take
+     */
+    private int slotOf(int mmsi) {
+        final int mask = mmsis.length - 1;
+        int slot = mix(mmsi) & mask;
+        while (states[slot] != EMPTY && mmsis[slot] != mmsi) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @return The slot of the mmsi, taken if empty
+     */
+    private int reserve(int mmsi) {
+        int slot = slotOf(mmsi);
+        if (states[slot] != EMPTY) {
+            return slot;
+        }
+        if (size >= maxSize) {
+            evict();
+            slot = slotOf(mmsi);
+        } else if (2 * (size + 1) > mmsis.length) {
+            rehash(mmsis.length * 2);
+            slot = slotOf(mmsi);
+        }
+        mmsis[slot] = mmsi;
+        referenced[slot] = 1;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Remove the first mmsi the clock hand finds not looked up since its last pass.
+     */
+    private void evict() {
+        final int mask = mmsis.length - 1;
+        while (states[clockHand] == EMPTY || referenced[clockHand] == 1) {
+            referenced[clockHand] = 0;
+            clockHand = (clockHand + 1) & mask;
+        }
+        remove(clockHand);
+        evictedCounter++;
+        // a vessel evicted is not missing from the db
+        isComplete = false;
+    }
+
+    /**
+     * Remove the mmsi of the slot, moving back the mmsis of its probe sequence.
+     */
+    private void remove(int slot) {
+        if (states[slot] == FOUND) {
+            foundCounter--;
+        }
+        size--;
+
+        final int mask = mmsis.length - 1;
+        int gap = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            if (states[i] == EMPTY) {
+                break;
+            }
+            // moved back unless its home slot is after the gap
+            final int home = mix(mmsis[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                move(i, gap);
+                gap = i;
+            }
+        }
+        states[gap] = EMPTY;
+        referenced[gap] = 0;
+        vesselNames[gap] = null;
+        shipTypes[gap] = null;
+    }
+
+    private void move(int from, int to) {
+        mmsis[to] = mmsis[from];
+        states[to] = states[from];
+        referenced[to] = referenced[from];
+        System.arraycopy(ids, 3 * from, ids, 3 * to, 3);
+        vesselNames[to] = vesselNames[from];
+        shipTypes[to] = shipTypes[from];
+    }
+
+    private void rehash(int tableSize) {
+        final int[] oldMmsis = mmsis;
+        final byte[] oldStates = states;
+        final byte[] oldReferenced = referenced;
+        final int[] oldIds = ids;
+        final String[] oldVesselNames = vesselNames;
+        final String[] oldShipTypes = shipTypes;
+
+        allocate(tableSize);
+        clockHand = 0;
+        for (int i = 0; i < oldMmsis.length; i++) {
+            if (oldStates[i] != EMPTY) {
+                final int slot = slotOf(oldMmsis[i]);
+                mmsis[slot] = oldMmsis[i];
+                states[slot] = oldStates[i];
+                referenced[slot] = oldReferenced[i];
+                System.arraycopy(oldIds, 3 * i, ids, 3 * slot, 3);
+                vesselNames[slot] = oldVesselNames[i];
+                shipTypes[slot] = oldShipTypes[i];
             }
         }
     }
 
+    private void allocate(int tableSize) {
+        mmsis = new int[tableSize];
+        states = new byte[tableSize];
+        referenced = new byte[tableSize];
+        ids = new int[3 * tableSize];
+        vesselNames = new String[tableSize];
+        shipTypes = new String[tableSize];
+    }
+
+    /**
+     * The mmsis are 9 digit numbers, spread their low bits over the table.
+     */
+    private static int mix(int mmsi) {
+        final int h = mmsi * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
 }
@@ -1,16 +1,38 @@
 package kraptis91.maritime.db.dao.utils;
 
 import com.google.common.collect.ImmutableList;
-import kraptis91.maritime.model.ModelExtractor;
 import kraptis91.maritime.model.ModelFactory;
+import kraptis91.maritime.model.TrajectoryChunkStats;
 import kraptis91.maritime.model.Vessel;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
 import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import kraptis91.maritime.model.chunking.ChunkingPolicy;
+import kraptis91.maritime.parser.dto.csv.NariDynamicBatch;
 import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
 
 import java.util.*;
 import java.util.logging.Logger;
 
 /**
+ * Groups the points per mmsi in {@link VesselTrajectoryColumnarChunk}s, primitive columns instead
+ * of a point object per point. A chunk is completed as soon as its {@link ChunkingPolicy} is full,
+ * before the point that would overflow it.
+ *
+ * <p>The copies of a message reported by more than one receiver are dropped by a {@link
+ * RecentPointRing} per vessel, the duplicate rate is {@link #getDuplicateRate()}.
+ *
+ * <p>The points of every vessel pass a {@link PointReorderBuffer} then, so they reach the chunks
+ * in time order and the chunks of a vessel are disjoint in time. Points that arrive after newer
+ * points were emitted go to separate late chunks, the correction path, see {@link
+ * #getLateChunkList()}.
+ *
+ * <p>The open trajectories are bounded. A vessel without points for the idle timeout, in the
+ * time of the points, and the least recently updated vessels beyond the byte budget are evicted:
+ * their points are put in order and their chunks completed. A vessel evicted starts over, like a
+ * new vessel, with its next point. The time of the points is a clock that a single vessel can not
+ * move more than the idle timeout ahead, e.g. with timestamps in millis, a jump needs the points of
+ * a second vessel. A vessel is idle by the clock at its last point, not by its own timestamps.
+ *
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 27/12/2020.
  */
 public class VesselTrajectoryBuffer {
@@ -18,61 +40,283 @@ public class VesselTrajectoryBuffer {
     public static final Logger LOGGER =
             Logger.getLogger(VesselTrajectoryBuffer.class.getName());
 
-    private final Map<Integer, VesselTrajectoryPointListChunk> incompletedChunkMap;
-    private final List<VesselTrajectoryPointListChunk> completedChunkList = new ArrayList<>();
+    /** How long a point waits for older points of its vessel, in seconds. */
+    public static final long DEFAULT_ALLOWED_LATENESS = 5 * 60;
+    /** Max points of a vessel waiting to be put in order. */
+    public static final int DEFAULT_MAX_PENDING = 64;
+    /** The last points of a vessel a duplicate is looked for in. */
+    public static final int DEFAULT_DEDUP_WINDOW = 16;
+    /** How long a vessel stays open without points, in seconds. */
+    public static final long DEFAULT_IDLE_TIMEOUT = 6 * 60 * 60;
+    /** The default byte budget of the open trajectories. */
+    public static final long DEFAULT_MAX_BYTES = 512L << 20;
+    /** The estimated heap of a buffered point, the spare column capacity included. */
+    public static final int BYTES_PER_POINT = 48;
+    /** The estimated heap of an open trajectory without points, its map entry included. */
+    public static final int BYTES_PER_TRAJECTORY = 1024;
+
+    // key = mmsi, in access order, the least recently updated first
+    private final Map<Integer, OpenTrajectory> trajectoryMap = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<VesselTrajectoryColumnarChunk> completedChunkList = new ArrayList<>();
+    private final List<VesselTrajectoryColumnarChunk> lateChunkList = new ArrayList<>();
 
     // total vessel trajectory points in completedChunkList chunks
     private int pointsInChunkListCounter = 0;
+    private int pointsInLateChunkListCounter = 0;
+    // points of the open trajectories, waiting to be put in order or in open chunks
+    private long openPointCounter = 0;
+    private long evictedCounter = 0;
+    // the time of the points, idleness is measured against it
+    private long clock = Long.MIN_VALUE;
+    // the first point beyond the idle timeout ahead of the clock, until another vessel confirms it
+    private OpenTrajectory jumpTrajectory;
+    private long jumpT;
+    private long latePointCounter = 0;
+    private long pointCounter = 0;
+    private long duplicatePointCounter = 0;
     private final int capacity;
+    private final ChunkingPolicy chunkingPolicy;
+    private final long allowedLateness;
+    private final int maxPending;
+    private final int dedupWindow;
+    private final long idleTimeout;
+    private final long maxBytes;
 
     public VesselTrajectoryBuffer(int capacity) {
-        this.incompletedChunkMap = new LinkedHashMap<>();
+        this(capacity, ChunkingPolicy.createDefault(), DEFAULT_ALLOWED_LATENESS, DEFAULT_MAX_PENDING,
+                DEFAULT_DEDUP_WINDOW, DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_BYTES);
+    }
+
+    public VesselTrajectoryBuffer(int capacity,
+                                  ChunkingPolicy chunkingPolicy,
+                                  long allowedLateness,
+                                  int maxPending,
+                                  int dedupWindow,
+                                  long idleTimeout,
+                                  long maxBytes) {
+        if (idleTimeout < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("Error... Invalid idle timeout " + idleTimeout
+                    + " or max bytes " + maxBytes);
+        }
         this.capacity = capacity;
+        this.chunkingPolicy = chunkingPolicy;
+        this.allowedLateness = allowedLateness;
+        this.maxPending = maxPending;
+        this.dedupWindow = dedupWindow;
+        this.idleTimeout = idleTimeout;
+        this.maxBytes = maxBytes;
     }
 
     public static VesselTrajectoryBuffer createInstance(int capacity) {
         return new VesselTrajectoryBuffer(capacity);
     }
 
+    /**
+     * @param capacity       The points of the completed chunks that make the buffer full
+     * @param chunkingPolicy Closes the chunk of a vessel
+     */
+    public static VesselTrajectoryBuffer createInstance(int capacity, ChunkingPolicy chunkingPolicy) {
+        return new VesselTrajectoryBuffer(capacity, chunkingPolicy, DEFAULT_ALLOWED_LATENESS,
+                DEFAULT_MAX_PENDING, DEFAULT_DEDUP_WINDOW, DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param capacity        The points of the completed chunks that make the buffer full
+     * @param chunkingPolicy  Closes the chunk of a vessel
+     * @param allowedLateness How long a point waits for older points of its vessel, in seconds
+     * @param maxPending      Max points of a vessel waiting to be put in order
+     * @param dedupWindow     The last points of a vessel a duplicate is looked for in, 0 keeps
+     *                        the duplicates
+     */
+    public static VesselTrajectoryBuffer createInstance(int capacity,
+                                                        ChunkingPolicy chunkingPolicy,
+                                                        long allowedLateness,
+                                                        int maxPending,
+                                                        int dedupWindow) {
+        return new VesselTrajectoryBuffer(capacity, chunkingPolicy, allowedLateness, maxPending,
+                dedupWindow, DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param capacity        The points of the completed chunks that make the buffer full
+     * @param chunkingPolicy  Closes the chunk of a vessel
+     * @param allowedLateness How long a point waits for older points of its vessel, in seconds
+     * @param maxPending      Max points of a vessel waiting to be put in order
+     * @param dedupWindow     The last points of a vessel a duplicate is looked for in, 0 keeps
+     *                        the duplicates
+     * @param idleTimeout     How long a vessel stays open without points, in seconds
+     * @param maxBytes        The byte budget of the open trajectories, see {@link
+     *                        #getOpenTrajectoryBytes()}
+     */
+    public static VesselTrajectoryBuffer createInstance(int capacity,
+                                                        ChunkingPolicy chunkingPolicy,
+                                                        long allowedLateness,
+                                                        int maxPending,
+                                                        int dedupWindow,
+                                                        long idleTimeout,
+                                                        long maxBytes) {
+        return new VesselTrajectoryBuffer(capacity, chunkingPolicy, allowedLateness, maxPending,
+                dedupWindow, idleTimeout, maxBytes);
+    }
+
     public void addPoint(NariDynamicDto dto, Vessel vessel) {
+        OpenTrajectory trajectory = trajectoryMap.get(dto.getMMSI());
+        if (trajectory == null) {
+            trajectory = new OpenTrajectory(dto.getMMSI(), vessel.getId(), vessel.getVesselName(),
+                    vessel.getShipType());
+            trajectoryMap.put(dto.getMMSI(), trajectory);
+        }
+        addPoint(trajectory, dto.getLon(), dto.getLat(), dto.getSpeed(), dto.getT());
+        evict();
+    }
 
-        VesselTrajectoryPointListChunk chunk;
+    /**
+     * Add every point of the batch, in batch order. The vessels not in the buffer are loaded with
+     * a query for the batch, points of vessels that can not be found are skipped.
+     *
+     * @param batch        The parsed nari dynamic lines
+     * @param vesselBuffer The vessel lookup
+     * @return The number of points added
+     */
+    public int addPoints(NariDynamicBatch batch, VesselBuffer vesselBuffer) {
 
-        if (incompletedChunkMap.containsKey(dto.getMMSI())) {
+        int added = 0;
+        final int[] mmsiColumn = batch.getMMSIColumn();
+        vesselBuffer.load(mmsiColumn, batch.getSize());
 
-            chunk = incompletedChunkMap.get(dto.getMMSI());
+        for (int i = 0; i < batch.getSize(); i++) {
 
-            if (chunk.getNumberOfPoints() < chunk.getChunkFixedSize()) {
+            final int mmsi = mmsiColumn[i];
+            OpenTrajectory trajectory = trajectoryMap.get(mmsi);
+            if (trajectory == null) {
+                if (!vesselBuffer.contains(mmsi)) {
+                    continue;
+                }
+                trajectory = new OpenTrajectory(mmsi, vesselBuffer.getVesselId(mmsi),
+                        vesselBuffer.getVesselName(mmsi), vesselBuffer.getShipType(mmsi));
+                trajectoryMap.put(mmsi, trajectory);
+            }
 
-                chunk.getPointList().add(
-                        ModelExtractor.extractVesselTrajectoryPoint(dto, vessel.getId()));
-            } else {
+            addPoint(trajectory, batch.getLon(i), batch.getLat(i), batch.getSpeed(i),
+                    batch.getT(i));
+            added++;
+        }
 
-                // chunk is full remove it and add it as completed in completed list
-                incompletedChunkMap.remove(dto.getMMSI());
-                finalizeChunk(chunk);
-                completedChunkList.add(chunk);
-                pointsInChunkListCounter += chunk.getNumberOfPoints();
+        evict();
+        return added;
+    }
 
-                // create a new chunk for that mmsi and add it to map
-                chunk = ModelFactory.createSimpleVesselTrajectoryPointListChunk(
-                        dto.getMMSI(), vessel.getVesselName(), vessel.getShipType());
-                chunk.getPointList().add(
-                        ModelExtractor.extractVesselTrajectoryPoint(dto, vessel.getId()));
+    private void addPoint(OpenTrajectory trajectory, double lon, double lat, double speed, long t) {
 
-                incompletedChunkMap.put(dto.getMMSI(), chunk);
-            }
+        pointCounter++;
+        if (!trajectory.recentPoints.addIfAbsent(t, lon, lat)) {
+            // the same message from another receiver
+            duplicatePointCounter++;
+            return;
+        }
 
-        } else {
+        openPointCounter++;
+        trajectory.lastSeen = advanceClock(trajectory, t);
 
-            chunk = ModelFactory.createSimpleVesselTrajectoryPointListChunk(
-                    dto.getMMSI(), vessel.getVesselName(), vessel.getShipType());
-            chunk.getPointList().add(
-                    ModelExtractor.extractVesselTrajectoryPoint(dto, vessel.getId()));
+        if (!trajectory.reorderBuffer.offer(lon, lat, speed, t, trajectory)) {
+            // older than a point already in a chunk, to the correction path
+            trajectory.lateChunk = append(trajectory, trajectory.lateChunk, lon, lat, speed, t,
+                    lateChunkList);
+            latePointCounter++;
+        }
+    }
+
+    /**
+     * Move the clock to the point. A point more than the idle timeout ahead is an outlier, unless a
+     * point of another vessel lands close to it, e.g. after a gap in the data.
+     *
+     * @return The clock
+     */
+    private long advanceClock(OpenTrajectory trajectory, long t) {
+        if (clock == Long.MIN_VALUE || t - clock <= idleTimeout) {
+            clock = Math.max(clock, t);
+        } else if (jumpTrajectory != null && jumpTrajectory != trajectory
+                && Math.abs(t - jumpT) <= idleTimeout) {
+            clock = Math.min(jumpT, t);
+            // the vessel that jumped first is not idle by the new clock
+            jumpTrajectory.lastSeen = clock;
+            jumpTrajectory = null;
+        } else if (jumpTrajectory == null || t < jumpT) {
+            // the nearest jump is kept, an outlier further ahead does not hide it
+            jumpTrajectory = trajectory;
+            jumpT = t;
+        }
+        return clock;
+    }
+
+    /**
+     * Add the point to the chunk, or to a new chunk if the policy closes the chunk.
+     *
+     * @param completed Receives the closed chunk
+     * @return The chunk of the point
+     */
+    private VesselTrajectoryColumnarChunk append(OpenTrajectory trajectory,
+                                                 VesselTrajectoryColumnarChunk chunk,
+                                                 double lon, double lat, double speed, long t,
+                                                 List<VesselTrajectoryColumnarChunk> completed) {
+
+        if (chunk != null && chunkingPolicy.isFull(chunk.calcStats(), lon, lat, t)) {
+            // chunk is full add it as completed, a later ingest does not extend it
+            finalizeChunk(chunk);
+            chunk.setSealed(true);
+            complete(chunk, completed);
+            chunk = null;
+        }
+
+        if (chunk == null) {
+            chunk = ModelFactory.createVesselTrajectoryColumnarChunk(trajectory.mmsi,
+                    trajectory.vesselName, trajectory.shipType, trajectory.vesselId);
+        }
+        chunk.addPoint(lon, lat, speed, t);
+        return chunk;
+    }
 
-            incompletedChunkMap.put(dto.getMMSI(), chunk);
+    private void complete(VesselTrajectoryColumnarChunk chunk,
+                          List<VesselTrajectoryColumnarChunk> completed) {
+        completed.add(chunk);
+        openPointCounter -= chunk.getNumberOfPoints();
+        if (completed == completedChunkList) {
+            pointsInChunkListCounter += chunk.getNumberOfPoints();
+        } else {
+            pointsInLateChunkListCounter += chunk.getNumberOfPoints();
         }
+    }
 
+    /**
+     * Evict the least recently updated trajectories, while idle or beyond the byte budget.
+     */
+    private void evict() {
+        final Iterator<OpenTrajectory> iterator = trajectoryMap.values().iterator();
+        while (iterator.hasNext()) {
+            final OpenTrajectory trajectory = iterator.next();
+            if (clock - trajectory.lastSeen <= idleTimeout && getOpenTrajectoryBytes() <= maxBytes) {
+                break;
+            }
+            trajectory.reorderBuffer.drain(trajectory);
+            if (trajectory.chunk != null) {
+                finalizeChunk(trajectory.chunk);
+                complete(trajectory.chunk, completedChunkList);
+            }
+            if (trajectory.lateChunk != null) {
+                finalizeChunk(trajectory.lateChunk);
+                complete(trajectory.lateChunk, lateChunkList);
+            }
+            iterator.remove();
+            evictedCounter++;
+        }
+    }
+
+    /**
+     * Emit the points waiting to be put in order to their chunks, e.g. before a flush. Points older
+     * than the drained ones are late afterwards.
+     */
+    public void drain() {
+        trajectoryMap.values().forEach(trajectory -> trajectory.reorderBuffer.drain(trajectory));
     }
 
     public boolean isCompletedListFull() {
@@ -85,23 +329,161 @@ public class VesselTrajectoryBuffer {
     }
 
     public List<VesselTrajectoryPointListChunk> getCompletedChunkList() {
-        return ImmutableList.copyOf(completedChunkList);
+        return ImmutableList.<VesselTrajectoryPointListChunk>copyOf(completedChunkList);
     }
 
+    /**
+     * @return The open chunks, without the points still waiting in the reorder buffers
+     */
     public List<VesselTrajectoryPointListChunk> getIncompletedChunkList() {
-        incompletedChunkMap.values().forEach(this::finalizeChunk);
-        return new ArrayList<>(incompletedChunkMap.values());
+        final List<VesselTrajectoryPointListChunk> incompletedChunks = new ArrayList<>();
+        for (OpenTrajectory trajectory : trajectoryMap.values()) {
+            if (trajectory.chunk != null) {
+                finalizeChunk(trajectory.chunk);
+                incompletedChunks.add(trajectory.chunk);
+            }
+        }
+        return incompletedChunks;
     }
 
+    /**
+     * The next points of a vessel start a new chunk. The vessel keeps the time of its last point,
+     * later points older than it are late.
+     */
     public void clearIncompletedChunkMap() {
-        incompletedChunkMap.clear();
+        for (OpenTrajectory trajectory : trajectoryMap.values()) {
+            if (trajectory.chunk != null) {
+                openPointCounter -= trajectory.chunk.getNumberOfPoints();
+                trajectory.chunk = null;
+            }
+        }
+    }
+
+    /**
+     * @return The chunks of the points that arrived too late to be put in order, completed and
+     * open, they overlap the chunks of their vessel in time
+     */
+    public List<VesselTrajectoryPointListChunk> getLateChunkList() {
+        final List<VesselTrajectoryPointListChunk> lateChunks = new ArrayList<>(lateChunkList);
+        for (OpenTrajectory trajectory : trajectoryMap.values()) {
+            if (trajectory.lateChunk != null) {
+                finalizeChunk(trajectory.lateChunk);
+                lateChunks.add(trajectory.lateChunk);
+            }
+        }
+        return lateChunks;
     }
 
-    private void finalizeChunk(VesselTrajectoryPointListChunk chunk) {
-        chunk.setStartDate(new Date(chunk.calcStartDateTimestamp()));
-        chunk.setEndDate(new Date(chunk.calcEndDateTimestamp()));
-        chunk.setAvgGeoPoint(chunk.calcAvgGeoPoint());
-        chunk.setAvgSpeed(chunk.calcAvgSpeed());
+    public void clearLateChunkList() {
+        lateChunkList.clear();
+        pointsInLateChunkListCounter = 0;
+        for (OpenTrajectory trajectory : trajectoryMap.values()) {
+            if (trajectory.lateChunk != null) {
+                openPointCounter -= trajectory.lateChunk.getNumberOfPoints();
+                trajectory.lateChunk = null;
+            }
+        }
     }
 
+    /**
+     * @return The number of points that arrived too late to be put in order
+     */
+    public long getLatePointCounter() {
+        return latePointCounter;
+    }
+
+    /**
+     * @return The number of points added, duplicates included
+     */
+    public long getPointCounter() {
+        return pointCounter;
+    }
+
+    /**
+     * @return The number of points dropped as copies of a recent point of their vessel
+     */
+    public long getDuplicatePointCounter() {
+        return duplicatePointCounter;
+    }
+
+    /**
+     * @return The share of the added points that were duplicates, 0 if none added
+     */
+    public double getDuplicateRate() {
+        return pointCounter == 0 ? 0 : (double) duplicatePointCounter / pointCounter;
+    }
+
+    /**
+     * @return The number of vessels evicted, idle or beyond the byte budget
+     */
+    public long getEvictedCounter() {
+        return evictedCounter;
+    }
+
+    /**
+     * @return The number of open trajectories
+     */
+    public int getOpenTrajectoryCounter() {
+        return trajectoryMap.size();
+    }
+
+    /**
+     * @return The estimated heap of the open trajectories, bounded by the byte budget
+     */
+    public long getOpenTrajectoryBytes() {
+        return (long) trajectoryMap.size() * BYTES_PER_TRAJECTORY + openPointCounter * BYTES_PER_POINT;
+    }
+
+    /**
+     * @return The estimated heap of the buffer, the completed and late chunks included
+     */
+    public long getEstimatedBytes() {
+        return getOpenTrajectoryBytes()
+                + ((long) pointsInChunkListCounter + pointsInLateChunkListCounter) * BYTES_PER_POINT;
+    }
+
+    private void finalizeChunk(VesselTrajectoryColumnarChunk chunk) {
+        // the columns grow by half, drop the spare capacity of a chunk waiting for its insert
+        chunk.getColumns().trimToSize();
+        // the aggregates run with every added point, nothing left to scan
+        final TrajectoryChunkStats stats = chunk.calcStats();
+        chunk.setStartDate(new Date(stats.getMinT()));
+        chunk.setEndDate(new Date(stats.getMaxT()));
+        chunk.setAvgGeoPoint(stats.getAvgGeoPoint());
+        chunk.setAvgSpeed(stats.getAvgSpeed());
+        chunk.setBoundingBox(stats.getBoundingBox());
+        chunk.setPathLength(stats.getPathLength());
+    }
+
+    /**
+     * The points of a vessel in the buffer: the last ones to find duplicates, waiting in the
+     * reorder buffer, in the open chunk, or
+     * in the open late chunk. Receives the points of the reorder buffer in time order.
+     */
+    private class OpenTrajectory implements PointReorderBuffer.PointConsumer {
+
+        private final int mmsi;
+        private final String vesselId;
+        private final String vesselName;
+        private final String shipType;
+        private final RecentPointRing recentPoints = RecentPointRing.createInstance(dedupWindow);
+        private final PointReorderBuffer reorderBuffer =
+                PointReorderBuffer.createInstance(allowedLateness, maxPending);
+        private VesselTrajectoryColumnarChunk chunk;
+        private VesselTrajectoryColumnarChunk lateChunk;
+        // the clock at the last point, in access order like the map
+        private long lastSeen = Long.MIN_VALUE;
+
+        OpenTrajectory(int mmsi, String vesselId, String vesselName, String shipType) {
+            this.mmsi = mmsi;
+            this.vesselId = vesselId;
+            this.vesselName = vesselName;
+            this.shipType = shipType;
+        }
+
+        @Override
+        public void accept(double lon, double lat, double speed, long t) {
+            chunk = append(this, chunk, lon, lat, speed, t, completedChunkList);
+        }
+    }
 }
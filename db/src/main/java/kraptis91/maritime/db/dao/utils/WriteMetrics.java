@@ -0,0 +1,91 @@
+package kraptis91.maritime.db.dao.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the write stage of an ingest: the written batches and documents, the time spent in
+ * the writes, the time the producer waited on the full queue (the backpressure) and the max queue
+ * depth. Thread-safe, the writer threads and the producer record to a single instance.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class WriteMetrics {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public void recordWrite(int documents, long nanos) {
+        this.batches.increment();
+        this.documents.add(documents);
+        this.writeNanos.add(nanos);
+    }
+
+    public void recordFailure(long nanos) {
+        this.failedBatches.increment();
+        this.writeNanos.add(nanos);
+    }
+
+    public void recordBlocked(long nanos) {
+        this.blockedNanos.add(nanos);
+    }
+
+    public void recordQueueDepth(int depth) {
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    /**
+     * @return The time spent in the writes, summed over the writer threads
+     */
+    public long getWriteNanos() {
+        return writeNanos.sum();
+    }
+
+    /**
+     * @return The time the producer waited for room in the queue
+     */
+    public long getBlockedNanos() {
+        return blockedNanos.sum();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return The documents per second of write time, of one writer thread
+     */
+    public double getDocumentsPerSecond() {
+        final long nanos = getWriteNanos();
+        return nanos == 0 ? 0 : getDocuments() * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteMetrics{" +
+            "batches=" + getBatches() +
+            ", documents=" + getDocuments() +
+            ", failedBatches=" + getFailedBatches() +
+            ", writeMillis=" + getWriteNanos() / 1_000_000 +
+            ", blockedMillis=" + getBlockedNanos() / 1_000_000 +
+            ", maxQueueDepth=" + getMaxQueueDepth() +
+            ", documentsPerSecond=" + Math.round(getDocumentsPerSecond()) +
+            '}';
+    }
+}
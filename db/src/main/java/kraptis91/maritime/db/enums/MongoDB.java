@@ -2,10 +2,12 @@ package kraptis91.maritime.db.enums;
 
 import com.mongodb.MongoClient;
 import com.mongodb.client.MongoDatabase;
+import kraptis91.maritime.db.dao.mongodb.codec.GeoPointCodec;
 import kraptis91.maritime.db.dao.mongodb.codec.OceanConditionsCodec;
 import kraptis91.maritime.db.dao.mongodb.codec.PortCodec;
 import kraptis91.maritime.db.dao.mongodb.codec.VesselCodec;
 import kraptis91.maritime.db.dao.mongodb.codec.VesselTrajectoryPointListChunkCodec;
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecProvider;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
@@ -32,9 +34,11 @@ public enum MongoDB {
         CodecRegistry pojoCodecRegistry =
             CodecRegistries.fromRegistries(
                 CodecRegistries.fromCodecs(new VesselCodec()),
-                CodecRegistries.fromCodecs(new VesselTrajectoryPointListChunkCodec()),
+                CodecRegistries.fromCodecs(new VesselTrajectoryPointListChunkCodec(
+                    MongoDBConfig.INSTANCE.useCompactPoints())),
                 CodecRegistries.fromCodecs(new PortCodec()),
                 CodecRegistries.fromCodecs(new OceanConditionsCodec()),
+                CodecRegistries.fromCodecs(new GeoPointCodec()),
                 MongoClient.getDefaultCodecRegistry(),
                 CodecRegistries.fromProviders(pojoCodecProvider));
 
@@ -45,6 +49,15 @@ public enum MongoDB {
         return database;
     }
 
+    /**
+     * Round trip to the server, the client connects lazily on its first operation.
+     *
+     * @throws com.mongodb.MongoException If the server is not reachable
+     */
+    public void ping() {
+        database.runCommand(new Document("ping", 1));
+    }
+
     private String createConnectionString() {
 
         return MongoDBConfig.INSTANCE.useRemote()
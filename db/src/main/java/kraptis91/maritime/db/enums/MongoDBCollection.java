@@ -5,6 +5,8 @@ public enum MongoDBCollection {
   OCEAN_CONDITIONS("oceanConditions"),
   VESSELS("vessels"),
   VESSEL_TRAJECTORY("vesselTrajectoryChunks"),
+  /** Chunks of the points that arrived too late for the time ordered trajectory chunks. */
+  VESSEL_TRAJECTORY_CORRECTIONS("vesselTrajectoryCorrections"),
   WORLD_PORTS("worldPorts");
 
   private final String name;
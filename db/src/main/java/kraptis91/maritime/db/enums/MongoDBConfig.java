@@ -49,6 +49,17 @@ enum MongoDBConfig {
     return config.getConfig("mongodb").getBoolean("use-remote");
   }
 
+  /**
+   * With the append to open chunks ingest mode only the new chunks get the payload, the points
+   * appended to a stored chunk are kept as point documents next to it.
+   *
+   * @return True to store the trajectory chunk points as a binary payload, false if not set
+   */
+  public boolean useCompactPoints() {
+    return getMongoDBConfig().hasPath("compact-points")
+        && getMongoDBConfig().getBoolean("compact-points");
+  }
+
   private Config getRemoteConfig() {
     return getMongoDBConfig().getConfig("remote");
   }
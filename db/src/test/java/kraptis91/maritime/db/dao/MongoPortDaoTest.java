@@ -3,11 +3,14 @@ package kraptis91.maritime.db.dao;
 import kraptis91.maritime.db.dao.mongodb.query.utils.NearQueryOptions;
 import kraptis91.maritime.model.ModelExtractor;
 import kraptis91.maritime.model.Port;
+import kraptis91.maritime.model.utils.GeoIndex;
 import kraptis91.maritime.parser.enums.WorldPorts;
+import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 /**
@@ -42,4 +45,39 @@ public class MongoPortDaoTest {
             .forEach(System.out::println);
     }
 
+    @Ignore
+    @Test
+    public void testNearPortsIndexAgainstMongo() {
+
+        final List<Port> ports = WorldPorts.INSTANCE.getPortDtoList().stream()
+            .map(ModelExtractor::extractPort)
+            .collect(Collectors.toList());
+        final GeoIndex<Port> index = GeoIndex.createInstance(ports,
+            port -> port.getGeoPoint().lon(),
+            port -> port.getGeoPoint().lat());
+        final PortDao dao = DaoFactory.createMongoPortDao();
+
+        final int queries = 500;
+        final Random random = new Random(17);
+        long indexNanos = 0;
+        long mongoNanos = 0;
+        for (int i = 0; i < queries; i++) {
+            final double longitude = random.nextDouble() * 360 - 180;
+            final double latitude = random.nextDouble() * 140 - 70;
+
+            long start = System.nanoTime();
+            final List<Port> indexed = index.withinDistance(longitude, latitude, 500000, 0, 0, 30);
+            indexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final List<Port> near = dao.findNearPorts(longitude, latitude, 500000, 0, 0, 30);
+            mongoNanos += System.nanoTime() - start;
+
+            Assert.assertEquals(near.size(), indexed.size());
+        }
+
+        System.out.printf("500 km near query: index %.1f us, mongo $near %.1f us%n",
+            indexNanos / 1e3 / queries, mongoNanos / 1e3 / queries);
+    }
+
 }
@@ -5,6 +5,8 @@ import org.junit.Test;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 14/12/2020.
@@ -29,6 +31,25 @@ public class MongoVesselTrajectoryChunkDaoTest {
         dao.insertMany(isBig);
     }
 
+    @Test
+    public void testInsertManyFromMappedFile() throws Exception {
+
+        Path bigPath = Paths.get("D:/NetbeansProjects/maritime-nosql/data/ais-data/nari_dynamic.csv");
+
+        VesselTrajectoryChunkDao dao = DaoFactory.createMongoVesselTrajectoryChunkDao();
+        dao.insertMany(bigPath);
+    }
+
+    @Test
+    public void testAppendInsertMany() throws Exception {
+
+        // the second sample extends the open chunks of the first
+        VesselTrajectoryChunkDao dao = DaoFactory.createMongoVesselTrajectoryChunkDao(true);
+        dao.insertMany(isSample);
+        dao.insertMany(isSample2);
+        dao.findVesselTrajectory(228157000).forEach(System.out::println);
+    }
+
     @Test
     public void testFindVesselTrajectoryChunksByVesselName() {
         VesselTrajectoryChunkDao dao = DaoFactory.createMongoVesselTrajectoryChunkDao();
@@ -1,5 +1,6 @@
 package kraptis91.maritime.db.dao;
 
+import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -27,6 +28,8 @@ public class VesselDaoTest {
 
         VesselDao dao = DaoFactory.createMongoVesselDao();
         dao.insertMany(isSample);
+        Assert.assertTrue(dao.getParseMetrics().getAccepted() > 0);
+        System.out.println("Lines parsed: " + dao.getParseMetrics());
     }
 
     @Ignore
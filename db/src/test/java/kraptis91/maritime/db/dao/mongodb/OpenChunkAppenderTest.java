@@ -0,0 +1,200 @@
+package kraptis91.maritime.db.dao.mongodb;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import kraptis91.maritime.model.ModelFactory;
+import kraptis91.maritime.model.TrajectoryChunkStats;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
+import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class OpenChunkAppenderTest {
+
+    private static final CodecRegistry REGISTRY = MongoClient.getDefaultCodecRegistry();
+
+    // the write models only, nothing is written
+    private final OpenChunkAppender appender = OpenChunkAppender.createInstance(null, 1000, 86400, false);
+
+    private static VesselTrajectoryPointListChunk createChunk(int mmsi, long from, int n, boolean sealed) {
+        final VesselTrajectoryColumnarChunk chunk = ModelFactory.createVesselTrajectoryColumnarChunk(
+            mmsi, "TEST", "Cargo", new ObjectId().toHexString());
+        for (int i = 0; i < n; i++) {
+            // 7 decimals positions, like the ais ones
+            chunk.addPoint(Math.round((-4.4 + i * 1e-3) * 1e7) / 1e7, 48.3, 10 + i, from + i * 10);
+        }
+        final TrajectoryChunkStats stats = chunk.calcStats();
+        chunk.setStartDate(new Date(stats.getMinT()));
+        chunk.setEndDate(new Date(stats.getMaxT()));
+        chunk.setAvgGeoPoint(stats.getAvgGeoPoint());
+        chunk.setAvgSpeed(stats.getAvgSpeed());
+        chunk.setBoundingBox(stats.getBoundingBox());
+        chunk.setPathLength(stats.getPathLength());
+        chunk.setSealed(sealed);
+        return chunk;
+    }
+
+    private static BsonDocument render(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, REGISTRY);
+    }
+
+    private static Document getSet(WriteModel<BsonDocument> model) {
+        final List<? extends Bson> pipeline = ((UpdateOneModel<BsonDocument>) model).getUpdatePipeline();
+        Assert.assertEquals(1, pipeline.size());
+        return (Document) ((Document) pipeline.get(0)).get("$set");
+    }
+
+    @Test
+    public void testOpenChunk() {
+        final VesselTrajectoryPointListChunk chunk = createChunk(1, 1000, 10, false);
+        final List<WriteModel<BsonDocument>> models = appender.createWriteModels(Arrays.asList(chunk));
+
+        Assert.assertEquals(1, models.size());
+        final UpdateOneModel<BsonDocument> upsert = (UpdateOneModel<BsonDocument>) models.get(0);
+        Assert.assertTrue(upsert.getOptions().isUpsert());
+
+        // the open chunk of the vessel, ending before the points and with room for them
+        final String filter = render(upsert.getFilter()).toJson();
+        Assert.assertTrue(filter.contains("\"mmsi\": 1"));
+        Assert.assertTrue(filter.contains("\"sealed\": false"));
+        Assert.assertTrue(filter.contains("\"nPoints\": {\"$lte\": 990}"));
+        Assert.assertTrue(filter.contains("\"endDate\": {\"$lte\": {\"$date\": 1000}}"));
+
+        final Document set = getSet(upsert);
+        Assert.assertEquals(false, set.get("sealed"));
+        final List<?> points = set.get("points", Document.class).get("$concatArrays", List.class);
+        Assert.assertEquals(10, ((Document) points.get(1)).get("$literal", BsonArray.class).size());
+
+        // the other open chunks of the vessel are sealed
+        final List<WriteModel<BsonDocument>> sealModels = appender.createSealModels(Arrays.asList(chunk));
+        Assert.assertEquals(1, sealModels.size());
+        final UpdateManyModel<BsonDocument> seal = (UpdateManyModel<BsonDocument>) sealModels.get(0);
+        Assert.assertTrue(render(seal.getFilter()).toJson().contains("$nor"));
+        Assert.assertEquals("{\"$set\": {\"sealed\": true}}", render(seal.getUpdate()).toJson());
+    }
+
+    @Test
+    public void testChunksOfAVessel() {
+        // out of order in the batch, a completed chunk and the open chunk of one vessel
+        final List<VesselTrajectoryPointListChunk> batch = Arrays.asList(
+            createChunk(1, 20000, 5, false),
+            createChunk(2, 1000, 5, false),
+            createChunk(1, 1000, 1000, true));
+        final List<WriteModel<BsonDocument>> models = appender.createWriteModels(batch);
+
+        Assert.assertEquals(3, models.size());
+
+        // the first chunk of vessel 1 extends its open chunk, a completed chunk is sealed
+        Assert.assertTrue(models.get(0) instanceof UpdateOneModel);
+        Assert.assertEquals(true, getSet(models.get(0)).get("sealed"));
+        Assert.assertEquals(1000, ((Date) ((Document) getSet(models.get(0)).get("startDate"))
+            .get("$min", List.class).get(1)).getTime());
+
+        // the later chunk is inserted, the open one of the vessel
+        final BsonDocument inserted = ((InsertOneModel<BsonDocument>) models.get(1)).getDocument();
+        Assert.assertFalse(inserted.getBoolean("sealed").getValue());
+        Assert.assertEquals(5, inserted.getInt32("nPoints").getValue());
+        Assert.assertEquals(5, inserted.getArray("points").size());
+
+        // vessel 2 on its own
+        Assert.assertEquals(false, getSet(models.get(2)).get("sealed"));
+
+        // a seal per vessel, on the open chunks before its first chunk
+        final List<WriteModel<BsonDocument>> sealModels = appender.createSealModels(batch);
+        Assert.assertEquals(2, sealModels.size());
+        Assert.assertTrue(render(((UpdateManyModel<BsonDocument>) sealModels.get(0)).getFilter()).toJson()
+            .contains("\"startDate\": {\"$lt\": {\"$date\": 1000}}"));
+    }
+
+    @Test
+    public void testWeightedAverages() {
+        final VesselTrajectoryPointListChunk chunk = createChunk(1, 1000, 10, false);
+        final Document set = getSet(appender.createWriteModels(Arrays.asList(chunk)).get(0));
+
+        // (stored average * stored points + average * points) / (stored points + points)
+        final String avgSpeed =
+            render(new Document("$set", new Document("avgSpeed", set.get("avgSpeed")))).toJson();
+        Assert.assertTrue(avgSpeed.contains("\"$divide\""));
+        Assert.assertTrue(avgSpeed.contains(String.valueOf(chunk.getAvgSpeed() * 10)));
+        Assert.assertEquals(4, set.get("bbox", List.class).size());
+    }
+
+    @Test
+    public void testCompactPoints() {
+        final OpenChunkAppender compactAppender = OpenChunkAppender.createInstance(null, 1000, 86400, true);
+        final List<WriteModel<BsonDocument>> models = compactAppender.createWriteModels(Arrays.asList(
+            createChunk(1, 1000, 10, false), createChunk(1, 20000, 5, false)));
+
+        // an upserted chunk gets the payload, an extended one the appended point documents
+        final Document set = getSet(models.get(0));
+        final String pointsBin =
+            render(new Document("$set", new Document("pointsBin", set.get("pointsBin")))).toJson();
+        Assert.assertTrue(pointsBin.contains("\"$cond\""));
+        Assert.assertTrue(pointsBin.contains("\"missing\""));
+        final List<?> points = set.get("points", Document.class).get("$cond", List.class);
+        Assert.assertEquals("$$REMOVE", points.get(1));
+        Assert.assertTrue(((Document) points.get(2)).containsKey("$concatArrays"));
+
+        // a later chunk is inserted with the payload
+        final BsonDocument inserted = ((InsertOneModel<BsonDocument>) models.get(1)).getDocument();
+        Assert.assertTrue(inserted.containsKey("pointsBin"));
+        Assert.assertFalse(inserted.containsKey("points"));
+
+        // without compact points, the documents only
+        Assert.assertFalse(getSet(appender.createWriteModels(
+            Arrays.asList(createChunk(1, 1000, 10, false))).get(0)).containsKey("pointsBin"));
+    }
+
+    @Test
+    public void testSealsFirst() {
+        // records the bulk writes of the appender
+        final List<List<?>> bulkWrites = new ArrayList<>();
+        final MongoCollection<?>[] collection = new MongoCollection<?>[1];
+        collection[0] = (MongoCollection<?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{MongoCollection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "withDocumentClass":
+                        return collection[0];
+                    case "bulkWrite":
+                        bulkWrites.add((List<?>) args[0]);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+        // after the upsert the extended chunk ends after the points start, so it would match the
+        // seal filter, the seals are written in a step before
+        OpenChunkAppender.createInstance(collection[0], 1000, 86400, false)
+            .write(Arrays.asList(createChunk(1, 1000, 10, false), createChunk(2, 1000, 10, false)));
+
+        Assert.assertEquals(2, bulkWrites.size());
+        Assert.assertEquals(2, bulkWrites.get(0).size());
+        for (Object model : bulkWrites.get(0)) {
+            Assert.assertTrue(model instanceof UpdateManyModel);
+        }
+        Assert.assertEquals(2, bulkWrites.get(1).size());
+        for (Object model : bulkWrites.get(1)) {
+            Assert.assertTrue(model instanceof UpdateOneModel);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package kraptis91.maritime.db.dao.mongodb.codec;
+
+import kraptis91.maritime.model.TrajectoryPointColumns;
+import org.bson.BsonInvalidOperationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class CompactPointEncodingTest {
+
+    /**
+     * An ais track, the values as parsed from the csv, 7 decimals positions and 1 decimal speeds.
+     */
+    static TrajectoryPointColumns createAisColumns(int n, long seed) {
+        final Random random = new Random(seed);
+        final TrajectoryPointColumns columns = new TrajectoryPointColumns(n);
+        double lon = -4.4657183;
+        double lat = 48.3825133;
+        long t = 1443650402L;
+        for (int i = 0; i < n; i++) {
+            lon += random.nextGaussian() * 1e-3;
+            lat += random.nextGaussian() * 1e-3;
+            t += 1 + random.nextInt(i % 50 == 0 ? 600 : 12);
+            columns.add(Double.parseDouble(String.format("%.7f", lon)),
+                Double.parseDouble(String.format("%.7f", lat)),
+                Double.parseDouble(String.format("%.1f", 8 + random.nextGaussian())),
+                t);
+        }
+        return columns;
+    }
+
+    private static void assertSameColumns(TrajectoryPointColumns expected,
+                                          TrajectoryPointColumns actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            // bit for bit
+            Assert.assertEquals(0, Double.compare(expected.getLon(i), actual.getLon(i)));
+            Assert.assertEquals(0, Double.compare(expected.getLat(i), actual.getLat(i)));
+            Assert.assertEquals(0, Double.compare(expected.getSpeed(i), actual.getSpeed(i)));
+            Assert.assertEquals(expected.getT(i), actual.getT(i));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final TrajectoryPointColumns columns = createAisColumns(1000, 1);
+        final byte[] bytes = CompactPointEncoding.encode(columns);
+        Assert.assertEquals(CompactPointEncoding.VERSION, bytes[0]);
+
+        final TrajectoryPointColumns decoded = new TrajectoryPointColumns();
+        CompactPointEncoding.decode(bytes, decoded);
+        assertSameColumns(columns, decoded);
+
+        // regular reports, the deltas of the deltas are mostly a byte
+        System.out.println("Compact points " + bytes.length * 1.0 / columns.size() + " B per point");
+    }
+
+    @Test
+    public void testEdgeValues() {
+        final TrajectoryPointColumns columns = new TrajectoryPointColumns();
+        columns.add(-180, -90, 0, 0);
+        columns.add(180, 90, 102.3, Long.MAX_VALUE / 4);
+        columns.add(0.5, -0.25, 1, 1);
+        columns.add(0.5, -0.25, 1, 1);
+
+        final TrajectoryPointColumns decoded = new TrajectoryPointColumns();
+        CompactPointEncoding.decode(CompactPointEncoding.encode(columns), decoded);
+        assertSameColumns(columns, decoded);
+
+        final TrajectoryPointColumns empty = new TrajectoryPointColumns();
+        CompactPointEncoding.decode(CompactPointEncoding.encode(new TrajectoryPointColumns()), empty);
+        Assert.assertTrue(empty.isEmpty());
+    }
+
+    @Test
+    public void testNotEncoded() {
+        // more decimals than kept, or no decimals at all
+        final TrajectoryPointColumns columns = new TrajectoryPointColumns();
+        columns.add(Math.PI, 48.3, 1, 0);
+        Assert.assertNull(CompactPointEncoding.encode(columns));
+
+        final TrajectoryPointColumns nan = new TrajectoryPointColumns();
+        nan.add(-4.4, 48.3, Double.NaN, 0);
+        Assert.assertNull(CompactPointEncoding.encode(nan));
+    }
+
+    @Test
+    public void testInvalidPayload() {
+        final byte[] bytes = CompactPointEncoding.encode(createAisColumns(10, 2));
+
+        final byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 2;
+        try {
+            CompactPointEncoding.decode(otherVersion, new TrajectoryPointColumns());
+            Assert.fail();
+        } catch (BsonInvalidOperationException e) {
+            Assert.assertTrue(e.getMessage().contains("version"));
+        }
+
+        try {
+            CompactPointEncoding.decode(
+                Arrays.copyOf(bytes, bytes.length - 1), new TrajectoryPointColumns());
+            Assert.fail();
+        } catch (BsonInvalidOperationException e) {
+            Assert.assertTrue(e.getMessage().contains("Truncated"));
+        }
+    }
+}
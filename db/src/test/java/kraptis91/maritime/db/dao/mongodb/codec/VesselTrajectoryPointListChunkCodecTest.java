@@ -0,0 +1,394 @@
+package kraptis91.maritime.db.dao.mongodb.codec;
+
+import com.sun.management.ThreadMXBean;
+import kraptis91.maritime.model.GeoPoint;
+import kraptis91.maritime.model.TrajectoryPointColumns;
+import kraptis91.maritime.model.VesselTrajectoryChunkBuilder;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
+import kraptis91.maritime.model.VesselTrajectoryPoint;
+import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class VesselTrajectoryPointListChunkCodecTest {
+
+    private static final int POINTS = 1000;
+    private static final ThreadMXBean THREAD_MX_BEAN =
+        (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static VesselTrajectoryPointListChunk createChunk() {
+        final VesselTrajectoryPointListChunk chunk = new VesselTrajectoryChunkBuilder(228190600)
+            .withVesselName("TEST")
+            .withShipType("Cargo")
+            .withStartDate(new Date(1443650402000L))
+            .withEndDate(new Date(1443650402000L + POINTS * 60_000L))
+            .withAvgGeoPoint(GeoPoint.of(-4.4, 48.3))
+            .withAvgSpeed(9.5)
+            .withNPoints(POINTS)
+            .buildPointListChunk();
+        final String vesselId = new ObjectId().toHexString();
+        for (int i = 0; i < POINTS; i++) {
+            chunk.getPointList().add(VesselTrajectoryPoint.builder()
+                .withCoordinates(GeoPoint.of(-4.4 + i * 1e-4, 48.3 - i * 1e-4))
+                .withSpeed(i % 100 / 10.0)
+                .withTimestamp(1443650402L + i * 60)
+                .withVesselId(vesselId)
+                .build());
+        }
+        return chunk;
+    }
+
+    /** The points of the chunk in a columnar chunk. */
+    private static VesselTrajectoryColumnarChunk toColumnarChunk(VesselTrajectoryPointListChunk chunk) {
+        final VesselTrajectoryColumnarChunk columnarChunk =
+            new VesselTrajectoryChunkBuilder(chunk.getMmsi())
+                .withVesselName(chunk.getVesselName())
+                .withShipType(chunk.getShipType())
+                .withStartDate(chunk.getStartDate())
+                .withEndDate(chunk.getEndDate())
+                .withAvgGeoPoint(chunk.getAvgGeoPoint())
+                .withAvgSpeed(chunk.getAvgSpeed())
+                .buildColumnarChunk(chunk.getPointList().get(0).getVesselId());
+        for (VesselTrajectoryPoint point : chunk.getPointList()) {
+            columnarChunk.addPoint(point.getGeoPoint().lon(), point.getGeoPoint().lat(),
+                point.getSpeed(), point.getTimestamp());
+        }
+        return columnarChunk;
+    }
+
+    private static byte[] encode(VesselTrajectoryPointListChunkCodec codec,
+                                 VesselTrajectoryPointListChunk chunk) {
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        encode(codec, chunk, buffer);
+        return buffer.toByteArray();
+    }
+
+    private static void encode(VesselTrajectoryPointListChunkCodec codec,
+                               VesselTrajectoryPointListChunk chunk,
+                               BasicOutputBuffer buffer) {
+        buffer.truncateToPosition(0);
+        codec.encode(new BsonBinaryWriter(buffer), chunk, EncoderContext.builder().build());
+    }
+
+    private static VesselTrajectoryPointListChunk decode(VesselTrajectoryPointListChunkCodec codec,
+                                                         byte[] bytes) {
+        return codec.decode(
+            new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec();
+        final VesselTrajectoryPointListChunk chunk = createChunk();
+        final VesselTrajectoryPointListChunk decoded = decode(codec, encode(codec, chunk));
+
+        Assert.assertEquals(chunk.getMmsi(), decoded.getMmsi());
+        Assert.assertEquals(chunk.getAvgGeoPoint(), decoded.getAvgGeoPoint());
+        Assert.assertEquals(chunk.getEndDate(), decoded.getEndDate());
+        Assert.assertEquals(chunk.getPointList(), decoded.getPointList());
+        Assert.assertEquals(chunk.getPointList().get(1).getVesselId(),
+            decoded.getPointList().get(1).getVesselId());
+    }
+
+    @Test
+    public void testColumnarChunk() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec();
+        final VesselTrajectoryPointListChunk chunk = createChunk();
+        final VesselTrajectoryColumnarChunk columnarChunk = toColumnarChunk(chunk);
+
+        // the same documents as the point list chunk
+        Assert.assertEquals(toJsonWithoutId(encode(codec, chunk)),
+            toJsonWithoutId(encode(codec, columnarChunk)));
+
+        final VesselTrajectoryPointListChunk decoded = decode(codec, encode(codec, chunk));
+        Assert.assertTrue(decoded instanceof VesselTrajectoryColumnarChunk);
+        Assert.assertEquals(columnarChunk.getVesselId(),
+            ((VesselTrajectoryColumnarChunk) decoded).getVesselId());
+        Assert.assertEquals(chunk.getPointList(), decoded.getPointList());
+    }
+
+    @Test
+    public void testStats() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec();
+        final VesselTrajectoryColumnarChunk chunk = toColumnarChunk(createChunk());
+        chunk.setBoundingBox(chunk.calcStats().getBoundingBox());
+        chunk.setPathLength(chunk.calcStats().getPathLength());
+
+        final VesselTrajectoryPointListChunk decoded = decode(codec, encode(codec, chunk));
+        Assert.assertEquals(chunk.getBoundingBox(), decoded.getBoundingBox());
+        Assert.assertEquals(chunk.getPathLength(), decoded.getPathLength(), 0);
+        Assert.assertTrue(decoded.getPathLength() > 0);
+    }
+
+    @Test
+    public void testMixedVesselIds() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec();
+        final VesselTrajectoryPointListChunk chunk = createChunk();
+        final VesselTrajectoryPoint last = chunk.getPointList().get(POINTS - 1);
+        chunk.getPointList().set(POINTS - 1, VesselTrajectoryPoint.builder()
+            .withCoordinates(last.getGeoPoint())
+            .withSpeed(last.getSpeed())
+            .withTimestamp(last.getTimestamp())
+            .withVesselId(new ObjectId().toHexString())
+            .build());
+
+        // the points of another vessel do not fit the columns, a point list chunk
+        final VesselTrajectoryPointListChunk decoded = decode(codec, encode(codec, chunk));
+        Assert.assertFalse(decoded instanceof VesselTrajectoryColumnarChunk);
+        Assert.assertEquals(chunk.getPointList(), decoded.getPointList());
+        Assert.assertEquals(chunk.getPointList().get(POINTS - 1).getVesselId(),
+            decoded.getPointList().get(POINTS - 1).getVesselId());
+    }
+
+    /** The chunk as the codec wrote it before, a document per point and per GeoPoint. */
+    private static byte[] encodeAsDocument(VesselTrajectoryPointListChunk chunk) {
+        final Document document = new Document("_id", new ObjectId())
+            .append("mmsi", chunk.getMmsi())
+            .append("vesselName", chunk.getVesselName())
+            .append("shipType", chunk.getShipType())
+            .append("startDate", chunk.getStartDate())
+            .append("endDate", chunk.getEndDate())
+            .append("points", chunk.getPointList().stream()
+                .map(point -> new Document("geoPoint", geoPointDocument(point.getGeoPoint()))
+                    .append("speed", point.getSpeed())
+                    .append("vesselId", point.getVesselId())
+                    .append("timestamp", point.getTimestamp()))
+                .collect(Collectors.toList()))
+            .append("nPoints", chunk.getNumberOfPoints())
+            .append("avgGeoPoint", geoPointDocument(chunk.getAvgGeoPoint()))
+            .append("avgSpeed", chunk.getAvgSpeed())
+            .append("sealed", chunk.isSealed());
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        new DocumentCodec().encode(
+            new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private static Document geoPointDocument(GeoPoint point) {
+        return new Document("coordinates", List.of(point.lon(), point.lat()))
+            .append("type", "Point");
+    }
+
+    /** Extended json keeps the field order and the bson types, without the random _id. */
+    private static String toJsonWithoutId(byte[] bytes) {
+        final BsonDocument document = new BsonDocumentCodec().decode(
+            new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+        document.remove("_id");
+        return document.toJson(JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build());
+    }
+
+    @Test
+    public void testSameBsonAsDocuments() {
+        final VesselTrajectoryPointListChunk chunk = createChunk();
+        Assert.assertEquals(toJsonWithoutId(encodeAsDocument(chunk)),
+            toJsonWithoutId(encode(new VesselTrajectoryPointListChunkCodec(), chunk)));
+
+        // and the geo point alone, byte for byte
+        final GeoPoint point = GeoPoint.of(-4.4, 48.3);
+        final BasicOutputBuffer expected = new BasicOutputBuffer();
+        new DocumentCodec().encode(new BsonBinaryWriter(expected), geoPointDocument(point),
+            EncoderContext.builder().build());
+        final BasicOutputBuffer actual = new BasicOutputBuffer();
+        new GeoPointCodec().encode(new BsonBinaryWriter(actual), point,
+            EncoderContext.builder().build());
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void testAllocations() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec();
+        final VesselTrajectoryPointListChunk chunk = createChunk();
+        final int rounds = 200;
+
+        // the same buffer every time, to measure the codec and not the buffer growth
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        final byte[] bytes = encode(codec, chunk);
+        for (int i = 0; i < rounds; i++) {
+            encode(codec, chunk, buffer);
+            decode(codec, bytes);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            encode(codec, chunk, buffer);
+        }
+        final long encodeNanos = System.nanoTime() - start;
+        final long encodeBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            decode(codec, bytes);
+        }
+        final long decodeNanos = System.nanoTime() - start;
+        final long decodeBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocated;
+
+        final long points = (long) rounds * POINTS;
+        System.out.printf("Per point: encode %d ns %d B, decode %d ns %d B, %d B of bson%n",
+            encodeNanos / points, encodeBytes / points,
+            decodeNanos / points, decodeBytes / points, bytes.length / POINTS);
+    }
+
+    /** A columnar chunk of an ais track, the values as parsed from the csv. */
+    private static VesselTrajectoryColumnarChunk createAisChunk(long seed) {
+        final TrajectoryPointColumns columns = CompactPointEncodingTest.createAisColumns(POINTS, seed);
+        final VesselTrajectoryColumnarChunk chunk = new VesselTrajectoryChunkBuilder(228190600)
+            .withVesselName("TEST")
+            .withShipType("Cargo")
+            .withStartDate(new Date(columns.getT(0)))
+            .withEndDate(new Date(columns.getT(POINTS - 1)))
+            .withAvgGeoPoint(GeoPoint.of(-4.4, 48.3))
+            .withAvgSpeed(8)
+            .buildColumnarChunk(new ObjectId().toHexString());
+        for (int i = 0; i < columns.size(); i++) {
+            chunk.addPoint(columns.getLon(i), columns.getLat(i), columns.getSpeed(i), columns.getT(i));
+        }
+        return chunk;
+    }
+
+    private static BsonDocument encodeToDocument(VesselTrajectoryPointListChunkCodec codec,
+                                                 VesselTrajectoryPointListChunk chunk) {
+        final BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), chunk, EncoderContext.builder().build());
+        return document;
+    }
+
+    @Test
+    public void testCompactPoints() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec(true);
+        final VesselTrajectoryColumnarChunk chunk = createAisChunk(1);
+
+        final BsonDocument document = encodeToDocument(codec, chunk);
+        Assert.assertTrue(document.containsKey("pointsBin"));
+        Assert.assertFalse(document.containsKey("points"));
+        Assert.assertEquals(chunk.getVesselId(), document.getString("vesselId").getValue());
+
+        final VesselTrajectoryPointListChunk decoded = decode(codec, encode(codec, chunk));
+        Assert.assertTrue(decoded instanceof VesselTrajectoryColumnarChunk);
+        Assert.assertEquals(chunk.getVesselId(), ((VesselTrajectoryColumnarChunk) decoded).getVesselId());
+        Assert.assertEquals(chunk.getNumberOfPoints(), decoded.getNumberOfPoints());
+        Assert.assertEquals(chunk.getPointList(), decoded.getPointList());
+
+        // the codec without compact points still reads them
+        Assert.assertEquals(chunk.getPointList(),
+            decode(new VesselTrajectoryPointListChunkCodec(), encode(codec, chunk)).getPointList());
+    }
+
+    @Test
+    public void testCompactPointsFallback() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec(true);
+
+        // more decimals than the compact points keep
+        final VesselTrajectoryColumnarChunk chunk = createAisChunk(2);
+        chunk.addPoint(Math.PI, 48.3, 1, chunk.getEndDate().getTime() + 1);
+        BsonDocument document = encodeToDocument(codec, chunk);
+        Assert.assertFalse(document.containsKey("pointsBin"));
+        Assert.assertEquals(chunk.getPointList(), decode(codec, encode(codec, chunk)).getPointList());
+
+        // the point list chunks keep a vessel id per point
+        final VesselTrajectoryPointListChunk pointListChunk = createChunk();
+        document = encodeToDocument(codec, pointListChunk);
+        Assert.assertFalse(document.containsKey("pointsBin"));
+        Assert.assertEquals(toJsonWithoutId(encode(new VesselTrajectoryPointListChunkCodec(), pointListChunk)),
+            toJsonWithoutId(encode(codec, pointListChunk)));
+    }
+
+    @Test
+    public void testCompactPointsWithAppendedPoints() {
+        final VesselTrajectoryPointListChunkCodec codec = new VesselTrajectoryPointListChunkCodec(true);
+        final VesselTrajectoryColumnarChunk chunk = createAisChunk(3);
+
+        // the open chunk appender adds the points of the next ingest as documents
+        final VesselTrajectoryColumnarChunk next = createAisChunk(4);
+        final BsonArray appended = encodeToDocument(new VesselTrajectoryPointListChunkCodec(), next)
+            .getArray("points");
+        for (int i = 0; i < appended.size(); i++) {
+            appended.get(i).asDocument().put("vesselId", new BsonString(chunk.getVesselId()));
+        }
+        final BsonDocument document = encodeToDocument(codec, chunk);
+        document.put("points", appended);
+
+        final VesselTrajectoryPointListChunk decoded = codec.decode(
+            new BsonDocumentReader(document), DecoderContext.builder().build());
+        Assert.assertTrue(decoded instanceof VesselTrajectoryColumnarChunk);
+        Assert.assertEquals(2 * POINTS, decoded.getPointList().size());
+        Assert.assertEquals(chunk.getPointList(), decoded.getPointList().subList(0, POINTS));
+        Assert.assertEquals(next.getPointList().get(0).getGeoPoint(), decoded.getPointList().get(POINTS).getGeoPoint());
+
+        // the points of another vessel
+        document.put("points", encodeToDocument(new VesselTrajectoryPointListChunkCodec(), next)
+            .getArray("points"));
+        final VesselTrajectoryPointListChunk mixed = codec.decode(
+            new BsonDocumentReader(document), DecoderContext.builder().build());
+        Assert.assertFalse(mixed instanceof VesselTrajectoryColumnarChunk);
+        Assert.assertEquals(chunk.getVesselId(), mixed.getPointList().get(0).getVesselId());
+        Assert.assertEquals(next.getVesselId(), mixed.getPointList().get(POINTS).getVesselId());
+    }
+
+    @Test
+    public void testCompactPointsBenchmark() {
+        final VesselTrajectoryPointListChunkCodec documentCodec = new VesselTrajectoryPointListChunkCodec();
+        final VesselTrajectoryPointListChunkCodec compactCodec = new VesselTrajectoryPointListChunkCodec(true);
+        final VesselTrajectoryColumnarChunk chunk = createAisChunk(5);
+        final int rounds = 200;
+
+        final byte[] documentBytes = encode(documentCodec, chunk);
+        final byte[] compactBytes = encode(compactCodec, chunk);
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        for (int i = 0; i < rounds; i++) {
+            encode(documentCodec, chunk, buffer);
+            encode(compactCodec, chunk, buffer);
+            decode(documentCodec, documentBytes);
+            decode(compactCodec, compactBytes);
+        }
+
+        for (VesselTrajectoryPointListChunkCodec codec : Arrays.asList(documentCodec, compactCodec)) {
+            final byte[] bytes = codec == compactCodec ? compactBytes : documentBytes;
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                encode(codec, chunk, buffer);
+            }
+            final long encodeNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                decode(codec, bytes);
+            }
+            final long decodeNanos = System.nanoTime() - start;
+
+            final long points = (long) rounds * POINTS;
+            System.out.printf("%s points, per point: encode %d ns, decode %d ns, %.1f B of bson%n",
+                codec == compactCodec ? "Compact" : "Document",
+                encodeNanos / points, decodeNanos / points, bytes.length * 1.0 / POINTS);
+        }
+        System.out.printf("Compact points %.1fx smaller%n", documentBytes.length * 1.0 / compactBytes.length);
+        Assert.assertTrue(compactBytes.length * 5 < documentBytes.length);
+    }
+}
@@ -0,0 +1,211 @@
+package kraptis91.maritime.db.dao.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class BulkWriterTest {
+
+    private static List<Integer> createBatch(int from, int size) {
+        final List<Integer> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(from + i);
+        }
+        return batch;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testWritesEveryBatch() throws Exception {
+        final List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        final WriteMetrics metrics = new WriteMetrics();
+        try (BulkWriter<Integer> writer =
+                 BulkWriter.createInstance(written::addAll, 4, 2, metrics, "test")) {
+            for (int i = 0; i < 100; i++) {
+                writer.submit(createBatch(i * 10, 10));
+            }
+            writer.flush();
+            Assert.assertEquals(1000, written.size());
+        }
+        Collections.sort(written);
+        Assert.assertEquals(createBatch(0, 1000), written);
+        Assert.assertEquals(100, metrics.getBatches());
+        Assert.assertEquals(1000, metrics.getDocuments());
+        Assert.assertTrue(metrics.getMaxQueueDepth() <= 2);
+    }
+
+    @Test
+    public void testOverlapsWritesWithTheProducer() throws Exception {
+        final int batches = 20;
+        final long writeMillis = 20;
+        final long parseMillis = 20;
+        final WriteMetrics metrics = new WriteMetrics();
+
+        // every batch costs a parse on the producer and a round trip on a writer
+        final long start = System.nanoTime();
+        try (BulkWriter<Integer> writer = BulkWriter.createInstance(
+            batch -> sleep(writeMillis), 4, 4, metrics, "test")) {
+            for (int i = 0; i < batches; i++) {
+                sleep(parseMillis);
+                writer.submit(createBatch(0, 1));
+            }
+        }
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Pipelined " + millis + " ms, sequential "
+            + batches * (parseMillis + writeMillis) + " ms, " + metrics);
+        Assert.assertTrue(millis < batches * (parseMillis + writeMillis));
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        final WriteMetrics metrics = new WriteMetrics();
+        try (BulkWriter<Integer> writer = BulkWriter.createInstance(
+            batch -> sleep(10), 1, 1, metrics, "test")) {
+            for (int i = 0; i < 10; i++) {
+                writer.submit(createBatch(0, 1));
+            }
+        }
+        // one writer and room for one batch, the producer waited on the writer
+        Assert.assertTrue(metrics.getBlockedNanos() > 0);
+        Assert.assertEquals(1, metrics.getMaxQueueDepth());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final AtomicInteger written = new AtomicInteger();
+        // the failure is reported once every batch is submitted, not by a submit
+        final CountDownLatch submitted = new CountDownLatch(1);
+        final BulkWriter<Integer> writer = BulkWriter.createInstance(batch -> {
+            if (batch.contains(5)) {
+                try {
+                    submitted.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalArgumentException("Error... Test");
+            }
+            written.incrementAndGet();
+        }, 2, 4, new WriteMetrics(), "test");
+
+        for (int i = 0; i < 10; i++) {
+            writer.submit(createBatch(i, 1));
+        }
+        submitted.countDown();
+        try {
+            writer.close();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        // unordered, the other batches are written
+        Assert.assertEquals(9, written.get());
+        Assert.assertEquals(1, writer.getMetrics().getFailedBatches());
+    }
+
+    @Test
+    public void testCloseInterrupted() throws Exception {
+        final List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        final BulkWriter<Integer> writer = BulkWriter.createInstance(batch -> {
+            sleep(20);
+            written.addAll(batch);
+        }, 1, 1, new WriteMetrics(), "test");
+        for (int i = 0; i < 3; i++) {
+            writer.submit(createBatch(i * 10, 10));
+        }
+
+        // e.g. a follow stopped by an interrupt, the batches are still written
+        Thread.currentThread().interrupt();
+        try {
+            writer.close();
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        Assert.assertEquals(30, written.size());
+    }
+
+    @Test
+    public void testError() throws Exception {
+        final AtomicInteger written = new AtomicInteger();
+        final BulkWriter<Integer> writer = BulkWriter.createInstance(batch -> {
+            if (batch.contains(5)) {
+                throw new StackOverflowError();
+            }
+            written.incrementAndGet();
+        }, 1, 1, new WriteMetrics(), "test");
+
+        for (int i = 0; i < 10; i++) {
+            try {
+                writer.submit(createBatch(i, 1));
+            } catch (IllegalStateException e) {
+                // reported by a later submit, once written
+                Assert.assertTrue(e.getCause() instanceof StackOverflowError);
+            }
+        }
+        try {
+            writer.flush();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof StackOverflowError);
+        }
+        try {
+            writer.close();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof StackOverflowError);
+        }
+        Assert.assertEquals(1, writer.getMetrics().getFailedBatches());
+    }
+
+    @Test(timeout = 10_000)
+    public void testWritersDied() throws Exception {
+        // an error escaping the failure handling kills the only writer thread
+        final WriteMetrics metrics = new WriteMetrics() {
+            @Override
+            public void recordFailure(long nanos) {
+                throw new OutOfMemoryError();
+            }
+        };
+        final BulkWriter<Integer> writer = BulkWriter.createInstance(batch -> {
+            throw new OutOfMemoryError();
+        }, 1, 1, metrics, "test");
+
+        // the submits fail instead of blocking on the full queue
+        try {
+            for (int i = 0; i < 10; i++) {
+                writer.submit(createBatch(i, 1));
+            }
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof OutOfMemoryError);
+        }
+        try {
+            writer.flush();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof OutOfMemoryError);
+        }
+        try {
+            writer.close();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof OutOfMemoryError);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package kraptis91.maritime.db.dao.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class PointReorderBufferTest {
+
+    @Test
+    public void testReorder() {
+        final PointReorderBuffer buffer = PointReorderBuffer.createInstance(60, 16);
+        final List<Long> emitted = new ArrayList<>();
+        final PointReorderBuffer.PointConsumer consumer =
+            (lon, lat, speed, t) -> emitted.add(t);
+
+        for (long t : new long[]{100, 130, 110, 90, 170, 150, 240}) {
+            Assert.assertTrue(buffer.offer(0, 0, 0, t, consumer));
+        }
+        // the watermark is 240 - 60, the points up to 180 are due
+        Assert.assertEquals(List.of(90L, 100L, 110L, 130L, 150L, 170L), emitted);
+        Assert.assertEquals(1, buffer.size());
+
+        // older than an emitted point, late
+        Assert.assertFalse(buffer.offer(0, 0, 0, 160, consumer));
+        // older than the watermark but not than the emitted points, in order
+        Assert.assertTrue(buffer.offer(0, 0, 0, 175, consumer));
+        buffer.drain(consumer);
+        Assert.assertEquals(List.of(90L, 100L, 110L, 130L, 150L, 170L, 175L, 240L), emitted);
+        Assert.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testMaxPending() {
+        // a lateness no point outlives, only the bound emits
+        final PointReorderBuffer buffer = PointReorderBuffer.createInstance(Long.MAX_VALUE, 3);
+        final List<Long> emitted = new ArrayList<>();
+        int accepted = 0;
+        for (long t = 10; t > 0; t--) {
+            if (buffer.offer(0, 0, 0, t, (lon, lat, speed, time) -> emitted.add(time))) {
+                accepted++;
+            }
+        }
+        // the fourth point pushes out the oldest, the older points after it are late
+        Assert.assertEquals(4, accepted);
+        Assert.assertEquals(List.of(7L), emitted);
+        Assert.assertEquals(3, buffer.size());
+    }
+
+    @Test
+    public void testValuesFollowTheirTimestamp() {
+        final PointReorderBuffer buffer = PointReorderBuffer.createInstance(1000, 1000);
+        final Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            final long t = random.nextInt(1000);
+            buffer.offer(t, t + 1, t + 2, t, (lon, lat, speed, time) -> Assert.fail());
+        }
+        final long[] last = {Long.MIN_VALUE};
+        buffer.drain((lon, lat, speed, t) -> {
+            Assert.assertTrue(t >= last[0]);
+            Assert.assertEquals(t, lon, 0);
+            Assert.assertEquals(t + 1, lat, 0);
+            Assert.assertEquals(t + 2, speed, 0);
+            last[0] = t;
+        });
+    }
+}
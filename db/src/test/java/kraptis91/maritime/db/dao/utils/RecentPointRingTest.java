@@ -0,0 +1,30 @@
+package kraptis91.maritime.db.dao.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class RecentPointRingTest {
+
+    @Test
+    public void testAddIfAbsent() {
+        final RecentPointRing ring = RecentPointRing.createInstance(2);
+        Assert.assertTrue(ring.addIfAbsent(10, -4.4, 48.3));
+        Assert.assertFalse(ring.addIfAbsent(10, -4.4, 48.3));
+        // another position or time is another message
+        Assert.assertTrue(ring.addIfAbsent(10, -4.41, 48.3));
+        Assert.assertTrue(ring.addIfAbsent(11, -4.4, 48.3));
+        Assert.assertEquals(2, ring.size());
+        // pushed out of the ring
+        Assert.assertTrue(ring.addIfAbsent(10, -4.4, 48.3));
+    }
+
+    @Test
+    public void testEmpty() {
+        final RecentPointRing ring = RecentPointRing.createInstance(0);
+        Assert.assertTrue(ring.addIfAbsent(10, -4.4, 48.3));
+        Assert.assertTrue(ring.addIfAbsent(10, -4.4, 48.3));
+    }
+}
@@ -0,0 +1,192 @@
+package kraptis91.maritime.db.dao.utils;
+
+import kraptis91.maritime.db.dao.VesselDao;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
+import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import kraptis91.maritime.parser.dto.csv.NariDynamicBatch;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class VesselBufferTest {
+
+    private static final long MAX_BYTES = VesselBuffer.DEFAULT_MAX_BYTES;
+
+    /**
+     * The vessels of even mmsis exist, every query is recorded.
+     */
+    private static class EvenVessels {
+
+        private final Map<Integer, ObjectId> ids = new HashMap<>();
+        private final List<Collection<Integer>> queries = new ArrayList<>();
+
+        private void find(Collection<Integer> mmsiList, VesselDao.VesselIdentityConsumer consumer) {
+            queries.add(mmsiList == null ? null : new ArrayList<>(mmsiList));
+            final Collection<Integer> mmsis = mmsiList == null ? createMmsiList(0, 10000) : mmsiList;
+            for (int mmsi : mmsis) {
+                if (mmsi % 2 == 0) {
+                    consumer.accept(mmsi, ids.computeIfAbsent(mmsi, m -> new ObjectId()),
+                        new String("VESSEL " + mmsi % 10), new String("Cargo"));
+                }
+            }
+        }
+    }
+
+    private static List<Integer> createMmsiList(int from, int size) {
+        final List<Integer> mmsiList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            mmsiList.add(from + i);
+        }
+        return mmsiList;
+    }
+
+    @Test
+    public void testLoad() {
+        final EvenVessels vessels = new EvenVessels();
+        final VesselBuffer buffer = new VesselBuffer(vessels::find, 100, MAX_BYTES);
+
+        final int[] mmsiColumn = new int[500];
+        for (int i = 0; i < mmsiColumn.length; i++) {
+            // every mmsi twice
+            mmsiColumn[i] = 228000000 + i / 2;
+        }
+        buffer.load(mmsiColumn, mmsiColumn.length);
+
+        // 250 distinct mmsis in queries of up to 100
+        Assert.assertEquals(3, buffer.getQueryCounter());
+        Assert.assertEquals(125, buffer.size());
+        Assert.assertEquals(125, buffer.getNotFoundCounter());
+
+        for (int i = 0; i < mmsiColumn.length; i++) {
+            final int mmsi = mmsiColumn[i];
+            Assert.assertEquals(mmsi % 2 == 0, buffer.contains(mmsi));
+            if (mmsi % 2 == 0) {
+                Assert.assertEquals(vessels.ids.get(mmsi).toHexString(), buffer.getVesselId(mmsi));
+                Assert.assertEquals("VESSEL " + mmsi % 10, buffer.getVesselName(mmsi));
+                Assert.assertEquals("Cargo", buffer.getShipType(mmsi));
+            } else {
+                Assert.assertNull(buffer.getVesselId(mmsi));
+                Assert.assertNull(buffer.getVesselName(mmsi));
+            }
+        }
+
+        // the mmsis not found are not queried again
+        buffer.load(mmsiColumn, mmsiColumn.length);
+        Assert.assertEquals(3, buffer.getQueryCounter());
+    }
+
+    @Test
+    public void testInterned() {
+        final VesselBuffer buffer = new VesselBuffer(new EvenVessels()::find, 100, MAX_BYTES);
+        buffer.load(new int[]{10, 20}, 2);
+        Assert.assertSame(buffer.getShipType(10), buffer.getShipType(20));
+        Assert.assertSame(buffer.getVesselName(10), buffer.getVesselName(20));
+    }
+
+    @Test
+    public void testLoadAll() {
+        final VesselBuffer buffer = new VesselBuffer(new EvenVessels()::find, 100, MAX_BYTES);
+        buffer.loadAll();
+        Assert.assertEquals(5000, buffer.size());
+
+        // a single scan, the mmsis missing from it are not queried
+        Assert.assertTrue(buffer.contains(9998));
+        Assert.assertFalse(buffer.contains(9999));
+        Assert.assertFalse(buffer.contains(20000));
+        Assert.assertEquals(1, buffer.getQueryCounter());
+    }
+
+    @Test
+    public void testEviction() {
+        final EvenVessels vessels = new EvenVessels();
+        // room for 100 vessels
+        final VesselBuffer buffer =
+            new VesselBuffer(vessels::find, 100, 100 * VesselBuffer.BYTES_PER_VESSEL);
+
+        final Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            final int mmsi = random.nextInt(1000);
+            Assert.assertEquals(mmsi % 2 == 0, buffer.contains(mmsi));
+            if (mmsi % 2 == 0) {
+                Assert.assertEquals(vessels.ids.get(mmsi).toHexString(), buffer.getVesselId(mmsi));
+                Assert.assertEquals("VESSEL " + mmsi % 10, buffer.getVesselName(mmsi));
+            }
+            Assert.assertTrue(buffer.size() + buffer.getNotFoundCounter() <= 100);
+        }
+        Assert.assertTrue(buffer.getEvictedCounter() > 0);
+        Assert.assertTrue(buffer.getEstimatedBytes() <= 100 * VesselBuffer.BYTES_PER_VESSEL);
+    }
+
+    @Test
+    public void testLoadAllBeyondBudget() {
+        final VesselBuffer buffer =
+            new VesselBuffer(new EvenVessels()::find, 100, 100 * VesselBuffer.BYTES_PER_VESSEL);
+        buffer.loadAll();
+        Assert.assertEquals(100, buffer.size());
+
+        // evicted vessels are queried again
+        Assert.assertTrue(buffer.contains(0));
+        Assert.assertEquals(2, buffer.getQueryCounter());
+    }
+
+    @Test
+    public void testAddPoints() {
+        final EvenVessels vessels = new EvenVessels();
+        final VesselBuffer vesselBuffer = new VesselBuffer(vessels::find, 100, MAX_BYTES);
+        final VesselTrajectoryBuffer trajectoryBuffer = VesselTrajectoryBuffer.createInstance(1000);
+
+        final NariDynamicBatch batch = NariDynamicBatch.createInstance(100);
+        for (int i = 0; i < 100; i++) {
+            batch.add(228000000 + i % 4, 10, -4.4, 48.3, 1000 + i);
+        }
+
+        // the points of the odd mmsis are skipped, one query for the batch
+        Assert.assertEquals(50, trajectoryBuffer.addPoints(batch, vesselBuffer));
+        Assert.assertEquals(1, vesselBuffer.getQueryCounter());
+
+        trajectoryBuffer.drain();
+        final List<VesselTrajectoryPointListChunk> chunks = trajectoryBuffer.getIncompletedChunkList();
+        Assert.assertEquals(2, chunks.size());
+        for (VesselTrajectoryPointListChunk chunk : chunks) {
+            Assert.assertEquals(vessels.ids.get(chunk.getMmsi()).toHexString(),
+                ((VesselTrajectoryColumnarChunk) chunk).getVesselId());
+            Assert.assertEquals("Cargo", chunk.getShipType());
+        }
+    }
+
+    @Test
+    public void testMemory() {
+        final int n = 200_000;
+        final EvenVessels vessels = new EvenVessels();
+        final List<Integer> mmsiList = createMmsiList(0, 2 * n);
+        final List<Object[]> rows = new ArrayList<>();
+        vessels.find(mmsiList, (mmsi, id, name, type) -> rows.add(new Object[]{mmsi, id, name, type}));
+
+        System.gc();
+        final long before = usedMemory();
+        final VesselBuffer buffer = new VesselBuffer((list, consumer) -> rows.forEach(
+            row -> consumer.accept((int) row[0], (ObjectId) row[1], (String) row[2], (String) row[3])),
+            Integer.MAX_VALUE, MAX_BYTES);
+        buffer.loadAll();
+        System.gc();
+        final long after = usedMemory();
+
+        System.out.println("VesselBuffer " + (after - before) / n + " bytes per vessel");
+        Assert.assertEquals(n, buffer.size());
+        Assert.assertEquals(n, rows.size());
+    }
+
+    private static long usedMemory() {
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
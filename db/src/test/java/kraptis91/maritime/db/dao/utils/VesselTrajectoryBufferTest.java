@@ -0,0 +1,238 @@
+package kraptis91.maritime.db.dao.utils;
+
+import kraptis91.maritime.model.Vessel;
+import kraptis91.maritime.model.VesselTrajectoryColumnarChunk;
+import kraptis91.maritime.model.VesselTrajectoryPointListChunk;
+import kraptis91.maritime.model.chunking.MaxPointsChunkingPolicy;
+import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class VesselTrajectoryBufferTest {
+
+    private static final Vessel VESSEL = Vessel.builder()
+        .withMMSI(228190600)
+        .withVesselName("TEST")
+        .withShipType("Cargo")
+        .withObjectIdHexString(new ObjectId().toHexString())
+        .build();
+
+    private static final int DEDUP_WINDOW = VesselTrajectoryBuffer.DEFAULT_DEDUP_WINDOW;
+
+    private static NariDynamicDto createDto(long t) {
+        return createDto(VESSEL.getMMSI(), t);
+    }
+
+    private static NariDynamicDto createDto(int mmsi, long t) {
+        final NariDynamicDto dto = new NariDynamicDto();
+        dto.setMMSI(mmsi);
+        dto.setLon(-4.4 + t * 1e-5);
+        dto.setLat(48.3);
+        dto.setSpeed(10);
+        dto.setT(t);
+        return dto;
+    }
+
+    @Test
+    public void testChunksAreDisjointInTime() {
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(100), 120, 64, 0);
+
+        // every point up to 100 s late, within the allowed lateness, duplicates kept
+        final Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            buffer.addPoint(createDto(1443650402L + i * 10 - random.nextInt(10) * 10), VESSEL);
+        }
+        buffer.drain();
+
+        final List<VesselTrajectoryPointListChunk> chunks =
+            new ArrayList<>(buffer.getCompletedChunkList());
+        chunks.addAll(buffer.getIncompletedChunkList());
+        Assert.assertEquals(0, buffer.getLatePointCounter());
+        Assert.assertEquals(1000, chunks.stream().mapToInt(VesselTrajectoryPointListChunk::getNumberOfPoints).sum());
+
+        long last = Long.MIN_VALUE;
+        for (VesselTrajectoryPointListChunk chunk : chunks) {
+            Assert.assertTrue(chunk.getStartDate().getTime() >= last);
+            final VesselTrajectoryColumnarChunk columnarChunk = (VesselTrajectoryColumnarChunk) chunk;
+            for (int i = 0; i < columnarChunk.getColumns().size(); i++) {
+                Assert.assertTrue(columnarChunk.getColumns().getT(i) >= last);
+                last = columnarChunk.getColumns().getT(i);
+            }
+            Assert.assertEquals(last, chunk.getEndDate().getTime());
+        }
+    }
+
+    @Test
+    public void testLatePoints() {
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(100), 60, 64, 16);
+        for (int i = 0; i < 100; i++) {
+            buffer.addPoint(createDto(1000 + i * 10), VESSEL);
+        }
+        // far behind the emitted points
+        buffer.addPoint(createDto(500), VESSEL);
+        buffer.addPoint(createDto(510), VESSEL);
+        buffer.drain();
+
+        Assert.assertEquals(2, buffer.getLatePointCounter());
+        Assert.assertEquals(1, buffer.getLateChunkList().size());
+        Assert.assertEquals(2, buffer.getLateChunkList().get(0).getNumberOfPoints());
+        Assert.assertEquals(500, buffer.getLateChunkList().get(0).getStartDate().getTime());
+        Assert.assertEquals(100, buffer.getIncompletedChunkList().get(0).getNumberOfPoints());
+
+        buffer.clearLateChunkList();
+        Assert.assertTrue(buffer.getLateChunkList().isEmpty());
+    }
+
+    @Test
+    public void testDuplicates() {
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(1000), 60, 64, 16);
+        for (int i = 0; i < 100; i++) {
+            buffer.addPoint(createDto(1000 + i * 10), VESSEL);
+            // a second and a third receiver, a few messages later
+            if (i >= 3) {
+                buffer.addPoint(createDto(1000 + (i - 3) * 10), VESSEL);
+                buffer.addPoint(createDto(1000 + (i - 3) * 10), VESSEL);
+            }
+        }
+        buffer.drain();
+
+        Assert.assertEquals(294, buffer.getPointCounter());
+        Assert.assertEquals(194, buffer.getDuplicatePointCounter());
+        Assert.assertEquals(194 / 294.0, buffer.getDuplicateRate(), 1e-12);
+        Assert.assertEquals(0, buffer.getLatePointCounter());
+        Assert.assertEquals(100, buffer.getIncompletedChunkList().get(0).getNumberOfPoints());
+    }
+
+    @Test
+    public void testIdleEviction() {
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(1000), 60, 64, 16, 3600,
+            VesselTrajectoryBuffer.DEFAULT_MAX_BYTES);
+
+        for (int i = 0; i < 10; i++) {
+            buffer.addPoint(createDto(1, 1000 + i * 10), VESSEL);
+        }
+        // the first vessel silent for more than the idle timeout
+        for (int i = 0; i < 400; i++) {
+            buffer.addPoint(createDto(2, 1000 + i * 10), VESSEL);
+        }
+
+        Assert.assertEquals(1, buffer.getEvictedCounter());
+        Assert.assertEquals(1, buffer.getOpenTrajectoryCounter());
+        Assert.assertEquals(1, buffer.getCompletedChunkList().size());
+        Assert.assertEquals(1, buffer.getCompletedChunkList().get(0).getMmsi());
+        Assert.assertEquals(10, buffer.getCompletedChunkList().get(0).getNumberOfPoints());
+    }
+
+    @Test
+    public void testIdleEvictionWithOutlier() {
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(1000), 60, 64, 16, 3600,
+            VesselTrajectoryBuffer.DEFAULT_MAX_BYTES);
+
+        for (int i = 0; i < 100; i++) {
+            for (int mmsi = 1; mmsi <= 3; mmsi++) {
+                buffer.addPoint(createDto(mmsi, 1000 + i * 10), VESSEL);
+            }
+            if (i % 10 == 0) {
+                // millis instead of seconds, on one vessel
+                buffer.addPoint(createDto(4, (1000 + i * 10) * 1000L), VESSEL);
+            }
+        }
+        // the other vessels are not idle
+        Assert.assertEquals(0, buffer.getEvictedCounter());
+        Assert.assertEquals(4, buffer.getOpenTrajectoryCounter());
+
+        // a gap in the data, the points of two vessels move the clock
+        buffer.addPoint(createDto(1, 100_000), VESSEL);
+        buffer.addPoint(createDto(2, 100_000), VESSEL);
+        // the silent ones, also the vessel with the outliers, are idle now
+        Assert.assertEquals(2, buffer.getEvictedCounter());
+        Assert.assertEquals(2, buffer.getOpenTrajectoryCounter());
+        Assert.assertEquals(Arrays.asList(4, 3), buffer.getCompletedChunkList().stream()
+            .map(VesselTrajectoryPointListChunk::getMmsi).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testByteBudget() {
+        final long maxBytes = 4L << 20;
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(1000), 60, 64, 16,
+            VesselTrajectoryBuffer.DEFAULT_IDLE_TIMEOUT, maxBytes);
+
+        // 20 thousand vessels, every one far more than the budget allows at once
+        final Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            buffer.addPoint(createDto(random.nextInt(20_000), 1000 + i), VESSEL);
+            Assert.assertTrue(buffer.getOpenTrajectoryBytes() <= maxBytes);
+        }
+        buffer.drain();
+
+        Assert.assertTrue(buffer.getEvictedCounter() > 0);
+        Assert.assertEquals(200_000, buffer.getCompletedChunkList().stream()
+            .mapToInt(VesselTrajectoryPointListChunk::getNumberOfPoints).sum()
+            + buffer.getIncompletedChunkList().stream()
+            .mapToInt(VesselTrajectoryPointListChunk::getNumberOfPoints).sum());
+    }
+
+    @Test
+    public void testEstimatedBytes() {
+        final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+            Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(1000), 60, 64, 16,
+            VesselTrajectoryBuffer.DEFAULT_IDLE_TIMEOUT, VesselTrajectoryBuffer.DEFAULT_MAX_BYTES);
+
+        System.gc();
+        final long before = usedMemory();
+        for (int i = 0; i < 1_000_000; i++) {
+            buffer.addPoint(createDto(i % 10_000, 1000 + i), VESSEL);
+        }
+        System.gc();
+        final long after = usedMemory();
+
+        System.out.printf("Open trajectories, estimated %d MB, measured %d MB%n",
+            buffer.getOpenTrajectoryBytes() >> 20, (after - before) >> 20);
+        Assert.assertEquals(0, buffer.getEvictedCounter());
+        Assert.assertEquals(10_000, buffer.getOpenTrajectoryCounter());
+    }
+
+    private static long usedMemory() {
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    @Test
+    public void testThroughput() {
+        // a third of the points are duplicates
+        final List<NariDynamicDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 300_000; i++) {
+            dtos.add(createDto(1443650402L + (i % 3 == 2 ? i - 1 : i) * 10));
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int dedupWindow : new int[]{0, DEDUP_WINDOW}) {
+                final VesselTrajectoryBuffer buffer = VesselTrajectoryBuffer.createInstance(
+                    Integer.MAX_VALUE, MaxPointsChunkingPolicy.createInstance(1000), 60, 64,
+                    dedupWindow);
+                final long start = System.nanoTime();
+                dtos.forEach(dto -> buffer.addPoint(dto, VESSEL));
+                buffer.drain();
+                final long nanos = System.nanoTime() - start;
+                if (round == 2) {
+                    System.out.printf("Dedup window %d: %d ns per point, %d duplicates%n",
+                        dedupWindow, nanos / dtos.size(), buffer.getDuplicatePointCounter());
+                }
+            }
+        }
+    }
+}
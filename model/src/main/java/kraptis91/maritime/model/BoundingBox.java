@@ -0,0 +1,88 @@
+package kraptis91.maritime.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A longitude latitude bounding box, stored like a GeoJson bbox: [minLon, minLat, maxLon, maxLat].
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class BoundingBox {
+
+    private final double minLon;
+    private final double minLat;
+    private final double maxLon;
+    private final double maxLat;
+
+    private BoundingBox(double minLon, double minLat, double maxLon, double maxLat) {
+        this.minLon = minLon;
+        this.minLat = minLat;
+        this.maxLon = maxLon;
+        this.maxLat = maxLat;
+    }
+
+    public static BoundingBox of(double minLon, double minLat, double maxLon, double maxLat) {
+        return new BoundingBox(minLon, minLat, maxLon, maxLat);
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public boolean contains(double lon, double lat) {
+        return lon >= minLon && lon <= maxLon && lat >= minLat && lat <= maxLat;
+    }
+
+    /**
+     * @return The GeoJson bbox, [minLon, minLat, maxLon, maxLat]
+     */
+    public List<Double> toList() {
+        return Arrays.asList(minLon, minLat, maxLon, maxLat);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + Double.hashCode(minLon);
+        hash = 31 * hash + Double.hashCode(minLat);
+        hash = 31 * hash + Double.hashCode(maxLon);
+        hash = 31 * hash + Double.hashCode(maxLat);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final BoundingBox other = (BoundingBox) obj;
+
+        return Double.compare(minLon, other.minLon) == 0
+            && Double.compare(minLat, other.minLat) == 0
+            && Double.compare(maxLon, other.maxLon) == 0
+            && Double.compare(maxLat, other.maxLat) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" + toList() + '}';
+    }
+}
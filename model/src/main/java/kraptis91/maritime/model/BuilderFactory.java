@@ -3,6 +3,7 @@ package kraptis91.maritime.model;
 import org.bson.Document;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 30/12/2020.
@@ -19,6 +20,11 @@ public class BuilderFactory {
         final GeoPoint avgGeoPoint = ModelExtractor.extractGeoPoint(document.get("avgGeoPoint", Document.class));
         final double avgSpeed = document.getDouble("avgSpeed");
         final int nPoints = document.getInteger("nPoints");
+        // chunks stored before the stats have neither
+        final BoundingBox boundingBox = ModelExtractor.extractBoundingBox(document.get("bbox", List.class));
+        final Number pathLength = document.get("pathLength", Number.class);
+        // chunks stored before the append ingest are never extended
+        final Boolean sealed = document.getBoolean("sealed");
 
         return new VesselTrajectoryChunkBuilder(mmsi)
             .withVesselName(vesselName)
@@ -27,7 +33,10 @@ public class BuilderFactory {
             .withEndDate(endDate)
             .withAvgGeoPoint(avgGeoPoint)
             .withAvgSpeed(avgSpeed)
-            .withNPoints(nPoints);
+            .withNPoints(nPoints)
+            .withBoundingBox(boundingBox)
+            .withPathLength(pathLength == null ? 0 : pathLength.doubleValue())
+            .withSealed(sealed == null || sealed);
     }
 
 }
@@ -1,24 +1,27 @@
 package kraptis91.maritime.model;
 
-import com.google.common.collect.ImmutableList;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import kraptis91.maritime.model.enums.GeoJsonType;
-
-import java.util.List;
-import java.util.Objects;
+import kraptis91.maritime.model.json.GeoPointDeserializer;
+import kraptis91.maritime.model.json.GeoPointSerializer;
 
 /**
+ * A GeoJson point, kept as two primitive doubles. Serialized as {type: "Point", coordinates: [lon,
+ * lat]} by {@link GeoPointSerializer}, and by the GeoPointCodec of the db.
+ *
  * @author Stavros Lamprinos [stalab at linuxmail.org] on 14/12/2020.
  */
+@JsonSerialize(using = GeoPointSerializer.class)
+@JsonDeserialize(using = GeoPointDeserializer.class)
 public class GeoPoint {
 
-    // the GeoJson type
-    private final String type;
-    // coordinates as an array of [lon, lat]
-    private final List<Double> coordinates;
+    private final double longitude;
+    private final double latitude;
 
     private GeoPoint(double longitude, double latitude) {
-        this.type = GeoJsonType.POINT.getValue();
-        coordinates = ImmutableList.of(longitude, latitude);
+        this.longitude = longitude;
+        this.latitude = latitude;
     }
 
     /**
@@ -31,19 +34,26 @@ public class GeoPoint {
         return new GeoPoint(longitude, latitude);
     }
 
+    /**
+     * @return The GeoJson type
+     */
     public String getType() {
-        return type;
+        return GeoJsonType.POINT.getValue();
+    }
+
+    public double lon() {
+        return longitude;
     }
 
-    public List<Double> getCoordinates() {
-        return coordinates;
+    public double lat() {
+        return latitude;
     }
 
     @Override
     public int hashCode() {
         int hash = 5;
-        hash = 29 * hash + Objects.hashCode(this.coordinates.get(0));
-        hash = 29 * hash + Objects.hashCode(this.coordinates.get(1));
+        hash = 29 * hash + Double.hashCode(this.longitude);
+        hash = 29 * hash + Double.hashCode(this.latitude);
         return hash;
     }
 
@@ -63,12 +73,14 @@ public class GeoPoint {
         }
         final GeoPoint other = (GeoPoint) obj;
 
-        return Objects.equals(this.coordinates.get(0), other.coordinates.get(0))
-            && Objects.equals(this.coordinates.get(1), other.coordinates.get(1));
+        // like Double.equals, NaN equals NaN and 0.0 does not equal -0.0
+        return Double.compare(this.longitude, other.longitude) == 0
+            && Double.compare(this.latitude, other.latitude) == 0;
     }
 
     @Override
     public String toString() {
-        return "GeoPoint{" + "type='" + type + '\'' + ", coordinates=" + coordinates + '}';
+        return "GeoPoint{" + "type='" + getType() + '\''
+            + ", coordinates=[" + longitude + ", " + latitude + "]}";
     }
 }
@@ -1,10 +1,12 @@
 package kraptis91.maritime.model;
 
+import kraptis91.maritime.parser.dto.csv.NariDynamicBatch;
 import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
 import kraptis91.maritime.parser.dto.csv.NariStaticDto;
 import kraptis91.maritime.parser.dto.csv.PortDto;
 import kraptis91.maritime.parser.dto.csv.SeaStateForecastDto;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Date;
@@ -62,6 +64,17 @@ public class ModelExtractor {
             .build();
     }
 
+    public static VesselTrajectoryPoint extractVesselTrajectoryPoint(NariDynamicBatch batch,
+                                                                     int index,
+                                                                     String vesselId) {
+        return VesselTrajectoryPoint.builder()
+            .withCoordinates(GeoPoint.of(batch.getLon(index), batch.getLat(index)))
+            .withSpeed(batch.getSpeed(index))
+            .withTimestamp(batch.getT(index))
+            .withVesselId(vesselId)
+            .build();
+    }
+
     public static @NotNull VesselTrajectoryChunk extractVesselTrajectoryChunk(Document document) {
         return BuilderFactory.createVesselTrajectoryChunkBuilder(document)
             .buildChunk();
@@ -72,15 +85,28 @@ public class ModelExtractor {
             .buildPointListChunk();
     }
 
+    public static @NotNull VesselTrajectoryColumnarChunk extractVesselTrajectoryColumnarChunk(
+        Document document, String vesselId, TrajectoryPointColumns columns) {
+        return BuilderFactory.createVesselTrajectoryChunkBuilder(document)
+            .buildColumnarChunk(vesselId, columns);
+    }
+
     public static VesselTrajectoryPoint extractVesselTrajectoryPoint(Document pointDoc) {
         return VesselTrajectoryPoint.builder()
             .withCoordinates(extractGeoPoint(pointDoc.get("geoPoint", Document.class)))
             .withSpeed(pointDoc.getDouble("speed"))
             .withTimestamp(pointDoc.getLong("timestamp"))
-            .withVesselId(pointDoc.getObjectId("vesselId").toHexString())
+            .withVesselId(extractVesselId(pointDoc.get("vesselId")))
             .build();
     }
 
+    /**
+     * @param vesselId The vesselId of a point document, the codec writes the hex string
+     */
+    public static String extractVesselId(Object vesselId) {
+        return vesselId instanceof ObjectId ? ((ObjectId) vesselId).toHexString() : (String) vesselId;
+    }
+
     public static @NotNull PlainVessel extractPlainVessel(Document plainVesselDoc) {
         return PlainVessel.builder()
             .withMMSI(plainVesselDoc.getInteger("mmsi"))
@@ -91,8 +117,20 @@ public class ModelExtractor {
     }
 
     public static GeoPoint extractGeoPoint(Document geoPointDoc) {
-        List<Double> coordinates = geoPointDoc.getList("coordinates", Double.class);
-        return GeoPoint.of(coordinates.get(0), coordinates.get(1));
+        List<Number> coordinates = geoPointDoc.getList("coordinates", Number.class);
+        return GeoPoint.of(coordinates.get(0).doubleValue(), coordinates.get(1).doubleValue());
+    }
+
+    /**
+     * @param bbox A GeoJson bbox, [minLon, minLat, maxLon, maxLat]
+     * @return The bounding box, null if bbox is null
+     */
+    public static BoundingBox extractBoundingBox(List<?> bbox) {
+        if (bbox == null) {
+            return null;
+        }
+        return BoundingBox.of(((Number) bbox.get(0)).doubleValue(), ((Number) bbox.get(1)).doubleValue(),
+            ((Number) bbox.get(2)).doubleValue(), ((Number) bbox.get(3)).doubleValue());
     }
 
     public static Port extractPort(Document portDoc) {
@@ -39,4 +39,14 @@ public class ModelFactory {
                 .buildPointListChunk();
     }
 
+    public static VesselTrajectoryColumnarChunk createVesselTrajectoryColumnarChunk(int mmsi,
+                                                                                    String vesselName,
+                                                                                    String shipType,
+                                                                                    String vesselId) {
+        return new VesselTrajectoryChunkBuilder(mmsi)
+                .withVesselName(vesselName)
+                .withShipType(shipType)
+                .buildColumnarChunk(vesselId);
+    }
+
 }
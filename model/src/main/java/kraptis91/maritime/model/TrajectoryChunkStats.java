@@ -0,0 +1,131 @@
+package kraptis91.maritime.model;
+
+import kraptis91.maritime.model.utils.GeoUtils;
+
+/**
+ * The running aggregates of the points of a chunk, updated per point in constant time: the min and
+ * max timestamp, the compensated (Kahan) sums of lon, lat and speed, the bounding box and the
+ * haversine length of the path through the points, in the order they were added.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class TrajectoryChunkStats {
+
+    private int count;
+    private long minT = Long.MAX_VALUE;
+    private long maxT = Long.MIN_VALUE;
+    private final CompensatedSum lonSum = new CompensatedSum();
+    private final CompensatedSum latSum = new CompensatedSum();
+    private final CompensatedSum speedSum = new CompensatedSum();
+    private double minLon = Double.POSITIVE_INFINITY;
+    private double minLat = Double.POSITIVE_INFINITY;
+    private double maxLon = Double.NEGATIVE_INFINITY;
+    private double maxLat = Double.NEGATIVE_INFINITY;
+    private double lastLon;
+    private double lastLat;
+    private double pathLength;
+
+    public void add(double lon, double lat, double speed, long t) {
+        if (count > 0) {
+            pathLength += GeoUtils.haversine(lastLon, lastLat, lon, lat);
+        }
+        count++;
+        minT = Math.min(minT, t);
+        maxT = Math.max(maxT, t);
+        lonSum.add(lon);
+        latSum.add(lat);
+        speedSum.add(speed);
+        minLon = Math.min(minLon, lon);
+        minLat = Math.min(minLat, lat);
+        maxLon = Math.max(maxLon, lon);
+        maxLat = Math.max(maxLat, lat);
+        lastLon = lon;
+        lastLat = lat;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The min timestamp, -1 if empty
+     */
+    public long getMinT() {
+        return count == 0 ? -1 : minT;
+    }
+
+    /**
+     * @return The max timestamp, -1 if empty
+     */
+    public long getMaxT() {
+        return count == 0 ? -1 : maxT;
+    }
+
+    /**
+     * @return The average point, NaN coordinates if empty
+     */
+    public GeoPoint getAvgGeoPoint() {
+        return count == 0
+            ? GeoPoint.of(Double.NaN, Double.NaN)
+            : GeoPoint.of(lonSum.sum() / count, latSum.sum() / count);
+    }
+
+    /**
+     * @return The average speed, NaN if empty
+     */
+    public double getAvgSpeed() {
+        return count == 0 ? Double.NaN : speedSum.sum() / count;
+    }
+
+    // the bounding box without a new box per call, infinite if empty
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    /**
+     * @return The bounding box, null if empty
+     */
+    public BoundingBox getBoundingBox() {
+        return count == 0 ? null : BoundingBox.of(minLon, minLat, maxLon, maxLat);
+    }
+
+    /**
+     * @return The length in meters of the path through the points
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * A Kahan sum, the low order bits lost by every addition are carried to the next.
+     */
+    private static class CompensatedSum {
+
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            final double y = value - compensation;
+            final double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+        }
+
+        double sum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package kraptis91.maritime.model;
+
+import java.util.Arrays;
+
+/**
+ * The points of a trajectory as growable primitive columns, 32 bytes per point instead of a point,
+ * a {@link GeoPoint} and a vessel id reference per point.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class TrajectoryPointColumns {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] lon;
+    private double[] lat;
+    private double[] speed;
+    private long[] t;
+    private int size;
+
+    public TrajectoryPointColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TrajectoryPointColumns(int capacity) {
+        final int initialCapacity = Math.max(capacity, 1);
+        lon = new double[initialCapacity];
+        lat = new double[initialCapacity];
+        speed = new double[initialCapacity];
+        t = new long[initialCapacity];
+    }
+
+    /**
+     * @return The index of the added point
+     */
+    public int add(double lon, double lat, double speed, long t) {
+        if (size == this.t.length) {
+            grow(size + (size >> 1) + 1);
+        }
+        this.lon[size] = lon;
+        this.lat[size] = lat;
+        this.speed[size] = speed;
+        this.t[size] = t;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getLon(int index) {
+        checkIndex(index);
+        return lon[index];
+    }
+
+    public double getLat(int index) {
+        checkIndex(index);
+        return lat[index];
+    }
+
+    public double getSpeed(int index) {
+        checkIndex(index);
+        return speed[index];
+    }
+
+    public long getT(int index) {
+        checkIndex(index);
+        return t[index];
+    }
+
+    /**
+     * Release the unused capacity, e.g. of a completed chunk waiting to be stored.
+     */
+    public void trimToSize() {
+        if (size < t.length) {
+            grow(size);
+        }
+    }
+
+    private void grow(int capacity) {
+        lon = Arrays.copyOf(lon, capacity);
+        lat = Arrays.copyOf(lat, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        t = Arrays.copyOf(t, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Error... Index " + index + ", size " + size);
+        }
+    }
+}
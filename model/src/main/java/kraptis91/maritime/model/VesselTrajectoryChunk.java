@@ -3,8 +3,6 @@ package kraptis91.maritime.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import kraptis91.maritime.model.utils.TrajectoryChunkUtils;
-import kraptis91.maritime.parser.enums.MMSICounter;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -24,7 +22,9 @@ import java.util.Objects;
         "endDate",
         "avgGeoPoint",
         "avgSpeed",
-        "nPoints"
+        "nPoints",
+        "boundingBox",
+        "pathLength"
     })
 public class VesselTrajectoryChunk {
 
@@ -37,9 +37,11 @@ public class VesselTrajectoryChunk {
     protected Date endDate;
     protected GeoPoint avgGeoPoint;
     protected double avgSpeed;
-    @JsonIgnore
-    protected final int chunkFixedSize;
     protected int nPoints;
+    protected BoundingBox boundingBox;
+    protected double pathLength;
+    @JsonIgnore
+    protected boolean sealed;
 
     private static final DateTimeFormatter dateTimeFormatter;
     private String formattedStartDate;
@@ -61,8 +63,9 @@ public class VesselTrajectoryChunk {
         this.avgGeoPoint = builder.getAvgGeoPoint();
         this.avgSpeed = builder.getAvgSpeed();
         this.nPoints = builder.getNPoints();
-        this.chunkFixedSize = Math.max(TrajectoryChunkUtils
-            .calcChunkCapacity(MMSICounter.INSTANCE.getMMSICounterForVessel(mmsi)), 1);
+        this.boundingBox = builder.getBoundingBox();
+        this.pathLength = builder.getPathLength();
+        this.sealed = builder.isSealed();
     }
 
     public void setAvgGeoPoint(GeoPoint avgGeoPoint) {
@@ -73,12 +76,41 @@ public class VesselTrajectoryChunk {
         this.avgSpeed = avgSpeed;
     }
 
-    public double getAvgSpeed() {
-        return avgSpeed;
+    public void setBoundingBox(BoundingBox boundingBox) {
+        this.boundingBox = boundingBox;
+    }
+
+    public void setPathLength(double pathLength) {
+        this.pathLength = pathLength;
+    }
+
+    /**
+     * @return The bounding box of the points, null for chunks stored without it
+     */
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
     }
 
-    public int getChunkFixedSize() {
-        return chunkFixedSize;
+    /**
+     * @return The haversine length in meters of the path through the points
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * @return True if the chunk is closed, false if the points of a later ingest may be appended
+     */
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    public void setSealed(boolean sealed) {
+        this.sealed = sealed;
+    }
+
+    public double getAvgSpeed() {
+        return avgSpeed;
     }
 
     public void setStartDate(Date startDate) {
@@ -147,8 +179,10 @@ public class VesselTrajectoryChunk {
             ", endDate=" + getFormattedEndDate() +
             ", avgGeoPoint=" + avgGeoPoint +
             ", avgSpeed=" + avgSpeed +
-            ", chunkFixedSize=" + chunkFixedSize +
             ", nPoints=" + nPoints +
+            ", boundingBox=" + boundingBox +
+            ", pathLength=" + pathLength +
+            ", sealed=" + sealed +
             '}';
     }
 }
@@ -15,6 +15,9 @@ public class VesselTrajectoryChunkBuilder {
     private GeoPoint avgGeoPoint;
     private double avgSpeed;
     private int nPoints;
+    private BoundingBox boundingBox;
+    private double pathLength;
+    private boolean sealed;
 
     public VesselTrajectoryChunkBuilder(int mmsi) {
         this.mmsi = mmsi;
@@ -55,6 +58,21 @@ public class VesselTrajectoryChunkBuilder {
         return this;
     }
 
+    public VesselTrajectoryChunkBuilder withBoundingBox(BoundingBox boundingBox) {
+        this.boundingBox = boundingBox;
+        return this;
+    }
+
+    public VesselTrajectoryChunkBuilder withPathLength(double pathLength) {
+        this.pathLength = pathLength;
+        return this;
+    }
+
+    public VesselTrajectoryChunkBuilder withSealed(boolean sealed) {
+        this.sealed = sealed;
+        return this;
+    }
+
     public VesselTrajectoryChunk buildChunk() {
         return new VesselTrajectoryChunk(this);
     }
@@ -63,6 +81,22 @@ public class VesselTrajectoryChunkBuilder {
         return new VesselTrajectoryPointListChunk(this);
     }
 
+    /**
+     * @param vesselId The mongo _id of the vessel of every point
+     */
+    public VesselTrajectoryColumnarChunk buildColumnarChunk(String vesselId) {
+        return new VesselTrajectoryColumnarChunk(this, vesselId, new TrajectoryPointColumns());
+    }
+
+    /**
+     * @param vesselId The mongo _id of the vessel of every point
+     * @param columns  The points of the chunk
+     */
+    public VesselTrajectoryColumnarChunk buildColumnarChunk(String vesselId,
+                                                            TrajectoryPointColumns columns) {
+        return new VesselTrajectoryColumnarChunk(this, vesselId, columns);
+    }
+
     public int getMMSI() {
         return mmsi;
     }
@@ -94,4 +128,16 @@ public class VesselTrajectoryChunkBuilder {
     public int getNPoints() {
         return nPoints;
     }
+
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
 }
@@ -0,0 +1,146 @@
+package kraptis91.maritime.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link VesselTrajectoryPointListChunk} keeping its points in {@link TrajectoryPointColumns} and
+ * the vessel id once per chunk, instead of a list of point objects.
+ *
+ * <p>{@link #getPointList()} is a view for the existing callers: every get creates the point from
+ * the columns and add appends to them. Prefer {@link #addPoint(double, double, double, long)} and
+ * {@link #getColumns()} on hot paths.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class VesselTrajectoryColumnarChunk extends VesselTrajectoryPointListChunk {
+
+    private final String vesselId;
+    private final TrajectoryPointColumns columns;
+    private final TrajectoryChunkStats stats = new TrajectoryChunkStats();
+    private final List<VesselTrajectoryPoint> pointView = new PointView();
+
+    VesselTrajectoryColumnarChunk(VesselTrajectoryChunkBuilder builder,
+                                  String vesselId,
+                                  TrajectoryPointColumns columns) {
+        super(builder);
+        this.vesselId = vesselId;
+        this.columns = columns;
+        for (int i = 0; i < columns.size(); i++) {
+            stats.add(columns.getLon(i), columns.getLat(i), columns.getSpeed(i), columns.getT(i));
+        }
+    }
+
+    public void addPoint(double lon, double lat, double speed, long t) {
+        columns.add(lon, lat, speed, t);
+        stats.add(lon, lat, speed, t);
+    }
+
+    /**
+     * @return The mongo _id of the vessel of every point
+     */
+    @JsonIgnore
+    public String getVesselId() {
+        return vesselId;
+    }
+
+    @JsonIgnore
+    public TrajectoryPointColumns getColumns() {
+        return columns;
+    }
+
+    @Override
+    public List<VesselTrajectoryPoint> getPointList() {
+        return pointView;
+    }
+
+    @Override
+    public int getNumberOfPoints() {
+        return columns.size();
+    }
+
+    /**
+     * @return The running aggregates of the points, kept up to date by every add
+     */
+    @Override
+    public TrajectoryChunkStats calcStats() {
+        return stats;
+    }
+
+    @Override
+    public GeoPoint calcAvgGeoPoint() {
+        return stats.getAvgGeoPoint();
+    }
+
+    @Override
+    public double calcAvgSpeed() {
+        return stats.getAvgSpeed();
+    }
+
+    @Override
+    public long calcStartDateTimestamp() {
+        return stats.getMinT();
+    }
+
+    @Override
+    public long calcEndDateTimestamp() {
+        return stats.getMaxT();
+    }
+
+    @Override
+    public String toString() {
+        return "VesselTrajectoryColumnarChunk{" +
+            "mmsi=" + mmsi +
+            ", vesselName='" + vesselName + '\'' +
+            ", shipType='" + shipType + '\'' +
+            ", startDate=" + startDate +
+            ", endDate=" + endDate +
+            ", avgGeoPoint=" + avgGeoPoint +
+            ", avgSpeed=" + avgSpeed +
+            ", vesselId='" + vesselId + '\'' +
+            ", nPoints=" + columns.size() +
+            ", boundingBox=" + boundingBox +
+            ", pathLength=" + pathLength +
+            ", sealed=" + sealed +
+            '}';
+    }
+
+    /**
+     * The points of the columns as a list.
+     */
+    private class PointView extends AbstractList<VesselTrajectoryPoint> {
+
+        @Override
+        public VesselTrajectoryPoint get(int index) {
+            return VesselTrajectoryPoint.builder()
+                .withCoordinates(GeoPoint.of(columns.getLon(index), columns.getLat(index)))
+                .withSpeed(columns.getSpeed(index))
+                .withTimestamp(columns.getT(index))
+                .withVesselId(vesselId)
+                .build();
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public boolean add(VesselTrajectoryPoint point) {
+            if (!Objects.equals(vesselId, point.getVesselId())) {
+                throw new IllegalArgumentException("Error... Point of vessel " + point.getVesselId()
+                    + " added to a chunk of vessel " + vesselId);
+            }
+            if (Objects.isNull(point.getGeoPoint())) {
+                throw new IllegalArgumentException("Error... Point without coordinates added to a "
+                    + "chunk of vessel " + vesselId);
+            }
+            addPoint(point.getGeoPoint().lon(), point.getGeoPoint().lat(),
+                point.getSpeed(), point.getTimestamp());
+            return true;
+        }
+    }
+}
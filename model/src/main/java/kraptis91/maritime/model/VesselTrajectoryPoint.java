@@ -52,8 +52,8 @@ public class VesselTrajectoryPoint {
     int hash = 5;
     hash = 29 * hash + Objects.hashCode(this.timestamp);
     hash = 29 * hash + Objects.hashCode(this.speed);
-    hash = 29 * hash + Objects.hashCode(this.geoPoint.getCoordinates().get(0));
-    hash = 29 * hash + Objects.hashCode(this.geoPoint.getCoordinates().get(1));
+    hash = 29 * hash + Double.hashCode(this.geoPoint.lon());
+    hash = 29 * hash + Double.hashCode(this.geoPoint.lat());
     return hash;
   }
 
@@ -26,11 +26,11 @@ public class VesselTrajectoryPointListChunk extends VesselTrajectoryChunk {
     public static GeoPoint calcAvgGeoPoint(List<GeoPoint> geoPointList) {
         return GeoPoint.of(
                 geoPointList.stream()
-                        .mapToDouble(p -> p.getCoordinates().get(0)) // longitude
+                        .mapToDouble(GeoPoint::lon)
                         .average()
                         .orElse(Double.NaN),
                 geoPointList.stream()
-                        .mapToDouble(p -> p.getCoordinates().get(1)) // latitude
+                        .mapToDouble(GeoPoint::lat)
                         .average()
                         .orElse(Double.NaN));
     }
@@ -47,6 +47,18 @@ public class VesselTrajectoryPointListChunk extends VesselTrajectoryChunk {
                 .orElse(Double.NaN);
     }
 
+    /**
+     * @return The aggregates of the points, one pass over the point list
+     */
+    public TrajectoryChunkStats calcStats() {
+        final TrajectoryChunkStats stats = new TrajectoryChunkStats();
+        for (VesselTrajectoryPoint point : getPointList()) {
+            stats.add(point.getGeoPoint().lon(), point.getGeoPoint().lat(), point.getSpeed(),
+                point.getTimestamp());
+        }
+        return stats;
+    }
+
     public long calcStartDateTimestamp() {
         return pointList.stream()
                 .mapToLong(VesselTrajectoryPoint::getTimestamp)
@@ -76,7 +88,6 @@ public class VesselTrajectoryPointListChunk extends VesselTrajectoryChunk {
                 ", endDate=" + endDate +
                 ", avgGeoPoint=" + avgGeoPoint +
                 ", avgSpeed=" + avgSpeed +
-                ", chunkFixedSize=" + chunkFixedSize +
                 ", nPoints=" + nPoints +
                 ", pointList=" + pointList +
                 '}';
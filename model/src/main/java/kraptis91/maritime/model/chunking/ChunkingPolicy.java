@@ -0,0 +1,33 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+import kraptis91.maritime.model.utils.TrajectoryChunkUtils;
+
+/**
+ * Decides online when the open trajectory chunk of a vessel is closed, from the running aggregates
+ * of the chunk and the next point only, without a pre-count of the points per vessel.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public interface ChunkingPolicy {
+
+    /**
+     * @param stats The aggregates of the open chunk, at least one point
+     * @param lon   The longitude of the next point
+     * @param lat   The latitude of the next point
+     * @param t     The timestamp of the next point, in seconds
+     * @return True if the chunk is closed before the point, the point starts a new chunk
+     */
+    boolean isFull(TrajectoryChunkStats stats, double lon, double lat, long t);
+
+    /**
+     * @return Closes a chunk at {@link TrajectoryChunkUtils#DEFAULT_CHUNK_CAPACITY} points, a day
+     * of points, or near the bson document limit, whichever comes first
+     */
+    static ChunkingPolicy createDefault() {
+        return CompositeChunkingPolicy.anyOf(
+            MaxPointsChunkingPolicy.createInstance(TrajectoryChunkUtils.DEFAULT_CHUNK_CAPACITY),
+            MaxTimeSpanChunkingPolicy.createInstance(TrajectoryChunkUtils.DEFAULT_CHUNK_TIME_SPAN),
+            MaxDocumentSizeChunkingPolicy.createInstance());
+    }
+}
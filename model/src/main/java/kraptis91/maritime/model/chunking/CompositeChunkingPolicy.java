@@ -0,0 +1,42 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+
+/**
+ * Closes a chunk as soon as any of its policies does.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class CompositeChunkingPolicy implements ChunkingPolicy {
+
+    private final ChunkingPolicy[] policies;
+
+    private CompositeChunkingPolicy(ChunkingPolicy[] policies) {
+        this.policies = policies;
+    }
+
+    public static CompositeChunkingPolicy anyOf(@NotNull ChunkingPolicy... policies) {
+        if (policies.length == 0) {
+            throw new IllegalArgumentException("Error... No chunking policy");
+        }
+        return new CompositeChunkingPolicy(policies.clone());
+    }
+
+    @Override
+    public boolean isFull(TrajectoryChunkStats stats, double lon, double lat, long t) {
+        for (ChunkingPolicy policy : policies) {
+            if (policy.isFull(stats, lon, lat, t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeChunkingPolicy{anyOf=" + Arrays.toString(policies) + '}';
+    }
+}
@@ -0,0 +1,74 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+
+/**
+ * Closes a chunk before its stored document would outgrow a max size, by default the 16 MB limit
+ * of a bson document, whatever the other policies allow.
+ *
+ * <p>The size is estimated from an upper bound of the bytes per point, not by encoding the chunk.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class MaxDocumentSizeChunkingPolicy implements ChunkingPolicy {
+
+    /** The max size of a mongodb document. */
+    public static final int MAX_BSON_DOCUMENT_BYTES = 16 * 1024 * 1024;
+    /**
+     * A point document of the chunk codec: geo point, speed, a 24 character vessel id, timestamp
+     * and an array index of up to 7 digits.
+     */
+    public static final int DEFAULT_BYTES_PER_POINT = 160;
+    /** The chunk fields besides the points, with room for a long vessel name. */
+    public static final int CHUNK_OVERHEAD_BYTES = 1024;
+
+    private final long maxBytes;
+    private final int bytesPerPoint;
+
+    private MaxDocumentSizeChunkingPolicy(long maxBytes, int bytesPerPoint) {
+        this.maxBytes = maxBytes;
+        this.bytesPerPoint = bytesPerPoint;
+    }
+
+    public static MaxDocumentSizeChunkingPolicy createInstance() {
+        return createInstance(MAX_BSON_DOCUMENT_BYTES, DEFAULT_BYTES_PER_POINT);
+    }
+
+    /**
+     * @param maxBytes      The max size of a chunk document
+     * @param bytesPerPoint An upper bound of the size of a point in the document
+     */
+    public static MaxDocumentSizeChunkingPolicy createInstance(long maxBytes, int bytesPerPoint) {
+        if (bytesPerPoint < 1 || maxBytes < CHUNK_OVERHEAD_BYTES + bytesPerPoint) {
+            throw new IllegalArgumentException("Error... Invalid max bytes " + maxBytes
+                + " for " + bytesPerPoint + " bytes per point");
+        }
+        return new MaxDocumentSizeChunkingPolicy(maxBytes, bytesPerPoint);
+    }
+
+    /**
+     * @return The estimated size of a chunk document of the number of points
+     */
+    public long estimateBytes(int points) {
+        return CHUNK_OVERHEAD_BYTES + (long) points * bytesPerPoint;
+    }
+
+    @Override
+    public boolean isFull(TrajectoryChunkStats stats, double lon, double lat, long t) {
+        return estimateBytes(stats.getCount() + 1) > maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getBytesPerPoint() {
+        return bytesPerPoint;
+    }
+
+    @Override
+    public String toString() {
+        return "MaxDocumentSizeChunkingPolicy{maxBytes=" + maxBytes
+            + ", bytesPerPoint=" + bytesPerPoint + '}';
+    }
+}
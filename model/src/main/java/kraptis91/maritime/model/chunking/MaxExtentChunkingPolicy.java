@@ -0,0 +1,47 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+import kraptis91.maritime.model.utils.GeoUtils;
+
+/**
+ * Closes a chunk before a point that would stretch the diagonal of its bounding box beyond a max
+ * distance, so the bounding box of a chunk stays selective for spatial queries.
+ *
+ * <p>The bounding box does not wrap the antimeridian, a vessel crossing it closes its chunk.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class MaxExtentChunkingPolicy implements ChunkingPolicy {
+
+    private final double maxExtent;
+
+    private MaxExtentChunkingPolicy(double maxExtent) {
+        this.maxExtent = maxExtent;
+    }
+
+    /**
+     * @param maxExtent The max diagonal of the bounding box of a chunk, in meters
+     */
+    public static MaxExtentChunkingPolicy createInstance(double maxExtent) {
+        if (!(maxExtent >= 0)) {
+            throw new IllegalArgumentException("Error... Invalid max extent " + maxExtent);
+        }
+        return new MaxExtentChunkingPolicy(maxExtent);
+    }
+
+    @Override
+    public boolean isFull(TrajectoryChunkStats stats, double lon, double lat, long t) {
+        return GeoUtils.haversine(
+            Math.min(stats.getMinLon(), lon), Math.min(stats.getMinLat(), lat),
+            Math.max(stats.getMaxLon(), lon), Math.max(stats.getMaxLat(), lat)) > maxExtent;
+    }
+
+    public double getMaxExtent() {
+        return maxExtent;
+    }
+
+    @Override
+    public String toString() {
+        return "MaxExtentChunkingPolicy{maxExtent=" + maxExtent + '}';
+    }
+}
@@ -0,0 +1,38 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+
+/**
+ * Closes a chunk at a number of points.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class MaxPointsChunkingPolicy implements ChunkingPolicy {
+
+    private final int maxPoints;
+
+    private MaxPointsChunkingPolicy(int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    public static MaxPointsChunkingPolicy createInstance(int maxPoints) {
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("Error... Invalid max points " + maxPoints);
+        }
+        return new MaxPointsChunkingPolicy(maxPoints);
+    }
+
+    @Override
+    public boolean isFull(TrajectoryChunkStats stats, double lon, double lat, long t) {
+        return stats.getCount() >= maxPoints;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    @Override
+    public String toString() {
+        return "MaxPointsChunkingPolicy{maxPoints=" + maxPoints + '}';
+    }
+}
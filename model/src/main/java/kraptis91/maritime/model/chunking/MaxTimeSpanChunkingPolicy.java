@@ -0,0 +1,42 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+
+/**
+ * Closes a chunk before a point that would stretch its time span beyond a max, so a chunk covers a
+ * bounded time range whatever the reporting rate of the vessel.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class MaxTimeSpanChunkingPolicy implements ChunkingPolicy {
+
+    private final long maxTimeSpan;
+
+    private MaxTimeSpanChunkingPolicy(long maxTimeSpan) {
+        this.maxTimeSpan = maxTimeSpan;
+    }
+
+    /**
+     * @param maxTimeSpan The max time span of a chunk, in seconds like the point timestamps
+     */
+    public static MaxTimeSpanChunkingPolicy createInstance(long maxTimeSpan) {
+        if (maxTimeSpan < 0) {
+            throw new IllegalArgumentException("Error... Invalid max time span " + maxTimeSpan);
+        }
+        return new MaxTimeSpanChunkingPolicy(maxTimeSpan);
+    }
+
+    @Override
+    public boolean isFull(TrajectoryChunkStats stats, double lon, double lat, long t) {
+        return Math.max(stats.getMaxT(), t) - Math.min(stats.getMinT(), t) > maxTimeSpan;
+    }
+
+    public long getMaxTimeSpan() {
+        return maxTimeSpan;
+    }
+
+    @Override
+    public String toString() {
+        return "MaxTimeSpanChunkingPolicy{maxTimeSpan=" + maxTimeSpan + '}';
+    }
+}
@@ -0,0 +1,56 @@
+package kraptis91.maritime.model.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import kraptis91.maritime.model.GeoPoint;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link GeoPoint} from {"type":"Point","coordinates":[lon,lat]}, other fields are
+ * skipped.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoPointDeserializer extends StdDeserializer<GeoPoint> {
+
+    public GeoPointDeserializer() {
+        super(GeoPoint.class);
+    }
+
+    @Override
+    public GeoPoint deserialize(JsonParser parser, DeserializationContext context)
+        throws IOException {
+
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            parser.nextToken();
+        }
+
+        double longitude = Double.NaN;
+        double latitude = Double.NaN;
+        boolean hasCoordinates = false;
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            if ("coordinates".equals(name) && parser.currentToken() == JsonToken.START_ARRAY) {
+                parser.nextToken();
+                longitude = parser.getValueAsDouble();
+                parser.nextToken();
+                latitude = parser.getValueAsDouble();
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    return (GeoPoint) context.handleUnexpectedToken(GeoPoint.class, parser);
+                }
+                hasCoordinates = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!hasCoordinates) {
+            return (GeoPoint) context.handleUnexpectedToken(GeoPoint.class, parser);
+        }
+        return GeoPoint.of(longitude, latitude);
+    }
+}
@@ -0,0 +1,34 @@
+package kraptis91.maritime.model.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import kraptis91.maritime.model.GeoPoint;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link GeoPoint} as {"type":"Point","coordinates":[lon,lat]}, the shape of the former
+ * type and coordinates list getters, without boxing the coordinates.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoPointSerializer extends StdSerializer<GeoPoint> {
+
+    public GeoPointSerializer() {
+        super(GeoPoint.class);
+    }
+
+    @Override
+    public void serialize(GeoPoint point, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", point.getType());
+        generator.writeFieldName("coordinates");
+        generator.writeStartArray();
+        generator.writeNumber(point.lon());
+        generator.writeNumber(point.lat());
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
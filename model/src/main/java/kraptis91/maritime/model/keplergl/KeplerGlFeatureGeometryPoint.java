@@ -20,7 +20,7 @@ public class KeplerGlFeatureGeometryPoint {
 
     private KeplerGlFeatureGeometryPoint(GeoPoint geoPoint) {
         this.type = "Point";
-        coordinates = ImmutableList.of(geoPoint.getCoordinates().get(0), geoPoint.getCoordinates().get(1));
+        coordinates = ImmutableList.of(geoPoint.lon(), geoPoint.lat());
     }
 
     public static KeplerGlFeatureGeometryPoint of(double longitude, double latitude) {
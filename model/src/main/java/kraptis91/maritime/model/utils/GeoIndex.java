@@ -0,0 +1,344 @@
+package kraptis91.maritime.model.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A static, in memory spatial index of items with a longitude and latitude, e.g. the world ports.
+ * Answers k-nearest and radius queries by great-circle distance, like a mongodb $near query.
+ *
+ * <p>The points are kept as unit vectors on the sphere in a packed kd-tree (three parallel
+ * coordinates per item, in tree order, no node objects). The straight line (chord) distance of two
+ * unit vectors grows with their great-circle distance, so the tree is searched with plain
+ * euclidean bounds, without special cases at the poles or the antimeridian.
+ *
+ * <p>Immutable once created, safe to query from many threads.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoIndex<T> {
+
+    private final List<T> items;
+    // x, y, z of every item, in tree order
+    private final double[] points;
+    // the split axis of the node at every index
+    private final byte[] axes;
+
+    private GeoIndex(List<T> items, double[] points, byte[] axes) {
+        this.items = items;
+        this.points = points;
+        this.axes = axes;
+    }
+
+    /**
+     * @param items     The items to index
+     * @param longitude The longitude of an item, in degrees
+     * @param latitude  The latitude of an item, in degrees
+     */
+    public static <T> GeoIndex<T> createInstance(@NotNull Collection<? extends T> items,
+                                                 @NotNull ToDoubleFunction<? super T> longitude,
+                                                 @NotNull ToDoubleFunction<? super T> latitude) {
+
+        final List<T> source = new ArrayList<>(items);
+        final int size = source.size();
+        final double[] sourcePoints = new double[size * 3];
+        for (int i = 0; i < size; i++) {
+            toUnitVector(longitude.applyAsDouble(source.get(i)),
+                latitude.applyAsDouble(source.get(i)), sourcePoints, i * 3);
+        }
+
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        final byte[] axes = new byte[size];
+        build(order, sourcePoints, axes, 0, size);
+
+        // pack the items and the points in tree order
+        final List<T> treeItems = new ArrayList<>(size);
+        final double[] points = new double[size * 3];
+        for (int i = 0; i < size; i++) {
+            treeItems.add(source.get(order[i]));
+            System.arraycopy(sourcePoints, order[i] * 3, points, i * 3, 3);
+        }
+        return new GeoIndex<>(Collections.unmodifiableList(treeItems), points, axes);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * @return The k items nearest to the point, nearest first
+     */
+    public List<T> nearest(double longitude, double latitude, int k) {
+        if (k <= 0 || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final double[] query = toUnitVector(longitude, latitude, new double[3], 0);
+        final Neighbours neighbours = new Neighbours(Math.min(k, items.size()));
+        nearest(query, 0, items.size(), neighbours);
+        return neighbours.toSortedList();
+    }
+
+    /**
+     * Like a mongodb $near query: the items within minDistance and maxDistance of the point,
+     * nearest first.
+     *
+     * @param maxDistance The max great-circle distance in meters
+     * @param minDistance The min great-circle distance in meters
+     * @param skip        Number of (nearest) items to skip
+     * @param limit       Max number of items, no limit if <= 0
+     */
+    public List<T> withinDistance(double longitude, double latitude,
+                                  double maxDistance, double minDistance,
+                                  int skip, int limit) {
+        if (items.isEmpty() || maxDistance < minDistance) {
+            return Collections.emptyList();
+        }
+        final double[] query = toUnitVector(longitude, latitude, new double[3], 0);
+        final Matches matches = new Matches();
+        within(query, 0, items.size(), squaredChord(maxDistance), matches);
+
+        final long[] sorted = matches.sorted();
+        final double minSquaredChord = squaredChord(minDistance);
+        final List<T> result = new ArrayList<>();
+        int skipped = 0;
+        for (long match : sorted) {
+            final int index = (int) match;
+            if (minDistance > 0 && squaredDistance(query, index) < minSquaredChord) {
+                continue;
+            }
+            if (skipped++ < skip) {
+                continue;
+            }
+            if (limit > 0 && result.size() == limit) {
+                break;
+            }
+            result.add(items.get(index));
+        }
+        return result;
+    }
+
+    private void nearest(double[] query, int from, int to, Neighbours neighbours) {
+        if (from >= to) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        neighbours.offer(mid, squaredDistance(query, mid));
+
+        final double diff = query[axes[mid]] - points[mid * 3 + axes[mid]];
+        final boolean left = diff <= 0;
+        nearest(query, left ? from : mid + 1, left ? mid : to, neighbours);
+        if (diff * diff <= neighbours.bound()) {
+            nearest(query, left ? mid + 1 : from, left ? to : mid, neighbours);
+        }
+    }
+
+    private void within(double[] query, int from, int to, double bound, Matches matches) {
+        if (from >= to) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        final double distance = squaredDistance(query, mid);
+        if (distance <= bound) {
+            matches.add(mid, distance);
+        }
+
+        final double diff = query[axes[mid]] - points[mid * 3 + axes[mid]];
+        if (diff <= 0 || diff * diff <= bound) {
+            within(query, from, mid, bound, matches);
+        }
+        if (diff > 0 || diff * diff <= bound) {
+            within(query, mid + 1, to, bound, matches);
+        }
+    }
+
+    private double squaredDistance(double[] query, int index) {
+        final double dx = query[0] - points[index * 3];
+        final double dy = query[1] - points[index * 3 + 1];
+        final double dz = query[2] - points[index * 3 + 2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * The node of a range is its median on the axis of the max spread.
+     */
+    private static void build(int[] order, double[] points, byte[] axes, int from, int to) {
+        if (to - from <= 1) {
+            return;
+        }
+        final int axis = widestAxis(order, points, from, to);
+        final int mid = (from + to) >>> 1;
+        select(order, points, axis, from, to - 1, mid);
+        axes[mid] = (byte) axis;
+        build(order, points, axes, from, mid);
+        build(order, points, axes, mid + 1, to);
+    }
+
+    private static int widestAxis(int[] order, double[] points, int from, int to) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                final double value = points[order[i] * 3 + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Quickselect: order[k] becomes the k-th smallest on the axis, smaller before it, larger after.
+     */
+    private static void select(int[] order, double[] points, int axis, int left, int right, int k) {
+        while (left < right) {
+            final double pivot = points[order[(left + right) >>> 1] * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[order[i] * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (points[order[j] * 3 + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double[] toUnitVector(double longitude, double latitude,
+                                         double[] target, int offset) {
+        final double lon = Math.toRadians(longitude);
+        final double lat = Math.toRadians(latitude);
+        final double cosLat = Math.cos(lat);
+        target[offset] = cosLat * Math.cos(lon);
+        target[offset + 1] = cosLat * Math.sin(lon);
+        target[offset + 2] = Math.sin(lat);
+        return target;
+    }
+
+    /**
+     * @return The squared chord of a great-circle distance on the unit sphere
+     */
+    private static double squaredChord(double meters) {
+        final double angle = Math.min(Math.max(meters, 0) / GeoUtils.EARTH_RADIUS_METERS, Math.PI);
+        final double chord = 2 * Math.sin(angle / 2);
+        // a little slack, the chord of the search bound must not round below a point on it
+        return chord * chord * (1 + 1e-12);
+    }
+
+    /**
+     * The k nearest so far, a max heap on the distance.
+     */
+    private class Neighbours {
+
+        private final int[] indexes;
+        private final double[] distances;
+        private int size;
+
+        Neighbours(int k) {
+            indexes = new int[k];
+            distances = new double[k];
+        }
+
+        double bound() {
+            return size < indexes.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(int index, double distance) {
+            if (size < indexes.length) {
+                // sift up
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    indexes[i] = indexes[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                indexes[i] = index;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                // replace the farthest and sift down
+                int i = 0;
+                while (2 * i + 1 < size) {
+                    int child = 2 * i + 1;
+                    if (child + 1 < size && distances[child + 1] > distances[child]) {
+                        child++;
+                    }
+                    if (distances[child] <= distance) {
+                        break;
+                    }
+                    indexes[i] = indexes[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+                indexes[i] = index;
+                distances[i] = distance;
+            }
+        }
+
+        List<T> toSortedList() {
+            final Matches matches = new Matches();
+            for (int i = 0; i < size; i++) {
+                matches.add(indexes[i], distances[i]);
+            }
+            final List<T> result = new ArrayList<>(size);
+            for (long match : matches.sorted()) {
+                result.add(items.get((int) match));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Indexes with their distance, packed in longs to sort them by distance without boxing.
+     */
+    private static class Matches {
+
+        private long[] matches = new long[16];
+        private int size;
+
+        void add(int index, double squaredDistance) {
+            if (size == matches.length) {
+                matches = Arrays.copyOf(matches, size * 2);
+            }
+            // a non negative float orders like its bits, the high half sorts by distance
+            matches[size++] =
+                (long) Float.floatToIntBits((float) squaredDistance) << 32 | index;
+        }
+
+        long[] sorted() {
+            final long[] sorted = Arrays.copyOf(matches, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package kraptis91.maritime.model.utils;
+
+/**
+ * Great-circle distances on a spherical earth, the model of the mongodb 2dsphere queries.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoUtils {
+
+    /** The earth radius of the mongodb spherical geometry, in meters. */
+    public static final double EARTH_RADIUS_METERS = 6_378_100;
+
+    /**
+     * @return The great-circle (haversine) distance of the two points in meters
+     */
+    public static double haversine(double longitude1, double latitude1,
+                                   double longitude2, double latitude2) {
+        final double dLat = Math.toRadians(latitude2 - latitude1);
+        final double dLon = Math.toRadians(longitude2 - longitude1);
+        final double sinLat = Math.sin(dLat / 2);
+        final double sinLon = Math.sin(dLon / 2);
+        final double a = sinLat * sinLat
+            + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+            * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
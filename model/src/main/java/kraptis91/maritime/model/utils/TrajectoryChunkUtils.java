@@ -4,7 +4,16 @@ package kraptis91.maritime.model.utils;
 public class TrajectoryChunkUtils {
 
   public static final int NUMBER_OF_CHUNKS = 50;
+  /** Max points of a chunk of the default chunking policy. */
+  public static final int DEFAULT_CHUNK_CAPACITY = 1000;
+  /** Max time span of a chunk of the default chunking policy, a day in seconds. */
+  public static final long DEFAULT_CHUNK_TIME_SPAN = 24 * 60 * 60;
 
+  /**
+   * @deprecated Chunks are closed online by a {@link
+   *     kraptis91.maritime.model.chunking.ChunkingPolicy}, without the mmsi counters
+   */
+  @Deprecated
   public static int calcChunkCapacity(int mmsiCounter) {
     return mmsiCounter / NUMBER_OF_CHUNKS;
   }
@@ -0,0 +1,34 @@
+package kraptis91.maritime.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoPointTest {
+
+    @Test
+    public void testJsonShape() throws Exception {
+        final ObjectMapper mapper = new ObjectMapper();
+        final GeoPoint point = GeoPoint.of(-4.4731367, 48.382015);
+
+        // the shape of the former type and coordinates list getters
+        final String json = mapper.writeValueAsString(point);
+        Assert.assertEquals("{\"type\":\"Point\",\"coordinates\":[-4.4731367,48.382015]}", json);
+        Assert.assertEquals(point, mapper.readValue(json, GeoPoint.class));
+        Assert.assertEquals(point,
+            mapper.readValue("{\"coordinates\":[-4.4731367,48.382015],\"type\":\"Point\"}",
+                GeoPoint.class));
+    }
+
+    @Test
+    public void testEquals() {
+        Assert.assertEquals(GeoPoint.of(1.5, 2.5), GeoPoint.of(1.5, 2.5));
+        Assert.assertEquals(GeoPoint.of(1.5, 2.5).hashCode(), GeoPoint.of(1.5, 2.5).hashCode());
+        Assert.assertNotEquals(GeoPoint.of(1.5, 2.5), GeoPoint.of(2.5, 1.5));
+        Assert.assertEquals(1.5, GeoPoint.of(1.5, 2.5).lon(), 0);
+        Assert.assertEquals(2.5, GeoPoint.of(1.5, 2.5).lat(), 0);
+    }
+}
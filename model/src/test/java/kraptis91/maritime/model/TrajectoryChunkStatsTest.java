@@ -0,0 +1,78 @@
+package kraptis91.maritime.model;
+
+import kraptis91.maritime.model.utils.GeoUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class TrajectoryChunkStatsTest {
+
+    @Test
+    public void testEmpty() {
+        final TrajectoryChunkStats stats = new TrajectoryChunkStats();
+        Assert.assertEquals(-1, stats.getMinT());
+        Assert.assertEquals(-1, stats.getMaxT());
+        Assert.assertTrue(Double.isNaN(stats.getAvgSpeed()));
+        Assert.assertTrue(Double.isNaN(stats.getAvgGeoPoint().lon()));
+        Assert.assertNull(stats.getBoundingBox());
+        Assert.assertEquals(0, stats.getPathLength(), 0);
+    }
+
+    @Test
+    public void testSameAsPointListChunk() {
+        final Random random = new Random(7);
+        final VesselTrajectoryPointListChunk chunk =
+            ModelFactory.createSimpleVesselTrajectoryPointListChunk(228190600, "TEST", "Cargo");
+        double pathLength = 0;
+        for (int i = 0; i < 1000; i++) {
+            final GeoPoint point = GeoPoint.of(-5 + random.nextDouble(), 48 + random.nextDouble());
+            if (i > 0) {
+                final GeoPoint previous = chunk.getPointList().get(i - 1).getGeoPoint();
+                pathLength += GeoUtils.haversine(previous.lon(), previous.lat(),
+                    point.lon(), point.lat());
+            }
+            chunk.getPointList().add(VesselTrajectoryPoint.builder()
+                .withCoordinates(point)
+                .withSpeed(random.nextDouble() * 20)
+                .withTimestamp(1443650402L + random.nextInt(86_400))
+                .withVesselId("5fe0c3d1a3b8c0a1b2c3d4e5")
+                .build());
+        }
+
+        final TrajectoryChunkStats stats = chunk.calcStats();
+        Assert.assertEquals(1000, stats.getCount());
+        Assert.assertEquals(chunk.calcStartDateTimestamp(), stats.getMinT());
+        Assert.assertEquals(chunk.calcEndDateTimestamp(), stats.getMaxT());
+        Assert.assertEquals(chunk.calcAvgGeoPoint().lon(), stats.getAvgGeoPoint().lon(), 1e-12);
+        Assert.assertEquals(chunk.calcAvgGeoPoint().lat(), stats.getAvgGeoPoint().lat(), 1e-12);
+        Assert.assertEquals(chunk.calcAvgSpeed(), stats.getAvgSpeed(), 1e-12);
+        Assert.assertEquals(pathLength, stats.getPathLength(), 1e-6);
+
+        final BoundingBox boundingBox = stats.getBoundingBox();
+        for (VesselTrajectoryPoint point : chunk.getPointList()) {
+            Assert.assertTrue(
+                boundingBox.contains(point.getGeoPoint().lon(), point.getGeoPoint().lat()));
+        }
+        Assert.assertEquals(
+            chunk.getPointList().stream().mapToDouble(p -> p.getGeoPoint().lon()).min().orElse(0),
+            boundingBox.getMinLon(), 0);
+        Assert.assertEquals(
+            chunk.getPointList().stream().mapToDouble(p -> p.getGeoPoint().lat()).max().orElse(0),
+            boundingBox.getMaxLat(), 0);
+    }
+
+    @Test
+    public void testCompensatedSum() {
+        // a naive sum of 0.1 drifts after a few million additions
+        final TrajectoryChunkStats stats = new TrajectoryChunkStats();
+        final int count = 10_000_000;
+        for (int i = 0; i < count; i++) {
+            stats.add(0.1, 0.1, 0.1, i);
+        }
+        Assert.assertEquals(0.1, stats.getAvgSpeed(), 1e-15);
+    }
+}
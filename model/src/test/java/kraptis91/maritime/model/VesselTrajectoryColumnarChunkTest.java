@@ -0,0 +1,116 @@
+package kraptis91.maritime.model;
+
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class VesselTrajectoryColumnarChunkTest {
+
+    private static final int POINTS = 1000;
+
+    private static double lon(int i) {
+        return -4.4 + i * 1e-4;
+    }
+
+    private static double lat(int i) {
+        return 48.3 - i * 1e-4;
+    }
+
+    private static double speed(int i) {
+        return i % 100 / 10.0;
+    }
+
+    private static long t(int i) {
+        return 1443650402L + (i * 37L) % POINTS * 60;
+    }
+
+    private static VesselTrajectoryPointListChunk createPointListChunk(String vesselId) {
+        final VesselTrajectoryPointListChunk chunk =
+            ModelFactory.createSimpleVesselTrajectoryPointListChunk(228190600, "TEST", "Cargo");
+        for (int i = 0; i < POINTS; i++) {
+            chunk.getPointList().add(VesselTrajectoryPoint.builder()
+                .withCoordinates(GeoPoint.of(lon(i), lat(i)))
+                .withSpeed(speed(i))
+                .withTimestamp(t(i))
+                .withVesselId(vesselId)
+                .build());
+        }
+        return chunk;
+    }
+
+    private static VesselTrajectoryColumnarChunk createColumnarChunk(String vesselId) {
+        final VesselTrajectoryColumnarChunk chunk =
+            ModelFactory.createVesselTrajectoryColumnarChunk(228190600, "TEST", "Cargo", vesselId);
+        for (int i = 0; i < POINTS; i++) {
+            chunk.addPoint(lon(i), lat(i), speed(i), t(i));
+        }
+        return chunk;
+    }
+
+    @Test
+    public void testSameAsPointListChunk() {
+        final String vesselId = new ObjectId().toHexString();
+        final VesselTrajectoryPointListChunk pointListChunk = createPointListChunk(vesselId);
+        final VesselTrajectoryColumnarChunk columnarChunk = createColumnarChunk(vesselId);
+
+        Assert.assertEquals(pointListChunk.getNumberOfPoints(), columnarChunk.getNumberOfPoints());
+        Assert.assertEquals(pointListChunk.getPointList(), columnarChunk.getPointList());
+        Assert.assertEquals(vesselId, columnarChunk.getPointList().get(7).getVesselId());
+        Assert.assertEquals(pointListChunk.calcAvgGeoPoint().lon(),
+            columnarChunk.calcAvgGeoPoint().lon(), 1e-12);
+        Assert.assertEquals(pointListChunk.calcAvgGeoPoint().lat(),
+            columnarChunk.calcAvgGeoPoint().lat(), 1e-12);
+        Assert.assertEquals(pointListChunk.calcAvgSpeed(), columnarChunk.calcAvgSpeed(), 1e-12);
+        Assert.assertEquals(pointListChunk.calcStartDateTimestamp(),
+            columnarChunk.calcStartDateTimestamp());
+        Assert.assertEquals(pointListChunk.calcEndDateTimestamp(),
+            columnarChunk.calcEndDateTimestamp());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPointOfAnotherVessel() {
+        createColumnarChunk(new ObjectId().toHexString()).getPointList()
+            .add(createPointListChunk(new ObjectId().toHexString()).getPointList().get(0));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    @Test
+    public void testRetainedHeap() {
+        final String vesselId = new ObjectId().toHexString();
+        final int chunks = 200;
+        final List<VesselTrajectoryPointListChunk> retained = new ArrayList<>(chunks);
+
+        long used = usedHeap();
+        for (int i = 0; i < chunks; i++) {
+            retained.add(createPointListChunk(vesselId));
+        }
+        final long pointListBytes = usedHeap() - used;
+        retained.clear();
+
+        used = usedHeap();
+        for (int i = 0; i < chunks; i++) {
+            final VesselTrajectoryColumnarChunk chunk = createColumnarChunk(vesselId);
+            chunk.getColumns().trimToSize();
+            retained.add(chunk);
+        }
+        final long columnarBytes = usedHeap() - used;
+
+        final long points = (long) chunks * POINTS;
+        System.out.printf("Heap per point: point list %d B, columnar %d B%n",
+            pointListBytes / points, columnarBytes / points);
+        Assert.assertEquals(chunks, retained.size());
+        Assert.assertTrue(columnarBytes < pointListBytes);
+    }
+}
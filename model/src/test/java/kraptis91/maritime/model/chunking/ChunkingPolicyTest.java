@@ -0,0 +1,75 @@
+package kraptis91.maritime.model.chunking;
+
+import kraptis91.maritime.model.TrajectoryChunkStats;
+import kraptis91.maritime.model.utils.TrajectoryChunkUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class ChunkingPolicyTest {
+
+    private static TrajectoryChunkStats createStats(int points) {
+        final TrajectoryChunkStats stats = new TrajectoryChunkStats();
+        for (int i = 0; i < points; i++) {
+            stats.add(-4.4 + i * 1e-3, 48.3, 10, 1443650402L + i * 60);
+        }
+        return stats;
+    }
+
+    @Test
+    public void testMaxPoints() {
+        final ChunkingPolicy policy = MaxPointsChunkingPolicy.createInstance(10);
+        Assert.assertFalse(policy.isFull(createStats(9), 0, 0, 0));
+        Assert.assertTrue(policy.isFull(createStats(10), 0, 0, 0));
+    }
+
+    @Test
+    public void testMaxTimeSpan() {
+        final ChunkingPolicy policy = MaxTimeSpanChunkingPolicy.createInstance(3600);
+        final TrajectoryChunkStats stats = createStats(10);
+        final long start = stats.getMinT();
+        Assert.assertFalse(policy.isFull(stats, 0, 0, start + 3600));
+        Assert.assertTrue(policy.isFull(stats, 0, 0, start + 3601));
+        // a late point stretches the span backwards
+        Assert.assertTrue(policy.isFull(stats, 0, 0, stats.getMaxT() - 3601));
+    }
+
+    @Test
+    public void testMaxExtent() {
+        final ChunkingPolicy policy = MaxExtentChunkingPolicy.createInstance(10_000);
+        final TrajectoryChunkStats stats = createStats(10);
+        Assert.assertFalse(policy.isFull(stats, -4.39, 48.3, 0));
+        // about 11 km north
+        Assert.assertTrue(policy.isFull(stats, -4.4, 48.4, 0));
+    }
+
+    @Test
+    public void testMaxDocumentSize() {
+        final MaxDocumentSizeChunkingPolicy policy = MaxDocumentSizeChunkingPolicy.createInstance();
+        final int maxPoints = (MaxDocumentSizeChunkingPolicy.MAX_BSON_DOCUMENT_BYTES
+            - MaxDocumentSizeChunkingPolicy.CHUNK_OVERHEAD_BYTES)
+            / MaxDocumentSizeChunkingPolicy.DEFAULT_BYTES_PER_POINT;
+        Assert.assertFalse(policy.isFull(createStats(maxPoints - 1), 0, 0, 0));
+        Assert.assertTrue(policy.isFull(createStats(maxPoints), 0, 0, 0));
+        Assert.assertTrue(policy.estimateBytes(maxPoints)
+            <= MaxDocumentSizeChunkingPolicy.MAX_BSON_DOCUMENT_BYTES);
+    }
+
+    @Test
+    public void testDefault() {
+        final ChunkingPolicy policy = ChunkingPolicy.createDefault();
+        final TrajectoryChunkStats stats = createStats(100);
+        Assert.assertFalse(policy.isFull(stats, -4.3, 48.3, stats.getMaxT() + 60));
+        Assert.assertTrue(policy.isFull(stats, -4.3, 48.3,
+            stats.getMinT() + TrajectoryChunkUtils.DEFAULT_CHUNK_TIME_SPAN + 1));
+        Assert.assertTrue(policy.isFull(
+            createStats(TrajectoryChunkUtils.DEFAULT_CHUNK_CAPACITY), -4.3, 48.3, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxPoints() {
+        MaxPointsChunkingPolicy.createInstance(0);
+    }
+}
@@ -0,0 +1,130 @@
+package kraptis91.maritime.model.utils;
+
+import kraptis91.maritime.parser.dto.csv.PortDto;
+import kraptis91.maritime.parser.enums.WorldPorts;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class GeoIndexTest {
+
+    private static final List<PortDto> PORTS = WorldPorts.INSTANCE.getPortDtoList();
+    private static final GeoIndex<PortDto> INDEX =
+        GeoIndex.createInstance(PORTS, PortDto::getLongitude, PortDto::getLatitude);
+
+    private static double distance(PortDto port, double longitude, double latitude) {
+        return GeoUtils.haversine(longitude, latitude, port.getLongitude(), port.getLatitude());
+    }
+
+    /** The linear scan the index replaces. */
+    private static List<PortDto> scan(double longitude, double latitude,
+                                      double maxDistance, double minDistance) {
+        return PORTS.stream()
+            .filter(port -> distance(port, longitude, latitude) <= maxDistance)
+            .filter(port -> distance(port, longitude, latitude) >= minDistance)
+            .sorted(Comparator.comparingDouble(port -> distance(port, longitude, latitude)))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testHaversine() {
+        // one degree of a meridian
+        Assert.assertEquals(
+            Math.PI * GeoUtils.EARTH_RADIUS_METERS / 180, GeoUtils.haversine(0, 0, 0, 1), 1e-6);
+        // across the antimeridian
+        Assert.assertEquals(
+            GeoUtils.haversine(0, 10, 2, 10), GeoUtils.haversine(179, 10, -179, 10), 1e-6);
+    }
+
+    @Test
+    public void testWithinDistanceMatchesScan() {
+
+        final Random random = new Random(17);
+        for (int i = 0; i < 200; i++) {
+            final double longitude = random.nextDouble() * 360 - 180;
+            final double latitude = random.nextDouble() * 180 - 90;
+            final double maxDistance = random.nextDouble() * 2_000_000;
+            final double minDistance = i % 4 == 0 ? maxDistance / 2 : 0;
+
+            final List<PortDto> expected = scan(longitude, latitude, maxDistance, minDistance);
+            final List<PortDto> actual =
+                INDEX.withinDistance(longitude, latitude, maxDistance, minDistance, 0, 0);
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < actual.size(); j++) {
+                // ports at the same distance may swap
+                Assert.assertEquals(distance(expected.get(j), longitude, latitude),
+                    distance(actual.get(j), longitude, latitude), 1e-3);
+            }
+
+            if (expected.size() > 3) {
+                Assert.assertEquals(expected.subList(1, 3).stream()
+                        .map(port -> distance(port, longitude, latitude))
+                        .collect(Collectors.toList()),
+                    INDEX.withinDistance(longitude, latitude, maxDistance, minDistance, 1, 2)
+                        .stream()
+                        .map(port -> distance(port, longitude, latitude))
+                        .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    public void testNearestMatchesScan() {
+
+        final Random random = new Random(19);
+        for (int i = 0; i < 200; i++) {
+            final double longitude = random.nextDouble() * 360 - 180;
+            final double latitude = random.nextDouble() * 180 - 90;
+            final int k = 1 + random.nextInt(20);
+
+            final List<PortDto> expected = scan(longitude, latitude, Double.MAX_VALUE, 0);
+            final List<PortDto> actual = INDEX.nearest(longitude, latitude, k);
+            Assert.assertEquals(k, actual.size());
+            for (int j = 0; j < k; j++) {
+                Assert.assertEquals(distance(expected.get(j), longitude, latitude),
+                    distance(actual.get(j), longitude, latitude), 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testLatencyAgainstScan() {
+
+        final int queries = 2_000;
+        final Random random = new Random(23);
+        final double[] longitudes = new double[queries];
+        final double[] latitudes = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            longitudes[i] = random.nextDouble() * 360 - 180;
+            latitudes[i] = random.nextDouble() * 140 - 70;
+        }
+
+        // warm up, then measure
+        long indexNanos = 0;
+        long scanNanos = 0;
+        long found = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                found += INDEX.withinDistance(longitudes[i], latitudes[i], 500_000, 0, 0, 30).size();
+            }
+            indexNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                found += scan(longitudes[i], latitudes[i], 500_000, 0).size();
+            }
+            scanNanos = System.nanoTime() - start;
+        }
+
+        System.out.printf("%d ports, 500 km near query: index %.1f us, scan %.1f us (%d found)%n",
+            PORTS.size(), indexNanos / 1e3 / queries, scanNanos / 1e3 / queries, found);
+    }
+}
@@ -5,5 +5,27 @@ plugins {
 dependencies {
     implementation("javax.validation:validation-api:2.0.1.Final")
     implementation("org.hibernate.validator:hibernate-validator:6.1.6.Final")
+    // zstd compressed input
+    implementation("com.github.luben:zstd-jni:1.4.8-1")
     // implementation("com.opencsv:opencsv:5.3")
 }
+
+// compact binary mmsi counters, read by MMSICounter instead of the json
+val mmsiCounterSnapshotDir = layout.buildDirectory.dir("generated/resources/mmsi-counter")
+
+val generateMMSICounterSnapshot by tasks.registering(JavaExec::class) {
+    val json = file("src/main/resources/json/mmsi-counter-map.json")
+    val snapshot = mmsiCounterSnapshotDir.map { it.file("json/mmsi-counter-map.bin") }
+    inputs.file(json)
+    outputs.dir(mmsiCounterSnapshotDir)
+    classpath = sourceSets.main.get().output.classesDirs + configurations.runtimeClasspath.get()
+    mainClass.set("kraptis91.maritime.parser.utils.MMSICounterSnapshot")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(json.absolutePath, snapshot.get().asFile.absolutePath)
+    })
+    dependsOn(tasks.compileJava)
+}
+
+sourceSets.main {
+    resources.srcDir(generateMMSICounterSnapshot)
+}
@@ -1,12 +1,22 @@
 package kraptis91.maritime.parser;
 
 import kraptis91.maritime.parser.dto.csv.*;
+import kraptis91.maritime.parser.enums.FixedPrecision;
+import kraptis91.maritime.parser.enums.ParseStatus;
 import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.projection.CSVProjection;
+import kraptis91.maritime.parser.projection.NariDynamicField;
+import kraptis91.maritime.parser.projection.NariStaticField;
+import kraptis91.maritime.parser.utils.CSVLineTokenizer;
 import kraptis91.maritime.parser.utils.CSVParserUtils;
+import kraptis91.maritime.parser.utils.FileSegment;
+import kraptis91.maritime.parser.utils.FileSegmentUtils;
+import kraptis91.maritime.parser.utils.ParseMetrics;
 
 import javax.validation.constraints.NotNull;
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.logging.Level;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
@@ -16,11 +26,28 @@ public class CSVParser {
 
     public static final Logger LOGGER = Logger.getLogger(CSVParser.class.getName());
 
+    /**
+     * Positional projections, for nari csv lines read without their header.
+     */
+    public static final CSVProjection<NariDynamicField> NARI_DYNAMIC_PROJECTION =
+        CSVProjection.defaultOf(NariDynamicField.class, NariDynamicField.COLUMNS);
+    public static final CSVProjection<NariStaticField> NARI_STATIC_PROJECTION =
+        CSVProjection.defaultOf(NariStaticField.class, NariStaticField.COLUMNS);
+
+    // reused between calls, a CSVParser instance must not be shared between threads
+    private final CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    // nari dynamic values of the last parsed line
+    private int mmsi;
+    private double speed;
+    private double lon;
+    private double lat;
+    private long t;
+
     public SeaStateForecastDto extractSeaStateForecastDto(@NotNull String line)
         throws CSVParserException {
-        // break the line at commas
-        final String[] data = CSVParserUtils.parseLine(line);
-        CSVParserUtils.validateNumberOfParsedValues(data.length, 8, "extractSeaStateForecastDto");
+        // break the line at commas, keeping only the column offsets
+        CSVParserUtils.validateNumberOfParsedValues(
+            tokenizer.tokenize(line), 8, "extractSeaStateForecastDto");
 
         // print data after split
         // LOGGER.info("Data extracted: " + Arrays.toString(data));
@@ -33,31 +60,31 @@ public class CSVParser {
 
                 switch (i) {
                     case 0:
-                        dto.setLon(CSVParserUtils.parseDouble(data[i]));
+                        dto.setLon(tokenizer.parseDouble(i));
                         break;
 
                     case 1:
-                        dto.setLat(CSVParserUtils.parseDouble(data[i]));
+                        dto.setLat(tokenizer.parseDouble(i));
                         break;
 
                     case 2:
-                        dto.setDpt(CSVParserUtils.parseDoubleOrReturnDefault(data[i], -16384));
+                        dto.setDpt(tokenizer.parseDoubleOrReturnDefault(i, -16384));
                         break;
 
                     case 3:
-                        dto.setWlv(CSVParserUtils.parseDoubleOrReturnDefault(data[i], -327.67));
+                        dto.setWlv(tokenizer.parseDoubleOrReturnDefault(i, -327.67));
                         break;
 
                     case 4:
-                        dto.setHs(CSVParserUtils.parseDoubleOrReturnDefault(data[i], -65.534));
+                        dto.setHs(tokenizer.parseDoubleOrReturnDefault(i, -65.534));
                         break;
 
                     case 5:
-                        dto.setLm(CSVParserUtils.parseIntOrReturnDefault(data[i], -32767));
+                        dto.setLm(tokenizer.parseIntOrReturnDefault(i, -32767));
                         break;
 
                     case 7:
-                        dto.setTs(CSVParserUtils.parseLong(data[i]));
+                        dto.setTs(tokenizer.parseLong(i));
                         break;
                 }
             }
@@ -69,71 +96,77 @@ public class CSVParser {
     }
 
     public NariStaticDto extractNariStaticDto(@NotNull String line) throws CSVParserException {
+        return extractNariStaticDto(line, NARI_STATIC_PROJECTION);
+    }
 
-        // break the line at commas
-        final String[] data = CSVParserUtils.parseLine(line);
-        CSVParserUtils.validateNumberOfParsedValues(data.length, 14, "extractNariStaticDto");
-
-        // print data after split
-        // LOGGER.info("Data extracted: " + Arrays.toString(data));
-        // create the dto obj
-        NariStaticDto dto = new NariStaticDto();
-        // if a number format exception thrown, discard the line
-        try {
-
-            // loop through results
-            for (int i = 0; i <= 13; i++) { // expecting 14 attributes
-
-                switch (i) {
-                    case 0: // mmsi (mandatory)
-                        dto.setMmsi(CSVParserUtils.parseInt(data[i]));
-                        break;
-
-                    case 1: // imo (optional)
-                        // dto.setImo(CSVParserUtils.parseInt(data[i]));
-                        dto.setImo(CSVParserUtils.parseIntOrReturnDefault(data[i], 0));
-                        break;
-
-                    case 2: // callsign (optional)
-                        dto.setCallSign(CSVParserUtils.parseTextOrReturnNull(data[i]));
-                        break;
-
-                    case 3: // shipname (optional)
-                        dto.setShipName(CSVParserUtils.parseTextOrReturnNull(data[i]));
-                        break;
-
-                    case 4: // shiptype (optional)
-                        dto.setShipType(CSVParserUtils.parseIntOrReturnDefault(data[i], 0));
-                        break;
-
-                    case 8: // toPort (optional)
-                        dto.setToPort(CSVParserUtils.parseIntOrReturnDefault(data[i], 0));
-                        break;
-
-                    case 9: // eta (optional)
-                        dto.setEta(CSVParserUtils.parseTextOrReturnNull(data[i]));
-                        break;
-
-                    case 10: // draught (optional)
-                        dto.setDraught(CSVParserUtils.parseDoubleOrReturnDefault(data[i], 0));
-                        break;
+    /**
+     * @param line       The csv line
+     * @param projection The field to column plan, usually compiled from the csv header
+     * @return The dto
+     */
+    public NariStaticDto extractNariStaticDto(@NotNull String line,
+                                              @NotNull CSVProjection<NariStaticField> projection)
+        throws CSVParserException {
 
-                    case 11: // destination (optional)
-                        dto.setDestination(CSVParserUtils.parseTextOrReturnNull(data[i]));
-                        break;
+        final NariStaticDto dto = new NariStaticDto();
+        final ParseStatus status = tryExtractNariStaticDto(line, projection, dto);
+        if (!status.isOk()) {
+            throw new CSVParserException("Error... " + status + " while parsing [ " + line + " ]");
+        }
+        return dto;
+    }
 
-                    case 13: // timestamp (mandatory)
-                        dto.setT(CSVParserUtils.parseLong(data[i]));
-                        break;
-                }
-            }
-        } catch (CSVParserException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
-            LOGGER.log(Level.WARNING, "Failed to parse [ " + line + " ]");
-            LOGGER.log(Level.WARNING, "The line parsed as " + Arrays.toString(data));
-            throw new CSVParserException(line, e);
+    /**
+     * Exception free parse, for ingest loops that discard corrupted lines. The dto is filled in
+     * place, so a single dto can be reused for every line.
+     *
+     * @param line       The csv line
+     * @param projection The field to column plan, usually compiled from the csv header
+     * @param dto        The dto to fill, its content is undefined unless {@link ParseStatus#OK}
+     * @return The status
+     */
+    public ParseStatus tryExtractNariStaticDto(@NotNull String line,
+                                               @NotNull CSVProjection<NariStaticField> projection,
+                                               @NotNull NariStaticDto dto) {
+
+        // break the line at commas, only up to the last column of a truncated projection
+        if (!projection.hasValidNumberOfParsedValues(
+            tokenizer.tokenize(line, 0, line.length(), projection.getTokenizeLimit()))) {
+            return ParseStatus.WRONG_COLUMN_COUNT;
         }
 
-        return dto;
+        ParseStatus status;
+        // mmsi (mandatory)
+        if (!(status = tokenizer.tryParseInt(projection.column(NariStaticField.MMSI))).isOk()) {
+            return status;
+        }
+        dto.setMmsi(tokenizer.getIntValue());
+        // timestamp (mandatory)
+        if (!(status = tokenizer.tryParseLong(projection.column(NariStaticField.T))).isOk()) {
+            return status;
+        }
+        dto.setT(tokenizer.getLongValue());
+        // imo (optional)
+        dto.setImo(tokenizer.parseIntOrReturnDefault(projection.column(NariStaticField.IMO), 0));
+        // callsign (optional)
+        dto.setCallSign(tokenizer.parseTextOrReturnNull(projection.column(NariStaticField.CALL_SIGN)));
+        // shipname (optional)
+        dto.setShipName(tokenizer.parseTextOrReturnNull(projection.column(NariStaticField.SHIP_NAME)));
+        // shiptype (optional)
+        dto.setShipType(
+            tokenizer.parseIntOrReturnDefault(projection.column(NariStaticField.SHIP_TYPE), 0));
+        // toPort (optional)
+        dto.setToPort(tokenizer.parseIntOrReturnDefault(projection.column(NariStaticField.TO_PORT), 0));
+        // eta (optional)
+        dto.setEta(tokenizer.parseTextOrReturnNull(projection.column(NariStaticField.ETA)));
+        // draught (optional)
+        dto.setDraught(
+            tokenizer.parseDoubleOrReturnDefault(projection.column(NariStaticField.DRAUGHT), 0));
+        // destination (optional)
+        dto.setDestination(
+            tokenizer.parseTextOrReturnNull(projection.column(NariStaticField.DESTINATION)));
+
+        return ParseStatus.OK;
     }
 
     public MMSICountryCodesDto extractMMSICountryCodesDto(@NotNull String line)
@@ -207,49 +240,206 @@ public class CSVParser {
     }
 
     public NariDynamicDto extractNariDynamicDto(@NotNull String line) throws CSVParserException {
+        return extractNariDynamicDto(line, 0, line.length(), NARI_DYNAMIC_PROJECTION);
+    }
 
-        // break the line at commas
-        final String[] data = CSVParserUtils.parseLine(line);
-        CSVParserUtils.validateNumberOfParsedValues(data.length, 9, "extractMMSICountryCodesDto");
-        // print data after split
-        // LOGGER.info("Data extracted: " + Arrays.toString(data));
-        // create the dto obj
-        NariDynamicDto dto = new NariDynamicDto();
-        // if a number format exception thrown, discard the line
-        try {
+    public NariDynamicDto extractNariDynamicDto(@NotNull String line,
+                                                @NotNull CSVProjection<NariDynamicField> projection)
+        throws CSVParserException {
+        return extractNariDynamicDto(line, 0, line.length(), projection);
+    }
 
-            // loop through results
-            for (int i = 0; i <= 8; i++) { // expecting 9 attributes
+    /**
+     * Parse the [from, to) line of the window, e.g. a line of a memory mapped file.
+     *
+     * @param window     The characters
+     * @param from       The line start (inclusive)
+     * @param to         The line end (exclusive, without the line terminator)
+     * @param projection The field to column plan, usually compiled from the csv header
+     * @return The dto
+     */
+    public NariDynamicDto extractNariDynamicDto(@NotNull CharSequence window, int from, int to,
+                                                @NotNull CSVProjection<NariDynamicField> projection)
+        throws CSVParserException {
 
-                switch (i) {
-                    case 0:
-                        dto.setMMSI(CSVParserUtils.parseInt(data[i]));
-                        break;
+        final NariDynamicDto dto = new NariDynamicDto();
+        final ParseStatus status = tryExtractNariDynamicDto(window, from, to, projection, dto);
+        if (!status.isOk()) {
+            throw new CSVParserException(
+                "Error... " + status + " while parsing [ " + window.subSequence(from, to) + " ]");
+        }
+        return dto;
+    }
 
-                    case 3:
-                        dto.setSpeed(CSVParserUtils.parseDouble(data[i]));
-                        break;
+    public ParseStatus tryExtractNariDynamicDto(@NotNull String line,
+                                                @NotNull CSVProjection<NariDynamicField> projection,
+                                                @NotNull NariDynamicDto dto) {
+        return tryExtractNariDynamicDto(line, 0, line.length(), projection, dto);
+    }
 
-                    case 6:
-                        dto.setLon(CSVParserUtils.parseDouble(data[i]));
-                        break;
+    /**
+     * Exception free parse of the [from, to) line of the window, for ingest loops that discard
+     * corrupted lines. The dto is filled in place, so a single dto can be reused for every line.
+     *
+     * @param window     The characters
+     * @param from       The line start (inclusive)
+     * @param to         The line end (exclusive, without the line terminator)
+     * @param projection The field to column plan, usually compiled from the csv header
+     * @param dto        The dto to fill, its content is undefined unless {@link ParseStatus#OK}
+     * @return The status
+     */
+    public ParseStatus tryExtractNariDynamicDto(@NotNull CharSequence window, int from, int to,
+                                                @NotNull CSVProjection<NariDynamicField> projection,
+                                                @NotNull NariDynamicDto dto) {
+
+        final ParseStatus status = parseNariDynamic(window, from, to, projection);
+        if (status.isOk()) {
+            dto.setMMSI(mmsi);
+            dto.setSpeed(speed);
+            dto.setLon(lon);
+            dto.setLat(lat);
+            dto.setT(t);
+        }
+        return status;
+    }
 
-                    case 7:
-                        dto.setLat(CSVParserUtils.parseDouble(data[i]));
-                        break;
+    /**
+     * Exception free parse of the [from, to) line of the window, appended to the batch on
+     * {@link ParseStatus#OK}.
+     *
+     * @param window     The characters
+     * @param from       The line start (inclusive)
+     * @param to         The line end (exclusive, without the line terminator)
+     * @param projection The field to column plan, usually compiled from the csv header
+     * @param batch      The batch to append to, must not be full
+     * @return The status
+     */
+    public ParseStatus tryExtractNariDynamicRow(@NotNull CharSequence window, int from, int to,
+                                                @NotNull CSVProjection<NariDynamicField> projection,
+                                                @NotNull NariDynamicBatch batch) {
+
+        final ParseStatus status = parseNariDynamic(window, from, to, projection);
+        if (status.isOk()) {
+            batch.add(mmsi, speed, lon, lat, t);
+        }
+        return status;
+    }
 
-                    case 8:
-                        dto.setT(CSVParserUtils.parseLong(data[i]));
-                        break;
-                }
-            }
-        } catch (CSVParserException | IllegalArgumentException e) {
-            LOGGER.log(Level.WARNING, "Failed to parse [ " + line + " ]");
-            LOGGER.log(Level.WARNING, "The line parsed as " + Arrays.toString(data));
-            throw new CSVParserException(line, e);
+    /**
+     * Parse the line into the scratch fields, shared by the dto and the batch extraction.
+     */
+    private ParseStatus parseNariDynamic(CharSequence window, int from, int to,
+                                         CSVProjection<NariDynamicField> projection) {
+
+        // break the line at commas, only up to the last column of a truncated projection
+        if (!projection.hasValidNumberOfParsedValues(
+            tokenizer.tokenize(window, from, to, projection.getTokenizeLimit()))) {
+            return ParseStatus.WRONG_COLUMN_COUNT;
         }
 
-        return dto;
+        ParseStatus status;
+        if (!(status = tokenizer.tryParseInt(projection.column(NariDynamicField.MMSI))).isOk()) {
+            return status;
+        }
+        mmsi = tokenizer.getIntValue();
+        status = tokenizer.tryParseFixed(
+            projection.column(NariDynamicField.SPEED), FixedPrecision.SPEED);
+        if (!status.isOk()) {
+            return status;
+        }
+        speed = tokenizer.getDoubleValue();
+        status = tokenizer.tryParseFixed(
+            projection.column(NariDynamicField.LON), FixedPrecision.COORDINATE);
+        if (!status.isOk()) {
+            return status;
+        }
+        lon = tokenizer.getDoubleValue();
+        status = tokenizer.tryParseFixed(
+            projection.column(NariDynamicField.LAT), FixedPrecision.COORDINATE);
+        if (!status.isOk()) {
+            return status;
+        }
+        lat = tokenizer.getDoubleValue();
+        if (!(status = tokenizer.tryParseLong(projection.column(NariDynamicField.T))).isOk()) {
+            return status;
+        }
+        t = tokenizer.getLongValue();
+
+        return ParseStatus.OK;
+    }
+
+    public List<NariDynamicDto> extractNariDynamicDtoList(@NotNull ByteBuffer buffer,
+                                                          boolean skipFirstLine,
+                                                          @NotNull CSVProjection<NariDynamicField> projection) {
+        return extractNariDynamicDtoList(buffer, skipFirstLine, projection, new ParseMetrics());
+    }
+
+    /**
+     * Parse every nari dynamic line of the buffer, in buffer order. Corrupted lines are discarded
+     * and counted per reason.
+     *
+     * @param buffer        The csv bytes, usually a memory mapped {@link FileSegment}
+     * @param skipFirstLine true if the buffer starts with the csv header
+     * @param projection    The field to column plan
+     * @param metrics       The accepted and rejected line counters
+     * @return The dto list
+     */
+    public List<NariDynamicDto> extractNariDynamicDtoList(@NotNull ByteBuffer buffer,
+                                                          boolean skipFirstLine,
+                                                          @NotNull CSVProjection<NariDynamicField> projection,
+                                                          @NotNull ParseMetrics metrics) {
+
+        final long start = System.nanoTime();
+        final List<NariDynamicDto> dtoList = new ArrayList<>();
+        // a new dto is needed only after a line is accepted
+        final NariDynamicDto[] dto = {new NariDynamicDto()};
+
+        FileSegmentUtils.forEachLine(buffer, skipFirstLine, (window, from, to) -> {
+            final ParseStatus status = tryExtractNariDynamicDto(window, from, to, projection, dto[0]);
+            metrics.record(status);
+            if (status.isOk()) {
+                dtoList.add(dto[0]);
+                dto[0] = new NariDynamicDto();
+            }
+        });
+
+        metrics.recordParseTime(System.nanoTime() - start);
+        return dtoList;
+    }
+
+    /**
+     * Parse every nari dynamic line of the buffer into columnar batches, in buffer order. Batches
+     * are taken from the supplier (e.g. a pool of cleared batches) whenever the current one is
+     * full. Corrupted lines are discarded and counted per reason.
+     *
+     * @param buffer        The csv bytes, usually a memory mapped {@link FileSegment}
+     * @param skipFirstLine true if the buffer starts with the csv header
+     * @param projection    The field to column plan
+     * @param metrics       The accepted and rejected line counters
+     * @param batchSupplier Supplies empty batches
+     * @return The filled batches, every batch but the last is full
+     */
+    public List<NariDynamicBatch> extractNariDynamicBatchList(@NotNull ByteBuffer buffer,
+                                                              boolean skipFirstLine,
+                                                              @NotNull CSVProjection<NariDynamicField> projection,
+                                                              @NotNull ParseMetrics metrics,
+                                                              @NotNull Supplier<NariDynamicBatch> batchSupplier) {
+
+        final long start = System.nanoTime();
+        final List<NariDynamicBatch> batchList = new ArrayList<>();
+        batchList.add(batchSupplier.get());
+
+        FileSegmentUtils.forEachLine(buffer, skipFirstLine, (window, from, to) -> {
+            NariDynamicBatch batch = batchList.get(batchList.size() - 1);
+            if (batch.isFull()) {
+                batch = batchSupplier.get();
+                batchList.add(batch);
+            }
+            metrics.record(tryExtractNariDynamicRow(window, from, to, projection, batch));
+        });
+
+        metrics.recordParseTime(System.nanoTime() - start);
+        return batchList;
     }
 
     public PortDto extractPortDto(@NotNull String line) throws CSVParserException {
@@ -277,11 +467,13 @@ public class CSVParser {
                         break;
 
                     case 2:
-                        dto.setLatitude(CSVParserUtils.parseDouble(data[i]));
+                        dto.setLatitude(
+                            CSVParserUtils.parseDouble(data[i], FixedPrecision.COORDINATE));
                         break;
 
                     case 3:
-                        dto.setLongitude(CSVParserUtils.parseDouble(data[i]));
+                        dto.setLongitude(
+                            CSVParserUtils.parseDouble(data[i], FixedPrecision.COORDINATE));
                         break;
                 }
             }
@@ -2,51 +2,121 @@ package kraptis91.maritime.parser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import kraptis91.maritime.parser.dto.json.MMSICounterDto;
-import kraptis91.maritime.parser.utils.CSVParserUtils;
+import kraptis91.maritime.parser.utils.FileSegment;
+import kraptis91.maritime.parser.utils.FileSegmentUtils;
+import kraptis91.maritime.parser.utils.IntIntHashMap;
+import kraptis91.maritime.parser.utils.MMSICounterSnapshot;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /** @author Konstantinos Raptis [kraptis at unipi.gr] on 26/12/2020. */
 public class JSONParser {
 
   public static Map<String, Integer> createMMSICounterMap(Path path) throws IOException {
 
-    final Map<String, Integer> mmsiCounterMap = new LinkedHashMap<>();
+    final IntIntHashMap counters =
+        createMMSICounters(path, Runtime.getRuntime().availableProcessors());
+    final Map<String, Integer> mmsiCounterMap = new LinkedHashMap<>(counters.size() * 2);
+    for (int i = 0; i < counters.size(); i++) {
+      mmsiCounterMap.put(String.valueOf(counters.keyAt(i)), counters.valueAt(i));
+    }
+    return mmsiCounterMap;
+  }
 
-    try (BufferedReader reader = Files.newBufferedReader(path)) {
+  /**
+   * Count the lines of every mmsi of a nari dynamic csv file. The file is memory mapped in line
+   * aligned segments counted in parallel, only the first column of every line is decoded. Lines
+   * with a first column that is not a number, e.g. the header, are not counted.
+   *
+   * @param path The csv file, mmsi first
+   * @param parallelism The number of counting threads
+   * @return The counter of every mmsi, in order of first appearance
+   */
+  public static IntIntHashMap createMMSICounters(Path path, int parallelism) throws IOException {
 
-      String line;
-      String mmsi;
-      String[] data;
-      boolean isFirstLine = true;
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
 
-      while ((line = reader.readLine()) != null) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
 
-        if (isFirstLine) {
-          isFirstLine = false;
-          continue;
-        }
+      final List<Future<IntIntHashMap>> segmentCounters = new ArrayList<>();
+      for (FileSegment segment :
+          FileSegmentUtils.splitAtNewLines(channel, FileSegmentUtils.DEFAULT_SEGMENT_SIZE)) {
+        segmentCounters.add(
+            pool.submit(() -> countMMSI(segment.map(channel), segment.isFirst())));
+      }
 
-        data = CSVParserUtils.parseLine(line);
-        mmsi = data[0];
+      // merged in segment order, so the keys keep their order of first appearance
+      final IntIntHashMap counters = new IntIntHashMap();
+      for (Future<IntIntHashMap> segmentCounter : segmentCounters) {
+        counters.addAll(segmentCounter.get());
+      }
+      return counters;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Error... Interrupted while counting mmsi of " + path, e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException
+          ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
 
-        if (mmsiCounterMap.containsKey(mmsi)) {
-          mmsiCounterMap.put(mmsi, mmsiCounterMap.get(mmsi) + 1);
-        } else {
-          mmsiCounterMap.put(mmsi, 1);
+  private static IntIntHashMap countMMSI(ByteBuffer buffer, boolean skipFirstLine) {
+
+    final IntIntHashMap counters = new IntIntHashMap();
+    final int limit = buffer.limit();
+    int i = 0;
+
+    if (skipFirstLine) {
+      while (i < limit && buffer.get(i++) != '\n') {
+        // omit the header
+      }
+    }
+
+    while (i < limit) {
+
+      // decode the first column, quotes and white space are ignored
+      long mmsi = 0;
+      int digits = 0;
+      boolean valid = true;
+      byte b;
+      while (i < limit && (b = buffer.get(i)) != ',' && b != '\n') {
+        if (b >= '0' && b <= '9') {
+          mmsi = digits < 10 ? mmsi * 10 + (b - '0') : Long.MAX_VALUE;
+          digits++;
+        } else if (b != '"' && b > ' ') {
+          valid = false;
         }
+        i++;
+      }
+      if (valid && digits > 0 && mmsi <= Integer.MAX_VALUE) {
+        counters.addTo((int) mmsi, 1);
       }
+
+      // skip the rest of the line
+      while (i < limit && buffer.get(i) != '\n') {
+        i++;
+      }
+      i++;
     }
 
-    return mmsiCounterMap;
+    return counters;
   }
 
   /**
@@ -60,4 +130,22 @@ public class JSONParser {
         (key, value) -> mmsiCounterList.add(new MMSICounterDto(Integer.parseInt(key), value)));
     mapper.writerWithDefaultPrettyPrinter().writeValue(new File(filename), mmsiCounterList);
   }
+
+  /**
+   * Write the counters as json and, next to it with a .bin extension, as a compact {@link
+   * MMSICounterSnapshot}.
+   *
+   * @param counters The mmsi counters
+   * @param filename The target json file name
+   */
+  public static void writeCounters(IntIntHashMap counters, String filename) throws IOException {
+    final ObjectMapper mapper = new ObjectMapper();
+    final List<MMSICounterDto> mmsiCounterList = new ArrayList<>(counters.size());
+    for (int i = 0; i < counters.size(); i++) {
+      mmsiCounterList.add(new MMSICounterDto(counters.keyAt(i), counters.valueAt(i)));
+    }
+    mapper.writerWithDefaultPrettyPrinter().writeValue(new File(filename), mmsiCounterList);
+    MMSICounterSnapshot.write(
+        counters, Paths.get(filename.replaceFirst("\\.json$", "") + ".bin"));
+  }
 }
@@ -0,0 +1,146 @@
+package kraptis91.maritime.parser.dto.csv;
+
+import java.util.Arrays;
+
+/**
+ * Struct of arrays alternative to {@link NariDynamicDto}, holding the ingested columns of up to
+ * capacity nari dynamic lines in primitive arrays. A batch is filled by the parser, handed over in
+ * bulk and then cleared and reused, so no object is created per line.
+ *
+ * <p>Not thread-safe.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class NariDynamicBatch {
+
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  private final int[] mmsi;
+  private final double[] speed;
+  private final double[] lon;
+  private final double[] lat;
+  private final long[] t;
+  private int size;
+
+  public NariDynamicBatch(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Error... Batch capacity must be > 0");
+    }
+    this.mmsi = new int[capacity];
+    this.speed = new double[capacity];
+    this.lon = new double[capacity];
+    this.lat = new double[capacity];
+    this.t = new long[capacity];
+  }
+
+  public static NariDynamicBatch createInstance() {
+    return new NariDynamicBatch(DEFAULT_CAPACITY);
+  }
+
+  public static NariDynamicBatch createInstance(int capacity) {
+    return new NariDynamicBatch(capacity);
+  }
+
+  /**
+   * Append a line, the batch must not be full.
+   *
+   * @return The index of the line in the batch
+   */
+  public int add(int mmsi, double speed, double lon, double lat, long t) {
+    if (isFull()) {
+      throw new IllegalStateException("Error... Batch is full, capacity " + getCapacity());
+    }
+    this.mmsi[size] = mmsi;
+    this.speed[size] = speed;
+    this.lon[size] = lon;
+    this.lat[size] = lat;
+    this.t[size] = t;
+    return size++;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getCapacity() {
+    return mmsi.length;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean isFull() {
+    return size == mmsi.length;
+  }
+
+  /** Forget every line, the arrays are kept for the next fill. */
+  public void clear() {
+    size = 0;
+  }
+
+  public int getMMSI(int index) {
+    return mmsi[checkIndex(index)];
+  }
+
+  public double getSpeed(int index) {
+    return speed[checkIndex(index)];
+  }
+
+  public double getLon(int index) {
+    return lon[checkIndex(index)];
+  }
+
+  public double getLat(int index) {
+    return lat[checkIndex(index)];
+  }
+
+  public long getT(int index) {
+    return t[checkIndex(index)];
+  }
+
+  /**
+   * The backing column arrays, only the first {@link #getSize()} values are valid. Meant for bulk
+   * loops over a column, the arrays must not be modified.
+   */
+  public int[] getMMSIColumn() {
+    return mmsi;
+  }
+
+  public double[] getSpeedColumn() {
+    return speed;
+  }
+
+  public double[] getLonColumn() {
+    return lon;
+  }
+
+  public double[] getLatColumn() {
+    return lat;
+  }
+
+  public long[] getTColumn() {
+    return t;
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(
+          "Error... Index " + index + " out of " + size + " batch lines");
+    }
+    return index;
+  }
+
+  @Override
+  public String toString() {
+    return "NariDynamicBatch{"
+        + "size="
+        + size
+        + ", capacity="
+        + getCapacity()
+        + ", mmsi="
+        + Arrays.toString(Arrays.copyOf(mmsi, Math.min(size, 8)))
+        + (size > 8 ? "..." : "")
+        + '}';
+  }
+}
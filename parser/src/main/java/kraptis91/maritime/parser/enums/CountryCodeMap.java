@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.EnumHashBiMap;
+import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
 import kraptis91.maritime.parser.dto.json.CountryCodeMapDto;
 
@@ -25,11 +26,11 @@ public enum CountryCodeMap {
 
     public final Logger LOGGER = Logger.getLogger(CountryCodeMap.class.getName());
     private final BiMap<CountryCode, String> countryCodeBiMap;
-    private List<CountryCodeMapDto> countryCodeMapDtoList;
+    private List<CountryCodeMapDto> countryCodeMapDtoList = ImmutableList.of();
 
     CountryCodeMap(String filename) {
 
-        countryCodeBiMap = EnumHashBiMap.create(CountryCode.class);
+        final BiMap<CountryCode, String> biMap = EnumHashBiMap.create(CountryCode.class);
         ObjectMapper mapper = new ObjectMapper();
 
         try (BufferedReader reader = new BufferedReader(
@@ -37,7 +38,7 @@ public enum CountryCodeMap {
 
             List<CountryCodeMapDto> tempList = mapper.readValue(reader, new TypeReference<>() {});
             countryCodeMapDtoList = ImmutableList.copyOf(tempList);
-            tempList.forEach(dto -> countryCodeBiMap.put(
+            tempList.forEach(dto -> biMap.put(
                 CountryCode.valueOf(dto.getCode()),
                 dto.getName()));
 
@@ -51,6 +52,7 @@ public enum CountryCodeMap {
             LOGGER.log(Level.SEVERE, e.getMessage(), e);
         }
 
+        countryCodeBiMap = ImmutableBiMap.copyOf(biMap);
     }
 
     public String getCountryNameByCode(CountryCode code) {
@@ -0,0 +1,181 @@
+package kraptis91.maritime.parser.enums;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Fixed precision decimal fields of AIS messages. A value is decoded straight into its scaled
+ * integer form (e.g. a coordinate times 10^7), skipping the JDK double parser and the string
+ * clean up before it. Optional double quotes, surrounding white space and a comma decimal
+ * separator are accepted, like {@link kraptis91.maritime.parser.utils.CSVParserUtils#parseDouble}.
+ *
+ * <p>Scaled values stay below 2^53, so {@link #toDouble(long)} divides two exact doubles and is
+ * correctly rounded: the result is bit identical to {@link Double#parseDouble(String)} of the
+ * same text. Values with more fraction digits than the precision (other than trailing zeros) are
+ * not decoded, the caller falls back to the JDK parser.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public enum FixedPrecision {
+    /**
+     * Longitude and latitude, 7 fraction digits. Scaled values fit in an int.
+     */
+    COORDINATE(7),
+    /**
+     * Speed over ground in knots, 1 fraction digit. Scaled values fit in an int.
+     */
+    SPEED(1);
+
+    /**
+     * Returned by the decode methods for values that need the JDK parser.
+     */
+    public static final long NOT_DECODED = Long.MIN_VALUE;
+
+    private static final long[] LONG_POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9
+    };
+    // largest scaled value that is still exactly representable as a double
+    private static final long MAX_EXACT_SCALED = 1L << 53;
+
+    private final int fractionDigits;
+
+    FixedPrecision(int fractionDigits) {
+        this.fractionDigits = fractionDigits;
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    /**
+     * @return 10^fractionDigits
+     */
+    public long getScale() {
+        return LONG_POWERS_OF_TEN[fractionDigits];
+    }
+
+    public long decode(@NotNull CharSequence value) {
+        return decode(value, 0, value.length());
+    }
+
+    /**
+     * Decode the [from, to) chars of the value to its scaled form.
+     *
+     * @return The scaled value or {@link #NOT_DECODED}
+     */
+    public long decode(@NotNull CharSequence value, int from, int to) {
+        int i = from;
+        int end = to;
+        while (i < end && isJunk(value.charAt(i))) {
+            i++;
+        }
+        while (end > i && isJunk(value.charAt(end - 1))) {
+            end--;
+        }
+        if (i >= end) {
+            return NOT_DECODED;
+        }
+
+        boolean negative = false;
+        char c = value.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long scaled = 0;
+        int digits = 0;
+        int fraction = -1; // the fraction digits so far, -1 before the decimal separator
+
+        for (; i < end; i++) {
+            c = value.charAt(i);
+            if (c == '"') {
+                continue;
+            }
+            if (c == '.' || c == ',') {
+                if (fraction >= 0) {
+                    return NOT_DECODED;
+                }
+                fraction = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return NOT_DECODED; // exponents, NaN, Infinity etc.
+            }
+            digits++;
+            if (fraction == fractionDigits) {
+                // only trailing zeros may exceed the precision
+                if (c != '0') {
+                    return NOT_DECODED;
+                }
+                continue;
+            }
+            if (fraction >= 0) {
+                fraction++;
+            }
+            scaled = scaled * 10 + (c - '0');
+            if (scaled > MAX_EXACT_SCALED) {
+                return NOT_DECODED;
+            }
+        }
+
+        if (digits == 0) {
+            return NOT_DECODED;
+        }
+        final long multiplier = LONG_POWERS_OF_TEN[fractionDigits - Math.max(fraction, 0)];
+        // checked before multiplying, the product could overflow
+        if (scaled > MAX_EXACT_SCALED / multiplier) {
+            return NOT_DECODED;
+        }
+        scaled *= multiplier;
+        return negative ? -scaled : scaled;
+    }
+
+    public double decodeDouble(@NotNull CharSequence value) {
+        return decodeDouble(value, 0, value.length());
+    }
+
+    /**
+     * Decode the [from, to) chars of the value, -0 included.
+     *
+     * @return The value, bit identical to the JDK parser, or NaN if the value was not decoded
+     */
+    public double decodeDouble(@NotNull CharSequence value, int from, int to) {
+        final long scaled = decode(value, from, to);
+        if (scaled == NOT_DECODED) {
+            return Double.NaN;
+        }
+        return scaled == 0 && isNegative(value, from, to) ? -0.0 : toDouble(scaled);
+    }
+
+    /**
+     * @param scaled A scaled value, |scaled| <= 2^53
+     * @return The correctly rounded double of scaled / 10^fractionDigits
+     */
+    public double toDouble(long scaled) {
+        return scaled / POWERS_OF_TEN[fractionDigits];
+    }
+
+    /**
+     * @return The value rounded to the precision, in scaled form
+     */
+    public long toScaled(double value) {
+        return Math.round(value * POWERS_OF_TEN[fractionDigits]);
+    }
+
+    private static boolean isNegative(CharSequence value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final char c = value.charAt(i);
+            if (!isJunk(c)) {
+                return c == '-';
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJunk(char c) {
+        return c == '"' || c <= ' ';
+    }
+}
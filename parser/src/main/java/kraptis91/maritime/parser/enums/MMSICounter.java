@@ -1,52 +1,92 @@
 package kraptis91.maritime.parser.enums;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import kraptis91.maritime.parser.dto.json.MMSICounterDto;
+import kraptis91.maritime.parser.utils.IntIntHashMap;
+import kraptis91.maritime.parser.utils.MMSICounterSnapshot;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-/** @author Konstantinos Raptis [kraptis at unipi.gr] on 26/12/2020. */
+/**
+ * The number of messages of every mmsi, loaded from the binary snapshot generated at build time
+ * ({@link MMSICounterSnapshot}), or from mmsi-counter-map.json when the snapshot is missing, e.g.
+ * running from the ide without the gradle resources.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 26/12/2020.
+ */
 public enum MMSICounter {
-  INSTANCE(MMSICounter.class.getResourceAsStream("/json/mmsi-counter-map.json"));
+  INSTANCE("/json/mmsi-counter-map.bin", "/json/mmsi-counter-map.json");
 
-  private final Logger LOGGER = Logger.getLogger(MMSICounter.class.getName());
-  private final Map<Integer, Integer> mmsiCounterMap;
-  private int maxMMSICounter = 0;
+  /** The counter of an mmsi missing from the counter map. */
+  public static final int UNKNOWN_MMSI_COUNTER = 0;
 
-  MMSICounter(InputStream is) {
-    mmsiCounterMap = new LinkedHashMap<>();
-    ObjectMapper mapper = new ObjectMapper();
+  private final Logger LOGGER = Logger.getLogger(MMSICounter.class.getName());
+  private final IntIntHashMap mmsiCounterMap;
+  private final int maxMMSICounter;
 
-    try {
-      List<MMSICounterDto> mmsiCounterDtoList = mapper.readValue(is, new TypeReference<>() {});
-      mmsiCounterDtoList.forEach(dto -> mmsiCounterMap.put(dto.getMmsi(), dto.getCounter()));
+  MMSICounter(String snapshotResource, String jsonResource) {
+    IntIntHashMap counters = new IntIntHashMap();
 
-    } catch (JsonParseException e) {
-      LOGGER.log(Level.SEVERE, e.getMessage(), e);
-    } catch (JsonMappingException e) {
-      LOGGER.log(Level.SEVERE, e.getMessage(), e);
+    try (InputStream snapshot = MMSICounter.class.getResourceAsStream(snapshotResource)) {
+      if (snapshot != null) {
+        counters = MMSICounterSnapshot.read(snapshot);
+      } else {
+        LOGGER.info("No " + snapshotResource + " snapshot, reading " + jsonResource);
+        try (InputStream json = MMSICounter.class.getResourceAsStream(jsonResource)) {
+          counters = readJSON(json);
+        }
+      }
     } catch (IOException e) {
       LOGGER.log(Level.SEVERE, e.getMessage(), e);
     }
+
+    mmsiCounterMap = counters;
+    maxMMSICounter = counters.maxValue(-1);
   }
 
+  /** Stream the json list into the map, without materializing a dto list. */
+  private static IntIntHashMap readJSON(InputStream is) throws IOException {
+    final IntIntHashMap counters = new IntIntHashMap();
+    final ObjectMapper mapper = new ObjectMapper();
+    try (JsonParser parser = mapper.getFactory().createParser(is)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("Error... Expected a json array of mmsi counters");
+      }
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        final MMSICounterDto dto = mapper.readValue(parser, MMSICounterDto.class);
+        counters.put(dto.getMmsi(), dto.getCounter());
+      }
+    }
+    return counters;
+  }
+
+  /**
+   * @param mmsi The mmsi
+   * @return The counter of the vessel, {@link #UNKNOWN_MMSI_COUNTER} if the mmsi is missing
+   */
   public int getMMSICounterForVessel(int mmsi) {
-    return mmsiCounterMap.get(mmsi);
+    return mmsiCounterMap.get(mmsi, UNKNOWN_MMSI_COUNTER);
+  }
+
+  /**
+   * @param mmsi The mmsi
+   * @param defaultCounter Returned if the mmsi is missing
+   * @return The counter of the vessel
+   */
+  public int getMMSICounterForVessel(int mmsi, int defaultCounter) {
+    return mmsiCounterMap.get(mmsi, defaultCounter);
+  }
+
+  public boolean containsMMSI(int mmsi) {
+    return mmsiCounterMap.containsKey(mmsi);
   }
 
   public int getMaxMMSICounter() {
-    if (maxMMSICounter == 0) {
-      maxMMSICounter = mmsiCounterMap.values().stream().max(Integer::compareTo).orElse(-1);
-    }
     return maxMMSICounter;
   }
 }
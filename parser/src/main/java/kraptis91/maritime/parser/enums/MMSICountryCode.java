@@ -1,16 +1,10 @@
 package kraptis91.maritime.parser.enums;
 
-import kraptis91.maritime.parser.CSVParser;
 import kraptis91.maritime.parser.dto.csv.MMSICountryCodesDto;
-import kraptis91.maritime.parser.exception.CSVParserException;
-import kraptis91.maritime.parser.utils.InputStreamUtils;
+import kraptis91.maritime.parser.exception.UncheckedCSVParserException;
+import kraptis91.maritime.parser.source.CSVSource;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,52 +13,67 @@ public enum MMSICountryCode {
   INSTANCE("/csv/mmsiCountryCodes.csv");
 
   public final Logger LOGGER = java.util.logging.Logger.getLogger(MMSICountryCode.class.getName());
-  private final Map<String, String> mmsiCountryCodeMap;
+  // maritime identification digits, the first 3 digits of a ship mmsi
+  private static final int MIN_MID = 200;
+  private static final int MAX_MID = 799;
 
-  MMSICountryCode(String resource) {
-
-    mmsiCountryCodeMap = new LinkedHashMap<>();
-
-    try {
-      LOGGER.info("Initializing MMSI Country Codes from " + resource + " START");
-      final InputStream is = MMSICountryCode.class.getResourceAsStream(resource);
-      final BufferedReader bufferedReader =
-          new BufferedReader(new InputStreamReader(InputStreamUtils.getBufferedInputStream(is)));
-      final CSVParser parser = new CSVParser();
+  // the country of every mid, index mid - MIN_MID, null if unassigned
+  private final String[] countryTable = new String[MAX_MID - MIN_MID + 1];
 
-      String line;
-      MMSICountryCodesDto dto;
-      boolean isFirstLine = true;
-
-      while ((line = bufferedReader.readLine()) != null) {
+  MMSICountryCode(String resource) {
 
-        // omit first line
-        if (isFirstLine) {
-          isFirstLine = false;
-          continue;
-        }
+    LOGGER.info("Initializing MMSI Country Codes from " + resource + " START");
+    try (CSVSource<MMSICountryCodesDto> source =
+        CSVSource.builder(parser -> parser::extractMMSICountryCodesDto)
+            .withHeaderPolicy(CSVSource.HeaderPolicy.NONE)
+            .withErrorPolicy(CSVSource.ErrorPolicy.FAIL)
+            .of(MMSICountryCode.class.getResourceAsStream(resource))) {
 
-        // parse current line to the dto
-        dto = parser.extractMMSICountryCodesDto(line);
-        // System.out.println(dto);
-        // add mmsi country code as key to Map and country name as value
-        mmsiCountryCodeMap.put(String.valueOf(dto.getMmsiCountryCode()), dto.getCountry());
-      }
+      // add the country name of every mid to the table
+      source
+          .stream()
+          .filter(
+              dto -> dto.getMmsiCountryCode() >= MIN_MID && dto.getMmsiCountryCode() <= MAX_MID)
+          .forEach(
+              dto ->
+                  countryTable[dto.getMmsiCountryCode() - MIN_MID] =
+                      dto.getCountry() == null ? null : dto.getCountry().intern());
 
       LOGGER.info("Initializing MMSI Country Codes from " + resource + " END");
 
-    } catch (IOException | CSVParserException e) {
+    } catch (IOException | UncheckedCSVParserException e) {
       LOGGER.log(Level.SEVERE, e.getMessage(), e);
     }
   }
 
+  /**
+   * @param mmsi The mmsi, its first 3 digits are the mid
+   * @return The interned country name, null if the mid is unassigned
+   */
   public String getCountryByMMSI(int mmsi) {
-    String mmsiAsString = String.valueOf(mmsi);
+    // ship mmsi are 9 digits
+    if (mmsi >= 100_000_000 && mmsi <= 999_999_999) {
+      return getCountryByMID(mmsi / 1_000_000);
+    }
 
-    if (mmsiAsString.length() < 3) {
+    if (mmsi > -100 && mmsi < 100) {
       throw new IllegalArgumentException("Error... MMSI country code length must be >= 3");
     }
-    String mmsiCountryCode = mmsiAsString.substring(0, 3);
-    return mmsiCountryCodeMap.get(mmsiCountryCode);
+    if (mmsi < 0) {
+      return null;
+    }
+    int mid = mmsi;
+    while (mid >= 1000) {
+      mid /= 10;
+    }
+    return getCountryByMID(mid);
+  }
+
+  /**
+   * @param mid The maritime identification digits
+   * @return The interned country name, null if the mid is unassigned
+   */
+  public String getCountryByMID(int mid) {
+    return mid >= MIN_MID && mid <= MAX_MID ? countryTable[mid - MIN_MID] : null;
   }
 }
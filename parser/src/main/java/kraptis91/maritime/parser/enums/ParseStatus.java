@@ -0,0 +1,21 @@
+package kraptis91.maritime.parser.enums;
+
+/**
+ * The outcome of parsing a csv line or column without exceptions.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public enum ParseStatus {
+
+    OK,
+    // the line does not have the expected number of columns
+    WRONG_COLUMN_COUNT,
+    // a mandatory numeric column is not a valid number
+    BAD_NUMBER,
+    // a mandatory column is empty or blank
+    BLANK_MANDATORY;
+
+    public boolean isOk() {
+        return this == OK;
+    }
+}
@@ -1,16 +1,11 @@
 package kraptis91.maritime.parser.enums;
 
-import kraptis91.maritime.parser.CSVParser;
 import kraptis91.maritime.parser.dto.csv.ShipTypeListDto;
-import kraptis91.maritime.parser.exception.CSVParserException;
-import kraptis91.maritime.parser.utils.InputStreamUtils;
+import kraptis91.maritime.parser.exception.UncheckedCSVParserException;
+import kraptis91.maritime.parser.source.CSVSource;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -22,72 +17,56 @@ public enum ShipTypes {
     INSTANCE("/csv/shipTypesList.csv");
 
     public final Logger LOGGER = java.util.logging.Logger.getLogger(ShipTypes.class.getName());
-    private final List<ShipTypeListDto> shipTypeListDtoList;
-    private final List<String> shipTypeList;
-    private List<String> distinctShipTypesList;
+    // ship type codes are one byte in AIS static messages
+    private static final int SHIP_TYPE_CODES = 256;
+
+    // the type name of every ship type code, null if not in the list
+    private final String[] shipTypeTable = new String[SHIP_TYPE_CODES];
+    private final List<String> distinctShipTypesList;
 
     ShipTypes(String resource) {
 
-        shipTypeListDtoList = new ArrayList<>();
+        List<ShipTypeListDto> dtoList = new ArrayList<>();
 
-        try {
-            LOGGER.info("Initializing Ship Types from " + resource + " START");
-            final InputStream is = ShipTypes.class.getResourceAsStream(resource);
-            final BufferedReader bufferedReader =
-                new BufferedReader(new InputStreamReader(InputStreamUtils.getBufferedInputStream(is)));
-            final CSVParser parser = new CSVParser();
+        LOGGER.info("Initializing Ship Types from " + resource + " START");
+        try (CSVSource<ShipTypeListDto> source =
+                 CSVSource.builder(parser -> parser::extractShipTypeListDto)
+                     .withErrorPolicy(CSVSource.ErrorPolicy.FAIL)
+                     .of(ShipTypes.class.getResourceAsStream(resource))) {
 
-            String line;
-            ShipTypeListDto dto;
-            boolean isFirstLine = true;
+            dtoList = source.stream().collect(Collectors.toList());
 
-            while ((line = bufferedReader.readLine()) != null) {
+        } catch (IOException | UncheckedCSVParserException e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+        }
 
-                // omit first line
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
+        // expand the ranges to a table, the first range of the list wins for a code
+        for (ShipTypeListDto dto : dtoList) {
+            final String typeName = dto.getTypeName() == null ? null : dto.getTypeName().intern();
+            final int max = Math.min(dto.getShipTypeMax(), SHIP_TYPE_CODES - 1);
+            for (int code = Math.max(dto.getShipTypeMin(), 0); code <= max; code++) {
+                if (shipTypeTable[code] == null) {
+                    shipTypeTable[code] = typeName;
                 }
-
-                // parse current line to the dto
-                dto = parser.extractShipTypeListDto(line);
-                // System.out.println(dto);
-                // add ship type id as key to Map and type name as value
-                shipTypeListDtoList.add(dto);
             }
-
-        } catch (IOException | CSVParserException e) {
-            LOGGER.log(Level.SEVERE, e.getMessage(), e);
         }
 
-        shipTypeList = shipTypeListDtoList.stream()
+        // built eagerly, the instance is read only and shared by the request threads
+        distinctShipTypesList = Collections.unmodifiableList(dtoList.stream()
             .map(ShipTypeListDto::getTypeName)
-            .collect(Collectors.toList());
-    }
-
-    private Predicate<ShipTypeListDto> isBetween(int shipType) {
-        return dto -> shipType >= dto.getShipTypeMin() && shipType <= dto.getShipTypeMax();
+            .distinct()
+            .collect(Collectors.toList()));
     }
 
     public List<String> getDistinctShipTypes() {
-        if (Objects.isNull(distinctShipTypesList)) {
-            distinctShipTypesList = shipTypeList.stream()
-                .distinct()
-                .collect(Collectors.toList());
-        }
         return distinctShipTypesList;
     }
 
+    /**
+     * @param shipType The ship type code
+     * @return The interned type name, null for a code out of the list
+     */
     public String getShipType(final int shipType) {
-
-        try {
-            return shipTypeListDtoList.stream()
-                .filter(isBetween(shipType))
-                .findAny()
-                .orElseThrow()
-                .getTypeName();
-        } catch (NoSuchElementException e) {
-            return null;
-        }
+        return (shipType & ~(SHIP_TYPE_CODES - 1)) == 0 ? shipTypeTable[shipType] : null;
     }
 }
@@ -1,15 +1,13 @@
 package kraptis91.maritime.parser.enums;
 
-import kraptis91.maritime.parser.CSVParser;
 import kraptis91.maritime.parser.dto.csv.PortDto;
-import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.exception.UncheckedCSVParserException;
+import kraptis91.maritime.parser.source.CSVSource;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -27,41 +25,23 @@ public enum WorldPorts {
 
     WorldPorts(String filename) {
 
-        portDtoList = new ArrayList<>();
+        List<PortDto> dtoList = new ArrayList<>();
 
-        try (BufferedReader reader = new BufferedReader(
-            new InputStreamReader(WorldPorts.class.getResourceAsStream(filename)))) {
+        LOGGER.info("Initializing World Ports from " + filename + " START");
+        try (CSVSource<PortDto> source = CSVSource.builder(parser -> parser::extractPortDto)
+            .withErrorPolicy(CSVSource.ErrorPolicy.FAIL)
+            .of(WorldPorts.class.getResourceAsStream(filename))) {
 
-            LOGGER.info("Initializing World Ports from " + filename + " START");
+            dtoList = source.stream().collect(Collectors.toList());
 
-            final CSVParser parser = new CSVParser();
-
-            String line;
-            PortDto dto;
-            boolean isFirstLine = true;
-
-            while ((line = reader.readLine()) != null) {
-
-                // omit first line
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
-                }
-
-                // parse current line to the dto
-                dto = parser.extractPortDto(line);
-                // System.out.println(dto);
-                // add ship type id as key to Map and type name as value
-                portDtoList.add(dto);
-            }
-
-        } catch (IOException | CSVParserException e) {
+        } catch (IOException | UncheckedCSVParserException e) {
             LOGGER.log(Level.SEVERE, e.getMessage(), e);
         }
 
-        portNameList = portDtoList.stream()
+        portDtoList = Collections.unmodifiableList(dtoList);
+        portNameList = Collections.unmodifiableList(portDtoList.stream()
             .map(PortDto::getName)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
 
     public List<String> getPortNames() {
@@ -0,0 +1,18 @@
+package kraptis91.maritime.parser.exception;
+
+/**
+ * Wraps a {@link CSVParserException} thrown inside a stream pipeline.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class UncheckedCSVParserException extends RuntimeException {
+
+  public UncheckedCSVParserException(CSVParserException e) {
+    super(e.getMessage(), e);
+  }
+
+  @Override
+  public synchronized CSVParserException getCause() {
+    return (CSVParserException) super.getCause();
+  }
+}
@@ -0,0 +1,19 @@
+package kraptis91.maritime.parser.projection;
+
+/**
+ * A csv column a dto is extracted from, identified by its header name.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public interface CSVField {
+
+    /**
+     * @return The column name as it appears in the csv header
+     */
+    String getHeaderName();
+
+    /**
+     * @return The column index used when the csv has no header
+     */
+    int getDefaultColumn();
+}
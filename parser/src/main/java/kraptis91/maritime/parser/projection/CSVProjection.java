@@ -0,0 +1,184 @@
+package kraptis91.maritime.parser.projection;
+
+import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.utils.CSVLineTokenizer;
+import kraptis91.maritime.parser.utils.CSVParserUtils;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A compiled field to column plan. It is created once per file from the csv header, so the parser
+ * reads the needed columns directly and the tokenizer stops after the last needed column.
+ *
+ * <p>Immutable, a single projection can be shared between parser threads.
+ *
+ * @param <E> The field enum of the csv format
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class CSVProjection<E extends Enum<E> & CSVField> {
+
+    public static final Logger LOGGER = Logger.getLogger(CSVProjection.class.getName());
+
+    // column index by field ordinal
+    private final int[] columns;
+    // expected number of columns of every line
+    private final int columnCount;
+    // number of leading columns the tokenizer has to find
+    private final int columnLimit;
+
+    private CSVProjection(int[] columns, int columnCount) {
+        this.columns = columns;
+        this.columnCount = columnCount;
+        this.columnLimit = Arrays.stream(columns).max().orElse(-1) + 1;
+    }
+
+    /**
+     * Create the projection of a csv without header, using the default column of every field.
+     *
+     * @param type        The field enum class
+     * @param columnCount The number of columns of the csv
+     * @return The projection
+     */
+    public static <E extends Enum<E> & CSVField> CSVProjection<E> defaultOf(@NotNull Class<E> type,
+                                                                            int columnCount) {
+        final E[] fields = type.getEnumConstants();
+        final int[] columns = new int[fields.length];
+        for (E field : fields) {
+            columns[field.ordinal()] = field.getDefaultColumn();
+        }
+        return new CSVProjection<>(columns, columnCount);
+    }
+
+    /**
+     * Compile the projection from the csv header line, header names are matched ignoring case,
+     * quotes and surrounding white space.
+     *
+     * @param type       The field enum class
+     * @param headerLine The first line of the csv
+     * @return The projection
+     * @throws CSVParserException If a field is missing from the header
+     */
+    public static <E extends Enum<E> & CSVField> CSVProjection<E> compile(@NotNull Class<E> type,
+                                                                          @NotNull CharSequence headerLine)
+        throws CSVParserException {
+
+        final CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+        final int columnCount = tokenizer.tokenize(headerLine);
+        final int[] columns = new int[type.getEnumConstants().length];
+        final EnumSet<E> missing = EnumSet.allOf(type);
+
+        for (int i = 0; i < columnCount; i++) {
+            final String name = tokenizer.parseTextOrReturnNull(i);
+            if (name == null) {
+                continue;
+            }
+            for (E field : missing) {
+                if (field.getHeaderName().equals(name.toLowerCase(Locale.ROOT))) {
+                    columns[field.ordinal()] = i;
+                    missing.remove(field);
+                    break;
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new CSVParserException(
+                "Error... Header [ " + headerLine + " ] has no column for " + missing);
+        }
+
+        return new CSVProjection<>(columns, columnCount);
+    }
+
+    /**
+     * Compile the projection from the header or, if the header does not name every field (e.g. a
+     * csv without header), fall back to the default columns.
+     *
+     * @param type        The field enum class
+     * @param headerLine  The first line of the csv
+     * @param columnCount The number of columns of the csv when the default columns are used
+     * @return The projection
+     */
+    public static <E extends Enum<E> & CSVField> CSVProjection<E> compileOrDefault(@NotNull Class<E> type,
+                                                                                   @NotNull CharSequence headerLine,
+                                                                                   int columnCount) {
+        try {
+            return compile(type, headerLine);
+        } catch (CSVParserException e) {
+            LOGGER.log(Level.WARNING, e.getMessage() + ", using the default columns");
+            return defaultOf(type, columnCount);
+        }
+    }
+
+    /**
+     * @param field The field
+     * @return The column index of the field
+     */
+    public int column(E field) {
+        return columns[field.ordinal()];
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return The number of leading columns that have to be tokenized to read every field
+     */
+    public int getColumnLimit() {
+        return columnLimit;
+    }
+
+    /**
+     * @return The column limit to tokenize a line with: {@link #getColumnLimit()} for a truncated
+     * projection, otherwise no limit, so lines with extra columns are counted and rejected
+     */
+    public int getTokenizeLimit() {
+        return isTruncated() ? columnLimit : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return true if trailing columns are never read, so lines are not tokenized to the end
+     */
+    public boolean isTruncated() {
+        return columnLimit < columnCount;
+    }
+
+    /**
+     * Check the number of columns tokenized with {@link #getTokenizeLimit()}. For a truncated
+     * projection only the needed columns are checked, since the rest of the line is never scanned.
+     *
+     * @param actual The number of tokenized columns
+     * @param name   The method called this method name
+     * @throws CSVParserException If the line does not have the expected columns
+     */
+    public void validateNumberOfParsedValues(int actual, String name) throws CSVParserException {
+        if (!hasValidNumberOfParsedValues(actual)) {
+            CSVParserUtils.validateNumberOfParsedValues(
+                actual, isTruncated() ? columnLimit : columnCount, name);
+        }
+    }
+
+    /**
+     * Exception free {@link #validateNumberOfParsedValues(int, String)}.
+     *
+     * @param actual The number of tokenized columns
+     * @return true if the line has the expected columns
+     */
+    public boolean hasValidNumberOfParsedValues(int actual) {
+        return actual == (isTruncated() ? columnLimit : columnCount);
+    }
+
+    @Override
+    public String toString() {
+        return "CSVProjection{" +
+            "columns=" + Arrays.toString(columns) +
+            ", columnCount=" + columnCount +
+            ", columnLimit=" + columnLimit +
+            '}';
+    }
+}
@@ -0,0 +1,37 @@
+package kraptis91.maritime.parser.projection;
+
+/**
+ * The nari dynamic columns extracted to a NariDynamicDto.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public enum NariDynamicField implements CSVField {
+    MMSI("sourcemmsi", 0),
+    SPEED("speedoverground", 3),
+    LON("lon", 6),
+    LAT("lat", 7),
+    T("t", 8);
+
+    /**
+     * Number of columns of the nari dynamic csv.
+     */
+    public static final int COLUMNS = 9;
+
+    private final String headerName;
+    private final int defaultColumn;
+
+    NariDynamicField(String headerName, int defaultColumn) {
+        this.headerName = headerName;
+        this.defaultColumn = defaultColumn;
+    }
+
+    @Override
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    @Override
+    public int getDefaultColumn() {
+        return defaultColumn;
+    }
+}
@@ -0,0 +1,42 @@
+package kraptis91.maritime.parser.projection;
+
+/**
+ * The nari static columns extracted to a NariStaticDto.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public enum NariStaticField implements CSVField {
+    MMSI("sourcemmsi", 0),
+    IMO("imonumber", 1),
+    CALL_SIGN("callsign", 2),
+    SHIP_NAME("shipname", 3),
+    SHIP_TYPE("shiptype", 4),
+    TO_PORT("toport", 8),
+    ETA("eta", 9),
+    DRAUGHT("draught", 10),
+    DESTINATION("destination", 11),
+    T("t", 13);
+
+    /**
+     * Number of columns of the nari static csv.
+     */
+    public static final int COLUMNS = 14;
+
+    private final String headerName;
+    private final int defaultColumn;
+
+    NariStaticField(String headerName, int defaultColumn) {
+        this.headerName = headerName;
+        this.defaultColumn = defaultColumn;
+    }
+
+    @Override
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    @Override
+    public int getDefaultColumn() {
+        return defaultColumn;
+    }
+}
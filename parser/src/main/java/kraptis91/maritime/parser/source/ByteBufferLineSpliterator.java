@@ -0,0 +1,92 @@
+package kraptis91.maritime.parser.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * The lines of a [from, to) byte range of a buffer, e.g. a memory mapped file. Splits at the
+ * first line break after the middle of the remaining range, so both halves hold whole lines.
+ * Both '\n' and "\r\n" terminated lines are supported and empty lines are skipped.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+class ByteBufferLineSpliterator implements Spliterator<String> {
+
+    // smaller ranges are not worth a split
+    static final int MIN_SPLIT_SIZE = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private int position;
+    private final int end;
+    // reused to copy the bytes of a line out of a direct buffer
+    private byte[] lineBytes;
+
+    ByteBufferLineSpliterator(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        this.position = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        while (position < end) {
+            final int lineStart = position;
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            position = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                action.accept(decode(lineStart, lineEnd));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String decode(int from, int to) {
+        if (buffer.hasArray()) {
+            return new String(
+                buffer.array(), buffer.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        if (lineBytes == null || lineBytes.length < to - from) {
+            lineBytes = new byte[Math.max(to - from, 256)];
+        }
+        for (int i = from; i < to; i++) {
+            lineBytes[i - from] = buffer.get(i);
+        }
+        return new String(lineBytes, 0, to - from, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (end - position < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int split = position + (end - position) / 2;
+        while (split < end && buffer.get(split) != '\n') {
+            split++;
+        }
+        if (split >= end - 1) {
+            return null;
+        }
+        final Spliterator<String> prefix = new ByteBufferLineSpliterator(buffer, position, split + 1);
+        position = split + 1;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position; // in bytes, an upper bound of the lines
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
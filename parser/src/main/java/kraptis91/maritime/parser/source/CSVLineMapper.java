@@ -0,0 +1,16 @@
+package kraptis91.maritime.parser.source;
+
+import kraptis91.maritime.parser.exception.CSVParserException;
+
+/**
+ * Maps a csv line to an element, e.g. {@code parser::extractPortDto}. A mapper may return null to
+ * discard a corrupted line without an exception.
+ *
+ * @param <T> The element type
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+@FunctionalInterface
+public interface CSVLineMapper<T> {
+
+    T map(String line) throws CSVParserException;
+}
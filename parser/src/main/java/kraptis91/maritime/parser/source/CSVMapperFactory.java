@@ -0,0 +1,22 @@
+package kraptis91.maritime.parser.source;
+
+import kraptis91.maritime.parser.CSVParser;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the line mapper of a split. Called once per split with a parser of its own, since a
+ * {@link CSVParser} must not be shared between threads.
+ *
+ * @param <T> The element type
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+@FunctionalInterface
+public interface CSVMapperFactory<T> {
+
+    /**
+     * @param parser The parser of the split
+     * @param header The header line, null if the source has no header
+     * @return The line mapper
+     */
+    CSVLineMapper<T> create(CSVParser parser, @Nullable String header);
+}
@@ -0,0 +1,239 @@
+package kraptis91.maritime.parser.source;
+
+import kraptis91.maritime.parser.CSVParser;
+import kraptis91.maritime.parser.utils.FileSegment;
+import kraptis91.maritime.parser.utils.FileSegmentUtils;
+import kraptis91.maritime.parser.utils.InputStreamUtils;
+
+import javax.validation.constraints.NotNull;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The lines of a csv file, buffer or stream mapped to elements, traversed by a splittable
+ * {@link Spliterator}. Files and buffers split at line boundaries, so a parallel stream parses
+ * them on all cores, every split with a parser of its own. Whether the first line is a header and
+ * what to do with a line that fails to parse is declared on the builder instead of being
+ * hand-rolled by every reader.
+ *
+ * <pre>{@code
+ * try (CSVSource<PortDto> source = CSVSource.builder(parser -> parser::extractPortDto)
+ *     .withErrorPolicy(CSVSource.ErrorPolicy.FAIL)
+ *     .of(is)) {
+ *   source.stream().forEach(...);
+ * }
+ * }</pre>
+ *
+ * @param <T> The element type
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class CSVSource<T> implements AutoCloseable {
+
+    public enum HeaderPolicy {
+        /**
+         * Every line is a record.
+         */
+        NONE,
+        /**
+         * The first line is a header, it is handed to the mapper factory and omitted.
+         */
+        SKIP
+    }
+
+    public enum ErrorPolicy {
+        /**
+         * Stop at the first corrupted line with an
+         * {@link kraptis91.maritime.parser.exception.UncheckedCSVParserException}.
+         */
+        FAIL,
+        /**
+         * Count the corrupted line (see {@link #getSkippedLines()}) and go on.
+         */
+        SKIP
+    }
+
+    private final Spliterator<String> lines;
+    private final String header;
+    private final CSVMapperFactory<T> mapperFactory;
+    private final ErrorPolicy errorPolicy;
+    private final Closeable resource;
+    private final LongAdder skippedLines = new LongAdder();
+
+    private CSVSource(Spliterator<String> lines,
+                      String header,
+                      CSVMapperFactory<T> mapperFactory,
+                      ErrorPolicy errorPolicy,
+                      Closeable resource) {
+        this.lines = lines;
+        this.header = header;
+        this.mapperFactory = mapperFactory;
+        this.errorPolicy = errorPolicy;
+        this.resource = resource;
+    }
+
+    /**
+     * @param mapper Creates the line mapper of a split from its parser, e.g.
+     *               {@code parser -> parser::extractPortDto}
+     */
+    public static <T> Builder<T> builder(@NotNull Function<CSVParser, CSVLineMapper<T>> mapper) {
+        return new Builder<>((parser, header) -> mapper.apply(parser));
+    }
+
+    /**
+     * @param mapperFactory Creates the line mapper of a split from its parser and the header,
+     *                      e.g. to compile a header driven projection
+     */
+    public static <T> Builder<T> builderWithHeader(@NotNull CSVMapperFactory<T> mapperFactory) {
+        return new Builder<>(mapperFactory);
+    }
+
+    public static class Builder<T> {
+
+        private final CSVMapperFactory<T> mapperFactory;
+        private HeaderPolicy headerPolicy = HeaderPolicy.SKIP;
+        private ErrorPolicy errorPolicy = ErrorPolicy.SKIP;
+        private int segmentSize = FileSegmentUtils.DEFAULT_SEGMENT_SIZE;
+
+        private Builder(CSVMapperFactory<T> mapperFactory) {
+            this.mapperFactory = mapperFactory;
+        }
+
+        public Builder<T> withHeaderPolicy(@NotNull HeaderPolicy headerPolicy) {
+            this.headerPolicy = headerPolicy;
+            return this;
+        }
+
+        public Builder<T> withErrorPolicy(@NotNull ErrorPolicy errorPolicy) {
+            this.errorPolicy = errorPolicy;
+            return this;
+        }
+
+        /**
+         * @param segmentSize The size of the memory mapped file segments in bytes
+         */
+        public Builder<T> withSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * A plain file is memory mapped in line aligned segments, a compressed one is streamed.
+         */
+        public CSVSource<T> of(@NotNull Path csvPath) throws IOException {
+            if (InputStreamUtils.isCompressed(csvPath)) {
+                return of(Files.newInputStream(csvPath));
+            }
+            final FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ);
+            try {
+                final String header = headerPolicy == HeaderPolicy.SKIP
+                    ? FileSegmentUtils.readFirstLine(channel)
+                    : null;
+                final List<FileSegment> segments =
+                    FileSegmentUtils.splitAtNewLines(channel, segmentSize);
+                return new CSVSource<>(
+                    new FileLineSpliterator(channel, segments, headerPolicy == HeaderPolicy.SKIP),
+                    header, mapperFactory, errorPolicy, channel);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * @param buffer The buffer, its lines from position up to limit are read
+         */
+        public CSVSource<T> of(@NotNull ByteBuffer buffer) {
+            final int limit = buffer.limit();
+            int from = buffer.position();
+            String header = null;
+            if (headerPolicy == HeaderPolicy.SKIP) {
+                int lineEnd = from;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                final int headerEnd =
+                    lineEnd > from && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                final byte[] headerBytes = new byte[headerEnd - from];
+                for (int i = from; i < headerEnd; i++) {
+                    headerBytes[i - from] = buffer.get(i);
+                }
+                header = new String(headerBytes, StandardCharsets.UTF_8);
+                from = Math.min(lineEnd + 1, limit);
+            }
+            return new CSVSource<>(new ByteBufferLineSpliterator(buffer, from, limit),
+                header, mapperFactory, errorPolicy, () -> {
+            });
+        }
+
+        /**
+         * A stream splits in batches of lines read ahead by the traversing thread, gzip and zstd
+         * compressed streams are decompressed transparently.
+         */
+        public CSVSource<T> of(@NotNull InputStream is) throws IOException {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                InputStreamUtils.getDecompressedInputStream(is), StandardCharsets.UTF_8));
+            try {
+                final String header = headerPolicy == HeaderPolicy.SKIP ? reader.readLine() : null;
+                return new CSVSource<>(reader.lines().filter(line -> !line.isEmpty()).spliterator(),
+                    header, mapperFactory, errorPolicy, reader);
+            } catch (IOException | RuntimeException e) {
+                reader.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return The spliterator of the elements, can only be traversed once
+     */
+    public Spliterator<T> spliterator() {
+        return new MappingSpliterator<>(lines, mapperFactory, header, errorPolicy, skippedLines);
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true).onClose(this::close);
+    }
+
+    /**
+     * @return The header line, null if the source has no header
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * @return The number of lines skipped so far, failed to parse or discarded by the mapper
+     */
+    public long getSkippedLines() {
+        return skippedLines.sum();
+    }
+
+    @Override
+    public void close() {
+        try {
+            resource.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package kraptis91.maritime.parser.source;
+
+import kraptis91.maritime.parser.utils.FileSegment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * The lines of a file split into line aligned {@link FileSegment}s. Whole segments are handed out
+ * while more than one is left, then the last mapped segment is split by its line spliterator.
+ * Segments are memory mapped only when they are traversed.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+class FileLineSpliterator implements Spliterator<String> {
+
+    private final FileChannel channel;
+    private final List<FileSegment> segments;
+    // true to omit the first line of the file, e.g. the csv header
+    private final boolean skipFirstLine;
+    // the segment in progress, null if not mapped yet
+    private Spliterator<String> current;
+    // the not mapped segments [next, last)
+    private int next;
+    private final int last;
+
+    FileLineSpliterator(FileChannel channel, List<FileSegment> segments, boolean skipFirstLine) {
+        this(channel, segments, skipFirstLine, null, 0, segments.size());
+    }
+
+    private FileLineSpliterator(FileChannel channel,
+                                List<FileSegment> segments,
+                                boolean skipFirstLine,
+                                Spliterator<String> current,
+                                int next,
+                                int last) {
+        this.channel = channel;
+        this.segments = segments;
+        this.skipFirstLine = skipFirstLine;
+        this.current = current;
+        this.next = next;
+        this.last = last;
+    }
+
+    private Spliterator<String> map(FileSegment segment) {
+        try {
+            final ByteBuffer buffer = segment.map(channel);
+            int from = 0;
+            if (skipFirstLine && segment.isFirst()) {
+                while (from < buffer.limit() && buffer.get(from++) != '\n') {
+                    // omit the first line
+                }
+            }
+            return new ByteBufferLineSpliterator(buffer, from, buffer.limit());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        while (true) {
+            if (current != null && current.tryAdvance(action)) {
+                return true;
+            }
+            if (next == last) {
+                current = null;
+                return false;
+            }
+            current = map(segments.get(next++));
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (last - next >= 2) {
+            // hand out the segment in progress and the first half of the rest
+            final int mid = next + (last - next) / 2;
+            final Spliterator<String> prefix =
+                new FileLineSpliterator(channel, segments, skipFirstLine, current, next, mid);
+            current = null;
+            next = mid;
+            return prefix;
+        }
+        if (current != null && next < last) {
+            final Spliterator<String> prefix =
+                new FileLineSpliterator(channel, segments, skipFirstLine, current, next, next);
+            current = null;
+            return prefix;
+        }
+        if (current == null && next < last) {
+            current = map(segments.get(next++));
+        }
+        return current == null ? null : current.trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = current == null ? 0 : current.estimateSize();
+        for (int i = next; i < last; i++) {
+            size += segments.get(i).getLength();
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,82 @@
+package kraptis91.maritime.parser.source;
+
+import kraptis91.maritime.parser.CSVParser;
+import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.exception.UncheckedCSVParserException;
+
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Maps the lines of a line spliterator to elements. Every split gets its own parser and mapper,
+ * so splits can be traversed by different threads.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+class MappingSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<String> lines;
+    private final CSVMapperFactory<T> mapperFactory;
+    private final String header;
+    private final CSVSource.ErrorPolicy errorPolicy;
+    private final LongAdder skippedLines;
+
+    private CSVLineMapper<T> mapper;
+    private String line;
+
+    MappingSpliterator(Spliterator<String> lines,
+                       CSVMapperFactory<T> mapperFactory,
+                       String header,
+                       CSVSource.ErrorPolicy errorPolicy,
+                       LongAdder skippedLines) {
+        this.lines = lines;
+        this.mapperFactory = mapperFactory;
+        this.header = header;
+        this.errorPolicy = errorPolicy;
+        this.skippedLines = skippedLines;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (mapper == null) {
+            mapper = mapperFactory.create(new CSVParser(), header);
+        }
+        while (lines.tryAdvance(l -> line = l)) {
+            final T element;
+            try {
+                element = mapper.map(line);
+            } catch (CSVParserException e) {
+                if (errorPolicy == CSVSource.ErrorPolicy.FAIL) {
+                    throw new UncheckedCSVParserException(e);
+                }
+                skippedLines.increment();
+                continue;
+            }
+            if (element != null) {
+                action.accept(element);
+                return true;
+            }
+            skippedLines.increment();
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        final Spliterator<String> prefix = lines.trySplit();
+        return prefix == null
+            ? null
+            : new MappingSpliterator<>(prefix, mapperFactory, header, errorPolicy, skippedLines);
+    }
+
+    @Override
+    public long estimateSize() {
+        return lines.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return lines.characteristics() & ~(SIZED | SUBSIZED) | NONNULL;
+    }
+}
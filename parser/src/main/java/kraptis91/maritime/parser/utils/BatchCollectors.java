@@ -0,0 +1,79 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class BatchCollectors {
+
+    /**
+     * Collect the elements of a stream in batches of batchSize, every full batch handed to the
+     * consumer as soon as it is collected, e.g. a dao insertMany. In a parallel stream every
+     * thread fills its own batches, so the consumer must be thread safe and the batches are not
+     * in stream order; the last batch of a thread may be smaller.
+     *
+     * @param batchSize The batch size
+     * @param consumer  The batch consumer, receives a new list every time
+     * @return A collector returning the number of elements handed to the consumer
+     */
+    public static <T> Collector<T, ?, Long> batching(int batchSize,
+                                                     @NotNull Consumer<List<T>> consumer) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Error... Batch size must be > 0");
+        }
+
+        return Collector.of(
+            () -> new Batch<T>(batchSize, consumer),
+            Batch::add,
+            Batch::merge,
+            Batch::finish);
+    }
+
+    private static class Batch<T> {
+
+        private final int batchSize;
+        private final Consumer<List<T>> consumer;
+        private List<T> elements;
+        private long count;
+
+        Batch(int batchSize, Consumer<List<T>> consumer) {
+            this.batchSize = batchSize;
+            this.consumer = consumer;
+            this.elements = new ArrayList<>(batchSize);
+        }
+
+        void add(T element) {
+            elements.add(element);
+            if (elements.size() == batchSize) {
+                flush();
+            }
+        }
+
+        Batch<T> merge(Batch<T> other) {
+            count += other.count;
+            for (T element : other.elements) {
+                add(element);
+            }
+            return this;
+        }
+
+        long finish() {
+            flush();
+            return count;
+        }
+
+        private void flush() {
+            if (elements.isEmpty()) {
+                return;
+            }
+            count += elements.size();
+            consumer.accept(elements);
+            elements = new ArrayList<>(batchSize);
+        }
+    }
+}
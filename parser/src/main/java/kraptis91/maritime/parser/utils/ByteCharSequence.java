@@ -0,0 +1,75 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@link CharSequence} window over a byte buffer, so csv bytes (heap or memory mapped)
+ * can be fed to the {@link CSVLineTokenizer} without decoding them to a String first. Every byte
+ * is exposed as one char, which is safe for the delimiters and digits of utf-8 input, while
+ * {@link #toString()} decodes the window as utf-8.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class ByteCharSequence implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    public ByteCharSequence() {
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    public static ByteCharSequence of(@NotNull byte[] bytes) {
+        return new ByteCharSequence().wrap(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Point this window to the [from, to) region of the buffer, the buffer position is not used.
+     *
+     * @param buffer The buffer
+     * @param from   The first byte (inclusive)
+     * @param to     The last byte (exclusive)
+     * @return this
+     */
+    public ByteCharSequence wrap(@NotNull ByteBuffer buffer, int from, int to) {
+        if (from < 0 || to < from || to > buffer.limit()) {
+            throw new IndexOutOfBoundsException(
+                "Error... Invalid window [" + from + ", " + to + ") for limit " + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.offset = from;
+        this.length = to - from;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException("Error... Invalid sub sequence [" + start + ", " + end + ")");
+        }
+        return new ByteCharSequence().wrap(buffer, offset + start, offset + end);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
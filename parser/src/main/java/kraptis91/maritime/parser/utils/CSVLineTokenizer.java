@@ -0,0 +1,564 @@
+package kraptis91.maritime.parser.utils;
+
+import kraptis91.maritime.parser.enums.FixedPrecision;
+import kraptis91.maritime.parser.enums.ParseStatus;
+import kraptis91.maritime.parser.exception.CSVParserException;
+import org.jetbrains.annotations.Nullable;
+
+import javax.validation.constraints.NotNull;
+import java.util.Arrays;
+
+/**
+ * Quote aware, single pass comma tokenizer. Instead of splitting the line into a String[] it
+ * records the start and end offset of every column over the given window, so numeric columns can
+ * be decoded in place without materializing any substring.
+ *
+ * <p>Instances are reusable and not thread-safe, keep one per parsing thread.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class CSVLineTokenizer {
+
+    private static final int DEFAULT_MAX_COLUMNS = 16;
+
+    // doubles up to 10^22 are exact, so mantissa / 10^n is correctly rounded (Clinger fast path)
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // largest mantissa that is still exactly representable as a double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    // marker for values the fast path could not decode, never a valid in place result
+    private static final long NOT_DECODED = Long.MIN_VALUE;
+
+    private CharSequence window;
+    private int[] starts;
+    private int[] ends;
+    private int columnCount;
+
+    // results of the last tryParse call
+    private long longValue;
+    private double doubleValue;
+
+    public CSVLineTokenizer() {
+        this(DEFAULT_MAX_COLUMNS);
+    }
+
+    public CSVLineTokenizer(int expectedColumns) {
+        starts = new int[Math.max(expectedColumns, 1)];
+        ends = new int[Math.max(expectedColumns, 1)];
+    }
+
+    /**
+     * Tokenize the whole line.
+     *
+     * @param line The csv line (without the line terminator)
+     * @return The number of columns found
+     */
+    public int tokenize(@NotNull CharSequence line) {
+        return tokenize(line, 0, line.length());
+    }
+
+    /**
+     * Tokenize the [from, to) region of the window. Commas inside double quotes do not break the
+     * column, the quotes themselves are kept in the column range and skipped while decoding.
+     *
+     * @param window The characters, e.g. a String or a {@link ByteCharSequence} over a byte buffer
+     * @param from   The first char of the line (inclusive)
+     * @param to     The end of the line (exclusive)
+     * @return The number of columns found
+     */
+    public int tokenize(@NotNull CharSequence window, int from, int to) {
+        return tokenize(window, from, to, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Tokenize at most the first columnLimit columns of the [from, to) region. Once the limit is
+     * reached the rest of the line is not scanned at all, so the returned count is a lower bound of
+     * the actual number of columns.
+     *
+     * @param window      The characters
+     * @param from        The first char of the line (inclusive)
+     * @param to          The end of the line (exclusive)
+     * @param columnLimit The number of leading columns needed
+     * @return The number of columns found, never more than columnLimit
+     */
+    public int tokenize(@NotNull CharSequence window, int from, int to, int columnLimit) {
+        this.window = window;
+        columnCount = 0;
+
+        boolean inQuotes = false;
+        int start = from;
+
+        for (int i = from; i < to; i++) {
+            final char c = window.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                addColumn(start, i);
+                if (columnCount == columnLimit) {
+                    return columnCount;
+                }
+                start = i + 1;
+            }
+        }
+        // last column, may be empty when the line ends with a comma
+        addColumn(start, to);
+
+        return columnCount;
+    }
+
+    private void addColumn(int start, int end) {
+        if (columnCount == starts.length) {
+            starts = Arrays.copyOf(starts, columnCount * 2);
+            ends = Arrays.copyOf(ends, columnCount * 2);
+        }
+        starts[columnCount] = start;
+        ends[columnCount] = end;
+        columnCount++;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getColumnStart(int column) {
+        checkColumn(column);
+        return starts[column];
+    }
+
+    public int getColumnEnd(int column) {
+        checkColumn(column);
+        return ends[column];
+    }
+
+    public CharSequence getWindow() {
+        return window;
+    }
+
+    /**
+     * @param column The column index
+     * @return The raw column value as it appears in the line, quotes included
+     */
+    public String getRaw(int column) {
+        checkColumn(column);
+        return window.subSequence(starts[column], ends[column]).toString();
+    }
+
+    /**
+     * Same semantics as {@code String.isBlank()} on the raw column value.
+     *
+     * @param column The column index
+     * @return true if the column is empty or contains only white space
+     */
+    public boolean isBlank(int column) {
+        checkColumn(column);
+        for (int i = starts[column]; i < ends[column]; i++) {
+            if (!Character.isWhitespace(window.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int parseInt(int column) throws CSVParserException, IllegalArgumentException {
+        validateValue("parseInt", column);
+        final long value = decodeLong(column, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (value == NOT_DECODED) {
+            try {
+                return Integer.parseInt(materialize(column, false));
+            } catch (NumberFormatException e) {
+                throw new CSVParserException(e);
+            }
+        }
+        return (int) value;
+    }
+
+    public int parseIntOrReturnDefault(int column, int defaultValue) {
+        if (isBlank(column)) {
+            return defaultValue;
+        }
+        final long value = decodeLong(column, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (value == NOT_DECODED) {
+            if (!mayBeInteger(column)) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(materialize(column, false));
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return (int) value;
+    }
+
+    public long parseLong(int column) throws CSVParserException, IllegalArgumentException {
+        validateValue("parseLong", column);
+        final long value = decodeLong(column, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+        if (value == NOT_DECODED) {
+            try {
+                return Long.parseLong(materialize(column, false));
+            } catch (NumberFormatException e) {
+                throw new CSVParserException(e);
+            }
+        }
+        return value;
+    }
+
+    public double parseDouble(int column) throws CSVParserException, IllegalArgumentException {
+        validateValue("parseDouble", column);
+        final double value = decodeDouble(column);
+        if (Double.isNaN(value)) {
+            try {
+                return Double.parseDouble(materialize(column, true));
+            } catch (NumberFormatException e) {
+                throw new CSVParserException(e);
+            }
+        }
+        return value;
+    }
+
+    public double parseDoubleOrReturnDefault(int column, double defaultValue) {
+        if (isBlank(column)) {
+            return defaultValue;
+        }
+        final double value = decodeDouble(column);
+        if (Double.isNaN(value)) {
+            if (!mayBeDouble(column)) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(materialize(column, true));
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Exception free {@link #parseInt(int)}, on {@link ParseStatus#OK} the value is available from
+     * {@link #getIntValue()}. Only well formed numbers the in place decoder can not handle take the
+     * JDK parser.
+     *
+     * @param column The column index
+     * @return The status
+     */
+    public ParseStatus tryParseInt(int column) {
+        return tryParseLong(column, true);
+    }
+
+    /**
+     * Exception free {@link #parseLong(int)}, on {@link ParseStatus#OK} the value is available from
+     * {@link #getLongValue()}.
+     *
+     * @param column The column index
+     * @return The status
+     */
+    public ParseStatus tryParseLong(int column) {
+        return tryParseLong(column, false);
+    }
+
+    private ParseStatus tryParseLong(int column, boolean intRange) {
+        checkColumn(column);
+        if (isBlank(column)) {
+            return ParseStatus.BLANK_MANDATORY;
+        }
+        longValue = intRange
+            ? decodeLong(column, Integer.MIN_VALUE, Integer.MAX_VALUE)
+            : decodeLong(column, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+        if (longValue != NOT_DECODED) {
+            return ParseStatus.OK;
+        }
+        if (!mayBeInteger(column)) {
+            return ParseStatus.BAD_NUMBER;
+        }
+        try {
+            longValue = intRange
+                ? Integer.parseInt(materialize(column, false))
+                : Long.parseLong(materialize(column, false));
+            return ParseStatus.OK;
+        } catch (NumberFormatException e) {
+            return ParseStatus.BAD_NUMBER;
+        }
+    }
+
+    /**
+     * Exception free {@link #parseDouble(int)}, on {@link ParseStatus#OK} the value is available
+     * from {@link #getDoubleValue()}.
+     *
+     * @param column The column index
+     * @return The status
+     */
+    public ParseStatus tryParseDouble(int column) {
+        checkColumn(column);
+        if (isBlank(column)) {
+            return ParseStatus.BLANK_MANDATORY;
+        }
+        doubleValue = decodeDouble(column);
+        if (!Double.isNaN(doubleValue)) {
+            return ParseStatus.OK;
+        }
+        if (!mayBeDouble(column)) {
+            return ParseStatus.BAD_NUMBER;
+        }
+        try {
+            doubleValue = Double.parseDouble(materialize(column, true));
+            return ParseStatus.OK;
+        } catch (NumberFormatException e) {
+            return ParseStatus.BAD_NUMBER;
+        }
+    }
+
+    /**
+     * Exception free parse of a fixed precision column, e.g. a coordinate. On
+     * {@link ParseStatus#OK} the value is available from {@link #getDoubleValue()} and its scaled
+     * form from {@link #getLongValue()}. Values beyond the precision fall back to
+     * {@link #tryParseDouble(int)} and are rounded in scaled form.
+     *
+     * @param column    The column index
+     * @param precision The precision of the column
+     * @return The status
+     */
+    public ParseStatus tryParseFixed(int column, @NotNull FixedPrecision precision) {
+        checkColumn(column);
+        if (isBlank(column)) {
+            return ParseStatus.BLANK_MANDATORY;
+        }
+        final long scaled = precision.decode(window, starts[column], ends[column]);
+        if (scaled != FixedPrecision.NOT_DECODED) {
+            longValue = scaled;
+            doubleValue = scaled == 0
+                ? precision.decodeDouble(window, starts[column], ends[column]) // keep -0.0
+                : precision.toDouble(scaled);
+            return ParseStatus.OK;
+        }
+        final ParseStatus status = tryParseDouble(column);
+        if (status.isOk()) {
+            longValue = precision.toScaled(doubleValue);
+        }
+        return status;
+    }
+
+    public int getIntValue() {
+        return (int) longValue;
+    }
+
+    public long getLongValue() {
+        return longValue;
+    }
+
+    public double getDoubleValue() {
+        return doubleValue;
+    }
+
+    public String parseText(int column) throws IllegalArgumentException {
+        validateValue("parseText", column);
+        return materialize(column, false);
+    }
+
+    @Nullable
+    public String parseTextOrReturnNull(int column) {
+        if (isBlank(column)) {
+            return null;
+        }
+        return materialize(column, false);
+    }
+
+    /**
+     * Decode an optionally signed run of ascii digits, ignoring quotes and surrounding white space.
+     *
+     * @return The value or {@link #NOT_DECODED} if the column needs the slow path
+     */
+    private long decodeLong(int column, long min, long max) {
+        int i = trimStart(column);
+        final int end = trimEnd(column);
+
+        if (i >= end) {
+            return NOT_DECODED;
+        }
+
+        boolean negative = false;
+        char c = window.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        for (; i < end; i++) {
+            c = window.charAt(i);
+            if (c == '"') {
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == 18) { // more than 18 digits may overflow
+                return NOT_DECODED;
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+        }
+
+        if (digits == 0) {
+            return NOT_DECODED;
+        }
+        value = negative ? -value : value;
+        return value < min || value > max ? NOT_DECODED : value;
+    }
+
+    /**
+     * Decode a plain decimal (optional sign, digits, optional '.' or ',' and fraction digits).
+     *
+     * @return The correctly rounded value or NaN if the column needs the slow path
+     */
+    private double decodeDouble(int column) {
+        int i = trimStart(column);
+        final int end = trimEnd(column);
+
+        if (i >= end) {
+            return Double.NaN;
+        }
+
+        boolean negative = false;
+        char c = window.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+
+        for (; i < end; i++) {
+            c = window.charAt(i);
+            if (c == '"') {
+                continue;
+            }
+            if (c == '.' || c == ',') {
+                if (inFraction) {
+                    return Double.NaN;
+                }
+                inFraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return Double.NaN; // exponents, NaN, Infinity etc.
+            }
+            if (digits == 18) {
+                return Double.NaN;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            if (inFraction) {
+                fractionDigits++;
+            }
+        }
+
+        if (digits == 0 || mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.NaN;
+        }
+
+        final double value = fractionDigits == 0
+            ? (double) mantissa
+            : (double) mantissa / POWERS_OF_TEN[fractionDigits];
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Cheap pre check before the JDK integer parser, false only for values it would surely reject
+     * (ascii chars other than digits and sign), so garbage columns do not cost an exception.
+     */
+    private boolean mayBeInteger(int column) {
+        for (int i = starts[column]; i < ends[column]; i++) {
+            final char c = window.charAt(i);
+            if (c < 128 && !isJunk(c) && c != '-' && c != '+' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cheap pre check before the JDK double parser, false only for values it would surely reject
+     * (no digit at all and not a NaN or Infinity literal).
+     */
+    private boolean mayBeDouble(int column) {
+        for (int i = starts[column]; i < ends[column]; i++) {
+            final char c = window.charAt(i);
+            if ((c >= '0' && c <= '9') || c == 'N' || c == 'I') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int trimStart(int column) {
+        int i = starts[column];
+        final int end = ends[column];
+        while (i < end && isJunk(window.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int trimEnd(int column) {
+        final int start = starts[column];
+        int i = ends[column];
+        while (i > start && isJunk(window.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isJunk(char c) {
+        return c == '"' || c <= ' ';
+    }
+
+    /**
+     * Slow path, equivalent to {@link CSVParserUtils#trimAndRemoveJunk(String)} on the raw value.
+     */
+    private String materialize(int column, boolean commaAsDecimalPoint) {
+        final int start = trimStart(column);
+        final int end = trimEnd(column);
+        final StringBuilder sb = new StringBuilder(Math.max(end - start, 0));
+        for (int i = start; i < end; i++) {
+            final char c = window.charAt(i);
+            if (c == '"') {
+                continue;
+            }
+            sb.append(commaAsDecimalPoint && c == ',' ? '.' : c);
+        }
+        return sb.toString();
+    }
+
+    private void validateValue(String name, int column) throws IllegalArgumentException {
+        checkColumn(column);
+        if (starts[column] == ends[column]) {
+            throw new IllegalArgumentException("Error... Trying to " + name + " empty value");
+        } else if (isBlank(column)) {
+            throw new IllegalArgumentException("Error... Trying to " + name + " blank value");
+        }
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columnCount) {
+            throw new ArrayIndexOutOfBoundsException(
+                "Error... Column " + column + " out of " + columnCount + " columns");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(window, starts[i], ends[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
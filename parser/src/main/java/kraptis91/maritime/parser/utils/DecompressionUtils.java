@@ -0,0 +1,300 @@
+package kraptis91.maritime.parser.utils;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+
+import javax.validation.constraints.NotNull;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Decompressing streams that run ahead of the reader on a background thread. Independently
+ * decodable units, BGZF gzip blocks and zstd frames with a known content size, are decompressed in
+ * parallel and handed over in stream order. Any other gzip or zstd stream (e.g. a single frame for
+ * the whole file) is decompressed sequentially, still overlapping with the reader.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class DecompressionUtils {
+
+    // chunk size of the sequential decoders
+    private static final int CHUNK_SIZE = 256 * 1024;
+    // larger zstd frames are decompressed sequentially, to bound the memory of the read ahead
+    private static final long MAX_PARALLEL_FRAME_SIZE = 32 * 1024 * 1024;
+
+    private static final int ZSTD_MAGIC = 0xFD2FB528;
+    private static final int ZSTD_SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int ZSTD_SKIPPABLE_MASK = 0xFFFFFFF0;
+    // magic + frame header descriptor + window descriptor + dictionary id + content size
+    private static final int ZSTD_MAX_HEADER_SIZE = 4 + 1 + 1 + 4 + 8;
+
+    /**
+     * @param head   The first bytes of a stream
+     * @param length The number of valid bytes
+     * @return true if the stream starts with a BGZF block (a gzip member with the BC extra field)
+     */
+    public static boolean isBgzf(@NotNull byte[] head, int length) {
+        return length >= 16
+            && (head[0] & 0xFF) == 0x1f && (head[1] & 0xFF) == 0x8b && head[2] == 8
+            && (head[3] & 4) != 0 // FEXTRA
+            && head[12] == 'B' && head[13] == 'C' && head[14] == 2 && head[15] == 0;
+    }
+
+    /**
+     * Decompress a gzip stream, multi-member streams included, on a read ahead thread.
+     *
+     * @param source          The compressed stream
+     * @param readAheadChunks The max number of decompressed chunks waiting for the reader
+     */
+    public static InputStream gzip(@NotNull InputStream source, int readAheadChunks) {
+        return new ReadAheadInputStream(
+            sink -> sequential(new GZIPInputStream(source, CHUNK_SIZE), sink), readAheadChunks, source);
+    }
+
+    /**
+     * Decompress a BGZF stream, every block decompressed in parallel.
+     *
+     * @param source      The compressed stream
+     * @param parallelism The number of decompression threads
+     */
+    public static InputStream bgzf(@NotNull InputStream source, int parallelism) {
+        return new ReadAheadInputStream(sink -> {
+            final ExecutorService pool = new ForkJoinPool(parallelism);
+            try {
+                byte[] block;
+                while ((block = readBgzfBlock(source)) != null) {
+                    final byte[] compressed = block;
+                    sink.put(CompletableFuture.supplyAsync(() -> inflateBgzfBlock(compressed), pool));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }, parallelism * 2, source);
+    }
+
+    /**
+     * Decompress a zstd stream. Frames with a known content size are decompressed in parallel,
+     * from the first frame without it on the rest of the stream is decompressed sequentially.
+     *
+     * @param source      The compressed stream, must support mark
+     * @param parallelism The number of decompression threads
+     */
+    public static InputStream zstd(@NotNull InputStream source, int parallelism) {
+        if (!source.markSupported()) {
+            throw new IllegalArgumentException("Error... zstd source stream must support mark");
+        }
+        return new ReadAheadInputStream(sink -> {
+            final ExecutorService pool = new ForkJoinPool(parallelism);
+            try {
+                byte[] frame;
+                while ((frame = readZstdFrame(source)) != null) {
+                    if (frame.length == 0) {
+                        // not worth a parallel decode, the source is back at the frame start
+                        sequential(new ZstdInputStream(source), sink);
+                        return;
+                    }
+                    final byte[] compressed = frame;
+                    final int contentSize = (int) Zstd.decompressedSize(compressed);
+                    sink.put(CompletableFuture.supplyAsync(
+                        () -> Zstd.decompress(compressed, contentSize), pool));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }, parallelism * 2, source);
+    }
+
+    private static void sequential(InputStream decoder, ReadAheadInputStream.ChunkSink sink)
+        throws IOException, InterruptedException {
+        byte[] chunk;
+        while ((chunk = decoder.readNBytes(CHUNK_SIZE)).length > 0) {
+            sink.put(CompletableFuture.completedFuture(chunk));
+        }
+    }
+
+    /**
+     * @return The whole block or null at the end of the stream
+     */
+    private static byte[] readBgzfBlock(InputStream in) throws IOException {
+        final byte[] header = new byte[12];
+        final int read = in.readNBytes(header, 0, header.length);
+        if (read == 0) {
+            return null;
+        }
+        if (read < header.length || (header[0] & 0xFF) != 0x1f || (header[1] & 0xFF) != 0x8b) {
+            throw new IOException("Error... Not a BGZF block");
+        }
+
+        final int xlen = readUnsignedShort(header, 10);
+        final byte[] extra = readFully(in, xlen);
+        // find the BC sub field holding the block size - 1
+        int blockSize = -1;
+        for (int i = 0; i + 4 <= xlen; i += 4 + readUnsignedShort(extra, i + 2)) {
+            if (extra[i] == 'B' && extra[i + 1] == 'C') {
+                blockSize = readUnsignedShort(extra, i + 4) + 1;
+            }
+        }
+        if (blockSize < 0) {
+            throw new IOException("Error... Gzip member without BGZF block size");
+        }
+
+        final byte[] block = new byte[blockSize];
+        System.arraycopy(header, 0, block, 0, header.length);
+        System.arraycopy(extra, 0, block, header.length, xlen);
+        final int offset = header.length + xlen;
+        if (in.readNBytes(block, offset, blockSize - offset) != blockSize - offset) {
+            throw new EOFException("Error... Truncated BGZF block");
+        }
+        return block;
+    }
+
+    private static byte[] inflateBgzfBlock(byte[] block) {
+        final int dataOffset = 12 + readUnsignedShort(block, 10);
+        final int crc = readInt(block, block.length - 8);
+        final byte[] out = new byte[readInt(block, block.length - 4)];
+
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, dataOffset, block.length - 8 - dataOffset);
+            int n = 0;
+            while (n < out.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(out, n, out.length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != out.length) {
+                throw new IllegalStateException("Error... Corrupted BGZF block, size mismatch");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Error... Corrupted BGZF block", e);
+        } finally {
+            inflater.end();
+        }
+
+        final CRC32 crc32 = new CRC32();
+        crc32.update(out);
+        if ((int) crc32.getValue() != crc) {
+            throw new IllegalStateException("Error... Corrupted BGZF block, crc mismatch");
+        }
+        return out;
+    }
+
+    /**
+     * Read the next zstd frame, skipping skippable frames, by walking its block headers.
+     *
+     * @return The whole frame, null at the end of the stream, or an empty array (with the stream
+     * reset to the frame start) if the frame has no content size or is too large
+     */
+    private static byte[] readZstdFrame(InputStream in) throws IOException {
+        while (true) {
+            in.mark(ZSTD_MAX_HEADER_SIZE);
+            final byte[] magicBytes = in.readNBytes(4);
+            if (magicBytes.length == 0) {
+                return null;
+            }
+            if (magicBytes.length < 4) {
+                throw new EOFException("Error... Truncated zstd frame");
+            }
+            final int magic = readInt(magicBytes, 0);
+
+            if ((magic & ZSTD_SKIPPABLE_MASK) == ZSTD_SKIPPABLE_MAGIC) {
+                skipFully(in, readInt(readFully(in, 4), 0) & 0xFFFFFFFFL);
+                continue;
+            }
+            if (magic != ZSTD_MAGIC) {
+                throw new IOException("Error... Not a zstd frame");
+            }
+
+            final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            frame.write(magicBytes);
+
+            // frame header
+            final int descriptor = readFully(in, 1)[0] & 0xFF;
+            frame.write(descriptor);
+            final int fcsFlag = descriptor >>> 6;
+            final boolean singleSegment = (descriptor & 0x20) != 0;
+            final boolean checksum = (descriptor & 0x04) != 0;
+            final int dictIdSize = new int[]{0, 1, 2, 4}[descriptor & 0x03];
+            final int fcsSize = new int[]{singleSegment ? 1 : 0, 2, 4, 8}[fcsFlag];
+
+            frame.write(readFully(in, (singleSegment ? 0 : 1) + dictIdSize));
+            final byte[] fcsBytes = readFully(in, fcsSize);
+            frame.write(fcsBytes);
+
+            long contentSize = 0;
+            for (int i = fcsSize - 1; i >= 0; i--) {
+                contentSize = (contentSize << 8) | (fcsBytes[i] & 0xFF);
+            }
+            if (fcsSize == 2) {
+                contentSize += 256;
+            }
+            if (fcsSize == 0 || contentSize <= 0 || contentSize > MAX_PARALLEL_FRAME_SIZE) {
+                in.reset();
+                return new byte[0];
+            }
+
+            // blocks
+            boolean lastBlock = false;
+            while (!lastBlock) {
+                final byte[] blockHeader = readFully(in, 3);
+                frame.write(blockHeader);
+                final int value = (blockHeader[0] & 0xFF)
+                    | (blockHeader[1] & 0xFF) << 8
+                    | (blockHeader[2] & 0xFF) << 16;
+                lastBlock = (value & 1) != 0;
+                final int type = (value >>> 1) & 3;
+                final int size = value >>> 3;
+                frame.write(readFully(in, type == 1 ? 1 : size)); // rle blocks hold a single byte
+            }
+            if (checksum) {
+                frame.write(readFully(in, 4));
+            }
+            return frame.toByteArray();
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Error... Unexpected end of compressed stream");
+        }
+        return bytes;
+    }
+
+    private static void skipFully(InputStream in, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("Error... Unexpected end of compressed stream");
+                }
+                remaining--;
+            } else {
+                remaining -= skipped;
+            }
+        }
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF)
+            | (bytes[offset + 1] & 0xFF) << 8
+            | (bytes[offset + 2] & 0xFF) << 16
+            | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
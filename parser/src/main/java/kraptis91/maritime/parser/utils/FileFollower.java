@@ -0,0 +1,161 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Follows a growing file, or the files of a directory, handing over only the complete lines
+ * appended since the last poll. A trailing line without its '\n' is left for a later poll.
+ *
+ * <p>The read offsets advance on every poll, the durable {@link OffsetCheckpoint} only on
+ * {@link #commit()}: call it once everything handed over so far is stored, so a restart resumes
+ * from the last stored line (lines after it may be handed over again).
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class FileFollower {
+
+    public static final Logger LOGGER = Logger.getLogger(FileFollower.class.getName());
+
+    /**
+     * Receives the appended lines of a file.
+     */
+    @FunctionalInterface
+    public interface AppendedLinesConsumer {
+        /**
+         * @param file      The followed file
+         * @param lines     Whole lines, from position 0 up to the limit
+         * @param fromStart true if the lines start at the beginning of the file, e.g. with a header
+         */
+        void accept(Path file, MappedByteBuffer lines, boolean fromStart) throws Exception;
+    }
+
+    private final Path path;
+    private final String glob;
+    private final OffsetCheckpoint checkpoint;
+    private final int maxReadSize;
+    // the read offset of every followed file, ahead of the checkpoint until the next commit
+    private final Map<Path, Long> offsets = new HashMap<>();
+
+    /**
+     * @param path        A file, or a directory whose files matching the glob are followed
+     * @param glob        The file name pattern in a directory, e.g. "*.csv"
+     * @param checkpoint  The durable offsets to resume from
+     * @param maxReadSize The max bytes handed over at a time (a mapped region must stay below 2 GB)
+     */
+    public FileFollower(@NotNull Path path,
+                        @NotNull String glob,
+                        @NotNull OffsetCheckpoint checkpoint,
+                        int maxReadSize) {
+        if (maxReadSize <= 0) {
+            throw new IllegalArgumentException("Error... Max read size must be > 0");
+        }
+        this.path = path;
+        this.glob = glob;
+        this.checkpoint = checkpoint;
+        this.maxReadSize = maxReadSize;
+    }
+
+    public static FileFollower createInstance(@NotNull Path path,
+                                              @NotNull OffsetCheckpoint checkpoint) {
+        return new FileFollower(path, "*.csv", checkpoint, FileSegmentUtils.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Hand the complete lines appended to every followed file since the last poll to the
+     * consumer, files in name order.
+     *
+     * @return The number of bytes handed over
+     */
+    public long poll(@NotNull AppendedLinesConsumer consumer) throws Exception {
+        long total = 0;
+        for (Path file : listFiles()) {
+            total += poll(file, consumer);
+        }
+        return total;
+    }
+
+    private long poll(Path file, AppendedLinesConsumer consumer) throws Exception {
+
+        long offset = offsets.computeIfAbsent(file, checkpoint::getOffset);
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            final long size = channel.size();
+            if (size < offset) {
+                // truncated or replaced, start over
+                LOGGER.log(Level.WARNING, "File " + file + " shrank below offset " + offset
+                    + ", following it from the start");
+                offset = 0;
+            }
+
+            while (offset < size) {
+                final int length = (int) Math.min(size - offset, maxReadSize);
+                final MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+
+                // only whole lines, the rest is read again on the next poll
+                int end = length;
+                while (end > 0 && buffer.get(end - 1) != '\n') {
+                    end--;
+                }
+                if (end == 0) {
+                    if (length == maxReadSize) {
+                        throw new IOException("Error... Line longer than " + maxReadSize
+                            + " bytes in " + file + " at " + offset);
+                    }
+                    break; // a partial line, still being written
+                }
+                buffer.limit(end);
+
+                consumer.accept(file, buffer, offset == 0);
+                offset += end;
+                total += end;
+                offsets.put(file, offset);
+            }
+        }
+
+        offsets.put(file, offset);
+        return total;
+    }
+
+    /**
+     * Make the read offsets durable, everything handed over so far will not be handed over again.
+     */
+    public void commit() throws IOException {
+        offsets.forEach(checkpoint::setOffset);
+        checkpoint.save();
+    }
+
+    private List<Path> listFiles() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(path)) {
+            if (Files.exists(path)) {
+                files.add(path);
+            }
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+}
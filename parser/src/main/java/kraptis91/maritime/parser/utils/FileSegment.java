@@ -0,0 +1,67 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A [start, end) byte range of a file that begins at the start of a line and ends right after a
+ * line terminator (or at the end of the file).
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class FileSegment {
+
+    private final int index;
+    private final long start;
+    private final long end;
+
+    public FileSegment(int index, long start, long end) {
+        this.index = index;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The position of this segment in the file, 0 for the segment holding the header
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start;
+    }
+
+    public boolean isFirst() {
+        return start == 0;
+    }
+
+    /**
+     * Memory map this segment read only.
+     *
+     * @param channel The file channel the segment was created from
+     * @return The mapped bytes, position 0 is the segment start
+     */
+    public MappedByteBuffer map(@NotNull FileChannel channel) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, getLength());
+    }
+
+    @Override
+    public String toString() {
+        return "FileSegment{" +
+            "index=" + index +
+            ", start=" + start +
+            ", end=" + end +
+            '}';
+    }
+}
@@ -0,0 +1,142 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class FileSegmentUtils {
+
+    /**
+     * Default segment size, small enough to keep a few segments per core in flight.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 32 * 1024 * 1024;
+
+    // how many bytes to read at a time while looking for the next line terminator
+    private static final int PROBE_SIZE = 8 * 1024;
+
+    /**
+     * Split the file into consecutive segments of about segmentSize bytes, every boundary moved
+     * forward right after the next '\n' so no line is shared between two segments.
+     *
+     * @param channel     The file channel
+     * @param segmentSize The nominal segment size in bytes (a mapped segment must stay below 2 GB)
+     * @return The segments in file order
+     */
+    public static List<FileSegment> splitAtNewLines(@NotNull FileChannel channel, int segmentSize)
+        throws IOException {
+
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Error... Segment size must be > 0");
+        }
+
+        final long size = channel.size();
+        final List<FileSegment> segments = new ArrayList<>();
+        final ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+
+        long start = 0;
+        while (start < size) {
+            final long nominalEnd = Math.min(start + segmentSize, size);
+            final long end = nominalEnd == size ? size : findLineEnd(channel, nominalEnd, probe);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Error... Line longer than the max mapped segment at " + start);
+            }
+            segments.add(new FileSegment(segments.size(), start, end));
+            start = end;
+        }
+
+        return segments;
+    }
+
+    /**
+     * Read the first line of the file, e.g. the csv header, without the line terminator.
+     *
+     * @param channel The file channel
+     * @return The first line decoded as utf-8
+     */
+    public static String readFirstLine(@NotNull FileChannel channel) throws IOException {
+        final long end = findLineEnd(channel, 0, ByteBuffer.allocate(PROBE_SIZE));
+        if (end > Integer.MAX_VALUE) {
+            throw new IOException("Error... First line longer than " + Integer.MAX_VALUE + " bytes");
+        }
+        final ByteBuffer line = ByteBuffer.allocate((int) end);
+        while (line.hasRemaining() && channel.read(line, line.position()) > 0) {
+            // keep reading until the whole line is in the buffer
+        }
+        int length = line.position();
+        while (length > 0 && (line.get(length - 1) == '\n' || line.get(length - 1) == '\r')) {
+            length--;
+        }
+        return new String(line.array(), 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The position right after the first '\n' at or after position, or the file size
+     */
+    private static long findLineEnd(FileChannel channel, long position, ByteBuffer probe)
+        throws IOException {
+
+        long pos = position;
+        while (true) {
+            probe.clear();
+            final int read = channel.read(probe, pos);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+    }
+
+    /**
+     * Receives the [from, to) char range of every line of a buffer, terminator excluded.
+     */
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(CharSequence window, int from, int to);
+    }
+
+    /**
+     * Walk over the lines of the buffer (from position 0 up to its limit) without copying them.
+     * Both '\n' and "\r\n" terminated lines are supported and empty lines are skipped.
+     *
+     * @param buffer        The buffer, usually a mapped {@link FileSegment}
+     * @param skipFirstLine true to omit the first line, e.g. the csv header
+     * @param consumer      The line consumer
+     */
+    public static void forEachLine(@NotNull ByteBuffer buffer,
+                                   boolean skipFirstLine,
+                                   @NotNull LineConsumer consumer) {
+
+        final int limit = buffer.limit();
+        final ByteCharSequence window = new ByteCharSequence().wrap(buffer, 0, limit);
+        boolean skip = skipFirstLine;
+        int lineStart = 0;
+
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != '\n') {
+                continue;
+            }
+            int lineEnd = i;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (skip) {
+                skip = false;
+            } else if (lineEnd > lineStart) {
+                consumer.accept(window, lineStart, lineEnd);
+            }
+            lineStart = i + 1;
+        }
+    }
+}
@@ -3,11 +3,19 @@ package kraptis91.maritime.parser.utils;
 import jakarta.validation.constraints.NotNull;
 
 import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /** @author Konstantinos Raptis [kraptis at unipi.gr] on 12/12/2020. */
 public class InputStreamUtils {
 
+  // enough to recognize a BGZF block header
+  private static final int MAGIC_LENGTH = 16;
+  // decompressed chunks waiting for the parser in sequential decompression
+  private static final int READ_AHEAD_CHUNKS = 8;
+
   public static InputStream getBufferedInputStream(@NotNull InputStream xmlStream) {
 
     InputStream bis;
@@ -18,4 +26,63 @@ public class InputStreamUtils {
     }
     return bis;
   }
+
+  /**
+   * Buffer the stream and, if it is gzip (.gz, multi-member or BGZF) or zstd (.zst) compressed,
+   * decompress it transparently. The compression is recognized by the magic bytes.
+   *
+   * @param is The plain or compressed stream
+   * @return The plain stream
+   */
+  public static InputStream getDecompressedInputStream(@NotNull InputStream is) throws IOException {
+    return getDecompressedInputStream(is, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param is The plain or compressed stream
+   * @param parallelism The number of decompression threads for BGZF blocks and zstd frames
+   * @return The plain stream
+   * @see DecompressionUtils
+   */
+  public static InputStream getDecompressedInputStream(@NotNull InputStream is, int parallelism)
+      throws IOException {
+
+    final InputStream bis = getBufferedInputStream(is);
+
+    bis.mark(MAGIC_LENGTH);
+    final byte[] magic = bis.readNBytes(MAGIC_LENGTH);
+    bis.reset();
+
+    if (DecompressionUtils.isBgzf(magic, magic.length)) {
+      return new BufferedInputStream(DecompressionUtils.bgzf(bis, parallelism));
+    } else if (isGzip(magic)) {
+      return new BufferedInputStream(DecompressionUtils.gzip(bis, READ_AHEAD_CHUNKS));
+    } else if (isZstd(magic)) {
+      return new BufferedInputStream(DecompressionUtils.zstd(bis, parallelism));
+    }
+    return bis;
+  }
+
+  /**
+   * @param path The file
+   * @return true if the file starts with gzip or zstd magic bytes, so it can not be mapped as csv
+   */
+  public static boolean isCompressed(@NotNull Path path) throws IOException {
+    try (InputStream is = Files.newInputStream(path)) {
+      final byte[] magic = is.readNBytes(4);
+      return isGzip(magic) || isZstd(magic);
+    }
+  }
+
+  private static boolean isGzip(byte[] magic) {
+    return magic.length >= 2 && (magic[0] & 0xFF) == 0x1f && (magic[1] & 0xFF) == 0x8b;
+  }
+
+  private static boolean isZstd(byte[] magic) {
+    return magic.length >= 4
+        && (magic[0] & 0xFF) == 0x28
+        && (magic[1] & 0xFF) == 0xb5
+        && (magic[2] & 0xFF) == 0x2f
+        && (magic[3] & 0xFF) == 0xfd;
+  }
 }
@@ -0,0 +1,180 @@
+package kraptis91.maritime.parser.utils;
+
+import java.util.Arrays;
+
+/**
+ * An int to int hash map without boxing, e.g. mmsi to message counter. Keys and values are kept
+ * in dense arrays in insertion order, an open addressing (linear probing) table of indexes into
+ * them is kept at most half full. Entries can not be removed.
+ *
+ * <p>Not thread-safe, fill one map per thread and {@link #addAll(IntIntHashMap)} them.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class IntIntHashMap {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 1024;
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    // slot -> index into keys and values, FREE if the slot is empty
+    private int[] table;
+    private int mask;
+
+    public IntIntHashMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        final int capacity = Math.max(expectedSize, 4);
+        keys = new int[capacity];
+        values = new int[capacity];
+        allocateTable(tableSizeFor(capacity));
+    }
+
+    /**
+     * @return The value of the key or defaultValue if the key is missing
+     */
+    public int get(int key, int defaultValue) {
+        final int index = indexOf(key);
+        return index == FREE ? defaultValue : values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) != FREE;
+    }
+
+    public void put(int key, int value) {
+        // not values[indexOrInsert(key)], the array reference would be read before a resize
+        final int index = indexOrInsert(key);
+        values[index] = value;
+    }
+
+    /**
+     * Add delta to the value of the key, a missing key starts from 0.
+     *
+     * @return The new value
+     */
+    public int addTo(int key, int delta) {
+        final int index = indexOrInsert(key);
+        return values[index] += delta;
+    }
+
+    /**
+     * Add the values of the other map, new keys are appended in the other map order.
+     */
+    public void addAll(IntIntHashMap other) {
+        for (int i = 0; i < other.size; i++) {
+            addTo(other.keys[i], other.values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index The insertion index, 0 <= index < size
+     */
+    public int keyAt(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    /**
+     * @param index The insertion index, 0 <= index < size
+     */
+    public int valueAt(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * @return The max value, or defaultValue if the map is empty
+     */
+    public int maxValue(int defaultValue) {
+        if (size == 0) {
+            return defaultValue;
+        }
+        int max = values[0];
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Error... Index " + index + ", size " + size);
+        }
+    }
+
+    private int indexOf(int key) {
+        int slot = slot(key);
+        int index;
+        while ((index = table[slot]) != FREE) {
+            if (keys[index] == key) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return FREE;
+    }
+
+    private int indexOrInsert(int key) {
+        int slot = slot(key);
+        int index;
+        while ((index = table[slot]) != FREE) {
+            if (keys[index] == key) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = 0;
+        table[slot] = size;
+
+        if (++size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return size - 1;
+    }
+
+    private void rehash(int tableSize) {
+        allocateTable(tableSize);
+        for (int i = 0; i < size; i++) {
+            int slot = slot(keys[i]);
+            while (table[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i;
+        }
+    }
+
+    private void allocateTable(int tableSize) {
+        table = new int[tableSize];
+        Arrays.fill(table, FREE);
+        mask = tableSize - 1;
+    }
+
+    private int slot(int key) {
+        // fibonacci hashing, mmsi keys are far from uniform in the low bits
+        final int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 1)) << 1;
+    }
+}
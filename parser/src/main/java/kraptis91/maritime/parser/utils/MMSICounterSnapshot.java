@@ -0,0 +1,138 @@
+package kraptis91.maritime.parser.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kraptis91.maritime.parser.dto.json.MMSICounterDto;
+
+import javax.validation.constraints.NotNull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary form of the mmsi counters, next to mmsi-counter-map.json: the magic "MMSI", a
+ * format version byte, the number of entries and then an (mmsi, counter) pair of big endian ints
+ * per entry, sorted by mmsi. About 8 bytes per vessel instead of ~50 in the json, and a mapped
+ * snapshot can be searched in place with {@link #lookup(ByteBuffer, int, int)}.
+ *
+ * <p>Run {@link #main(String[])} to convert a json counter file, the parser build does it for
+ * /json/mmsi-counter-map.json.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class MMSICounterSnapshot {
+
+    private static final int MAGIC = 0x4D4D5349; // "MMSI"
+    private static final int VERSION = 1;
+    // magic, version and size
+    private static final int HEADER_SIZE = 4 + 1 + 4;
+    private static final int ENTRY_SIZE = 8;
+
+    /**
+     * Convert a json counter file, a list of {mmsi, counter} objects, to a snapshot.
+     *
+     * @param args The json file and the snapshot file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Error... Expected the json and snapshot paths");
+        }
+        final IntIntHashMap counters = new IntIntHashMap();
+        try (InputStream is = Files.newInputStream(Paths.get(args[0]))) {
+            final List<MMSICounterDto> dtoList =
+                new ObjectMapper().readValue(is, new TypeReference<List<MMSICounterDto>>() {});
+            dtoList.forEach(dto -> counters.put(dto.getMmsi(), dto.getCounter()));
+        }
+        final Path target = Paths.get(args[1]);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        write(counters, target);
+    }
+
+    public static void write(@NotNull IntIntHashMap counters, @NotNull Path path) throws IOException {
+        try (OutputStream os = Files.newOutputStream(path)) {
+            write(counters, os);
+        }
+    }
+
+    public static void write(@NotNull IntIntHashMap counters, @NotNull OutputStream os)
+        throws IOException {
+        // pack every pair in a long, mmsi in the high half, to sort them by mmsi
+        final long[] entries = new long[counters.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = (long) counters.keyAt(i) << 32 | (counters.valueAt(i) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(entries);
+
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(entries.length);
+        for (long entry : entries) {
+            out.writeLong(entry);
+        }
+        out.flush();
+    }
+
+    public static IntIntHashMap read(@NotNull InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Error... Not an mmsi counter snapshot");
+        }
+        final int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Error... Unsupported mmsi counter snapshot version " + version);
+        }
+        final int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Error... Corrupted mmsi counter snapshot, size " + size);
+        }
+        final IntIntHashMap counters = new IntIntHashMap(size);
+        for (int i = 0; i < size; i++) {
+            counters.put(in.readInt(), in.readInt());
+        }
+        return counters;
+    }
+
+    /**
+     * Binary search a snapshot in place, e.g. a memory mapped snapshot file.
+     *
+     * @param snapshot     The snapshot bytes, from position 0
+     * @param mmsi         The mmsi
+     * @param defaultValue Returned for an mmsi missing from the snapshot
+     * @return The counter of the mmsi
+     */
+    public static int lookup(@NotNull ByteBuffer snapshot, int mmsi, int defaultValue)
+        throws IOException {
+        if (snapshot.limit() < HEADER_SIZE
+            || snapshot.getInt(0) != MAGIC
+            || snapshot.get(4) != VERSION) {
+            throw new IOException("Error... Not an mmsi counter snapshot");
+        }
+        int low = 0;
+        int high = snapshot.getInt(5) - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int key = snapshot.getInt(HEADER_SIZE + mid * ENTRY_SIZE);
+            if (key < mmsi) {
+                low = mid + 1;
+            } else if (key > mmsi) {
+                high = mid - 1;
+            } else {
+                return snapshot.getInt(HEADER_SIZE + mid * ENTRY_SIZE + 4);
+            }
+        }
+        return defaultValue;
+    }
+}
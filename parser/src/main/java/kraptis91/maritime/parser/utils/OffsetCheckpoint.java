@@ -0,0 +1,92 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Durable byte offsets of followed files, keyed by absolute path. Offsets are changed in memory
+ * and written by {@link #save()}, to a temporary file that is synced and then atomically moved
+ * over the checkpoint file, so a crash leaves either the old or the new checkpoint.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class OffsetCheckpoint {
+
+    private final Path checkpointPath;
+    private final Properties offsets = new Properties();
+
+    private OffsetCheckpoint(Path checkpointPath) {
+        this.checkpointPath = checkpointPath;
+    }
+
+    /**
+     * @param checkpointPath The checkpoint file, created on the first save if missing
+     */
+    public static OffsetCheckpoint load(@NotNull Path checkpointPath) throws IOException {
+        final OffsetCheckpoint checkpoint = new OffsetCheckpoint(checkpointPath);
+        if (Files.exists(checkpointPath)) {
+            try (InputStream is = Files.newInputStream(checkpointPath)) {
+                checkpoint.offsets.load(is);
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return The offset of the file, 0 if never checkpointed
+     */
+    public long getOffset(@NotNull Path file) {
+        final String offset = offsets.getProperty(key(file));
+        return offset == null ? 0 : Long.parseLong(offset);
+    }
+
+    public void setOffset(@NotNull Path file, long offset) {
+        offsets.setProperty(key(file), Long.toString(offset));
+    }
+
+    /**
+     * Write the offsets, also on an interrupted thread, e.g. the last save of a follow stopped by
+     * an interrupt; the interrupt is cleared while writing, an interruptible channel would be
+     * closed by it, and restored afterwards.
+     */
+    public void save() throws IOException {
+        final boolean interrupted = Thread.interrupted();
+        try {
+            write();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        final Path parent = checkpointPath.toAbsolutePath().getParent();
+        final Path temp = Files.createTempFile(parent, checkpointPath.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                final OutputStream os = Channels.newOutputStream(channel);
+                offsets.store(os, "byte offsets of the followed files");
+                os.flush();
+                channel.force(true);
+            }
+            Files.move(temp, checkpointPath,
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+}
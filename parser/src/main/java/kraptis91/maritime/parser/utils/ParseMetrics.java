@@ -0,0 +1,88 @@
+package kraptis91.maritime.parser.utils;
+
+import kraptis91.maritime.parser.enums.ParseStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepted and rejected line counters per {@link ParseStatus}, and the time spent parsing them.
+ * Thread-safe, parser threads of the same ingest can record to a single instance.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class ParseMetrics {
+
+    private final LongAdder[] counters = new LongAdder[ParseStatus.values().length];
+    private final LongAdder parseNanos = new LongAdder();
+
+    public ParseMetrics() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public void record(ParseStatus status) {
+        counters[status.ordinal()].increment();
+    }
+
+    /**
+     * @param nanos The time spent parsing lines, recorded per buffer or batch of lines
+     */
+    public void recordParseTime(long nanos) {
+        parseNanos.add(nanos);
+    }
+
+    public long getCount(ParseStatus status) {
+        return counters[status.ordinal()].sum();
+    }
+
+    public long getAccepted() {
+        return getCount(ParseStatus.OK);
+    }
+
+    public long getRejected() {
+        long rejected = 0;
+        for (ParseStatus status : ParseStatus.values()) {
+            if (!status.isOk()) {
+                rejected += getCount(status);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * @return The time spent parsing, summed over the parser threads
+     */
+    public long getParseNanos() {
+        return parseNanos.sum();
+    }
+
+    /**
+     * @return The lines per second of parse time, of one parser thread
+     */
+    public double getLinesPerSecond() {
+        final long nanos = getParseNanos();
+        return nanos == 0 ? 0 : (getAccepted() + getRejected()) * 1e9 / nanos;
+    }
+
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        parseNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ParseMetrics{");
+        for (ParseStatus status : ParseStatus.values()) {
+            if (status.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(status).append('=').append(getCount(status));
+        }
+        return sb.append(", parseMillis=").append(getParseNanos() / 1_000_000)
+            .append(", linesPerSecond=").append(Math.round(getLinesPerSecond()))
+            .append('}').toString();
+    }
+}
@@ -0,0 +1,142 @@
+package kraptis91.maritime.parser.utils;
+
+import javax.validation.constraints.NotNull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * An input stream over chunks produced ahead of the reader by a background thread, e.g. blocks
+ * decompressed in parallel. The chunks are read in the order they were put, at most
+ * readAheadChunks of them wait for the reader, so producing overlaps reading with bounded memory.
+ *
+ * @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    /**
+     * Produces the chunks in stream order, running on the read ahead thread.
+     */
+    @FunctionalInterface
+    public interface ChunkProducer {
+        void produce(ChunkSink sink) throws Exception;
+    }
+
+    /**
+     * Receives the chunks, a chunk may still be in progress (e.g. submitted to an executor).
+     */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void put(Future<byte[]> chunk) throws InterruptedException;
+    }
+
+    // marks the end of the stream
+    private static final Future<byte[]> END = CompletableFuture.completedFuture(new byte[0]);
+
+    private final BlockingQueue<Future<byte[]>> chunks;
+    private final Thread producerThread;
+    private final Closeable source;
+
+    private byte[] current = new byte[0];
+    private int position;
+    private boolean ended;
+
+    /**
+     * @param producer        The chunk producer
+     * @param readAheadChunks The max number of chunks waiting for the reader
+     * @param source          Closed together with this stream, e.g. the compressed stream
+     */
+    public ReadAheadInputStream(@NotNull ChunkProducer producer,
+                                int readAheadChunks,
+                                @NotNull Closeable source) {
+        this.chunks = new ArrayBlockingQueue<>(readAheadChunks);
+        this.source = source;
+        this.producerThread = new Thread(() -> produce(producer), "read-ahead");
+        this.producerThread.setDaemon(true);
+        this.producerThread.start();
+    }
+
+    private void produce(ChunkProducer producer) {
+        try {
+            producer.produce(chunks::put);
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // the stream was closed by the reader
+        } catch (Exception e) {
+            // hand the failure to the reader, in stream order
+            final CompletableFuture<byte[]> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            try {
+                chunks.put(failed);
+            } catch (InterruptedException ignored) {
+                // the stream was closed by the reader
+            }
+        }
+    }
+
+    /**
+     * @return false at the end of the stream
+     */
+    private boolean fill() throws IOException {
+        while (position == current.length) {
+            if (ended) {
+                return false;
+            }
+            try {
+                final Future<byte[]> chunk = chunks.take();
+                if (chunk == END) {
+                    ended = true;
+                    return false;
+                }
+                current = chunk.get();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the next chunk");
+            } catch (ExecutionException e) {
+                ended = true;
+                throw e.getCause() instanceof IOException
+                    ? (IOException) e.getCause()
+                    : new IOException(e.getCause());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? current[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ended = true;
+        producerThread.interrupt();
+        source.close();
+    }
+}
@@ -3,14 +3,22 @@ package kraptis91.maritime.parser;
 // import com.opencsv.CSVParserBuilder;
 // import com.opencsv.CSVReader;
 // import com.opencsv.CSVReaderBuilder;
+import kraptis91.maritime.parser.dto.csv.NariDynamicBatch;
 import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
 import kraptis91.maritime.parser.dto.csv.NariStaticDto;
 import kraptis91.maritime.parser.dto.csv.SeaStateForecastDto;
+import kraptis91.maritime.parser.enums.ParseStatus;
 import kraptis91.maritime.parser.utils.CSVParserUtils;
+import kraptis91.maritime.parser.utils.ParseMetrics;
+import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 /** @author Konstantinos Raptis [kraptis at unipi.gr] on 9/12/2020. */
@@ -180,6 +188,132 @@ public class CSVParserTest {
     }
   }
 
+  @Test
+  public void testTryExtractNariDynamicDtoStatus() {
+
+    final CSVParser parser = new CSVParser();
+    final NariDynamicDto dto = new NariDynamicDto();
+
+    Assert.assertEquals(
+        ParseStatus.OK,
+        parser.tryExtractNariDynamicDto(
+            "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402",
+            CSVParser.NARI_DYNAMIC_PROJECTION,
+            dto));
+    Assert.assertEquals(245257000, dto.getMMSI());
+    Assert.assertEquals(1443650402L, dto.getT());
+
+    Assert.assertEquals(
+        ParseStatus.WRONG_COLUMN_COUNT,
+        parser.tryExtractNariDynamicDto(
+            "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249", CSVParser.NARI_DYNAMIC_PROJECTION, dto));
+    Assert.assertEquals(
+        ParseStatus.WRONG_COLUMN_COUNT,
+        parser.tryExtractNariDynamicDto(
+            "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402,EXTRA",
+            CSVParser.NARI_DYNAMIC_PROJECTION,
+            dto));
+    Assert.assertEquals(
+        ParseStatus.BAD_NUMBER,
+        parser.tryExtractNariDynamicDto(
+            "245257000,0,0,0.1,13.1,36,west,48.38249,1443650402",
+            CSVParser.NARI_DYNAMIC_PROJECTION,
+            dto));
+    Assert.assertEquals(
+        ParseStatus.BLANK_MANDATORY,
+        parser.tryExtractNariDynamicDto(
+            "245257000,0,0,0.1,13.1,36,-4.4657183, ,1443650402",
+            CSVParser.NARI_DYNAMIC_PROJECTION,
+            dto));
+  }
+
+  @Test
+  public void testExtractNariDynamicDtoListCountsRejects() {
+
+    final String csv =
+        "sourcemmsi,navigationalstatus,rateofturn,speedoverground,courseoverground,trueheading,lon,lat,t\n"
+            + "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402\n"
+            + "227705102,15,-127,0,262.7,511,-4.4965954,48.383,\n"
+            + "228131600,15,-127,8.5,263.7,511,-4.4984,48.3x,1443650403\n"
+            + "228051000,0,0\n"
+            + "227002330,0,0,0,0,511,-4.4874763,48.385113,1443650405\n";
+
+    final ParseMetrics metrics = new ParseMetrics();
+    final List<NariDynamicDto> dtoList =
+        new CSVParser()
+            .extractNariDynamicDtoList(
+                ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)),
+                true,
+                CSVParser.NARI_DYNAMIC_PROJECTION,
+                metrics);
+
+    Assert.assertEquals(2, dtoList.size());
+    Assert.assertEquals(227002330, dtoList.get(1).getMMSI());
+    Assert.assertEquals(2, metrics.getAccepted());
+    Assert.assertEquals(3, metrics.getRejected());
+    Assert.assertEquals(1, metrics.getCount(ParseStatus.BLANK_MANDATORY));
+    Assert.assertEquals(1, metrics.getCount(ParseStatus.BAD_NUMBER));
+    Assert.assertEquals(1, metrics.getCount(ParseStatus.WRONG_COLUMN_COUNT));
+    // the parse stage throughput, next to the write metrics of the ingest
+    Assert.assertTrue(metrics.getParseNanos() > 0);
+    Assert.assertTrue(metrics.getLinesPerSecond() > 0);
+    Assert.assertTrue(metrics.toString().contains("linesPerSecond="));
+  }
+
+  @Test
+  public void testExtractNariDynamicBatchListMatchesDtoList() throws Exception {
+
+    final ByteBuffer buffer =
+        ByteBuffer.wrap(
+            CSVParserTest.class
+                .getResourceAsStream("/sample/maritime/nari_dynamic_sample.csv")
+                .readAllBytes());
+    final CSVParser parser = new CSVParser();
+
+    final List<NariDynamicDto> dtoList =
+        parser.extractNariDynamicDtoList(buffer, true, CSVParser.NARI_DYNAMIC_PROJECTION);
+    final List<NariDynamicBatch> batchList =
+        parser.extractNariDynamicBatchList(
+            buffer,
+            true,
+            CSVParser.NARI_DYNAMIC_PROJECTION,
+            new ParseMetrics(),
+            () -> NariDynamicBatch.createInstance(100));
+
+    int line = 0;
+    for (NariDynamicBatch batch : batchList) {
+      for (int i = 0; i < batch.getSize(); i++, line++) {
+        final NariDynamicDto dto = dtoList.get(line);
+        Assert.assertEquals(dto.getMMSI(), batch.getMMSI(i));
+        Assert.assertEquals(dto.getSpeed(), batch.getSpeed(i), 0);
+        Assert.assertEquals(dto.getLon(), batch.getLon(i), 0);
+        Assert.assertEquals(dto.getLat(), batch.getLat(i), 0);
+        Assert.assertEquals(dto.getT(), batch.getT(i));
+      }
+    }
+    Assert.assertEquals(dtoList.size(), line);
+    Assert.assertEquals((dtoList.size() + 99) / 100, batchList.size());
+
+    // allocated bytes per line, dto list vs a single reused batch
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    final NariDynamicBatch reused = NariDynamicBatch.createInstance(dtoList.size());
+
+    long start = threadBean.getThreadAllocatedBytes(threadId);
+    parser.extractNariDynamicDtoList(buffer, true, CSVParser.NARI_DYNAMIC_PROJECTION);
+    final long dtoBytes = threadBean.getThreadAllocatedBytes(threadId) - start;
+
+    start = threadBean.getThreadAllocatedBytes(threadId);
+    parser.extractNariDynamicBatchList(
+        buffer, true, CSVParser.NARI_DYNAMIC_PROJECTION, new ParseMetrics(), () -> reused);
+    final long batchBytes = threadBean.getThreadAllocatedBytes(threadId) - start;
+
+    System.out.printf(
+        "Allocated per line: dto list %d bytes, reused batch %d bytes%n",
+        dtoBytes / dtoList.size(), batchBytes / dtoList.size());
+  }
+
   //  @Test
   //  public void testBreakAtCommasWithCSVParser() {
   //
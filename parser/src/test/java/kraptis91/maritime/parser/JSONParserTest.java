@@ -1,12 +1,19 @@
 package kraptis91.maritime.parser;
 
 import kraptis91.maritime.parser.utils.CSVParserUtils;
+import kraptis91.maritime.parser.utils.IntIntHashMap;
+import kraptis91.maritime.parser.utils.MMSICounterSnapshot;
+import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -30,6 +37,43 @@ public class JSONParserTest {
         JSONParser.writeMapAsJSON(mmsiCounterMap, "D:/Downloads/mmsi-counter-map-sample.json");
     }
 
+    @Test
+    public void testCreateMMSICountersMatchesReadLineCount() throws Exception {
+
+        final Path path = Paths.get(ClassLoader.getSystemResource(
+                "sample/maritime/nari_dynamic_sample.csv").toURI());
+
+        final Map<String, Integer> expected = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            reader.readLine(); // omit header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                expected.merge(CSVParserUtils.parseLine(line)[0], 1, Integer::sum);
+            }
+        }
+
+        final IntIntHashMap counters = JSONParser.createMMSICounters(path, 4);
+        Assert.assertEquals(expected.size(), counters.size());
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals(Integer.parseInt(entry.getKey()), counters.keyAt(i));
+            Assert.assertEquals((int) entry.getValue(), counters.valueAt(i));
+            i++;
+        }
+        Assert.assertEquals(expected, JSONParser.createMMSICounterMap(path));
+
+        // the binary snapshot reads back the same counters
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MMSICounterSnapshot.write(counters, bytes);
+        Assert.assertEquals(5 + 4 + counters.size() * 8, bytes.size());
+        final IntIntHashMap read =
+                MMSICounterSnapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertEquals(counters.size(), read.size());
+        for (i = 0; i < counters.size(); i++) {
+            Assert.assertEquals(counters.valueAt(i), read.get(counters.keyAt(i), -1));
+        }
+    }
+
     @Test
     public void testCreateNariDynamicSample2() throws Exception {
 
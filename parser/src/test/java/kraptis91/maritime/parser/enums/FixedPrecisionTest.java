@@ -0,0 +1,126 @@
+package kraptis91.maritime.parser.enums;
+
+import kraptis91.maritime.parser.utils.CSVParserUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class FixedPrecisionTest {
+
+  private static void assertBitIdentical(FixedPrecision precision, String value) throws Exception {
+    final double expected = CSVParserUtils.parseDouble(value);
+    final double actual = precision.decodeDouble(value);
+    Assert.assertEquals(
+        value, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+  }
+
+  @Test
+  public void testBitIdenticalToParseDouble() throws Exception {
+
+    final Random random = new Random(17);
+    for (int n = 0; n < 200_000; n++) {
+      final int digits = random.nextInt(8);
+      final long scaled = (long) ((random.nextDouble() * 360 - 180) * 1e7);
+      final String value =
+          BigDecimal.valueOf(scaled, 7).setScale(digits, RoundingMode.DOWN).toPlainString();
+      assertBitIdentical(FixedPrecision.COORDINATE, value);
+    }
+    for (int speed = 0; speed <= 1023; speed++) {
+      assertBitIdentical(FixedPrecision.SPEED, BigDecimal.valueOf(speed, 1).toPlainString());
+    }
+
+    // quotes, white space, comma separator, signs and trailing zeros
+    for (String value :
+        new String[] {
+          "\"48.38249\"", " -4.4657183 ", "30,016667", "-0", "-0.0", "+12.5", "1.", ".5",
+          "0.1000000000", "\"-90,833333\"\"", "180", "-180.0000000"
+        }) {
+      assertBitIdentical(FixedPrecision.COORDINATE, value);
+    }
+  }
+
+  @Test
+  public void testScaledForm() {
+
+    Assert.assertEquals(-44657183, FixedPrecision.COORDINATE.decode("-4.4657183"));
+    Assert.assertEquals(483824900, FixedPrecision.COORDINATE.decode("48.38249"));
+    Assert.assertEquals(300166670, FixedPrecision.COORDINATE.decode("\"30,016667\""));
+    Assert.assertEquals(125, FixedPrecision.SPEED.decode("12.5"));
+    Assert.assertEquals(-4.4657183, FixedPrecision.COORDINATE.toDouble(-44657183), 0);
+    Assert.assertEquals(-44657183, FixedPrecision.COORDINATE.toScaled(-4.4657183));
+
+    // not decoded, left to the JDK parser
+    for (String value : new String[] {"", " ", "1.25", "1e5", "NaN", "1.2.3", "-", "1 2", "x"}) {
+      Assert.assertEquals(value, FixedPrecision.NOT_DECODED, FixedPrecision.SPEED.decode(value));
+    }
+
+    // large integers, scaled past 2^53 (or past a long) are not decoded, not overflown
+    Assert.assertEquals(9007199250000000L, FixedPrecision.COORDINATE.decode("900719925"));
+    for (String value : new String[] {"900719926", "1000000000000", "-1000000000000"}) {
+      Assert.assertEquals(value, FixedPrecision.NOT_DECODED, FixedPrecision.COORDINATE.decode(value));
+      Assert.assertTrue(value, Double.isNaN(FixedPrecision.COORDINATE.decodeDouble(value)));
+    }
+  }
+
+  @Test
+  public void testDecodeThroughput() throws Exception {
+
+    // the lon and lat values of the sample
+    final Path path =
+        Paths.get(ClassLoader.getSystemResource("sample/maritime/nari_dynamic_sample.csv").toURI());
+    final List<String> values = new ArrayList<>();
+    for (String line : Files.readAllLines(path).subList(1, 3000)) {
+      final String[] data = line.split(",");
+      values.add(data[6]);
+      values.add(data[7]);
+    }
+
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    final int rounds = 50;
+
+    double sum = 0;
+    for (int warmUp = 0; warmUp < rounds; warmUp++) {
+      for (String value : values) {
+        sum += CSVParserUtils.parseDouble(value) + FixedPrecision.COORDINATE.decodeDouble(value);
+      }
+    }
+
+    long bytes = threadBean.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (String value : values) {
+        sum += CSVParserUtils.parseDouble(value);
+      }
+    }
+    final long jdkNanos = System.nanoTime() - start;
+    final long jdkBytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+
+    bytes = threadBean.getThreadAllocatedBytes(threadId);
+    start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (String value : values) {
+        sum += FixedPrecision.COORDINATE.decodeDouble(value);
+      }
+    }
+    final long fixedNanos = System.nanoTime() - start;
+    final long fixedBytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+
+    final long n = (long) rounds * values.size();
+    System.out.printf(
+        "parseDouble %.1f ns %d B, fixed precision %.1f ns %d B per value (%.0f)%n",
+        (double) jdkNanos / n, jdkBytes / n, (double) fixedNanos / n, fixedBytes / n, sum);
+    Assert.assertEquals(0, fixedBytes / n);
+  }
+}
@@ -1,9 +1,23 @@
 package kraptis91.maritime.parser.enums;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kraptis91.maritime.parser.dto.json.MMSICounterDto;
+import kraptis91.maritime.parser.utils.IntIntHashMap;
+import kraptis91.maritime.parser.utils.MMSICounterSnapshot;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
 /**
  * @author Konstantinos Raptis [kraptis at unipi.gr] on 26/12/2020.
  */
@@ -14,6 +28,48 @@ public class MMSICounterTest {
         Assert.assertEquals(40436, MMSICounter.INSTANCE.getMMSICounterForVessel(228190600));
     }
 
+    @Test
+    public void testUnknownMMSI() {
+        Assert.assertFalse(MMSICounter.INSTANCE.containsMMSI(1));
+        Assert.assertEquals(MMSICounter.UNKNOWN_MMSI_COUNTER,
+            MMSICounter.INSTANCE.getMMSICounterForVessel(1));
+        Assert.assertEquals(-7, MMSICounter.INSTANCE.getMMSICounterForVessel(1, -7));
+    }
+
+    @Test
+    public void testSnapshotMatchesJSON() throws Exception {
+
+        final Path json = Paths.get(ClassLoader.getSystemResource("json/mmsi-counter-map.json").toURI());
+        final Path snapshot = Files.createTempDirectory("snapshot").resolve("json/mmsi-counter-map.bin");
+
+        long start = System.nanoTime();
+        final List<MMSICounterDto> dtoList =
+            new ObjectMapper().readValue(json.toFile(), new TypeReference<List<MMSICounterDto>>() {});
+        final long jsonNanos = System.nanoTime() - start;
+
+        MMSICounterSnapshot.main(new String[]{json.toString(), snapshot.toString()});
+        start = System.nanoTime();
+        final IntIntHashMap counters;
+        try (InputStream is = Files.newInputStream(snapshot)) {
+            counters = MMSICounterSnapshot.read(is);
+        }
+        final long snapshotNanos = System.nanoTime() - start;
+
+        System.out.printf("Loaded %d counters: json %.1f ms (%d bytes), snapshot %.1f ms (%d bytes)%n",
+            counters.size(), jsonNanos / 1e6, Files.size(json), snapshotNanos / 1e6, Files.size(snapshot));
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Assert.assertEquals(dtoList.size(), counters.size());
+            for (MMSICounterDto dto : dtoList) {
+                Assert.assertEquals(dto.getCounter(), counters.get(dto.getMmsi(), -1));
+                Assert.assertEquals(dto.getCounter(), MMSICounter.INSTANCE.getMMSICounterForVessel(dto.getMmsi()));
+                Assert.assertEquals(dto.getCounter(), MMSICounterSnapshot.lookup(mapped, dto.getMmsi(), -1));
+            }
+            Assert.assertEquals(-1, MMSICounterSnapshot.lookup(mapped, 1, -1));
+        }
+    }
+
     @Ignore
     @Test
     public void testFindMaxMMSICounter() {
@@ -3,6 +3,8 @@ package kraptis91.maritime.parser.enums;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+
 /** @author Konstantinos Raptis [kraptis at unipi.gr] on 13/12/2020. */
 public class MMSICountryCodeTest {
 
@@ -10,4 +12,57 @@ public class MMSICountryCodeTest {
   public void testGetCountryByMMSI() throws Exception {
     Assert.assertEquals("Malta", MMSICountryCode.INSTANCE.getCountryByMMSI(215));
   }
+
+  @Test
+  public void testFirstLineIsACountry() {
+    // the csv has no header, its first line is mid 201
+    Assert.assertEquals("Albania (Republic of)", MMSICountryCode.INSTANCE.getCountryByMMSI(201));
+  }
+
+  @Test
+  public void testMIDOfAnyLength() {
+    Assert.assertEquals("Malta", MMSICountryCode.INSTANCE.getCountryByMMSI(215000000));
+    Assert.assertEquals("Malta", MMSICountryCode.INSTANCE.getCountryByMMSI(21500000));
+    Assert.assertEquals("Malta", MMSICountryCode.INSTANCE.getCountryByMMSI(2150));
+    Assert.assertSame(
+        MMSICountryCode.INSTANCE.getCountryByMMSI(215000001),
+        MMSICountryCode.INSTANCE.getCountryByMMSI(215999999));
+    Assert.assertNull(MMSICountryCode.INSTANCE.getCountryByMMSI(100000000));
+    Assert.assertNull(MMSICountryCode.INSTANCE.getCountryByMMSI(-215000000));
+    Assert.assertThrows(
+        IllegalArgumentException.class, () -> MMSICountryCode.INSTANCE.getCountryByMMSI(21));
+  }
+
+  @Test
+  public void testLookupDoesNotAllocate() {
+
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    final int calls = 10_000_000;
+
+    int found = 0;
+    for (int mmsi = 200_000_000; mmsi < 200_000_000 + calls; mmsi += 61) {
+      found += MMSICountryCode.INSTANCE.getCountryByMMSI(mmsi) == null ? 0 : 1;
+    }
+    // the ship types are loaded on first use, not in the measured loop
+    for (int i = 0; i < 256; i++) {
+      found += ShipTypes.INSTANCE.getShipType(i) == null ? 0 : 1;
+    }
+
+    final long bytes = threadBean.getThreadAllocatedBytes(threadId);
+    final long start = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      found += MMSICountryCode.INSTANCE.getCountryByMMSI(200_000_000 + i * 61) == null ? 0 : 1;
+      found += ShipTypes.INSTANCE.getShipType(i & 0xFF) == null ? 0 : 1;
+    }
+    final long nanos = System.nanoTime() - start;
+    final long allocated = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+
+    System.out.printf(
+        "Country and ship type lookup %.1f ns, %d bytes allocated in total (%d)%n",
+        (double) nanos / calls, allocated, found);
+    // a few bytes of the mx bean itself at most
+    Assert.assertTrue(allocated < 1024);
+  }
 }
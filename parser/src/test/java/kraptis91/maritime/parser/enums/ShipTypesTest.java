@@ -10,4 +10,15 @@ public class ShipTypesTest {
   public void testGetShipType() throws Exception {
     Assert.assertEquals("Reserved", ShipTypes.INSTANCE.getShipType(10));
   }
+
+  @Test
+  public void testShipTypeTable() {
+    Assert.assertEquals("Wing In Grnd", ShipTypes.INSTANCE.getShipType(28));
+    Assert.assertEquals("Tanker", ShipTypes.INSTANCE.getShipType(89));
+    Assert.assertSame(ShipTypes.INSTANCE.getShipType(31), ShipTypes.INSTANCE.getShipType(52));
+    Assert.assertNull(ShipTypes.INSTANCE.getShipType(0));
+    Assert.assertNull(ShipTypes.INSTANCE.getShipType(100));
+    Assert.assertNull(ShipTypes.INSTANCE.getShipType(256));
+    Assert.assertNull(ShipTypes.INSTANCE.getShipType(-1));
+  }
 }
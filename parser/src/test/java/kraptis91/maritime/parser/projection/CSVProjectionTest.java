@@ -0,0 +1,175 @@
+package kraptis91.maritime.parser.projection;
+
+import kraptis91.maritime.parser.CSVParser;
+import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
+import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.utils.CSVLineTokenizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class CSVProjectionTest {
+
+  private static final String DYNAMIC_HEADER =
+      "sourcemmsi,navigationalstatus,rateofturn,speedoverground,courseoverground,trueheading,lon,lat,t";
+
+  @Test
+  public void testCompileFromHeader() throws Exception {
+    final CSVProjection<NariDynamicField> projection =
+        CSVProjection.compile(NariDynamicField.class, DYNAMIC_HEADER);
+
+    Assert.assertEquals(9, projection.getColumnCount());
+    Assert.assertEquals(0, projection.column(NariDynamicField.MMSI));
+    Assert.assertEquals(3, projection.column(NariDynamicField.SPEED));
+    Assert.assertEquals(8, projection.column(NariDynamicField.T));
+    Assert.assertFalse(projection.isTruncated());
+    Assert.assertEquals(Integer.MAX_VALUE, projection.getTokenizeLimit());
+
+    // not truncated, every column is counted
+    Assert.assertThrows(
+        CSVParserException.class,
+        () ->
+            new CSVParser()
+                .extractNariDynamicDto(
+                    "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402,EXTRA", projection));
+  }
+
+  @Test
+  public void testCompileReorderedHeader() throws Exception {
+    CSVProjection<NariDynamicField> projection =
+        CSVProjection.compile(
+            NariDynamicField.class, "\"T\", LAT ,lon,speedoverground,sourcemmsi,extra1,extra2");
+
+    Assert.assertEquals(4, projection.column(NariDynamicField.MMSI));
+    Assert.assertEquals(0, projection.column(NariDynamicField.T));
+    Assert.assertEquals(5, projection.getColumnLimit());
+    Assert.assertEquals(5, projection.getTokenizeLimit());
+    Assert.assertTrue(projection.isTruncated());
+
+    NariDynamicDto dto =
+        new CSVParser()
+            .extractNariDynamicDto("1443650402,48.38249,-4.4657183,0.1,245257000,x,y", projection);
+    Assert.assertEquals(245257000, dto.getMMSI());
+    Assert.assertEquals(-4.4657183, dto.getLon(), 0);
+    Assert.assertEquals(48.38249, dto.getLat(), 0);
+    Assert.assertEquals(1443650402L, dto.getT());
+  }
+
+  @Test(expected = CSVParserException.class)
+  public void testCompileMissingField() throws Exception {
+    CSVProjection.compile(NariDynamicField.class, "sourcemmsi,lon,lat,t");
+  }
+
+  @Test
+  public void testCompileOrDefaultWithoutHeader() {
+    CSVProjection<NariDynamicField> projection =
+        CSVProjection.compileOrDefault(
+            NariDynamicField.class,
+            "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402",
+            NariDynamicField.COLUMNS);
+
+    Assert.assertEquals(6, projection.column(NariDynamicField.LON));
+    Assert.assertEquals(NariDynamicField.COLUMNS, projection.getColumnCount());
+  }
+
+  @Test
+  public void testProjectionThroughput() throws Exception {
+    final CSVParser parser = new CSVParser();
+
+    final List<String> dynamicLines = readLines("/sample/maritime/nari_dynamic_sample.csv");
+    final CSVProjection<NariDynamicField> dynamicProjection =
+        CSVProjection.compile(NariDynamicField.class, dynamicLines.get(0));
+    reportThroughput(
+        "nari_dynamic", dynamicLines, line -> parser.extractNariDynamicDto(line, dynamicProjection).getT());
+
+    final List<String> staticLines = readLines("/sample/maritime/nari_static_sample.csv");
+    final CSVProjection<NariStaticField> staticProjection =
+        CSVProjection.compile(NariStaticField.class, staticLines.get(0));
+    reportThroughput(
+        "nari_static", staticLines, line -> parser.extractNariStaticDto(line, staticProjection).getT());
+  }
+
+  @FunctionalInterface
+  private interface LineParser {
+    long parse(String line) throws CSVParserException;
+  }
+
+  private List<String> readLines(String resource) throws Exception {
+    return Files.readAllLines(
+        Paths.get(CSVProjectionTest.class.getResource(resource).toURI()), StandardCharsets.UTF_8);
+  }
+
+  private void reportThroughput(String name, List<String> lines, LineParser projected)
+      throws Exception {
+
+    final List<String> records = lines.subList(1, lines.size());
+    final long bytes =
+        records.stream().mapToLong(line -> line.getBytes(StandardCharsets.UTF_8).length + 1).sum();
+    final int rounds = 20;
+
+    // warm up both paths before measuring
+    long sink = parseAllColumns(records) + parseProjected(records, projected);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      sink += parseAllColumns(records);
+    }
+    final double allColumnsSeconds = (System.nanoTime() - start) / 1e9;
+
+    start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      sink += parseProjected(records, projected);
+    }
+    final double projectedSeconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf(
+        "%s: all columns %.1f MB/s, projection %.1f MB/s (%d)%n",
+        name, bytes * rounds / allColumnsSeconds / 1e6, bytes * rounds / projectedSeconds / 1e6, sink);
+  }
+
+  /**
+   * The parse without projection: the same tokenizer, every column tokenized and decoded once as
+   * the type it holds in the first record.
+   */
+  private long parseAllColumns(List<String> records) {
+    final CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    final boolean[] numeric = new boolean[tokenizer.tokenize(records.get(0))];
+    for (int i = 0; i < numeric.length; i++) {
+      numeric[i] = tokenizer.tryParseDouble(i).isOk();
+    }
+
+    long sink = 0;
+    for (String line : records) {
+      if (tokenizer.tokenize(line) != numeric.length) {
+        sink--; // discarded, like a wrong column count
+        continue;
+      }
+      for (int i = 0; i < numeric.length; i++) {
+        if (numeric[i]) {
+          sink += tokenizer.tryParseDouble(i).isOk() ? (long) tokenizer.getDoubleValue() : 0;
+        } else {
+          final String text = tokenizer.parseTextOrReturnNull(i);
+          sink += text == null ? 0 : text.length();
+        }
+      }
+    }
+    return sink;
+  }
+
+  private long parseProjected(List<String> records, LineParser projected) throws Exception {
+    long sink = 0;
+    for (String line : records) {
+      try {
+        sink += projected.parse(line);
+      } catch (CSVParserException e) {
+        sink--; // corrupted lines are discarded by the ingest too
+      }
+    }
+    return sink;
+  }
+}
@@ -0,0 +1,160 @@
+package kraptis91.maritime.parser.source;
+
+import kraptis91.maritime.parser.CSVParser;
+import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
+import kraptis91.maritime.parser.exception.CSVParserException;
+import kraptis91.maritime.parser.exception.UncheckedCSVParserException;
+import kraptis91.maritime.parser.utils.BatchCollectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class CSVSourceTest {
+
+  private final Path samplePath =
+      Paths.get(ClassLoader.getSystemResource("sample/maritime/nari_dynamic_sample.csv").toURI());
+
+  public CSVSourceTest() throws Exception {}
+
+  private List<String> readLineParse() throws Exception {
+    final CSVParser parser = new CSVParser();
+    final List<String> expected = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(samplePath)) {
+      reader.readLine(); // omit header
+      String line;
+      while ((line = reader.readLine()) != null) {
+        expected.add(parser.extractNariDynamicDto(line).toString());
+      }
+    }
+    return expected;
+  }
+
+  @Test
+  public void testParallelFileStreamParsesLikeReadLine() throws Exception {
+
+    final List<String> expected = readLineParse();
+
+    // small segments to get several splits out of the sample
+    try (CSVSource<NariDynamicDto> source =
+        CSVSource.builder(parser -> parser::extractNariDynamicDto)
+            .withSegmentSize(16 * 1024)
+            .of(samplePath)) {
+
+      Assert.assertTrue(source.getHeader().startsWith("sourcemmsi"));
+      final List<String> actual =
+          source.parallelStream().map(NariDynamicDto::toString).collect(Collectors.toList());
+      Assert.assertEquals(expected, actual);
+      Assert.assertEquals(0, source.getSkippedLines());
+    }
+  }
+
+  @Test
+  public void testParallelStreamOfInputStreamParsesLikeReadLine() throws Exception {
+
+    final List<String> expected = readLineParse();
+
+    try (CSVSource<NariDynamicDto> source =
+        CSVSource.builder(parser -> parser::extractNariDynamicDto)
+            .of(Files.newInputStream(samplePath))) {
+
+      final List<String> actual =
+          source.parallelStream().map(NariDynamicDto::toString).collect(Collectors.toList());
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testBufferSplitsAreLineAligned() throws Exception {
+
+    final byte[] bytes = Files.readAllBytes(samplePath);
+    final Spliterator<String> suffix =
+        new ByteBufferLineSpliterator(ByteBuffer.wrap(bytes), 0, bytes.length);
+    final Spliterator<String> prefix = suffix.trySplit();
+    Assert.assertNotNull(prefix);
+
+    final List<String> lines = new ArrayList<>();
+    prefix.forEachRemaining(lines::add);
+    suffix.forEachRemaining(lines::add);
+
+    final List<String> expected =
+        new String(bytes, StandardCharsets.UTF_8)
+            .lines()
+            .filter(line -> !line.isEmpty())
+            .collect(Collectors.toList());
+    Assert.assertEquals(expected, lines);
+  }
+
+  @Test
+  public void testErrorPolicy() throws Exception {
+
+    final byte[] csv = "a,b\n1,2\nx,3\n4,5\r\n\n".getBytes(StandardCharsets.UTF_8);
+    final CSVMapperFactory<Integer> mapperFactory =
+        (parser, header) ->
+            line -> {
+              try {
+                return Integer.parseInt(line.substring(0, line.indexOf(',')));
+              } catch (NumberFormatException e) {
+                throw new CSVParserException(e.getMessage());
+              }
+            };
+
+    try (CSVSource<Integer> source =
+        CSVSource.builderWithHeader(mapperFactory).of(ByteBuffer.wrap(csv))) {
+      Assert.assertEquals("a,b", source.getHeader());
+      Assert.assertEquals(List.of(1, 4), source.stream().collect(Collectors.toList()));
+      Assert.assertEquals(1, source.getSkippedLines());
+    }
+
+    try (CSVSource<Integer> source =
+        CSVSource.builderWithHeader(mapperFactory)
+            .withErrorPolicy(CSVSource.ErrorPolicy.FAIL)
+            .of(new ByteArrayInputStream(csv))) {
+      source.stream().collect(Collectors.toList());
+      Assert.fail("Expected the corrupted line to fail the stream");
+    } catch (UncheckedCSVParserException e) {
+      Assert.assertNotNull(e.getCause());
+    }
+  }
+
+  @Test
+  public void testBatchingCollector() throws Exception {
+
+    final AtomicInteger batches = new AtomicInteger();
+    final AtomicInteger elements = new AtomicInteger();
+
+    try (CSVSource<NariDynamicDto> source =
+        CSVSource.builder(parser -> parser::extractNariDynamicDto)
+            .withSegmentSize(16 * 1024)
+            .of(samplePath)) {
+
+      final long count =
+          source
+              .parallelStream()
+              .collect(
+                  BatchCollectors.batching(
+                      100,
+                      batch -> {
+                        Assert.assertTrue(batch.size() <= 100);
+                        batches.incrementAndGet();
+                        elements.addAndGet(batch.size());
+                      }));
+
+      Assert.assertEquals(readLineParse().size(), count);
+      Assert.assertEquals(count, elements.get());
+      Assert.assertTrue(batches.get() >= count / 100);
+    }
+  }
+}
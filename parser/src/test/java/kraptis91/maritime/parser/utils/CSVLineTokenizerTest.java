@@ -0,0 +1,139 @@
+package kraptis91.maritime.parser.utils;
+
+import kraptis91.maritime.parser.enums.ParseStatus;
+import kraptis91.maritime.parser.exception.CSVParserException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class CSVLineTokenizerTest {
+
+  // the regex used by CSVParserUtils.parseLine before the tokenizer
+  private static final String QUOTE_AWARE_COMMA = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+  @Test
+  public void testTokenizeQuotedColumns() throws Exception {
+    String line =
+        "564923000,9698290,9V2516 ,EPIC CALEDONIA ,89,72,22,11,5,28-10 01:30 ,4.5,"
+            + "\"WANDELAAR,FOR,ORDER \",,1445858617";
+
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    Assert.assertEquals(14, tokenizer.tokenize(line));
+    Assert.assertEquals("\"WANDELAAR,FOR,ORDER \"", tokenizer.getRaw(11));
+    Assert.assertEquals("WANDELAAR,FOR,ORDER", tokenizer.parseTextOrReturnNull(11));
+    Assert.assertNull(tokenizer.parseTextOrReturnNull(12));
+    Assert.assertEquals(1445858617L, tokenizer.parseLong(13));
+  }
+
+  @Test
+  public void testTrailingEmptyColumnsAreKept() {
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer(2);
+    Assert.assertEquals(4, tokenizer.tokenize("1,,2,"));
+    Assert.assertTrue(tokenizer.isBlank(3));
+    Assert.assertArrayEquals("1,,2,".split(QUOTE_AWARE_COMMA, -1), CSVParserUtils.parseLine("1,,2,"));
+  }
+
+  @Test
+  public void testParseNumbersInPlace() throws Exception {
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    tokenizer.tokenize(" 42 ,\"-4,4657183\",+7,1e3,0x10,\"\",abc");
+
+    Assert.assertEquals(42, tokenizer.parseInt(0));
+    Assert.assertEquals(-4.4657183, tokenizer.parseDouble(1), 0);
+    Assert.assertEquals(7, tokenizer.parseInt(2));
+    Assert.assertEquals(1000.0, tokenizer.parseDouble(3), 0);
+    Assert.assertEquals(-1, tokenizer.parseIntOrReturnDefault(4, -1));
+    Assert.assertEquals(-1, tokenizer.parseIntOrReturnDefault(5, -1));
+    Assert.assertEquals(0.5, tokenizer.parseDoubleOrReturnDefault(6, 0.5), 0);
+  }
+
+  @Test(expected = CSVParserException.class)
+  public void testParseIntOverflow() throws Exception {
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    tokenizer.tokenize("2147483648");
+    tokenizer.parseInt(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseBlankMandatoryValue() throws Exception {
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    tokenizer.tokenize("1,  ,3");
+    tokenizer.parseLong(1);
+  }
+
+  @Test
+  public void testTryParseWithoutExceptions() {
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+    tokenizer.tokenize("2147483648,1234567890123456789, ,abc,NaN,1.5e2,12-3");
+
+    Assert.assertEquals(ParseStatus.BAD_NUMBER, tokenizer.tryParseInt(0));
+    Assert.assertEquals(ParseStatus.OK, tokenizer.tryParseLong(0));
+    Assert.assertEquals(2147483648L, tokenizer.getLongValue());
+    Assert.assertEquals(ParseStatus.OK, tokenizer.tryParseLong(1));
+    Assert.assertEquals(1234567890123456789L, tokenizer.getLongValue());
+    Assert.assertEquals(ParseStatus.BLANK_MANDATORY, tokenizer.tryParseDouble(2));
+    Assert.assertEquals(ParseStatus.BAD_NUMBER, tokenizer.tryParseDouble(3));
+    Assert.assertEquals(ParseStatus.OK, tokenizer.tryParseDouble(4));
+    Assert.assertTrue(Double.isNaN(tokenizer.getDoubleValue()));
+    Assert.assertEquals(ParseStatus.OK, tokenizer.tryParseDouble(5));
+    Assert.assertEquals(150.0, tokenizer.getDoubleValue(), 0);
+    Assert.assertEquals(ParseStatus.BAD_NUMBER, tokenizer.tryParseInt(6));
+  }
+
+  @Test
+  public void testByteWindowMatchesString() throws Exception {
+    String line = "245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402";
+    CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+
+    byte[] bytes = ("header\n" + line + "\n").getBytes(StandardCharsets.UTF_8);
+    tokenizer.tokenize(ByteCharSequence.of(bytes), 7, 7 + line.length());
+
+    Assert.assertEquals(9, tokenizer.getColumnCount());
+    Assert.assertEquals(245257000, tokenizer.parseInt(0));
+    Assert.assertEquals(48.38249, tokenizer.parseDouble(7), 0);
+    Assert.assertEquals("-4.4657183", tokenizer.parseText(6));
+  }
+
+  @Test
+  public void testDoublesAreBitIdenticalOnSamples() throws Exception {
+    assertBitIdentical("/sample/maritime/nari_dynamic_sample.csv");
+    assertBitIdentical("/sample/maritime/nari_static_sample.csv");
+    assertBitIdentical("/sample/maritime/oc_january_sample.csv");
+  }
+
+  private void assertBitIdentical(String resource) throws Exception {
+
+    final CSVLineTokenizer tokenizer = new CSVLineTokenizer();
+
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(CSVLineTokenizerTest.class.getResourceAsStream(resource)))) {
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+
+        final String[] expected = line.split(QUOTE_AWARE_COMMA, -1);
+        Assert.assertEquals(line, expected.length, tokenizer.tokenize(line));
+
+        for (int i = 0; i < expected.length; i++) {
+          Assert.assertEquals(
+              line,
+              Double.doubleToRawLongBits(CSVParserUtils.parseDoubleOrReturnDefault(expected[i], -1)),
+              Double.doubleToRawLongBits(tokenizer.parseDoubleOrReturnDefault(i, -1)));
+          Assert.assertEquals(
+              line,
+              CSVParserUtils.parseIntOrReturnDefault(expected[i], -1),
+              tokenizer.parseIntOrReturnDefault(i, -1));
+          Assert.assertEquals(
+              line,
+              CSVParserUtils.parseTextOrReturnNull(expected[i]),
+              tokenizer.parseTextOrReturnNull(i));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package kraptis91.maritime.parser.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class FileFollowerTest {
+
+  private static void append(Path file, String text) throws Exception {
+    Files.write(
+        file,
+        text.getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+
+  private static List<String> poll(FileFollower follower) throws Exception {
+    final List<String> lines = new ArrayList<>();
+    follower.poll(
+        (file, buffer, fromStart) ->
+            FileSegmentUtils.forEachLine(
+                buffer,
+                fromStart,
+                (window, from, to) -> lines.add(window.subSequence(from, to).toString())));
+    return lines;
+  }
+
+  @Test
+  public void testOnlyCompleteAppendedLinesAreHandedOver() throws Exception {
+
+    final Path dir = Files.createTempDirectory("follow");
+    final Path file = dir.resolve("nari_dynamic.csv");
+    final Path checkpointPath = dir.resolve("checkpoint.properties");
+
+    append(file, "header\n1\n2\n3");
+    FileFollower follower =
+        FileFollower.createInstance(dir, OffsetCheckpoint.load(checkpointPath));
+    Assert.assertEquals(List.of("1", "2"), poll(follower));
+    Assert.assertEquals(List.of(), poll(follower));
+
+    // the partial line is completed
+    append(file, "\n4\n");
+    Assert.assertEquals(List.of("3", "4"), poll(follower));
+    follower.commit();
+
+    // not committed, handed over again after a restart
+    append(file, "5\n");
+    Assert.assertEquals(List.of("5"), poll(follower));
+
+    follower = FileFollower.createInstance(dir, OffsetCheckpoint.load(checkpointPath));
+    append(file, "6\n");
+    Assert.assertEquals(List.of("5", "6"), poll(follower));
+    follower.commit();
+
+    // a second file of the directory and a truncated first file
+    append(dir.resolve("other.csv"), "header\n7\n");
+    append(dir.resolve("ignored.txt"), "8\n");
+    Files.write(file, "header\n9\n".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals(List.of("9", "7"), poll(follower));
+  }
+
+  @Test
+  public void testLineLongerThanMaxReadSize() throws Exception {
+
+    final Path dir = Files.createTempDirectory("follow");
+    final Path file = dir.resolve("long.csv");
+    append(file, "0123456789");
+
+    final FileFollower follower =
+        new FileFollower(file, "*", OffsetCheckpoint.load(dir.resolve("checkpoint")), 8);
+    try {
+      poll(follower);
+      Assert.fail("Expected a line longer than the max read size to fail");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().startsWith("Error..."));
+    }
+  }
+
+  @Test
+  public void testCommitOnInterruptedThread() throws Exception {
+
+    final Path dir = Files.createTempDirectory("follow");
+    final Path file = dir.resolve("nari_dynamic.csv");
+    final Path checkpointPath = dir.resolve("checkpoint.properties");
+    append(file, "header\n1\n2\n");
+
+    final FileFollower follower =
+        FileFollower.createInstance(dir, OffsetCheckpoint.load(checkpointPath));
+    Assert.assertEquals(List.of("1", "2"), poll(follower));
+
+    // a follow is stopped by an interrupt, its last commit must still be saved
+    Thread.currentThread().interrupt();
+    try {
+      follower.commit();
+      Assert.assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+    }
+    Assert.assertEquals(Files.size(file), OffsetCheckpoint.load(checkpointPath).getOffset(file));
+  }
+}
@@ -0,0 +1,74 @@
+package kraptis91.maritime.parser.utils;
+
+import kraptis91.maritime.parser.CSVParser;
+import kraptis91.maritime.parser.dto.csv.NariDynamicDto;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class FileSegmentUtilsTest {
+
+  private final Path samplePath =
+      Paths.get(ClassLoader.getSystemResource("sample/maritime/nari_dynamic_sample.csv").toURI());
+
+  public FileSegmentUtilsTest() throws Exception {}
+
+  @Test
+  public void testSegmentsAreContiguousAndLineAligned() throws Exception {
+
+    try (FileChannel channel = FileChannel.open(samplePath, StandardOpenOption.READ)) {
+
+      List<FileSegment> segments = FileSegmentUtils.splitAtNewLines(channel, 4096);
+      Assert.assertTrue(segments.size() > 1);
+
+      byte[] bytes = Files.readAllBytes(samplePath);
+      long expectedStart = 0;
+      for (FileSegment segment : segments) {
+        Assert.assertEquals(expectedStart, segment.getStart());
+        if (segment.getEnd() < bytes.length) { // the last line may not be terminated
+          Assert.assertEquals('\n', bytes[(int) segment.getEnd() - 1]);
+        }
+        expectedStart = segment.getEnd();
+      }
+      Assert.assertEquals(channel.size(), expectedStart);
+    }
+  }
+
+  @Test
+  public void testMappedSegmentsParseLikeReadLine() throws Exception {
+
+    final CSVParser parser = new CSVParser();
+    final List<NariDynamicDto> expected = new ArrayList<>();
+
+    try (BufferedReader reader = Files.newBufferedReader(samplePath)) {
+      reader.readLine(); // omit header
+      String line;
+      while ((line = reader.readLine()) != null) {
+        expected.add(parser.extractNariDynamicDto(line));
+      }
+    }
+
+    final List<NariDynamicDto> actual = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(samplePath, StandardOpenOption.READ)) {
+      for (FileSegment segment : FileSegmentUtils.splitAtNewLines(channel, 1000)) {
+        actual.addAll(
+            parser.extractNariDynamicDtoList(
+                segment.map(channel), segment.isFirst(), CSVParser.NARI_DYNAMIC_PROJECTION));
+      }
+    }
+
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).toString(), actual.get(i).toString());
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package kraptis91.maritime.parser.utils;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class InputStreamUtilsTest {
+
+  private final byte[] csv;
+
+  public InputStreamUtilsTest() throws Exception {
+    try (InputStream is =
+        InputStreamUtilsTest.class.getResourceAsStream("/sample/maritime/nari_dynamic_sample.csv")) {
+      csv = is.readAllBytes();
+    }
+  }
+
+  @Test
+  public void testPlainStreamIsUnchanged() throws Exception {
+    Assert.assertArrayEquals(csv, decompress(csv));
+  }
+
+  @Test
+  public void testMultiMemberGzip() throws Exception {
+    Assert.assertArrayEquals(csv, decompress(concat(split(csv, 3), this::gzipMember)));
+  }
+
+  @Test
+  public void testBgzfBlocks() throws Exception {
+    final byte[] bgzf = concat(split(csv, 20), this::bgzfBlock);
+    Assert.assertTrue(DecompressionUtils.isBgzf(bgzf, bgzf.length));
+    // bgzip ends with an empty block
+    final byte[] withEof = Arrays.copyOf(bgzf, bgzf.length + bgzfBlock(new byte[0]).length);
+    System.arraycopy(bgzfBlock(new byte[0]), 0, withEof, bgzf.length, withEof.length - bgzf.length);
+    Assert.assertArrayEquals(csv, decompress(withEof));
+  }
+
+  @Test
+  public void testZstdFrames() throws Exception {
+    // frames with content size, decompressed in parallel
+    final byte[] frames = concat(split(csv, 10), part -> Zstd.compress(part, 3));
+    Assert.assertArrayEquals(csv, decompress(frames));
+
+    // a streamed frame has no content size, the rest of the stream is decompressed sequentially
+    final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    try (ZstdOutputStream zstd = new ZstdOutputStream(streamed)) {
+      zstd.write(csv);
+    }
+    final byte[] mixed = concat(new byte[][] {frames, streamed.toByteArray()}, bytes -> bytes);
+    final byte[] expected = concat(new byte[][] {csv, csv}, bytes -> bytes);
+    Assert.assertArrayEquals(expected, decompress(mixed));
+  }
+
+  @Test(expected = java.io.IOException.class)
+  public void testCorruptedBgzfBlock() throws Exception {
+    final byte[] bgzf = concat(split(csv, 4), this::bgzfBlock);
+    bgzf[bgzf.length - 20] ^= 0x55;
+    decompress(bgzf);
+  }
+
+  private byte[] decompress(byte[] bytes) throws Exception {
+    try (InputStream is =
+        InputStreamUtils.getDecompressedInputStream(new ByteArrayInputStream(bytes), 4)) {
+      return is.readAllBytes();
+    }
+  }
+
+  @FunctionalInterface
+  private interface Compressor {
+    byte[] compress(byte[] bytes) throws Exception;
+  }
+
+  private byte[] gzipMember(byte[] part) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(part);
+    }
+    return out.toByteArray();
+  }
+
+  /** A gzip member with the BGZF BC extra field, as written by bgzip. */
+  private byte[] bgzfBlock(byte[] part) {
+    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(part);
+    deflater.finish();
+    final byte[] deflated = new byte[part.length + 1024];
+    final int length = deflater.deflate(deflated);
+    deflater.end();
+
+    final CRC32 crc = new CRC32();
+    crc.update(part);
+
+    final int blockSize = 18 + length + 8;
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.writeBytes(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0});
+    out.writeBytes(new byte[] {'B', 'C', 2, 0, (byte) (blockSize - 1), (byte) ((blockSize - 1) >> 8)});
+    out.write(deflated, 0, length);
+    writeInt(out, (int) crc.getValue());
+    writeInt(out, part.length);
+    return out.toByteArray();
+  }
+
+  private static void writeInt(ByteArrayOutputStream out, int value) {
+    out.write(value);
+    out.write(value >> 8);
+    out.write(value >> 16);
+    out.write(value >> 24);
+  }
+
+  private static byte[][] split(byte[] bytes, int parts) {
+    final byte[][] split = new byte[parts][];
+    final int size = (bytes.length + parts - 1) / parts;
+    for (int i = 0; i < parts; i++) {
+      split[i] =
+          Arrays.copyOfRange(
+              bytes, Math.min(i * size, bytes.length), Math.min((i + 1) * size, bytes.length));
+    }
+    return split;
+  }
+
+  private static byte[] concat(byte[][] parts, Compressor compressor) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.writeBytes(compressor.compress(part));
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,71 @@
+package kraptis91.maritime.parser.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/** @author Konstantinos Raptis [kraptis at unipi.gr] on 17/10/2026. */
+public class IntIntHashMapTest {
+
+  @Test
+  public void testMatchesHashMap() {
+
+    final Random random = new Random(17);
+    final IntIntHashMap map = new IntIntHashMap(4);
+    final Map<Integer, Integer> expected = new HashMap<>();
+
+    for (int i = 0; i < 100_000; i++) {
+      // mmsi like keys, plus 0 and negative keys
+      final int key =
+          random.nextInt(10) == 0
+              ? -random.nextInt(100)
+              : 200_000_000 + random.nextInt(5000) * 1000;
+      final int delta = random.nextInt(3);
+      Assert.assertEquals(
+          expected.merge(key, delta, Integer::sum).intValue(), map.addTo(key, delta));
+    }
+
+    Assert.assertEquals(expected.size(), map.size());
+    expected.forEach((key, value) -> Assert.assertEquals((int) value, map.get(key, -1)));
+    Assert.assertEquals(-1, map.get(1, -1));
+    Assert.assertFalse(map.containsKey(1));
+    Assert.assertEquals(
+        expected.values().stream().max(Integer::compareTo).orElseThrow().intValue(),
+        map.maxValue(-1));
+  }
+
+  @Test
+  public void testPutGrows() {
+
+    final IntIntHashMap map = new IntIntHashMap(4);
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, -i);
+    }
+    Assert.assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(-i, map.get(i, 1));
+    }
+  }
+
+  @Test
+  public void testAddAllKeepsInsertionOrder() {
+
+    final IntIntHashMap first = new IntIntHashMap();
+    first.addTo(3, 1);
+    first.addTo(1, 1);
+    final IntIntHashMap second = new IntIntHashMap();
+    second.addTo(2, 5);
+    second.addTo(3, 2);
+
+    first.addAll(second);
+    Assert.assertEquals(3, first.size());
+    Assert.assertArrayEquals(
+        new int[] {3, 1, 2}, new int[] {first.keyAt(0), first.keyAt(1), first.keyAt(2)});
+    Assert.assertArrayEquals(
+        new int[] {3, 1, 5}, new int[] {first.valueAt(0), first.valueAt(1), first.valueAt(2)});
+    Assert.assertEquals(-1, new IntIntHashMap().maxValue(-1));
+  }
+}
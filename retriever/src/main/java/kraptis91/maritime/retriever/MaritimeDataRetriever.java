@@ -16,6 +16,13 @@ import java.util.Optional;
  */
 public interface MaritimeDataRetriever {
 
+    /**
+     * Connect to the database, e.g. at startup instead of on the first request.
+     *
+     * @throws RuntimeException If the database is not reachable
+     */
+    void connect();
+
     Optional<String> getVesselDestination(int mmsi);
 
     Optional<String> getVesselDestination(String vesselName);
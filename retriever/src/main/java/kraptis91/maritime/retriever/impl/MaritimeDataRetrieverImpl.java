@@ -5,6 +5,7 @@ import kraptis91.maritime.db.dao.PortDao;
 import kraptis91.maritime.db.dao.VesselDao;
 import kraptis91.maritime.db.dao.VesselTrajectoryChunkDao;
 import kraptis91.maritime.db.dao.mongodb.query.utils.NearQueryOptions;
+import kraptis91.maritime.db.enums.MongoDB;
 import kraptis91.maritime.model.PlainVessel;
 import kraptis91.maritime.model.Port;
 import kraptis91.maritime.model.Vessel;
@@ -29,6 +30,11 @@ public class MaritimeDataRetrieverImpl implements MaritimeDataRetriever {
 
     public static Logger LOGGER = Logger.getLogger(MaritimeDataRetrieverImpl.class.getName());
 
+    @Override
+    public void connect() {
+        MongoDB.MARITIME.ping();
+    }
+
     @Override
     public List<VesselTrajectoryChunk> getVesselTrajectory(int mmsi) {
         VesselTrajectoryChunkDao dao = DaoFactory.createMongoVesselTrajectoryChunkDao();
@@ -136,8 +142,8 @@ public class MaritimeDataRetrieverImpl implements MaritimeDataRetriever {
             nearPortsSet.addAll(
                 dao.findNearPorts(
                     NearQueryOptions.builder()
-                        .withLongitude(chunk.getAvgGeoPoint().getCoordinates().get(0))
-                        .withLatitude(chunk.getAvgGeoPoint().getCoordinates().get(1))
+                        .withLongitude(chunk.getAvgGeoPoint().lon())
+                        .withLatitude(chunk.getAvgGeoPoint().lat())
                         .withMaxDistance(maxDistance)
                         .withMinDistance(0)
                         .skip(skip)